@@ -0,0 +1,139 @@
+package com.kiboassessment.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.utils.ConfigReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compare a JMH JSON result against a baseline result and fail on framework regressions.
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.kiboassessment.benchmarks.BenchmarkComparison baseline.json current.json
+ */
+public class BenchmarkComparison {
+    private final double tolerancePercent;
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> regressions = new ArrayList<>();
+
+    /**
+     * Create a comparison
+     * @param tolerancePercent slowdown tolerated before a benchmark counts as regressed
+     */
+    public BenchmarkComparison(double tolerancePercent) {
+        this.tolerancePercent = tolerancePercent;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        BenchmarkComparison comparison = new BenchmarkComparison(
+                Double.parseDouble(ConfigReader.getProperty("benchmark.regression.tolerance", "10")));
+        comparison.compare(new File(args[0]), new File(args[1]));
+        comparison.getLines().forEach(System.out::println);
+        if (!comparison.getRegressions().isEmpty()) {
+            System.out.println(comparison.getRegressions().size() + " benchmark(s) regressed by more than "
+                    + comparison.tolerancePercent + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compare two JMH result files produced with -rf json
+     * @param baselineFile result of the baseline build
+     * @param currentFile result of the build under test
+     */
+    public void compare(File baselineFile, File currentFile) {
+        Map<String, JsonNode> baseline = read(baselineFile);
+        Map<String, JsonNode> current = read(currentFile);
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                lines.add(String.format("NEW        %-70s %12.3f %s", entry.getKey(),
+                        score(entry.getValue()), unit(entry.getValue())));
+                continue;
+            }
+            compare(entry.getKey(), before, entry.getValue());
+        }
+    }
+
+    /**
+     * Compare one benchmark. A change only counts once it exceeds both the tolerance and the
+     * combined 99.9% confidence intervals of the two runs.
+     * @param key benchmark name and parameters
+     * @param before baseline result
+     * @param after current result
+     */
+    private void compare(String key, JsonNode before, JsonNode after) {
+        double baseScore = score(before);
+        double score = score(after);
+        // Throughput improves upwards, every time-based mode downwards
+        boolean higherIsBetter = "thrpt".equals(after.get("mode").asText());
+        double slowdown = higherIsBetter ? baseScore - score : score - baseScore;
+        double slowdownPercent = baseScore == 0 ? 0 : 100 * slowdown / baseScore;
+        double noise = error(before) + error(after);
+
+        String verdict = "OK";
+        if (slowdownPercent > tolerancePercent && slowdown > noise) {
+            verdict = "REGRESSED";
+            regressions.add(key);
+        } else if (-slowdownPercent > tolerancePercent && -slowdown > noise) {
+            verdict = "IMPROVED";
+        }
+        lines.add(String.format("%-10s %-70s %12.3f -> %12.3f %s (%+.1f%%)", verdict, key, baseScore, score,
+                unit(after), higherIsBetter ? -slowdownPercent : slowdownPercent));
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Get the benchmarks that regressed beyond the tolerance
+     * @return benchmark keys
+     */
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    private static Map<String, JsonNode> read(File file) {
+        try {
+            Map<String, JsonNode> results = new LinkedHashMap<>();
+            for (JsonNode result : new ObjectMapper().readTree(file)) {
+                results.put(key(result), result);
+            }
+            return results;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read benchmark result " + file, e);
+        }
+    }
+
+    private static String key(JsonNode result) {
+        String name = result.get("benchmark").asText().replace("com.kiboassessment.benchmarks.", "");
+        List<String> params = new ArrayList<>();
+        if (result.has("params")) {
+            result.get("params").fields().forEachRemaining(param -> params.add(param.getKey() + "=" + param.getValue().asText()));
+        }
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double score(JsonNode result) {
+        return result.get("primaryMetric").get("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        // NaN when a benchmark ran a single iteration
+        double error = result.get("primaryMetric").get("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String unit(JsonNode result) {
+        return result.get("primaryMetric").get("scoreUnit").asText();
+    }
+}
@@ -0,0 +1,99 @@
+package com.kiboassessment.benchmarks;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import org.openqa.selenium.OutputType;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fake driver over stand-in storefront pages whose screenshots are the size of a real browser capture,
+ * so benchmarks measure framework overhead rather than browser latency
+ */
+public class BenchmarkDriver extends FakeWebDriver {
+    public static final String BASE_URL = "http://fake.test";
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private final StandInCustomer customer = new StandInCustomer("bench@example.com", "secret");
+    private final byte[] screenshot;
+
+    /**
+     * Create a driver with a populated cart and a 1366x768 screenshot
+     */
+    public BenchmarkDriver() {
+        List<StandInCatalog.Product> products = catalog.getProducts();
+        for (int i = 0; i < 3; i++) {
+            customer.addToCart(i + 1, products.get(i), i + 1);
+        }
+        page(BASE_URL + "/onepagecheckout", pages.layout("Checkout", customer, pages.onePageCheckout(customer)));
+        load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+        screenshot = renderScreenshot(1366, 768);
+    }
+
+    /**
+     * Open the one-page checkout
+     * @return this driver
+     */
+    public BenchmarkDriver openCheckout() {
+        get(BASE_URL + "/onepagecheckout");
+        return this;
+    }
+
+    /**
+     * Get size of the screenshot returned by getScreenshotAs
+     * @return PNG size in bytes
+     */
+    public int getScreenshotSize() {
+        return screenshot.length;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(screenshot);
+    }
+
+    /**
+     * Render a page-like image: flat background, lines of text and a noisy product image,
+     * which compresses to roughly the size of a real storefront capture
+     * @param width image width
+     * @param height image height
+     * @return PNG bytes
+     */
+    private static byte[] renderScreenshot(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        graphics.setColor(Color.DARK_GRAY);
+        // Glyph-sized blocks stand in for text, so rendering needs no fonts in headless environments
+        for (int y = 110; y < height; y += 18) {
+            for (int x = 420; x < width - 60; x += 4 + random.nextInt(9)) {
+                graphics.fillRect(x, y, 1 + random.nextInt(7), 9 + random.nextInt(3));
+            }
+        }
+        graphics.dispose();
+
+        for (int y = 100; y < 400; y++) {
+            for (int x = 40; x < 380; x++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to render benchmark screenshot", e);
+        }
+    }
+}
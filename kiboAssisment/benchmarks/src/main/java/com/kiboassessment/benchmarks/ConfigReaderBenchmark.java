@@ -0,0 +1,59 @@
+package com.kiboassessment.benchmarks;
+
+import com.kiboassessment.utils.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of configuration lookups, which page objects and utilities perform on every wait
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class ConfigReaderBenchmark {
+    private static final String OVERRIDDEN_KEY = "benchmark.override";
+
+    @Setup
+    public void setUp() {
+        System.setProperty(OVERRIDDEN_KEY, "true");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(OVERRIDDEN_KEY);
+    }
+
+    @Benchmark
+    public String fileProperty() {
+        return ConfigReader.getProperty("base.url");
+    }
+
+    @Benchmark
+    public String missingPropertyWithDefault() {
+        return ConfigReader.getProperty("benchmark.missing", "default");
+    }
+
+    @Benchmark
+    public String systemPropertyOverride() {
+        return ConfigReader.getProperty(OVERRIDDEN_KEY, "false");
+    }
+
+    @Benchmark
+    public int explicitWait() {
+        return ConfigReader.getExplicitWait();
+    }
+}
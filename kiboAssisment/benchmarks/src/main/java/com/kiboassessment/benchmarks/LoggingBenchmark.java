@@ -0,0 +1,48 @@
+package com.kiboassessment.benchmarks;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the framework's logging pattern (string concatenation into a synchronous file appender),
+ * single-threaded and with parallel sessions contending for the appender
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    private static final Logger logger = LogManager.getLogger(LoggingBenchmark.class);
+
+    private final String element = "[[ChromeDriver: chrome on LINUX (4f2a)] -> css selector: .cart-item-row]";
+
+    @Benchmark
+    public void infoMessage() {
+        logger.info("PASS: Element is visible: " + element);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoMessageParallelSessions() {
+        logger.info("PASS: Element is visible: " + element);
+    }
+
+    @Benchmark
+    public void debugMessageFiltered() {
+        logger.debug("Element located: " + element);
+    }
+}
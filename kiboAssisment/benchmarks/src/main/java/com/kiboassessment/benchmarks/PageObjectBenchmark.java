@@ -0,0 +1,62 @@
+package com.kiboassessment.benchmarks;
+
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of constructing page objects through PageFactory, with and without the locator profiler,
+ * and of resolving their proxied elements
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+    @Param({"false", "true"})
+    public String profileLocators;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("locator.profile.enabled", profileLocators);
+        WebDriverManagerUtil.setDriver(new BenchmarkDriver());
+    }
+
+    @TearDown
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+        System.clearProperty("locator.profile.enabled");
+    }
+
+    @Benchmark
+    public CartPage constructCartPage() {
+        return new CartPage();
+    }
+
+    @Benchmark
+    public CheckoutPage constructCheckoutPage() {
+        return new CheckoutPage();
+    }
+
+    @Benchmark
+    public List<String> cartItemNames() {
+        return new CartPage().getCartItemNames();
+    }
+}
@@ -0,0 +1,106 @@
+package com.kiboassessment.benchmarks;
+
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.utils.TestUtils;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IClass;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the report events TestListener creates per test and per step, and of encoding
+ * and attaching a full-size screenshot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dlog4j2.configurationFile=log4j2-benchmark.xml",
+        "-Dextent.report.path=benchmarks/target/extent-benchmark.html"})
+@State(Scope.Thread)
+public class ReportingBenchmark {
+    private final TestListener listener = new TestListener();
+    private final ITestResult result = testResult("benchmarkTest");
+    private String screenshot;
+
+    @Setup
+    public void setUp() {
+        WebDriverManagerUtil.setDriver(new BenchmarkDriver());
+        screenshot = TestUtils.takeScreenshotAsBase64("benchmark");
+    }
+
+    /**
+     * Start every iteration with a fresh report, so tests accumulated by earlier iterations
+     * do not inflate heap and GC time
+     */
+    @Setup(Level.Iteration)
+    public void newReport() {
+        TestListener.resetExtentReports();
+        listener.onTestStart(result);
+    }
+
+    @TearDown
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Benchmark
+    public void testStarted() {
+        listener.onTestStart(result);
+    }
+
+    @Benchmark
+    public void logStep() {
+        TestListener.logStep("Add product to cart");
+    }
+
+    @Benchmark
+    public String encodeScreenshot() {
+        return TestUtils.takeScreenshotAsBase64("benchmark");
+    }
+
+    @Benchmark
+    public void attachScreenshot() {
+        TestListener.attachScreenshotToReport("Test Pass Screenshot", screenshot);
+    }
+
+    /**
+     * Create the minimal ITestResult TestListener reads on test start
+     * @param name test method name
+     * @return test result proxy
+     */
+    private static ITestResult testResult(String name) {
+        IClass testClass = (IClass) Proxy.newProxyInstance(IClass.class.getClassLoader(), new Class<?>[]{IClass.class},
+                (proxy, method, args) -> "getRealClass".equals(method.getName()) ? ReportingBenchmark.class : null);
+        ITestContext context = (ITestContext) Proxy.newProxyInstance(ITestContext.class.getClassLoader(), new Class<?>[]{ITestContext.class},
+                (proxy, method, args) -> "getName".equals(method.getName()) ? "Benchmark" : null);
+        return (ITestResult) Proxy.newProxyInstance(ITestResult.class.getClassLoader(), new Class<?>[]{ITestResult.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "getTestClass":
+                            return testClass;
+                        case "getTestContext":
+                            return context;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,78 @@
+package com.kiboassessment.benchmarks;
+
+import com.kiboassessment.utils.TestUtils;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead TestUtils helpers add around a driver call. The driver is the in-memory fake,
+ * so the raw* benchmarks give the baseline the helpers are compared against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Thread)
+public class TestUtilsBenchmark {
+    private static final By CART_TOTAL = By.cssSelector(".cart-total .order-total");
+
+    private BenchmarkDriver driver;
+    private WebElement cartTotal;
+
+    @Setup
+    public void setUp() {
+        driver = new BenchmarkDriver();
+        WebDriverManagerUtil.setDriver(driver);
+        cartTotal = driver.findElement(CART_TOTAL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Benchmark
+    public boolean rawIsDisplayed() {
+        return cartTotal.isDisplayed();
+    }
+
+    @Benchmark
+    public String rawGetText() {
+        return cartTotal.getText();
+    }
+
+    @Benchmark
+    public boolean isElementDisplayed() {
+        return TestUtils.isElementDisplayed(cartTotal);
+    }
+
+    @Benchmark
+    public void waitForElementVisible() {
+        TestUtils.waitForElementVisible(cartTotal, 10);
+    }
+
+    @Benchmark
+    public void waitForElementPresent() {
+        TestUtils.waitForElementPresent(CART_TOTAL, 10);
+    }
+
+    @Benchmark
+    public String getElementText() {
+        return TestUtils.getElementText(cartTotal);
+    }
+}
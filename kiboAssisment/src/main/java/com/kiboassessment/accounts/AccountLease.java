@@ -0,0 +1,49 @@
+package com.kiboassessment.accounts;
+
+/**
+ * Exclusive use of a pooled account by one worker thread until the lease is closed
+ */
+public class AccountLease implements AutoCloseable {
+    private final AccountPool pool;
+    private final TestAccount account;
+    private final long waitMs;
+    private final long leasedAt;
+    private boolean closed;
+
+    AccountLease(AccountPool pool, TestAccount account, long waitMs) {
+        this.pool = pool;
+        this.account = account;
+        this.waitMs = waitMs;
+        this.leasedAt = System.currentTimeMillis();
+    }
+
+    public TestAccount getAccount() {
+        return account;
+    }
+
+    /**
+     * Get how long the worker waited for a free account
+     * @return wait in milliseconds
+     */
+    public long getWaitMs() {
+        return waitMs;
+    }
+
+    long getLeasedAt() {
+        return leasedAt;
+    }
+
+    /**
+     * Return the account to the pool, emptying its cart first. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        pool.release(this);
+    }
+}
@@ -0,0 +1,286 @@
+package com.kiboassessment.accounts;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.LatencyStats;
+import com.kiboassessment.utils.StorefrontClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Test accounts leased exclusively to worker threads, so that parallel workers never share a
+ * server-side cart or order history. Accounts are logged in, or registered when they do not exist yet,
+ * over HTTP before the first lease; a returned account's cart is emptied before it is leased again.
+ */
+public class AccountPool {
+    private static final Logger logger = LogManager.getLogger(AccountPool.class);
+    private static AccountPool shared;
+
+    private final Supplier<StorefrontClient> clients;
+    private final List<TestAccount> accounts;
+    private final long leaseTimeoutMs;
+    private final BlockingQueue<TestAccount> available;
+    private final Map<Thread, AccountLease> holders = new ConcurrentHashMap<>();
+    private final LatencyStats leaseWaits = new LatencyStats();
+    private final long createdAt = System.currentTimeMillis();
+    private int registered;
+    private int leases;
+    private int timeouts;
+    private int inUse;
+    private int peakInUse;
+    private long busyMs;
+
+    /**
+     * Create a pool of accounts that already exist
+     * @param clients creates a storefront client for each cart reset
+     * @param accounts accounts to lease
+     * @param leaseTimeoutMs longest wait for a free account
+     */
+    public AccountPool(Supplier<StorefrontClient> clients, List<TestAccount> accounts, long leaseTimeoutMs) {
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("Account pool needs at least one account");
+        }
+        this.clients = clients;
+        this.accounts = List.copyOf(accounts);
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.available = new LinkedBlockingQueue<>(accounts);
+    }
+
+    /**
+     * Log in to every account, registering those that do not exist, and empty their carts, several at a time
+     * @param clients creates a storefront client per account
+     * @param accounts accounts to prepare
+     * @param leaseTimeoutMs longest wait for a free account
+     * @return ready pool
+     */
+    public static AccountPool provision(Supplier<StorefrontClient> clients, List<TestAccount> accounts, long leaseTimeoutMs) {
+        AccountPool pool = new AccountPool(clients, accounts, leaseTimeoutMs);
+        long start = System.currentTimeMillis();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(accounts.size(), 8), runnable -> {
+            Thread thread = new Thread(runnable, "account-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (TestAccount account : accounts) {
+                tasks.add(() -> prepare(clients.get(), account));
+            }
+            for (Future<Boolean> prepared : workers.invokeAll(tasks)) {
+                if (prepared.get()) {
+                    pool.registered++;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to provision account pool", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Account pool provisioning interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        logger.info("Account pool ready: " + accounts.size() + " accounts, " + pool.registered + " registered in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return pool;
+    }
+
+    /**
+     * Get the pool of the configured storefront, provisioning the accounts.pool.* accounts on first use
+     * @return shared account pool
+     */
+    public static synchronized AccountPool forStorefront() {
+        if (shared == null) {
+            int size = Integer.parseInt(ConfigReader.getProperty("accounts.pool.size", "5"));
+            String pattern = ConfigReader.getProperty("accounts.pool.email.pattern", "qa.pool.{n}@mailinator.com");
+            String password = ConfigReader.getProperty("accounts.pool.password", "");
+            List<TestAccount> accounts = new ArrayList<>();
+            for (int n = 1; n <= size; n++) {
+                accounts.add(new TestAccount(pattern.replace("{n}", String.valueOf(n)),
+                        password.isEmpty() ? ConfigReader.getPassword() : password));
+            }
+            shared = provision(StorefrontClient::new, accounts,
+                    Long.parseLong(ConfigReader.getProperty("accounts.pool.lease.timeout.seconds", "300")) * 1000);
+        }
+        return shared;
+    }
+
+    /**
+     * Check whether workers should lease pooled accounts instead of using the configured email and password
+     * @return value of accounts.pool.enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("accounts.pool.enabled", "false"));
+    }
+
+    private static boolean prepare(StorefrontClient client, TestAccount account) {
+        StorefrontFixtures fixtures = new StorefrontFixtures(client);
+        boolean registered = false;
+        try {
+            fixtures.login(account.getEmail(), account.getPassword());
+        } catch (IllegalStateException e) {
+            fixtures.register(account.getEmail(), account.getPassword(),
+                    ConfigReader.getProperty("billing.firstname"), ConfigReader.getProperty("billing.lastname"));
+            registered = true;
+        }
+        fixtures.clearCart();
+        return registered;
+    }
+
+    /**
+     * Lease a free account to the calling thread, waiting until one is returned if all are in use
+     * @return lease, to be closed when the thread is done with the account
+     * @throws IllegalStateException if the thread already holds an account or none is free in time
+     */
+    public AccountLease lease() {
+        Thread thread = Thread.currentThread();
+        if (holders.containsKey(thread)) {
+            throw new IllegalStateException("Thread already holds pooled account: " + holders.get(thread).getAccount());
+        }
+        long start = System.nanoTime();
+        TestAccount account;
+        try {
+            account = available.poll(leaseTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled account", e);
+        }
+        long waitMs = (System.nanoTime() - start) / 1_000_000;
+        if (account == null) {
+            synchronized (this) {
+                timeouts++;
+            }
+            throw new IllegalStateException("No pooled account free after " + waitMs + " ms, all " + accounts.size() + " are leased");
+        }
+        leaseWaits.record(waitMs);
+        AccountLease lease = new AccountLease(this, account, waitMs);
+        holders.put(thread, lease);
+        synchronized (this) {
+            leases++;
+            inUse++;
+            peakInUse = Math.max(peakInUse, inUse);
+        }
+        logger.info("Leased pooled account " + account + " after " + waitMs + " ms");
+        return lease;
+    }
+
+    /**
+     * Get the account leased by the calling thread
+     * @return account, or null if the thread holds none
+     */
+    public TestAccount current() {
+        AccountLease lease = holders.get(Thread.currentThread());
+        return lease == null ? null : lease.getAccount();
+    }
+
+    void release(AccountLease lease) {
+        TestAccount account = lease.getAccount();
+        long heldMs = System.currentTimeMillis() - lease.getLeasedAt();
+        try {
+            new StorefrontFixtures(clients.get()).login(account.getEmail(), account.getPassword()).clearCart();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to empty cart of pooled account " + account + ": " + e.getMessage());
+        }
+        holders.values().remove(lease);
+        synchronized (this) {
+            inUse--;
+            busyMs += heldMs;
+        }
+        available.offer(account);
+        logger.info("Returned pooled account " + account + " after " + heldMs + " ms");
+    }
+
+    public List<TestAccount> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Get number of accounts that had to be registered while provisioning
+     * @return registered account count
+     */
+    public synchronized int getRegistered() {
+        return registered;
+    }
+
+    public synchronized int getLeases() {
+        return leases;
+    }
+
+    /**
+     * Get number of lease requests that found no free account in time
+     * @return timeout count
+     */
+    public synchronized int getTimeouts() {
+        return timeouts;
+    }
+
+    public synchronized int getPeakInUse() {
+        return peakInUse;
+    }
+
+    /**
+     * Get how long workers waited for a free account
+     * @return lease wait statistics in milliseconds
+     */
+    public LatencyStats getLeaseWaits() {
+        return leaseWaits;
+    }
+
+    /**
+     * Get the share of account time spent leased since the pool was created
+     * @return utilization between 0 and 1
+     */
+    public synchronized double getUtilization() {
+        long now = System.currentTimeMillis();
+        long leased = busyMs;
+        for (AccountLease lease : holders.values()) {
+            leased += now - lease.getLeasedAt();
+        }
+        long capacity = (now - createdAt) * accounts.size();
+        return capacity <= 0 ? 0 : Math.min(1, (double) leased / capacity);
+    }
+
+    /**
+     * Get pool statistics as a JSON-friendly map
+     * @return statistics
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("accounts", accounts.size());
+        values.put("registered", getRegistered());
+        values.put("leases", getLeases());
+        values.put("timeouts", getTimeouts());
+        values.put("peakInUse", getPeakInUse());
+        values.put("utilization", getUtilization());
+        values.put("leaseWaitP50Ms", leaseWaits.getPercentile(50));
+        values.put("leaseWaitP90Ms", leaseWaits.getPercentile(90));
+        values.put("leaseWaitMaxMs", leaseWaits.getMax());
+        return values;
+    }
+
+    /**
+     * Get pool statistics as text for logs and reports
+     * @return statistics text
+     */
+    public String toText() {
+        return String.format(Locale.ROOT, "Account pool: %d accounts, %d leases, peak %d in use, utilization %.1f%%, %d lease timeouts%n"
+                        + "Lease wait ms: p50 %d, p90 %d, p99 %d, max %d%n",
+                accounts.size(), getLeases(), getPeakInUse(), getUtilization() * 100, getTimeouts(),
+                leaseWaits.getPercentile(50), leaseWaits.getPercentile(90), leaseWaits.getPercentile(99), leaseWaits.getMax());
+    }
+}
@@ -0,0 +1,27 @@
+package com.kiboassessment.accounts;
+
+/**
+ * Credentials of one storefront test account
+ */
+public class TestAccount {
+    private final String email;
+    private final String password;
+
+    public TestAccount(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
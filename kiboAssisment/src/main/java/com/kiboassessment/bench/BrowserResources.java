@@ -0,0 +1,80 @@
+package com.kiboassessment.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * CPU time and resident memory of the browser processes, i.e. all processes started by this JVM
+ * (driver services and the browsers they launch). The stand-in storefront runs inside the JVM
+ * and is not included.
+ */
+public class BrowserResources {
+    private final int processes;
+    private final long cpuMs;
+    private final long rssBytes;
+
+    private BrowserResources(int processes, long cpuMs, long rssBytes) {
+        this.processes = processes;
+        this.cpuMs = cpuMs;
+        this.rssBytes = rssBytes;
+    }
+
+    /**
+     * Sample the descendant processes of this JVM. Resident memory is read from /proc and is 0 on
+     * platforms without it; CPU time of processes that already exited is not included.
+     * @return resource sample
+     */
+    public static BrowserResources sample() {
+        List<ProcessHandle> descendants = ProcessHandle.current().descendants().collect(Collectors.toList());
+        long cpuMs = 0;
+        long rssBytes = 0;
+        for (ProcessHandle process : descendants) {
+            cpuMs += process.info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+            rssBytes += residentBytes(process.pid());
+        }
+        return new BrowserResources(descendants.size(), cpuMs, rssBytes);
+    }
+
+    private static long residentBytes(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.isReadable(status)) {
+            return 0;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                // VmRSS:    123456 kB
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited between listing and reading
+        }
+        return 0;
+    }
+
+    public int getProcesses() {
+        return processes;
+    }
+
+    /**
+     * Get CPU time consumed so far by the sampled processes
+     * @return CPU time in milliseconds
+     */
+    public long getCpuMs() {
+        return cpuMs;
+    }
+
+    /**
+     * Get resident memory of the sampled processes
+     * @return resident set size in bytes
+     */
+    public long getRssBytes() {
+        return rssBytes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kiboassessment.bench;
+
+import com.kiboassessment.history.RunHistory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the WebDriver commands a thread's browser session issues. A counter is active per thread
+ * between start and stop; sessions created meanwhile, or while the run history is recorded, are
+ * decorated to report every driver, element, navigation and options call.
+ */
+public class CommandCounter implements WebDriverListener {
+    private static final ThreadLocal<CommandCounter> active = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> threadCommands = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final AtomicLong commands = new AtomicLong();
+
+    /**
+     * Start counting commands of sessions created on the current thread
+     * @return active counter
+     */
+    public static CommandCounter start() {
+        CommandCounter counter = new CommandCounter();
+        active.set(counter);
+        return counter;
+    }
+
+    /**
+     * Stop counting on the current thread; already decorated sessions keep reporting to their counter
+     */
+    public static void stop() {
+        active.remove();
+    }
+
+    /**
+     * Decorate a new session if a counter is active on the current thread or the run history is recorded
+     * @param driver new WebDriver
+     * @return counting driver, or the driver itself if commands are not counted
+     */
+    public static WebDriver attach(WebDriver driver) {
+        CommandCounter counter = active.get();
+        if (counter == null) {
+            if (!RunHistory.isEnabled()) {
+                return driver;
+            }
+            counter = new CommandCounter();
+        }
+        return new EventFiringDecorator<>(counter).decorate(driver);
+    }
+
+    /**
+     * Get number of commands the current thread issued through counting sessions
+     * @return command count
+     */
+    public static long getThreadCount() {
+        return threadCommands.get()[0];
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        // toString/equals and unwrapping are answered locally and never reach the browser
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (declaringClass != Object.class && declaringClass != WrapsDriver.class && declaringClass != WrapsElement.class) {
+            commands.incrementAndGet();
+            threadCommands.get()[0]++;
+        }
+    }
+
+    /**
+     * Get number of commands issued since the counter was started
+     * @return command count
+     */
+    public long getCount() {
+        return commands.get();
+    }
+}
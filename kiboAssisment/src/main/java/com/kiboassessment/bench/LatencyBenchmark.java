@@ -0,0 +1,154 @@
+package com.kiboassessment.bench;
+
+import com.kiboassessment.load.StepMetrics;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.load.SyntheticUserFlow;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Repeats a flow in one session after warm-up iterations and collects per-step latency percentiles,
+ * WebDriver command counts and browser CPU/RSS for comparison between framework builds
+ */
+public class LatencyBenchmark {
+    private static final Logger logger = LogManager.getLogger(LatencyBenchmark.class);
+
+    private final SyntheticUserFlow flow;
+    private final int warmup;
+    private final int iterations;
+    private final Set<String> steps;
+
+    /**
+     * Create benchmark
+     * @param flow flow to repeat; its steps are timed through the StepRecorder
+     * @param warmup iterations run before measuring
+     * @param iterations measured iterations
+     * @param steps steps to report, empty for all. Other steps still run, as later steps depend on them.
+     */
+    public LatencyBenchmark(SyntheticUserFlow flow, int warmup, int iterations, Collection<String> steps) {
+        if (iterations < 1 || warmup < 0) {
+            throw new IllegalArgumentException("Invalid benchmark iterations: " + warmup + " warm-up, " + iterations + " measured");
+        }
+        this.flow = flow;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.steps = new LinkedHashSet<>(steps);
+    }
+
+    /**
+     * Create benchmark from the latency.benchmark.* configuration
+     * @param flow flow to repeat
+     * @return benchmark
+     */
+    public static LatencyBenchmark fromConfig(SyntheticUserFlow flow) {
+        Set<String> steps = Arrays.stream(ConfigReader.getProperty("latency.benchmark.steps", "").split(","))
+                .map(String::trim)
+                .filter(step -> !step.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new LatencyBenchmark(flow,
+                Integer.parseInt(ConfigReader.getProperty("latency.benchmark.warmup", "2")),
+                Integer.parseInt(ConfigReader.getProperty("latency.benchmark.iterations", "10")),
+                steps);
+    }
+
+    /**
+     * Run warm-up and measured iterations on the current thread
+     * @param label name of the framework build being measured, e.g. a branch or commit
+     * @return benchmark result
+     */
+    public LatencyBenchmarkResult run(String label) {
+        LatencyBenchmarkResult result = new LatencyBenchmarkResult(label, warmup);
+        logger.info("Starting latency benchmark " + label + ": " + warmup + " warm-up and " + iterations + " measured iterations"
+                + (steps.isEmpty() ? "" : ", steps " + steps));
+        CommandCounter counter = CommandCounter.start();
+        try {
+            flow.startUser();
+            for (int i = 0; i < warmup + iterations; i++) {
+                runIteration(counter, i < warmup ? null : result);
+            }
+        } finally {
+            try {
+                flow.stopUser();
+            } finally {
+                CommandCounter.stop();
+            }
+        }
+        logger.info("Latency benchmark finished\n" + result.toText());
+        return result;
+    }
+
+    /**
+     * Run one iteration and record it unless it is a warm-up
+     * @param counter command counter of the session
+     * @param result result to record into, or null for a warm-up iteration
+     */
+    private void runIteration(CommandCounter counter, LatencyBenchmarkResult result) {
+        Iteration iteration = new Iteration(counter);
+        BrowserResources before = BrowserResources.sample();
+        try {
+            flow.runIteration(new StepRecorder(iteration, 0));
+        } catch (Exception e) {
+            logger.warn("Benchmark iteration failed: " + e.getMessage());
+            if (result != null) {
+                result.recordFailure();
+            }
+            flow.onIterationFailure(e);
+            return;
+        }
+        if (result == null) {
+            return;
+        }
+        BrowserResources after = BrowserResources.sample();
+        long flowMs = 0;
+        long flowCommands = 0;
+        for (Map.Entry<String, StepSample> step : iteration.samples.entrySet()) {
+            result.recordStep(step.getKey(), step.getValue().latencyMs, step.getValue().commands);
+            flowMs += step.getValue().latencyMs;
+            flowCommands += step.getValue().commands;
+        }
+        result.recordIteration(flowMs, flowCommands, after.getCpuMs() - before.getCpuMs(), after.getRssBytes(), after.getProcesses());
+    }
+
+    /**
+     * Latency and commands of the reported steps of one iteration. Commands are attributed to the step
+     * that ends next, as the benchmark runs without think time.
+     */
+    private class Iteration implements StepMetrics {
+        private final CommandCounter counter;
+        private final Map<String, StepSample> samples = new LinkedHashMap<>();
+        private long commandsBefore;
+
+        Iteration(CommandCounter counter) {
+            this.counter = counter;
+            this.commandsBefore = counter.getCount();
+        }
+
+        @Override
+        public void recordStep(String step, long latencyMs, boolean success) {
+            long commands = counter.getCount();
+            if (success && (steps.isEmpty() || steps.contains(step))) {
+                samples.put(step, new StepSample(latencyMs, commands - commandsBefore));
+            }
+            commandsBefore = commands;
+        }
+    }
+
+    private static class StepSample {
+        private final long latencyMs;
+        private final long commands;
+
+        StepSample(long latencyMs, long commands) {
+            this.latencyMs = latencyMs;
+            this.commands = commands;
+        }
+    }
+}
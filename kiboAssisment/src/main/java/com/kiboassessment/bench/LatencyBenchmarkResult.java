@@ -0,0 +1,188 @@
+package com.kiboassessment.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kiboassessment.utils.LatencyStats;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a latency benchmark: per-step and whole-flow latency percentiles, command counts
+ * and browser CPU/RSS per measured iteration
+ */
+public class LatencyBenchmarkResult {
+    public static final String FLOW = "Flow";
+
+    private final String label;
+    private final int warmup;
+    private final Map<String, LatencyStats> stepLatencies = new LinkedHashMap<>();
+    private final Map<String, LatencyStats> stepCommands = new LinkedHashMap<>();
+    // LatencyStats is unit agnostic; these also sample command counts, CPU milliseconds and megabytes
+    private final LatencyStats flowLatencies = new LatencyStats();
+    private final LatencyStats flowCommands = new LatencyStats();
+    private final LatencyStats browserCpuMs = new LatencyStats();
+    private final LatencyStats browserRssMb = new LatencyStats();
+    private int failedIterations;
+    private int browserProcesses;
+
+    LatencyBenchmarkResult(String label, int warmup) {
+        this.label = label;
+        this.warmup = warmup;
+    }
+
+    void recordStep(String step, long latencyMs, long commands) {
+        stepLatencies.computeIfAbsent(step, name -> new LatencyStats()).record(latencyMs);
+        stepCommands.computeIfAbsent(step, name -> new LatencyStats()).record(commands);
+    }
+
+    void recordIteration(long latencyMs, long commands, long cpuMs, long rssBytes, int processes) {
+        flowLatencies.record(latencyMs);
+        flowCommands.record(commands);
+        browserCpuMs.record(cpuMs);
+        browserRssMb.record(rssBytes / (1024 * 1024));
+        browserProcesses = Math.max(browserProcesses, processes);
+    }
+
+    void recordFailure() {
+        failedIterations++;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Get number of measured iterations that completed
+     * @return completed iterations
+     */
+    public int getIterations() {
+        return flowLatencies.getCount();
+    }
+
+    public int getFailedIterations() {
+        return failedIterations;
+    }
+
+    public Map<String, LatencyStats> getStepLatencies() {
+        return stepLatencies;
+    }
+
+    /**
+     * Get WebDriver commands issued per step
+     * @return command count samples by step
+     */
+    public Map<String, LatencyStats> getStepCommands() {
+        return stepCommands;
+    }
+
+    /**
+     * Get latency of the reported steps per iteration
+     * @return flow latency samples in milliseconds
+     */
+    public LatencyStats getFlowLatencies() {
+        return flowLatencies;
+    }
+
+    public LatencyStats getFlowCommands() {
+        return flowCommands;
+    }
+
+    /**
+     * Get CPU time the browser processes consumed per iteration
+     * @return CPU samples in milliseconds
+     */
+    public LatencyStats getBrowserCpuMs() {
+        return browserCpuMs;
+    }
+
+    /**
+     * Get resident memory of the browser processes at the end of each iteration
+     * @return RSS samples in megabytes
+     */
+    public LatencyStats getBrowserRssMb() {
+        return browserRssMb;
+    }
+
+    /**
+     * Get result as a JSON-friendly map
+     * @return result values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("warmupIterations", warmup);
+        result.put("iterations", getIterations());
+        result.put("failedIterations", failedIterations);
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyStats> step : stepLatencies.entrySet()) {
+            steps.put(step.getKey(), statsToMap(step.getValue(), stepCommands.get(step.getKey())));
+        }
+        steps.put(FLOW, statsToMap(flowLatencies, flowCommands));
+        result.put("steps", steps);
+        Map<String, Object> browser = new LinkedHashMap<>();
+        browser.put("processes", browserProcesses);
+        browser.put("cpuMsMean", Math.round(browserCpuMs.getMean()));
+        browser.put("cpuMsP90", browserCpuMs.getPercentile(90));
+        browser.put("rssMbP50", browserRssMb.getPercentile(50));
+        browser.put("rssMbMax", browserRssMb.getMax());
+        result.put("browser", browser);
+        return result;
+    }
+
+    private static Map<String, Object> statsToMap(LatencyStats latencies, LatencyStats commands) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", latencies.getCount());
+        values.put("meanMs", Math.round(latencies.getMean()));
+        values.put("p50Ms", latencies.getPercentile(50));
+        values.put("p90Ms", latencies.getPercentile(90));
+        values.put("p99Ms", latencies.getPercentile(99));
+        values.put("maxMs", latencies.getMax());
+        values.put("commandsMean", commands.getMean());
+        return values;
+    }
+
+    /**
+     * Get result as a text table for logs and reports
+     * @return result text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Latency benchmark: %s, %d warm-up, %d measured, %d failed iterations%n",
+                label, warmup, getIterations(), failedIterations));
+        text.append(String.format(Locale.ROOT, "%-30s %7s %8s %8s %8s %8s %9s%n", "Step", "Count", "p50 ms", "p90 ms", "p99 ms", "max ms", "commands"));
+        for (Map.Entry<String, LatencyStats> step : stepLatencies.entrySet()) {
+            appendRow(text, step.getKey(), step.getValue(), stepCommands.get(step.getKey()));
+        }
+        appendRow(text, FLOW, flowLatencies, flowCommands);
+        text.append(String.format(Locale.ROOT, "Browser: %d processes, CPU %.0f ms/iteration (p90 %d ms), RSS p50 %d MB, max %d MB%n",
+                browserProcesses, browserCpuMs.getMean(), browserCpuMs.getPercentile(90),
+                browserRssMb.getPercentile(50), browserRssMb.getMax()));
+        return text.toString();
+    }
+
+    private static void appendRow(StringBuilder text, String name, LatencyStats latencies, LatencyStats commands) {
+        text.append(String.format(Locale.ROOT, "%-30s %7d %8d %8d %8d %8d %9.1f%n", name, latencies.getCount(),
+                latencies.getPercentile(50), latencies.getPercentile(90), latencies.getPercentile(99), latencies.getMax(),
+                commands.getMean()));
+    }
+
+    /**
+     * Write result as JSON, the input of LatencyComparison
+     * @param path output file path
+     */
+    public void writeJson(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write latency benchmark result: " + path, e);
+        }
+    }
+}
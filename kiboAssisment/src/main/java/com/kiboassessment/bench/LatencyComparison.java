@@ -0,0 +1,154 @@
+package com.kiboassessment.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.utils.ConfigReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two latency benchmark results, e.g. of the main branch and of a change before merging.
+ * A step regresses when its p50 or p90 grows by more than the tolerance in percent and by more than a
+ * minimum in milliseconds; p99 and command counts are reported for context only, as a run of a
+ * few iterations cannot establish its p99.
+ */
+public class LatencyComparison {
+    private static final String[] GATED = {"p50Ms", "p90Ms"};
+
+    private final Map<String, Object> baseline;
+    private final Map<String, Object> current;
+    private final double tolerancePercent;
+    private final long minDeltaMs;
+    private final List<String> regressions = new ArrayList<>();
+
+    /**
+     * Create comparison
+     * @param baseline result map of the baseline build
+     * @param current result map of the build under test
+     * @param tolerancePercent slowdown tolerated in percent
+     * @param minDeltaMs slowdown tolerated in milliseconds, so that short steps do not flag on jitter
+     */
+    public LatencyComparison(Map<String, Object> baseline, Map<String, Object> current, double tolerancePercent, long minDeltaMs) {
+        this.baseline = baseline;
+        this.current = current;
+        this.tolerancePercent = tolerancePercent;
+        this.minDeltaMs = minDeltaMs;
+        for (Map.Entry<String, Map<String, Object>> step : steps(current).entrySet()) {
+            Map<String, Object> before = steps(baseline).get(step.getKey());
+            if (before == null) {
+                continue;
+            }
+            for (String metric : GATED) {
+                long base = value(before, metric).longValue();
+                long now = value(step.getValue(), metric).longValue();
+                if (now - base > minDeltaMs && percentChange(base, now) > tolerancePercent) {
+                    regressions.add(String.format(Locale.ROOT, "%s %s %d -> %d ms (%+.1f%%)", step.getKey(),
+                            metric.replace("Ms", ""), base, now, percentChange(base, now)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare a result against a baseline file with the latency.benchmark.regression.* configuration
+     * @param baselineFile JSON result of the baseline build
+     * @param current result of the build under test
+     * @return comparison
+     */
+    public static LatencyComparison fromConfig(File baselineFile, LatencyBenchmarkResult current) {
+        return new LatencyComparison(read(baselineFile), current.toMap(),
+                Double.parseDouble(ConfigReader.getProperty("latency.benchmark.regression.tolerance", "10")),
+                Long.parseLong(ConfigReader.getProperty("latency.benchmark.regression.min.ms", "50")));
+    }
+
+    /**
+     * Compare two result files, exiting with status 1 on a regression:
+     * LatencyComparison baseline.json current.json
+     * @param args baseline and current result paths
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: LatencyComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        LatencyComparison comparison = new LatencyComparison(read(new File(args[0])), read(new File(args[1])),
+                Double.parseDouble(ConfigReader.getProperty("latency.benchmark.regression.tolerance", "10")),
+                Long.parseLong(ConfigReader.getProperty("latency.benchmark.regression.min.ms", "50")));
+        System.out.print(comparison.toText());
+        System.exit(comparison.getRegressions().isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Read a result written by LatencyBenchmarkResult.writeJson
+     * @param file result file
+     * @return result map
+     */
+    public static Map<String, Object> read(File file) {
+        try {
+            return new ObjectMapper().readValue(file, new TypeReference<Map<String, Object>>() { });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read latency benchmark result: " + file, e);
+        }
+    }
+
+    /**
+     * Get the step metrics that regressed beyond the tolerance
+     * @return regression descriptions, empty if none
+     */
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    /**
+     * Get comparison as a text table for logs and reports
+     * @return comparison text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Latency comparison: %s -> %s (tolerance %.0f%%, %d ms)%n",
+                baseline.get("label"), current.get("label"), tolerancePercent, minDeltaMs));
+        text.append(String.format(Locale.ROOT, "%-24s %-24s %-24s %-24s %s%n", "Step", "p50 ms", "p90 ms", "p99 ms", "commands"));
+        for (Map.Entry<String, Map<String, Object>> step : steps(current).entrySet()) {
+            Map<String, Object> before = steps(baseline).get(step.getKey());
+            if (before == null) {
+                text.append(String.format(Locale.ROOT, "%-24s not in baseline%n", step.getKey()));
+                continue;
+            }
+            text.append(String.format(Locale.ROOT, "%-24s %-24s %-24s %-24s %s%n", step.getKey(),
+                    change(before, step.getValue(), "p50Ms"), change(before, step.getValue(), "p90Ms"),
+                    change(before, step.getValue(), "p99Ms"), change(before, step.getValue(), "commandsMean")));
+        }
+        if (regressions.isEmpty()) {
+            text.append("No regressions").append(System.lineSeparator());
+        }
+        for (String regression : regressions) {
+            text.append("REGRESSED: ").append(regression).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    private static String change(Map<String, Object> before, Map<String, Object> after, String metric) {
+        double base = value(before, metric).doubleValue();
+        double now = value(after, metric).doubleValue();
+        return String.format(Locale.ROOT, "%.0f -> %.0f (%+.1f%%)", base, now, percentChange(base, now));
+    }
+
+    private static double percentChange(double base, double now) {
+        return base == 0 ? 0 : 100 * (now - base) / base;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> steps(Map<String, Object> result) {
+        return (Map<String, Map<String, Object>>) result.get("steps");
+    }
+
+    private static Number value(Map<String, Object> step, String metric) {
+        Object value = step.get(metric);
+        return value instanceof Number ? (Number) value : 0;
+    }
+}
@@ -0,0 +1,299 @@
+package com.kiboassessment.catalog;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.StorefrontClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Walks the category pages and product details pages of the storefront over HTTP, many at a time,
+ * and builds a product index. Details pages of products whose listing is unchanged since the
+ * previous crawl are not read again until they are older than the maximum age.
+ */
+public class CatalogCrawler {
+    private static final Logger logger = LogManager.getLogger(CatalogCrawler.class);
+    private static final String CATEGORY_LINKS = ".block-category-navigation a[href], .top-menu a[href], .sub-category-item .title a[href]";
+    private static final Pattern DETAILS_ACTION = Pattern.compile("/addproducttocart/details/\\d+/\\d+");
+    private static final Pattern PRODUCT_ID = Pattern.compile("add-to-cart-button-(\\d+)");
+
+    private final StorefrontClient client;
+    private final int threads;
+    private final int pageSize;
+    private final long maxAgeMillis;
+    private int listingPagesRead;
+    private int productPagesRead;
+    private int productsReused;
+
+    /**
+     * Create a crawler
+     * @param client storefront client
+     * @param threads pages read at the same time
+     * @param pageSize products per category page to request, 0 for the storefront default
+     * @param maxAgeMillis age after which a details page is read again even if its listing is unchanged
+     */
+    public CatalogCrawler(StorefrontClient client, int threads, int pageSize, long maxAgeMillis) {
+        this.client = client;
+        this.threads = Math.max(1, threads);
+        this.pageSize = pageSize;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Create a crawler from the catalog.crawler.* and catalog.index.* settings
+     * @param client storefront client
+     * @return crawler
+     */
+    public static CatalogCrawler fromConfig(StorefrontClient client) {
+        return new CatalogCrawler(client,
+                Integer.parseInt(ConfigReader.getProperty("catalog.crawler.threads", "8")),
+                Integer.parseInt(ConfigReader.getProperty("catalog.crawler.page.size", "0")),
+                Long.parseLong(ConfigReader.getProperty("catalog.index.max.age.hours", "24")) * 3_600_000L);
+    }
+
+    /**
+     * Crawl the catalog
+     * @param previous index of an earlier crawl whose unchanged products are reused, may be empty
+     * @return new index
+     */
+    public ProductIndex crawl(ProductIndex previous) {
+        listingPagesRead = 0;
+        productPagesRead = 0;
+        productsReused = 0;
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-crawler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Listing> listed = readCategories(pool);
+
+            List<Callable<ProductRecord>> reads = new ArrayList<>();
+            for (Map.Entry<String, Listing> entry : listed.entrySet()) {
+                ProductRecord known = previous.get(entry.getKey());
+                Listing listing = entry.getValue();
+                if (known != null && listing.fingerprint.equals(known.getListing()) && start - known.getCrawledAt() <= maxAgeMillis) {
+                    productsReused++;
+                    reads.add(() -> known.withCategories(listing.categories));
+                } else {
+                    productPagesRead++;
+                    reads.add(() -> readProduct(entry.getKey(), listing, start));
+                }
+            }
+            List<ProductRecord> products = new ArrayList<>();
+            for (ProductRecord product : runAll(pool, reads)) {
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            logger.info("Crawled catalog: " + products.size() + " products, " + listingPagesRead + " listing pages, "
+                    + productPagesRead + " details pages read, " + productsReused + " reused in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return new ProductIndex(client.getBaseUrl(), start, products);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Get number of category listing pages read by the last crawl
+     * @return page count
+     */
+    public int getListingPagesRead() {
+        return listingPagesRead;
+    }
+
+    /**
+     * Get number of product details pages read by the last crawl
+     * @return page count
+     */
+    public int getProductPagesRead() {
+        return productPagesRead;
+    }
+
+    /**
+     * Get number of products taken over unchanged from the previous index by the last crawl
+     * @return product count
+     */
+    public int getProductsReused() {
+        return productsReused;
+    }
+
+    /**
+     * Read category pages breadth first, each level in parallel: the categories linked from the home page,
+     * then their sub-categories and following pages
+     * @param pool crawler threads
+     * @return listings by product path, in listing order
+     */
+    private Map<String, Listing> readCategories(ExecutorService pool) {
+        Map<String, Listing> listed = new LinkedHashMap<>();
+        Set<String> visited = new HashSet<>();
+        List<String> level = new ArrayList<>();
+        for (String path : categoryLinks(getDocument("/"))) {
+            if (visited.add(path)) {
+                level.add(path);
+            }
+        }
+        while (!level.isEmpty()) {
+            List<Callable<Document>> reads = new ArrayList<>();
+            for (String path : level) {
+                reads.add(() -> getDocument(path));
+            }
+            listingPagesRead += level.size();
+            level = new ArrayList<>();
+            for (Document page : runAll(pool, reads)) {
+                Element title = page.selectFirst(".page-title h1");
+                String category = title == null ? "" : title.text();
+                for (Element item : page.select(".product-item")) {
+                    Element link = item.selectFirst(".product-title a[href]");
+                    String path = link == null ? null : localPath(link.absUrl("href"));
+                    if (path != null) {
+                        Element price = item.selectFirst(".prices .actual-price");
+                        listed.computeIfAbsent(path, key -> new Listing(link.text() + " | " + (price == null ? "" : price.text())))
+                                .addCategory(category);
+                    }
+                }
+                List<String> links = categoryLinks(page);
+                Element next = page.selectFirst(".pager .next-page a[href]");
+                if (next != null) {
+                    links.add(localPath(next.absUrl("href")));
+                }
+                for (String link : links) {
+                    if (link != null && visited.add(link)) {
+                        level.add(link);
+                    }
+                }
+            }
+        }
+        return listed;
+    }
+
+    private List<String> categoryLinks(Document page) {
+        List<String> links = new ArrayList<>();
+        for (Element link : page.select(CATEGORY_LINKS)) {
+            String path = localPath(link.absUrl("href"));
+            if (path != null) {
+                links.add(pageSize > 0 && !path.contains("?") ? path + "?pagesize=" + pageSize : path);
+            }
+        }
+        return links;
+    }
+
+    private ProductRecord readProduct(String path, Listing listing, long crawledAt) {
+        HttpResponse<String> response = client.get(path);
+        if (response.statusCode() != 200) {
+            logger.warn("Product page returned HTTP " + response.statusCode() + ", not indexed: " + path);
+            return null;
+        }
+        Document page = Jsoup.parse(response.body(), client.resolve(path).toString());
+        Element name = page.selectFirst(".product-name h1");
+        Element sku = page.selectFirst(".sku .value");
+        Element price = page.selectFirst(".product-price");
+        Element addButton = page.selectFirst("[id^=add-to-cart-button-]");
+
+        String productId = null;
+        String action = null;
+        if (addButton != null) {
+            Matcher id = PRODUCT_ID.matcher(addButton.id());
+            productId = id.find() ? id.group(1) : null;
+            Matcher details = DETAILS_ACTION.matcher(addButton.attr("formaction") + " " + addButton.attr("onclick"));
+            action = details.find() ? details.group() : null;
+        }
+        return new ProductRecord(path, productId, name == null ? listing.fingerprint.split(" \\| ")[0] : name.text(),
+                sku == null ? null : sku.text().trim(), price == null ? "" : price.text(), listing.categories,
+                attributes(page), action, StorefrontFixtures.formData(page.selectFirst("#product-details-form")),
+                listing.fingerprint, crawledAt);
+    }
+
+    /**
+     * Read the attribute labels of a details page with the labels of their options
+     * @param page product details page
+     * @return options by attribute, empty lists for free text attributes
+     */
+    private static Map<String, List<String>> attributes(Document page) {
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (Element term : page.select(".attributes dl dt")) {
+            Element label = term.selectFirst("label");
+            Element definition = term.nextElementSibling();
+            List<String> options = new ArrayList<>();
+            if (definition != null) {
+                for (Element option : definition.select("li label, option")) {
+                    if (!option.tagName().equals("option") || !option.val().equals("0")) {
+                        options.add(option.text());
+                    }
+                }
+            }
+            attributes.put(label == null ? term.ownText() : label.text(), options);
+        }
+        return attributes;
+    }
+
+    private String localPath(String url) {
+        if (!url.startsWith(client.getBaseUrl() + "/")) {
+            return null;
+        }
+        URI uri = URI.create(url);
+        return uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
+    private Document getDocument(String path) {
+        HttpResponse<String> response = client.get(path);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Catalog page returned HTTP " + response.statusCode() + ": " + path);
+        }
+        return Jsoup.parse(response.body(), client.resolve(path).toString());
+    }
+
+    private static <T> List<T> runAll(ExecutorService pool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to crawl catalog", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Catalog crawl interrupted", e);
+        }
+        return results;
+    }
+
+    /**
+     * Name and price of a product as listed, and the categories listing it
+     */
+    private static class Listing {
+        private final String fingerprint;
+        private final List<String> categories = new ArrayList<>();
+
+        Listing(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void addCategory(String category) {
+            if (!category.isEmpty() && !categories.contains(category)) {
+                categories.add(category);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.kiboassessment.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.StorefrontClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Products of a storefront by details page path, stored on disk as one compact JSON document
+ */
+public class ProductIndex {
+    private static final Logger logger = LogManager.getLogger(ProductIndex.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static ProductIndex shared;
+
+    private final String baseUrl;
+    private final long crawledAt;
+    private final Map<String, ProductRecord> products = new LinkedHashMap<>();
+
+    ProductIndex(String baseUrl, long crawledAt, Collection<ProductRecord> products) {
+        this.baseUrl = baseUrl;
+        this.crawledAt = crawledAt;
+        for (ProductRecord product : products) {
+            this.products.put(product.getPath(), product);
+        }
+    }
+
+    /**
+     * Get the index of the configured storefront. The stored index is refreshed incrementally when it was
+     * crawled more than catalog.index.refresh.minutes ago or for another storefront, and kept for the JVM.
+     * @return product index
+     */
+    public static synchronized ProductIndex forStorefront() {
+        if (shared == null) {
+            StorefrontClient client = new StorefrontClient();
+            File file = new File(ConfigReader.getProperty("catalog.index.path", "target/catalog-index.json"));
+            ProductIndex stored = load(file);
+            long refreshMillis = Long.parseLong(ConfigReader.getProperty("catalog.index.refresh.minutes", "60")) * 60_000L;
+            if (!stored.getBaseUrl().equals(client.getBaseUrl())) {
+                stored = new ProductIndex(client.getBaseUrl(), 0, List.of());
+            }
+            if (System.currentTimeMillis() - stored.getCrawledAt() > refreshMillis) {
+                stored = CatalogCrawler.fromConfig(client).crawl(stored);
+                stored.save(file);
+            }
+            shared = stored;
+        }
+        return shared;
+    }
+
+    /**
+     * Read an index file
+     * @param file index file
+     * @return stored index, or an empty one if the file does not exist
+     */
+    public static ProductIndex load(File file) {
+        if (!file.isFile()) {
+            return new ProductIndex("", 0, List.of());
+        }
+        try {
+            Map<String, Object> stored = objectMapper.readValue(file, new TypeReference<Map<String, Object>>() {
+            });
+            List<ProductRecord> records = new ArrayList<>();
+            for (Object product : (List<?>) stored.getOrDefault("products", List.of())) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) product;
+                records.add(ProductRecord.fromMap(map));
+            }
+            return new ProductIndex(String.valueOf(stored.getOrDefault("baseUrl", "")),
+                    ((Number) stored.getOrDefault("crawledAt", 0)).longValue(), records);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read product index: " + file, e);
+        }
+    }
+
+    /**
+     * Write this index
+     * @param file index file
+     */
+    public void save(File file) {
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("baseUrl", baseUrl);
+        stored.put("crawledAt", crawledAt);
+        stored.put("products", products.values().stream().map(ProductRecord::toMap).collect(Collectors.toList()));
+        try {
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            objectMapper.writeValue(file, stored);
+            logger.info("Product index saved: " + file + " (" + products.size() + " products)");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write product index: " + file, e);
+        }
+    }
+
+    /**
+     * Get the storefront this index was crawled from
+     * @return base URL without trailing slash
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get when the index was last crawled
+     * @return epoch milliseconds, 0 if never
+     */
+    public long getCrawledAt() {
+        return crawledAt;
+    }
+
+    /**
+     * Get all products in crawl order
+     * @return products
+     */
+    public List<ProductRecord> getProducts() {
+        return Collections.unmodifiableList(new ArrayList<>(products.values()));
+    }
+
+    /**
+     * Get a product by its details page path
+     * @param path storefront path, e.g. "/simple-computer"
+     * @return product, or null if not indexed
+     */
+    public ProductRecord get(String path) {
+        return products.get(path);
+    }
+
+    /**
+     * Get the absolute URL of a product's details page, for deep-linking the browser to it
+     * @param product indexed product
+     * @return product URL
+     */
+    public String getUrl(ProductRecord product) {
+        return baseUrl + product.getPath();
+    }
+
+    /**
+     * Find a product by name, preferring an exact match over a partial one
+     * @param name product name, or part of it
+     * @return product, empty if none matches
+     */
+    public Optional<ProductRecord> findByName(String name) {
+        Optional<ProductRecord> exact = products.values().stream().filter(product -> product.getName().equals(name)).findFirst();
+        return exact.isPresent() ? exact : products.values().stream().filter(product -> product.getName().contains(name)).findFirst();
+    }
+
+    /**
+     * Find a product by SKU
+     * @param sku product SKU
+     * @return product, empty if none matches
+     */
+    public Optional<ProductRecord> findBySku(String sku) {
+        return products.values().stream().filter(product -> sku.equals(product.getSku())).findFirst();
+    }
+
+    /**
+     * Select products for data-driven tests, e.g. every product of a category without attributes
+     * @param condition product condition
+     * @return matching products in crawl order
+     */
+    public List<ProductRecord> select(Predicate<ProductRecord> condition) {
+        return products.values().stream().filter(condition).collect(Collectors.toList());
+    }
+
+    /**
+     * Products listed in the given category
+     * @param category category name, case-insensitive
+     * @return predicate
+     */
+    public static Predicate<ProductRecord> inCategory(String category) {
+        String wanted = category.toLowerCase(Locale.ROOT);
+        return product -> product.getCategories().stream().anyMatch(name -> name.toLowerCase(Locale.ROOT).equals(wanted));
+    }
+
+    /**
+     * Get number of indexed products
+     * @return product count
+     */
+    public int size() {
+        return products.size();
+    }
+}
@@ -0,0 +1,172 @@
+package com.kiboassessment.catalog;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexed product: what a test needs to pick it and add it to the cart without opening the storefront UI
+ */
+public class ProductRecord {
+    private final String path;
+    private final String productId;
+    private final String name;
+    private final String sku;
+    private final String price;
+    private final List<String> categories;
+    private final Map<String, List<String>> attributes;
+    private final String addToCartAction;
+    private final List<Map.Entry<String, String>> addToCartForm;
+    private final String listing;
+    private final long crawledAt;
+
+    ProductRecord(String path, String productId, String name, String sku, String price, List<String> categories,
+                  Map<String, List<String>> attributes, String addToCartAction, List<Map.Entry<String, String>> addToCartForm,
+                  String listing, long crawledAt) {
+        this.path = path;
+        this.productId = productId;
+        this.name = name;
+        this.sku = sku;
+        this.price = price;
+        this.categories = categories;
+        this.attributes = attributes;
+        this.addToCartAction = addToCartAction;
+        this.addToCartForm = addToCartForm;
+        this.listing = listing;
+        this.crawledAt = crawledAt;
+    }
+
+    /**
+     * Copy of this record listed in other categories
+     * @param categories category names
+     * @return updated record
+     */
+    ProductRecord withCategories(List<String> categories) {
+        return new ProductRecord(path, productId, name, sku, price, categories, attributes, addToCartAction, addToCartForm,
+                listing, crawledAt);
+    }
+
+    /**
+     * Get the storefront path of the product details page, e.g. "/simple-computer"
+     * @return path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    /**
+     * Get the price as a number
+     * @return price, NaN if the details page shows none
+     */
+    public double getPriceValue() {
+        try {
+            return Double.parseDouble(price.replaceAll("[^0-9.]", ""));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Get the categories listing this product
+     * @return category names
+     */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Get the product attributes and their options
+     * @return option labels by attribute label, empty for simple products
+     */
+    public Map<String, List<String>> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Get the endpoint the details page posts to when adding to the cart
+     * @return path, null if the product cannot be added to the cart
+     */
+    public String getAddToCartAction() {
+        return addToCartAction;
+    }
+
+    /**
+     * Get the fields the details page submits, with the default attribute choices and quantity
+     * @return form fields in document order
+     */
+    public List<Map.Entry<String, String>> getAddToCartForm() {
+        return addToCartForm;
+    }
+
+    /**
+     * Get the name and price shown in category listings when the product was crawled,
+     * which tells the crawler whether the details page needs to be read again
+     * @return listing fingerprint
+     */
+    public String getListing() {
+        return listing;
+    }
+
+    /**
+     * Get when the details page was read
+     * @return epoch milliseconds
+     */
+    public long getCrawledAt() {
+        return crawledAt;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("path", path);
+        map.put("productId", productId);
+        map.put("name", name);
+        map.put("sku", sku);
+        map.put("price", price);
+        map.put("categories", categories);
+        map.put("attributes", attributes);
+        map.put("addToCartAction", addToCartAction);
+        List<List<String>> form = new ArrayList<>();
+        for (Map.Entry<String, String> field : addToCartForm) {
+            form.add(List.of(field.getKey(), field.getValue()));
+        }
+        map.put("addToCartForm", form);
+        map.put("listing", listing);
+        map.put("crawledAt", crawledAt);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ProductRecord fromMap(Map<String, Object> map) {
+        List<Map.Entry<String, String>> form = new ArrayList<>();
+        for (List<String> field : (List<List<String>>) map.getOrDefault("addToCartForm", List.of())) {
+            form.add(new AbstractMap.SimpleEntry<>(field.get(0), field.get(1)));
+        }
+        return new ProductRecord((String) map.get("path"), (String) map.get("productId"), (String) map.get("name"),
+                (String) map.get("sku"), (String) map.get("price"), (List<String>) map.getOrDefault("categories", List.of()),
+                (Map<String, List<String>>) map.getOrDefault("attributes", Map.of()), (String) map.get("addToCartAction"),
+                form, (String) map.get("listing"), ((Number) map.getOrDefault("crawledAt", 0)).longValue());
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + price + ", " + path + ")";
+    }
+}
@@ -0,0 +1,24 @@
+package com.kiboassessment.deadline;
+
+/**
+ * Thrown when a test or one of its steps has used up its time budget. It is not a WebDriverException,
+ * so the test fails at once instead of being retried.
+ */
+public class BudgetExhaustedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String step;
+
+    public BudgetExhaustedException(String message, String step, Throwable cause) {
+        super(message, cause);
+        this.step = step;
+    }
+
+    /**
+     * Get the step that was running when the budget ran out
+     * @return step name, or null if no step had been logged yet
+     */
+    public String getStep() {
+        return step;
+    }
+}
@@ -0,0 +1,241 @@
+package com.kiboassessment.deadline;
+
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+/**
+ * Time budget of the test running on the current thread. Waits are capped by what is left of the
+ * test budget and of the current step's budget, and the implicit wait is lowered as the budget runs
+ * down, so a broken page fails the test with BudgetExhaustedException instead of keeping it alive
+ * for one full timeout per wait.
+ */
+public class Deadline {
+    private static final Logger logger = LogManager.getLogger(Deadline.class);
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final String test;
+    private final long budgetMs;
+    private final long stepBudgetMs;
+    private final long startNanos;
+    private String step;
+    private long stepStartNanos;
+    private WebDriver limitedDriver;
+    private long implicitWaitSeconds;
+
+    private Deadline(String test, long budgetMs, long stepBudgetMs) {
+        this.test = test;
+        this.budgetMs = budgetMs;
+        this.stepBudgetMs = stepBudgetMs;
+        this.startNanos = System.nanoTime();
+        this.stepStartNanos = startNanos;
+    }
+
+    /**
+     * Start the budget of a test on the current thread
+     * @param test test name for error messages
+     * @param budgetMs test budget in milliseconds, 0 for no limit
+     * @param stepBudgetMs step budget in milliseconds, 0 for no step limit
+     * @return started deadline, or null if the test has no budget
+     */
+    public static Deadline start(String test, long budgetMs, long stepBudgetMs) {
+        finish();
+        if (budgetMs <= 0 && stepBudgetMs <= 0) {
+            return null;
+        }
+        Deadline deadline = new Deadline(test, budgetMs, stepBudgetMs);
+        current.set(deadline);
+        logger.info("Time budget for " + test + ": " + describe(budgetMs) + ", per step " + describe(stepBudgetMs));
+        return deadline;
+    }
+
+    /**
+     * Start the budget of a TestNG test from its TimeBudget annotation, the annotation of its class,
+     * or test.budget.seconds and test.budget.step.seconds
+     * @param result test result of the starting test
+     * @return started deadline, or null if the test has no budget
+     */
+    public static Deadline start(ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        Class<?> testClass = result.getTestClass().getRealClass();
+        TimeBudget budget = method == null ? null : method.getAnnotation(TimeBudget.class);
+        if (budget == null) {
+            budget = testClass.getAnnotation(TimeBudget.class);
+        }
+        long seconds = budget != null ? budget.seconds()
+                : Long.parseLong(ConfigReader.getProperty("test.budget.seconds", "0"));
+        long stepSeconds = budget != null ? budget.stepSeconds()
+                : Long.parseLong(ConfigReader.getProperty("test.budget.step.seconds", "0"));
+        return start(testClass.getSimpleName() + "." + result.getName(), seconds * 1000, stepSeconds * 1000);
+    }
+
+    /**
+     * Get the deadline of the current thread
+     * @return deadline, or null if the running test has no budget
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Begin a step of the current test, which gets a fresh step budget
+     * @param name step name
+     * @throws BudgetExhaustedException if the test budget is already used up
+     */
+    public static void step(String name) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return;
+        }
+        deadline.step = name;
+        deadline.stepStartNanos = System.nanoTime();
+        deadline.check();
+        deadline.limitImplicitWait();
+    }
+
+    /**
+     * Cap a wait timeout by the budget left to the current thread
+     * @param timeout requested timeout
+     * @return requested timeout, or the remaining budget if that is shorter
+     * @throws BudgetExhaustedException if no budget is left
+     */
+    public static Duration cap(Duration timeout) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        deadline.check();
+        deadline.limitImplicitWait();
+        long remaining = deadline.getRemainingMs();
+        return remaining < timeout.toMillis() ? Duration.ofMillis(remaining) : timeout;
+    }
+
+    /**
+     * Prepare an element lookup that may wait implicitly: fail if no budget is left and lower the
+     * implicit wait to what remains
+     * @throws BudgetExhaustedException if no budget is left
+     */
+    public static void beforeLookup() {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return;
+        }
+        deadline.check();
+        deadline.limitImplicitWait();
+    }
+
+    /**
+     * Get the error to throw for a failed element lookup
+     * @param failure lookup failure
+     * @return BudgetExhaustedException if the lookup was cut short by the budget, otherwise the failure
+     */
+    public static RuntimeException lookupFailed(RuntimeException failure) {
+        Deadline deadline = current.get();
+        return deadline != null && deadline.getRemainingMs() <= 0 ? deadline.exhausted(failure) : failure;
+    }
+
+    /**
+     * End the budget of the current thread's test, restoring the configured implicit wait
+     * @return used time in milliseconds, or -1 if the test had no budget
+     */
+    public static long finish() {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return -1;
+        }
+        current.remove();
+        long usedMs = deadline.getElapsedMs();
+        if (deadline.limitedDriver != null && deadline.limitedDriver == currentDriver()
+                && deadline.implicitWaitSeconds != ConfigReader.getImplicitWait()) {
+            deadline.limitedDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
+        }
+        logger.info("Time budget for " + deadline.test + ": used " + usedMs + " ms of " + describe(deadline.budgetMs));
+        return usedMs;
+    }
+
+    /**
+     * Fail if the test or step budget is used up
+     * @throws BudgetExhaustedException if no budget is left
+     */
+    public void check() {
+        if (getRemainingMs() <= 0) {
+            throw exhausted(null);
+        }
+    }
+
+    /**
+     * Create the error for a budget that ran out, naming the test, the step and the budget that was hit
+     * @param cause wait timeout that hit the budget, or null
+     * @return exception to throw
+     */
+    public BudgetExhaustedException exhausted(Throwable cause) {
+        boolean stepLimited = getStepRemainingMs() < getTestRemainingMs();
+        String where = step == null ? "before the first step" : "in step '" + step + "'";
+        String message = "Time budget exhausted " + where + " of " + test + ": "
+                + (stepLimited ? "step used " + getStepElapsedMs() + " ms of its " + describe(stepBudgetMs)
+                : "test used " + getElapsedMs() + " ms of its " + describe(budgetMs));
+        logger.error(message);
+        return new BudgetExhaustedException(message, step, cause);
+    }
+
+    /**
+     * Get the time left before the test or the current step runs out of budget
+     * @return remaining milliseconds, 0 when used up
+     */
+    public long getRemainingMs() {
+        return Math.max(0, Math.min(getTestRemainingMs(), getStepRemainingMs()));
+    }
+
+    public long getElapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    private long getStepElapsedMs() {
+        return (System.nanoTime() - stepStartNanos) / 1_000_000;
+    }
+
+    private long getTestRemainingMs() {
+        return budgetMs <= 0 ? Long.MAX_VALUE : budgetMs - getElapsedMs();
+    }
+
+    private long getStepRemainingMs() {
+        return stepBudgetMs <= 0 ? Long.MAX_VALUE : stepBudgetMs - getStepElapsedMs();
+    }
+
+    /**
+     * Lower the driver's implicit wait to the remaining budget, in whole seconds so that a wait
+     * issues the timeouts command at most once per second of budget used
+     */
+    private void limitImplicitWait() {
+        WebDriver driver = currentDriver();
+        if (driver == null) {
+            return;
+        }
+        long configured = ConfigReader.getImplicitWait();
+        long limit = Math.min(configured, getRemainingMs() / 1000);
+        long previous = driver == limitedDriver ? implicitWaitSeconds : configured;
+        if (limit != previous) {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(limit));
+        }
+        limitedDriver = driver;
+        implicitWaitSeconds = limit;
+    }
+
+    private static WebDriver currentDriver() {
+        return WebDriverManagerUtil.isDriverInitialized() ? WebDriverManagerUtil.getDriver() : null;
+    }
+
+    private static String describe(long ms) {
+        return ms <= 0 ? "no limit" : ms + " ms budget";
+    }
+}
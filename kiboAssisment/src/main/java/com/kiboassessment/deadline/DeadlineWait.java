@@ -0,0 +1,37 @@
+package com.kiboassessment.deadline;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait that waits no longer than the running test's remaining time budget. A wait cut short
+ * by the budget fails with BudgetExhaustedException instead of a TimeoutException.
+ */
+public class DeadlineWait extends WebDriverWait {
+    private final Duration timeout;
+
+    public DeadlineWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        Duration capped = Deadline.cap(timeout);
+        if (capped.equals(timeout)) {
+            return super.until(isTrue);
+        }
+        withTimeout(capped);
+        try {
+            return super.until(isTrue);
+        } catch (TimeoutException e) {
+            throw Deadline.current().exhausted(e);
+        } finally {
+            withTimeout(timeout);
+        }
+    }
+}
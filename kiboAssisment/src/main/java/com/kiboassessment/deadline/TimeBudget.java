@@ -0,0 +1,27 @@
+package com.kiboassessment.deadline;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Time budget of a test method, or of every test in a class, overriding test.budget.seconds and
+ * test.budget.step.seconds. All waits of the test draw from the budget.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface TimeBudget {
+
+    /**
+     * Longest time the test may take, 0 for no limit
+     * @return budget in seconds
+     */
+    long seconds();
+
+    /**
+     * Longest time a single logged step may take, capped by what is left of the test budget
+     * @return step budget in seconds, 0 for no step limit
+     */
+    long stepSeconds() default 0;
+}
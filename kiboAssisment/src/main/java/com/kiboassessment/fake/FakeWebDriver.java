@@ -0,0 +1,489 @@
+package com.kiboassessment.fake;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory WebDriver serving registered HTML fixtures instead of a browser.
+ * Locators are resolved against the parsed document and clicks run scripted state transitions,
+ * so page objects can be unit tested in microseconds without a browser or storefront.
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+    private static final Logger logger = LogManager.getLogger(FakeWebDriver.class);
+    private static final String WINDOW_HANDLE = "fake-window";
+    private static final byte[] BLANK_PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=");
+
+    private final Map<String, String> pages = new LinkedHashMap<>();
+    private final Map<String, BiConsumer<FakeWebDriver, Element>> transitions = new LinkedHashMap<>();
+    private final Map<String, Cookie> cookies = new LinkedHashMap<>();
+    private final List<String> history = new ArrayList<>();
+    private int historyIndex = -1;
+    private Document document = Jsoup.parse("", "about:blank");
+    private String currentUrl = "about:blank";
+    private int clicks;
+
+    /**
+     * Register an HTML fixture served when the given URL is opened
+     * @param url absolute URL of the page
+     * @param html page source
+     * @return this driver
+     */
+    public FakeWebDriver page(String url, String html) {
+        pages.put(url, html);
+        return this;
+    }
+
+    /**
+     * Register a fixture and open it
+     * @param url absolute URL of the page
+     * @param html page source
+     * @return this driver
+     */
+    public FakeWebDriver load(String url, String html) {
+        page(url, html);
+        get(url);
+        return this;
+    }
+
+    /**
+     * Script the state transition run when an element matching the selector is clicked,
+     * e.g. removing a cart row or swapping in the next checkout step
+     * @param cssSelector selector the clicked element must match
+     * @param transition action receiving this driver and the clicked element
+     * @return this driver
+     */
+    public FakeWebDriver onClick(String cssSelector, BiConsumer<FakeWebDriver, Element> transition) {
+        transitions.put(cssSelector, transition);
+        return this;
+    }
+
+    /**
+     * Get the live document, which transitions may modify
+     * @return current document
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Get number of clicks performed
+     * @return click count
+     */
+    public int getClickCount() {
+        return clicks;
+    }
+
+    @Override
+    public void get(String url) {
+        open(url);
+        history.subList(historyIndex + 1, history.size()).clear();
+        history.add(currentUrl);
+        historyIndex = history.size() - 1;
+    }
+
+    private void open(String url) {
+        String resolved = resolve(url);
+        String html = pages.get(resolved);
+        if (html == null) {
+            throw new WebDriverException("No fixture registered for URL: " + resolved);
+        }
+        document = Jsoup.parse(html, resolved);
+        currentUrl = resolved;
+        logger.debug("Opened fixture: " + resolved);
+    }
+
+    private String resolve(String url) {
+        if (currentUrl.startsWith("about:")) {
+            return url;
+        }
+        return URI.create(currentUrl).resolve(url.replace(" ", "%20")).toString();
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return document.title();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return find(document, by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return first(document, by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return document.outerHtml();
+    }
+
+    @Override
+    public void close() {
+        quit();
+    }
+
+    @Override
+    public void quit() {
+        document = Jsoup.parse("", "about:blank");
+        currentUrl = "about:blank";
+        cookies.clear();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Set.of(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedCommandException("Frames and windows are not supported by the fake driver");
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new FakeNavigation();
+    }
+
+    @Override
+    public Options manage() {
+        return new FakeOptions();
+    }
+
+    /**
+     * Answer the scripts the framework runs for page readiness and scrolling; there is no Performance API,
+     * so page timing scripts yield no result; anything else is unsupported
+     * @param script script source
+     * @param args script arguments
+     * @return script result
+     */
+    @Override
+    public Object executeScript(String script, Object... args) {
+        if (script.contains("document.readyState")) {
+            return "complete";
+        }
+        if (script.contains("scrollIntoView") || script.contains("scrollTo") || script.contains("performance.")) {
+            return null;
+        }
+        if (script.contains(".click()") && args.length > 0 && args[0] instanceof WebElement) {
+            ((WebElement) args[0]).click();
+            return null;
+        }
+        throw new UnsupportedCommandException("Script not supported by the fake driver: " + script);
+    }
+
+    /**
+     * Asynchronous scripts, such as the page timing collector, yield no result
+     * @param script script source
+     * @param args script arguments
+     * @return null
+     */
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(BLANK_PNG);
+    }
+
+    List<WebElement> find(Element root, By by) {
+        List<WebElement> found = new ArrayList<>();
+        for (Element element : select(root, by)) {
+            found.add(new FakeWebElement(this, element));
+        }
+        return found;
+    }
+
+    WebElement first(Element root, By by) {
+        Elements found = select(root, by);
+        if (found.isEmpty()) {
+            throw new NoSuchElementException("Unable to locate element: " + by);
+        }
+        return new FakeWebElement(this, found.first());
+    }
+
+    private Elements select(Element root, By by) {
+        if (!(by instanceof By.Remotable)) {
+            // Composite locators (@FindBys, @FindAll) resolve through their parts
+            Elements elements = new Elements();
+            for (WebElement element : by.findElements(root == document ? this : new FakeWebElement(this, root))) {
+                elements.add(((FakeWebElement) element).getElement());
+            }
+            return elements;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        switch (parameters.using()) {
+            case "css selector":
+                return root.select(value.trim());
+            case "xpath":
+                return root.selectXpath(value);
+            case "id":
+                return root.getElementsByAttributeValue("id", value);
+            case "name":
+                return root.getElementsByAttributeValue("name", value);
+            case "class name":
+                return root.getElementsByClass(value);
+            case "tag name":
+                return root.getElementsByTag(value);
+            case "link text":
+                return linksMatching(root, value, true);
+            case "partial link text":
+                return linksMatching(root, value, false);
+            default:
+                throw new UnsupportedCommandException("Locator not supported by the fake driver: " + by);
+        }
+    }
+
+    private static Elements linksMatching(Element root, String text, boolean exact) {
+        Elements links = new Elements();
+        for (Element link : root.select("a")) {
+            String linkText = link.text().trim();
+            if (exact ? linkText.equals(text.trim()) : linkText.contains(text)) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    boolean isAttached(Element element) {
+        return element.ownerDocument() == document;
+    }
+
+    /**
+     * Update checkbox, radio and option state of a clicked element, then run its scripted transition.
+     * Links and submit buttons without a transition open their target fixture.
+     * @param element clicked element
+     */
+    void click(Element element) {
+        clicks++;
+        BiConsumer<FakeWebDriver, Element> transition = transitionFor(element);
+        if (transition == null && element.tagName().equals("option") && element.parent() != null) {
+            transition = transitionFor(element.parent());
+        }
+        updateState(element);
+        if (transition != null) {
+            transition.accept(this, element);
+        } else {
+            follow(element);
+        }
+    }
+
+    private BiConsumer<FakeWebDriver, Element> transitionFor(Element element) {
+        for (Map.Entry<String, BiConsumer<FakeWebDriver, Element>> transition : transitions.entrySet()) {
+            if (element.is(transition.getKey())) {
+                return transition.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void updateState(Element element) {
+        String type = element.attr("type").toLowerCase();
+        if (element.tagName().equals("input") && type.equals("checkbox")) {
+            toggle(element, "checked", !element.hasAttr("checked"));
+        } else if (element.tagName().equals("input") && type.equals("radio")) {
+            Element scope = element.closest("form");
+            for (Element radio : (scope == null ? document : scope).select("input[type=radio]")) {
+                if (radio.attr("name").equals(element.attr("name"))) {
+                    radio.removeAttr("checked");
+                }
+            }
+            element.attr("checked", true);
+        } else if (element.tagName().equals("option")) {
+            Element select = element.closest("select");
+            boolean multiple = select != null && select.hasAttr("multiple");
+            if (select != null && !multiple) {
+                select.select("option").removeAttr("selected");
+            }
+            toggle(element, "selected", !multiple || !element.hasAttr("selected"));
+        }
+    }
+
+    private void follow(Element element) {
+        String type = element.attr("type").toLowerCase();
+        if (element.tagName().equals("a") && element.hasAttr("href")) {
+            String href = element.attr("href");
+            if (!href.startsWith("#") && !href.startsWith("javascript:")) {
+                get(href);
+            }
+        } else if (type.equals("submit") && (element.tagName().equals("input") || element.tagName().equals("button"))) {
+            Element form = element.closest("form");
+            if (form != null) {
+                submit(form);
+            }
+        }
+    }
+
+    private static void toggle(Element element, String attribute, boolean on) {
+        if (on) {
+            element.attr(attribute, true);
+        } else {
+            element.removeAttr(attribute);
+        }
+    }
+
+    /**
+     * Submit a form by opening its action, if a fixture is registered for it
+     * @param form form element
+     */
+    void submit(Element form) {
+        String action = form.hasAttr("action") ? form.attr("action") : currentUrl;
+        if (pages.containsKey(resolve(action))) {
+            get(action);
+        }
+    }
+
+    private class FakeNavigation implements Navigation {
+        @Override
+        public void back() {
+            if (historyIndex > 0) {
+                open(history.get(--historyIndex));
+            }
+        }
+
+        @Override
+        public void forward() {
+            if (historyIndex < history.size() - 1) {
+                open(history.get(++historyIndex));
+            }
+        }
+
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        @Override
+        public void refresh() {
+            open(currentUrl);
+        }
+    }
+
+    private class FakeOptions implements Options {
+        @Override
+        public void addCookie(Cookie cookie) {
+            cookies.put(cookie.getName(), cookie);
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+            cookies.remove(name);
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+            cookies.remove(cookie.getName());
+        }
+
+        @Override
+        public void deleteAllCookies() {
+            cookies.clear();
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            return new HashSet<>(cookies.values());
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            return cookies.get(name);
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return new FakeTimeouts();
+        }
+
+        @Override
+        public Window window() {
+            throw new UnsupportedCommandException("Windows are not supported by the fake driver");
+        }
+
+        @Override
+        public Logs logs() {
+            throw new UnsupportedCommandException("Logs are not supported by the fake driver");
+        }
+    }
+
+    /**
+     * Timeouts are accepted and ignored: every lookup is answered immediately
+     */
+    private static class FakeTimeouts implements Timeouts {
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts implicitlyWait(Duration duration) {
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts pageLoadTimeout(Duration duration) {
+            return this;
+        }
+    }
+}
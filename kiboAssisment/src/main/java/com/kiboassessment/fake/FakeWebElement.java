@@ -0,0 +1,271 @@
+package com.kiboassessment.fake;
+
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WebElement backed by an element of the fake driver's parsed document
+ */
+public class FakeWebElement implements WebElement {
+    private static final Set<String> HIDDEN_TAGS = Set.of("head", "script", "style", "title", "template", "noscript");
+    private static final Set<String> BOOLEAN_ATTRIBUTES = Set.of("checked", "selected", "disabled", "readonly", "multiple", "required");
+
+    private final FakeWebDriver driver;
+    private final Element element;
+
+    FakeWebElement(FakeWebDriver driver, Element element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    /**
+     * Get the underlying document element
+     * @return jsoup element
+     */
+    public Element getElement() {
+        return element;
+    }
+
+    @Override
+    public void click() {
+        checkAttached();
+        if (!isDisplayed(element)) {
+            throw new ElementNotInteractableException("Element is not displayed: " + describe());
+        }
+        if (!isEnabled()) {
+            return;
+        }
+        driver.click(element);
+    }
+
+    @Override
+    public void submit() {
+        checkAttached();
+        Element form = element.closest("form");
+        if (form == null) {
+            throw new UnsupportedCommandException("Element is not in a form: " + describe());
+        }
+        driver.submit(form);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        checkAttached();
+        if (!isDisplayed(element)) {
+            throw new ElementNotInteractableException("Element is not displayed: " + describe());
+        }
+        StringBuilder text = new StringBuilder(element.val());
+        for (CharSequence keys : keysToSend) {
+            for (int i = 0; i < keys.length(); i++) {
+                char key = keys.charAt(i);
+                // Special keys live in the private use area and have no text to type
+                if (Keys.getKeyFromUnicode(key) == null) {
+                    text.append(key);
+                }
+            }
+        }
+        element.val(text.toString());
+    }
+
+    @Override
+    public void clear() {
+        checkAttached();
+        element.val("");
+    }
+
+    @Override
+    public String getTagName() {
+        return element.tagName();
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        checkAttached();
+        return element.hasAttr(name) ? element.attr(name) : null;
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return getAttribute(name);
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        checkAttached();
+        String key = name.toLowerCase();
+        if (key.equals("value") && isFormControl()) {
+            return element.tagName().equals("select") ? selectedValue() : element.val();
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(key)) {
+            return element.hasAttr(key) ? "true" : null;
+        }
+        if ((key.equals("href") || key.equals("src")) && element.hasAttr(key)) {
+            String absolute = element.absUrl(key);
+            return absolute.isEmpty() ? element.attr(key) : absolute;
+        }
+        if (key.equals("textcontent") || key.equals("innertext")) {
+            return element.text();
+        }
+        return element.hasAttr(key) ? element.attr(key) : null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        checkAttached();
+        return element.hasAttr(element.tagName().equals("option") ? "selected" : "checked");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        checkAttached();
+        for (Element current = element; current != null; current = current.parent()) {
+            if (current.hasAttr("disabled")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        checkAttached();
+        if (!isDisplayed(element)) {
+            return "";
+        }
+        Element visible = element.clone();
+        visible.select("*").stream()
+                .filter(descendant -> descendant != visible && hidesItself(descendant))
+                .forEach(Element::remove);
+        return visible.text();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        checkAttached();
+        return driver.find(element, by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        checkAttached();
+        return driver.first(element, by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        checkAttached();
+        return isDisplayed(element);
+    }
+
+    @Override
+    public Point getLocation() {
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return isDisplayed() ? new Dimension(1, 1) : new Dimension(0, 0);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        checkAttached();
+        for (String declaration : element.attr("style").split(";")) {
+            String[] parts = declaration.split(":", 2);
+            if (parts.length == 2 && parts[0].trim().equalsIgnoreCase(propertyName)) {
+                return parts[1].trim();
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return driver.getScreenshotAs(target);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FakeWebElement && ((FakeWebElement) other).element == element;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    public String toString() {
+        return "FakeWebElement[" + describe() + "]";
+    }
+
+    /**
+     * Check whether an element would be rendered, based on its own and its ancestors' markup
+     * @param element document element
+     * @return true if displayed
+     */
+    static boolean isDisplayed(Element element) {
+        if (element.tagName().equals("input") && element.attr("type").equalsIgnoreCase("hidden")) {
+            return false;
+        }
+        for (Element current = element; current != null; current = current.parent()) {
+            if (hidesItself(current)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hidesItself(Element element) {
+        if (HIDDEN_TAGS.contains(element.tagName()) || element.hasAttr("hidden")) {
+            return true;
+        }
+        String style = element.attr("style").replace(" ", "").toLowerCase();
+        return style.contains("display:none") || style.contains("visibility:hidden");
+    }
+
+    private boolean isFormControl() {
+        String tag = element.tagName();
+        return tag.equals("input") || tag.equals("textarea") || tag.equals("select") || tag.equals("option") || tag.equals("button");
+    }
+
+    private String selectedValue() {
+        Element option = element.selectFirst("option[selected]");
+        option = option == null ? element.selectFirst("option") : option;
+        return option == null ? "" : option.val();
+    }
+
+    private void checkAttached() {
+        if (!driver.isAttached(element)) {
+            throw new StaleElementReferenceException("Element is no longer attached to the document: " + describe());
+        }
+    }
+
+    private String describe() {
+        StringBuilder description = new StringBuilder(element.tagName());
+        if (element.hasAttr("id")) {
+            description.append('#').append(element.id());
+        }
+        for (String cssClass : element.classNames()) {
+            description.append('.').append(cssClass);
+        }
+        return description.toString();
+    }
+}
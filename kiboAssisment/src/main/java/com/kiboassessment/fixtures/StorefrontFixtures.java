@@ -0,0 +1,391 @@
+package com.kiboassessment.fixtures;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.catalog.ProductRecord;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.StorefrontClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.FormElement;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sets up cart and account state directly against the storefront endpoints over HTTP,
+ * then hands the session over to the browser
+ */
+public class StorefrontFixtures {
+    private static final Logger logger = LogManager.getLogger(StorefrontFixtures.class);
+    private static final Pattern PRODUCT_ID = Pattern.compile("add-to-cart-button-(\\d+)");
+
+    private final StorefrontClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Create fixtures for the configured storefront
+     */
+    public StorefrontFixtures() {
+        this(new StorefrontClient());
+    }
+
+    /**
+     * Create fixtures using the given client
+     * @param client storefront HTTP client
+     */
+    public StorefrontFixtures(StorefrontClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Get underlying HTTP client
+     * @return storefront client
+     */
+    public StorefrontClient getClient() {
+        return client;
+    }
+
+    /**
+     * Continue the browser's current session over HTTP
+     * @param driver browser session to copy cookies from
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures attachTo(WebDriver driver) {
+        client.importCookies(driver);
+        return this;
+    }
+
+    /**
+     * Log in over HTTP
+     * @param email email
+     * @param password password
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures login(String email, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("Email", email);
+        form.put("Password", password);
+        form.put("RememberMe", "false");
+        HttpResponse<String> response = client.postForm("/login", form);
+        if (!Jsoup.parse(response.body()).select("a.ico-logout").isEmpty()) {
+            logger.info("Logged in over HTTP as: " + email);
+            return this;
+        }
+        throw new IllegalStateException("HTTP login failed for: " + email);
+    }
+
+    /**
+     * Log in over HTTP with the configured credentials
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures login() {
+        return login(ConfigReader.getEmail(), ConfigReader.getPassword());
+    }
+
+    /**
+     * Register an account over HTTP; the storefront signs the new account in
+     * @param email email
+     * @param password password
+     * @param firstName first name
+     * @param lastName last name
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures register(String email, String password, String firstName, String lastName) {
+        List<Map.Entry<String, String>> form = formData(getDocument("/register").selectFirst("form[action$=/register]"));
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("FirstName", firstName);
+        values.put("LastName", lastName);
+        values.put("Email", email);
+        values.put("Password", password);
+        values.put("ConfirmPassword", password);
+        form.removeIf(field -> values.containsKey(field.getKey()));
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            form.add(new AbstractMap.SimpleEntry<>(value.getKey(), value.getValue()));
+        }
+        form.add(new AbstractMap.SimpleEntry<>("register-button", "Register"));
+
+        Document result = Jsoup.parse(client.postForm("/register", form).body());
+        if (result.text().contains("Your registration completed")) {
+            logger.info("Registered over HTTP: " + email);
+            return this;
+        }
+        Element errors = result.selectFirst(".validation-summary-errors, .field-validation-error");
+        throw new IllegalStateException("HTTP registration failed for " + email + (errors == null ? "" : ": " + errors.text()));
+    }
+
+    /**
+     * Add a product to the cart by searching for its name and posting its details form
+     * @param productName product name, matched as in SearchResultsPage
+     * @param quantity quantity to add
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures addProductToCart(String productName, int quantity) {
+        Document results = getDocument("/search?q=" + encode(productName));
+        Element productLink = null;
+        for (Element title : results.select(".product-item .product-title a")) {
+            if (title.text().contains(productName)) {
+                productLink = title;
+                break;
+            }
+        }
+        if (productLink == null) {
+            throw new IllegalStateException("Product not found in search results: " + productName);
+        }
+
+        Document productPage = getDocument(productLink.attr("href"));
+        Element addButton = productPage.selectFirst("[id^=add-to-cart-button-]");
+        if (addButton == null) {
+            throw new IllegalStateException("Add to cart button not found for: " + productName);
+        }
+        Matcher matcher = PRODUCT_ID.matcher(addButton.id());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Product id not found for: " + productName);
+        }
+        String productId = matcher.group(1);
+
+        return postAddToCart(productName, productId, "/addproducttocart/details/" + productId + "/1",
+                formData(productPage.selectFirst("#product-details-form")), quantity);
+    }
+
+    /**
+     * Add an indexed product to the cart by posting its stored details form, without searching for it
+     * @param product product from the catalog index
+     * @param quantity quantity to add
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures addProductToCart(ProductRecord product, int quantity) {
+        if (product.getAddToCartAction() == null || product.getProductId() == null) {
+            throw new IllegalStateException("Product cannot be added to the cart: " + product.getName());
+        }
+        return postAddToCart(product.getName(), product.getProductId(), product.getAddToCartAction(),
+                new ArrayList<>(product.getAddToCartForm()), quantity);
+    }
+
+    /**
+     * Add the configured product to the cart
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures addProductToCart() {
+        return addProductToCart(ConfigReader.getProductName(), 1);
+    }
+
+    /**
+     * Remove every item from the cart
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures clearCart() {
+        Document cart = getDocument("/cart");
+        List<Element> removeBoxes = cart.select(".cart-item-row input[name=removefromcart]");
+        if (removeBoxes.isEmpty()) {
+            logger.info("Cart already empty");
+            return this;
+        }
+        List<Map.Entry<String, String>> form = formData(cart.selectFirst("form[action$=/cart]"));
+        for (Element removeBox : removeBoxes) {
+            form.add(new AbstractMap.SimpleEntry<>("removefromcart", removeBox.val()));
+        }
+        form.add(new AbstractMap.SimpleEntry<>("updatecart", "Update shopping cart"));
+        client.postForm("/cart", form);
+        logger.info("Cleared " + removeBoxes.size() + " cart items over HTTP");
+        return this;
+    }
+
+    /**
+     * Get names of the products currently in the cart
+     * @return list of cart item names
+     */
+    public List<String> getCartItemNames() {
+        List<String> names = new ArrayList<>();
+        for (Element name : getDocument("/cart").select(".cart-item-row .product-name")) {
+            names.add(name.text());
+        }
+        return names;
+    }
+
+    /**
+     * Get cart contents
+     * @return quantities by product name, in cart order
+     */
+    public Map<String, Integer> getCartContents() {
+        return parseCartContents(getDocument("/cart"));
+    }
+
+    /**
+     * Read cart contents from a cart page that is already loaded, e.g. the browser's current page
+     * @param cartPage cart page document
+     * @return quantities by product name, in cart order
+     */
+    public static Map<String, Integer> parseCartContents(Document cartPage) {
+        Map<String, Integer> contents = new LinkedHashMap<>();
+        for (Element row : cartPage.select(".cart-item-row")) {
+            Element name = row.selectFirst(".product-name");
+            Element quantity = row.selectFirst(".qty-input");
+            if (name != null) {
+                contents.merge(name.text(), quantity == null ? 1 : Integer.parseInt(quantity.val().trim()), Integer::sum);
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Add a saved address built from configuration, e.g. prefix "billing" reads billing.firstname, billing.country, ...
+     * @param prefix configuration key prefix
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures addAddress(String prefix) {
+        Map<String, String> address = new LinkedHashMap<>();
+        address.put("FirstName", ConfigReader.getProperty(prefix + ".firstname"));
+        address.put("LastName", ConfigReader.getProperty(prefix + ".lastname"));
+        address.put("Email", ConfigReader.getProperty(prefix + ".email"));
+        address.put("Company", ConfigReader.getProperty(prefix + ".company"));
+        address.put("Country", ConfigReader.getProperty(prefix + ".country"));
+        address.put("State", ConfigReader.getProperty(prefix + ".state"));
+        address.put("City", ConfigReader.getProperty(prefix + ".city"));
+        address.put("Address1", ConfigReader.getProperty(prefix + ".address1"));
+        address.put("ZipPostalCode", ConfigReader.getProperty(prefix + ".zipcode"));
+        address.put("PhoneNumber", ConfigReader.getProperty(prefix + ".phone"));
+        return addAddress(address);
+    }
+
+    /**
+     * Add a saved address to the logged in account.
+     * Country and State are given by name and resolved to the storefront's ids.
+     * @param address address fields without the "Address." prefix
+     * @return this fixtures instance
+     */
+    public StorefrontFixtures addAddress(Map<String, String> address) {
+        Document page = getDocument("/customer/addressadd");
+        FormElement formElement = (FormElement) page.selectFirst("form[action$=/customer/addressadd]");
+        if (formElement == null) {
+            throw new IllegalStateException("Address form not available, is the session logged in?");
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : formData(formElement)) {
+            fields.put(field.getKey(), field.getValue());
+        }
+        String countryId = optionValue(formElement.selectFirst("#Address_CountryId"), address.get("Country"));
+        fields.put("Address.CountryId", countryId);
+        fields.put("Address.StateProvinceId", stateId(countryId, address.get("State")));
+        for (Map.Entry<String, String> field : address.entrySet()) {
+            if (!field.getKey().equals("Country") && !field.getKey().equals("State")) {
+                fields.put("Address." + field.getKey(), field.getValue());
+            }
+        }
+
+        client.postForm("/customer/addressadd", fields);
+        logger.info("Added address over HTTP for: " + address.get("FirstName") + " " + address.get("LastName"));
+        return this;
+    }
+
+    /**
+     * Hand the prepared session over to the browser and open the given page
+     * @param driver browser session to receive the cookies
+     * @param path storefront path to open after the hand-off, e.g. "/cart"
+     */
+    public void handOffTo(WebDriver driver, String path) {
+        driver.get(client.resolve("/").toString());
+        client.exportCookies(driver);
+        driver.get(client.resolve(path).toString());
+        logger.info("Handed off HTTP session to browser at: " + path);
+    }
+
+    private StorefrontFixtures postAddToCart(String productName, String productId, String action,
+                                             List<Map.Entry<String, String>> form, int quantity) {
+        form.removeIf(field -> field.getKey().equals("addtocart_" + productId + ".EnteredQuantity"));
+        form.add(new AbstractMap.SimpleEntry<>("addtocart_" + productId + ".EnteredQuantity", String.valueOf(quantity)));
+
+        JsonNode result = readJson(client.postForm(action, form));
+        if (!result.path("success").asBoolean(false)) {
+            throw new IllegalStateException("Add to cart failed for " + productName + ": " + result.path("message"));
+        }
+        logger.info("Added product to cart over HTTP: " + productName + " x" + quantity);
+        return this;
+    }
+
+    private String stateId(String countryId, String stateName) {
+        if (stateName == null || stateName.isEmpty()) {
+            return "0";
+        }
+        JsonNode states = readJson(client.get("/country/getstatesbycountryid?countryId=" + countryId + "&addEmptyStateIfRequired=true"));
+        for (JsonNode state : states) {
+            if (stateName.equals(state.path("name").asText())) {
+                return state.path("id").asText();
+            }
+        }
+        throw new IllegalStateException("State not found: " + stateName);
+    }
+
+    private static String optionValue(Element select, String text) {
+        if (select != null) {
+            for (Element option : select.select("option")) {
+                if (option.text().equals(text)) {
+                    return option.val();
+                }
+            }
+        }
+        throw new IllegalStateException("Option not found: " + text);
+    }
+
+    /**
+     * Collect the fields a browser would submit for a form, excluding its submit buttons
+     * @param form form element
+     * @return form fields in document order
+     */
+    public static List<Map.Entry<String, String>> formData(Element form) {
+        List<Map.Entry<String, String>> fields = new ArrayList<>();
+        if (!(form instanceof FormElement)) {
+            return fields;
+        }
+        for (Element control : ((FormElement) form).elements()) {
+            String name = control.attr("name");
+            String type = control.attr("type").toLowerCase();
+            if (name.isEmpty() || control.hasAttr("disabled") || control.tagName().equals("button")
+                    || type.equals("submit") || type.equals("button") || type.equals("image") || type.equals("reset")) {
+                continue;
+            }
+            if ((type.equals("checkbox") || type.equals("radio")) && !control.hasAttr("checked")) {
+                continue;
+            }
+            if (control.tagName().equals("select")) {
+                Element option = control.selectFirst("option[selected]");
+                option = option == null ? control.selectFirst("option") : option;
+                if (option != null) {
+                    fields.add(new AbstractMap.SimpleEntry<>(name, option.val()));
+                }
+                continue;
+            }
+            fields.add(new AbstractMap.SimpleEntry<>(name, control.val()));
+        }
+        return fields;
+    }
+
+    private Document getDocument(String path) {
+        HttpResponse<String> response = client.get(path);
+        return Jsoup.parse(response.body(), client.resolve(path).toString());
+    }
+
+    private JsonNode readJson(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected non-JSON response from " + response.uri(), e);
+        }
+    }
+
+    private static String encode(String value) {
+        return java.net.URLEncoder.encode(value, java.nio.charset.StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,203 @@
+package com.kiboassessment.flow;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.replay.TrafficReplay;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test flow split into named stages. After each stage the browser state is checkpointed so that a
+ * retried test invocation restores the last good checkpoint and re-executes only the failed stage.
+ */
+public class CheckpointedFlow {
+    private static final Logger logger = LogManager.getLogger(CheckpointedFlow.class);
+    private static final Map<String, CheckpointedFlow> flows = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final Map<String, Runnable> stages = new LinkedHashMap<>();
+    private final List<String> completedStages = new ArrayList<>();
+    private FlowCheckpoint lastCheckpoint;
+    private String failedStage;
+    private int attempt;
+
+    private CheckpointedFlow(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the flow of the currently running test method, keeping progress from earlier attempts
+     * @return checkpointed flow
+     */
+    public static CheckpointedFlow forCurrentTest() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            throw new IllegalStateException("CheckpointedFlow must be used from a running TestNG test");
+        }
+        return flows.computeIfAbsent(keyOf(result), CheckpointedFlow::new).reset();
+    }
+
+    /**
+     * Find the flow registered for a test result
+     * @param result test result
+     * @return flow, or null if the test does not use one
+     */
+    public static CheckpointedFlow find(ITestResult result) {
+        return flows.get(keyOf(result));
+    }
+
+    /**
+     * Drop the flow registered for a test result
+     * @param result test result
+     */
+    public static void discard(ITestResult result) {
+        flows.remove(keyOf(result));
+    }
+
+    private static String keyOf(ITestResult result) {
+        return result.getMethod().getQualifiedName() + "@" + System.identityHashCode(result.getInstance());
+    }
+
+    private CheckpointedFlow reset() {
+        stages.clear();
+        attempt++;
+        return this;
+    }
+
+    /**
+     * Add a named stage
+     * @param name stage name, logged as a report step
+     * @param action stage body
+     * @return this flow
+     */
+    public CheckpointedFlow stage(String name, Runnable action) {
+        stages.put(name, action);
+        return this;
+    }
+
+    /**
+     * Run all stages that have not completed in an earlier attempt
+     */
+    public void run() {
+        if (!completedStages.isEmpty() && lastCheckpoint != null) {
+            TestListener.logWarning("Attempt " + attempt + ": resuming at '" + failedStage + "' from checkpoint " + lastCheckpoint);
+            restore(lastCheckpoint);
+        }
+
+        for (Map.Entry<String, Runnable> stage : stages.entrySet()) {
+            String name = stage.getKey();
+            if (completedStages.contains(name)) {
+                logger.info("Skipping completed stage: " + name);
+                continue;
+            }
+            failedStage = name;
+            TestListener.logStep(name);
+            long start = System.currentTimeMillis();
+            stage.getValue().run();
+            long duration = System.currentTimeMillis() - start;
+
+            lastCheckpoint = capture(name);
+            completedStages.add(name);
+            TestListener.logInfo("Stage completed in " + duration + " ms: " + name);
+        }
+        failedStage = null;
+        flows.remove(key);
+    }
+
+    /**
+     * Get name of the stage that failed in the last attempt
+     * @return stage name, or null if no stage failed
+     */
+    public String getFailedStage() {
+        return failedStage;
+    }
+
+    /**
+     * Get last checkpoint
+     * @return checkpoint, or null if no stage has completed
+     */
+    public FlowCheckpoint getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    /**
+     * Capture the browser state from the page the browser already has, without requests to the storefront.
+     * The cart is taken over from the previous checkpoint when the header quantity is unchanged, read from
+     * the page when it is the cart page, and otherwise left unknown until a restore needs it.
+     */
+    private FlowCheckpoint capture(String stageName) {
+        WebDriver driver = WebDriverManagerUtil.getDriver();
+        String url = driver.getCurrentUrl();
+        Document page = Jsoup.parse(driver.getPageSource(), url);
+        int quantity = cartQuantity(page);
+        Map<String, Integer> cart;
+        if (TrafficReplay.isReplaying() || quantity == 0) {
+            // A replayed session is served from the traffic archive, so its cart is not restored
+            cart = Map.of();
+        } else if (quantity > 0 && lastCheckpoint != null && lastCheckpoint.getCart() != null
+                && lastCheckpoint.getCartQuantity() == quantity) {
+            cart = lastCheckpoint.getCart();
+        } else if (!page.select(".cart-item-row").isEmpty()) {
+            cart = StorefrontFixtures.parseCartContents(page);
+        } else {
+            cart = null;
+        }
+        return new FlowCheckpoint(stageName, driver.manage().getCookies(), url, quantity, cart);
+    }
+
+    private static int cartQuantity(Document page) {
+        Element quantity = page.selectFirst(".header-links .cart-qty");
+        if (quantity == null) {
+            return -1;
+        }
+        String digits = quantity.text().replaceAll("\\D", "");
+        return digits.isEmpty() ? -1 : Integer.parseInt(digits);
+    }
+
+    private void restore(FlowCheckpoint checkpoint) {
+        WebDriver driver = WebDriverManagerUtil.getDriver();
+        driver.get(ConfigReader.getBaseUrl());
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : checkpoint.getCookies()) {
+            driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), cookie.getPath()));
+        }
+
+        if (!TrafficReplay.isReplaying()) {
+            StorefrontFixtures fixtures = new StorefrontFixtures().attachTo(driver);
+            Map<String, Integer> current = fixtures.getCartContents();
+            Map<String, Integer> cart = checkpoint.getCart();
+            if (cart == null) {
+                // Not captured after the stage; the current cart is the checkpoint's if the failed stage left its size alone
+                int currentQuantity = current.values().stream().mapToInt(Integer::intValue).sum();
+                if (currentQuantity != checkpoint.getCartQuantity()) {
+                    logger.warn("Cart at checkpoint not captured, keeping current cart " + current
+                            + " instead of " + checkpoint.getCartQuantity() + " items");
+                }
+            } else if (!current.equals(cart)) {
+                logger.info("Restoring cart contents: " + cart);
+                fixtures.clearCart();
+                for (Map.Entry<String, Integer> item : cart.entrySet()) {
+                    fixtures.addProductToCart(item.getKey(), item.getValue());
+                }
+            }
+        }
+
+        driver.get(checkpoint.getUrl());
+        logger.info("Restored checkpoint " + checkpoint);
+    }
+}
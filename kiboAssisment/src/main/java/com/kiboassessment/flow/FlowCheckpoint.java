@@ -0,0 +1,67 @@
+package com.kiboassessment.flow;
+
+import org.openqa.selenium.Cookie;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Browser state captured after a flow stage completes: cookies, current URL and cart contents.
+ * The cart is read from the browser's page, so its contents are unknown when the stage ended
+ * outside the cart page after changing the cart; the header's cart quantity is always kept.
+ */
+public class FlowCheckpoint {
+    private final String stageName;
+    private final Set<Cookie> cookies;
+    private final String url;
+    private final int cartQuantity;
+    private final Map<String, Integer> cart;
+
+    /**
+     * Create checkpoint
+     * @param stageName name of the completed stage
+     * @param cookies browser cookies
+     * @param url current URL
+     * @param cartQuantity number of items in the cart shown in the page header, -1 if the page has none
+     * @param cart cart quantities by product name, or null if not known
+     */
+    public FlowCheckpoint(String stageName, Set<Cookie> cookies, String url, int cartQuantity, Map<String, Integer> cart) {
+        this.stageName = stageName;
+        this.cookies = Collections.unmodifiableSet(new LinkedHashSet<>(cookies));
+        this.url = url;
+        this.cartQuantity = cartQuantity;
+        this.cart = cart == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(cart));
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    public Set<Cookie> getCookies() {
+        return cookies;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getCartQuantity() {
+        return cartQuantity;
+    }
+
+    /**
+     * Get cart contents
+     * @return quantities by product name, or null if not known
+     */
+    public Map<String, Integer> getCart() {
+        return cart;
+    }
+
+    @Override
+    public String toString() {
+        return "after '" + stageName + "' at " + url + " with cart " + (cart == null ? cartQuantity + " items" : cart);
+    }
+}
@@ -0,0 +1,115 @@
+package com.kiboassessment.har;
+
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Optional per-session HAR capture (har.enabled). WebDriverManagerUtil starts a capture for each new
+ * Chrome/Edge session, steps logged through TestListener become HAR pages, and the listener finishes
+ * the capture when the test ends.
+ */
+public class HarCapture {
+    private static final Logger logger = LogManager.getLogger(HarCapture.class);
+    private static final ThreadLocal<HarRecorder> recorder = new ThreadLocal<>();
+    private static final ThreadLocal<HarWriter> writer = new ThreadLocal<>();
+
+    /**
+     * Result of a finished capture
+     */
+    public static class Result {
+        private final File file;
+        private final HarSummary summary;
+
+        Result(File file, HarSummary summary) {
+            this.file = file;
+            this.summary = summary;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public HarSummary getSummary() {
+            return summary;
+        }
+    }
+
+    /**
+     * Check whether HAR capture is enabled
+     * @return true if har.enabled is set
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("har.enabled", "false"));
+    }
+
+    /**
+     * Start capturing the network traffic of a session on the current thread
+     * @param driver WebDriver instance
+     */
+    public static void start(WebDriver driver) {
+        if (!isEnabled() || recorder.get() != null) {
+            return;
+        }
+        if (!DevToolsUtil.isSupported(driver)) {
+            logger.warn("HAR capture needs DevTools, not available for " + driver.getClass().getSimpleName());
+            return;
+        }
+        File directory = new File(ConfigReader.getProperty("har.dir", "test-output/har"));
+        HarWriter harWriter = new HarWriter(new File(directory, "capture-" + Thread.currentThread().getId() + "-"
+                + System.currentTimeMillis() + ".har.part"));
+        HarRecorder harRecorder = new HarRecorder(harWriter,
+                new HarSummary(Integer.parseInt(ConfigReader.getProperty("har.summary.top", "5"))),
+                Integer.parseInt(ConfigReader.getProperty("har.body.max.bytes", "0")));
+        harRecorder.attach(DevToolsUtil.getDevTools(driver));
+        recorder.set(harRecorder);
+        writer.set(harWriter);
+        logger.info("HAR capture started: " + harWriter.getFile());
+    }
+
+    /**
+     * Attribute the following requests to a step
+     * @param name step name
+     */
+    public static void step(String name) {
+        HarRecorder harRecorder = recorder.get();
+        if (harRecorder != null) {
+            harRecorder.step(name);
+        }
+    }
+
+    /**
+     * Check whether a capture is running on the current thread
+     * @return true if capturing
+     */
+    public static boolean isCapturing() {
+        return recorder.get() != null;
+    }
+
+    /**
+     * Finish the capture of the current thread
+     * @param name name of the HAR file, e.g. the test name
+     * @return capture result, or null if nothing was captured
+     */
+    public static Result finish(String name) {
+        HarRecorder harRecorder = recorder.get();
+        if (harRecorder == null) {
+            return null;
+        }
+        recorder.remove();
+        HarWriter harWriter = writer.get();
+        writer.remove();
+        HarSummary summary = harRecorder.close();
+
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        File target = new File(harWriter.getFile().getParentFile(), name.replaceAll("[^A-Za-z0-9_.-]", "_") + "_" + timestamp + ".har");
+        File file = harWriter.getFile().renameTo(target) ? target : harWriter.getFile();
+        return new Result(file, summary);
+    }
+}
@@ -0,0 +1,429 @@
+package com.kiboassessment.har;
+
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Builds HAR entries from DevTools Network events and streams them to a HarWriter. Only requests
+ * still in flight and bodies waiting to be fetched are held in memory, and both are capped.
+ */
+public class HarRecorder {
+    private static final Logger logger = LogManager.getLogger(HarRecorder.class);
+    private static final int MAX_IN_FLIGHT = 2000;
+    private static final int MAX_PENDING_BODIES = 100;
+    private static final String NO_STEP = "Before first step";
+
+    private final HarWriter writer;
+    private final HarSummary summary;
+    private final int bodyMaxBytes;
+    private final Map<String, PendingEntry> inFlight = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> pages = new LinkedHashMap<>();
+    private final ExecutorService bodyExecutor;
+    private Function<String, Map<String, Object>> bodyFetcher;
+    private volatile String step = NO_STEP;
+    private int dropped;
+    private int droppedBodies;
+    private boolean closed;
+
+    /**
+     * Request seen but not yet finished
+     */
+    private static class PendingEntry {
+        private final String pageref;
+        private final Map<String, Object> request;
+        private final double timestamp;
+        private final double wallTime;
+        private Map<String, Object> response;
+        private Map<String, Object> timing;
+
+        PendingEntry(String pageref, Map<String, Object> request, double timestamp, double wallTime) {
+            this.pageref = pageref;
+            this.request = request;
+            this.timestamp = timestamp;
+            this.wallTime = wallTime;
+        }
+    }
+
+    /**
+     * Create recorder
+     * @param writer HAR output
+     * @param summary summary receiving the timing of each completed request
+     * @param bodyMaxBytes largest response body stored in the HAR, 0 to store no bodies
+     */
+    public HarRecorder(HarWriter writer, HarSummary summary, int bodyMaxBytes) {
+        this.writer = writer;
+        this.summary = summary;
+        this.bodyMaxBytes = bodyMaxBytes;
+        // Bodies waiting to be fetched are bounded; when the queue is full a body is dropped, not the entry
+        this.bodyExecutor = bodyMaxBytes > 0 ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_BODIES)) : null;
+    }
+
+    /**
+     * Listen to the Network events of a DevTools session
+     * @param devTools DevTools connection
+     */
+    public void attach(DevTools devTools) {
+        DevToolsUtil.send(devTools, "Network.enable", Map.of());
+        if (bodyMaxBytes > 0) {
+            setBodyFetcher(requestId -> DevToolsUtil.send(devTools, "Network.getResponseBody", Map.of("requestId", requestId)));
+        }
+        DevToolsUtil.listen(devTools, "Network.requestWillBeSent", this::onRequestWillBeSent);
+        DevToolsUtil.listen(devTools, "Network.responseReceived", this::onResponseReceived);
+        DevToolsUtil.listen(devTools, "Network.loadingFinished", this::onLoadingFinished);
+        DevToolsUtil.listen(devTools, "Network.loadingFailed", this::onLoadingFailed);
+    }
+
+    /**
+     * Set how response bodies are fetched, e.g. Network.getResponseBody of a DevTools session
+     * @param bodyFetcher returns the getResponseBody result (body, base64Encoded) for a request id
+     */
+    public void setBodyFetcher(Function<String, Map<String, Object>> bodyFetcher) {
+        this.bodyFetcher = bodyMaxBytes > 0 ? bodyFetcher : null;
+    }
+
+    /**
+     * Start a new step; later requests are attributed to it
+     * @param name step name
+     */
+    public synchronized void step(String name) {
+        step = name;
+        pages.computeIfAbsent(name, id -> {
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("startedDateTime", Instant.now().toString());
+            page.put("id", id);
+            page.put("title", id);
+            page.put("pageTimings", Map.of());
+            return page;
+        });
+    }
+
+    /**
+     * Handle Network.requestWillBeSent
+     * @param event event parameters
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void onRequestWillBeSent(Map<String, Object> event) {
+        if (closed) {
+            return;
+        }
+        String requestId = (String) event.get("requestId");
+        Map<String, Object> redirect = (Map<String, Object>) event.get("redirectResponse");
+        if (redirect != null) {
+            // The previous hop of a redirect chain reuses the request id
+            PendingEntry previous = inFlight.remove(requestId);
+            if (previous != null) {
+                previous.response = redirect;
+                previous.timing = (Map<String, Object>) redirect.get("timing");
+                complete(previous, number(event.get("timestamp")), number(redirect.get("encodedDataLength")), null, null);
+            }
+        }
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+            Iterator<String> oldest = inFlight.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+            dropped++;
+        }
+        if (!pages.containsKey(step)) {
+            step(step);
+        }
+        inFlight.put(requestId, new PendingEntry(step, (Map<String, Object>) event.get("request"),
+                number(event.get("timestamp")), number(event.get("wallTime"))));
+    }
+
+    /**
+     * Handle Network.responseReceived
+     * @param event event parameters
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void onResponseReceived(Map<String, Object> event) {
+        PendingEntry entry = inFlight.get((String) event.get("requestId"));
+        if (entry != null) {
+            entry.response = (Map<String, Object>) event.get("response");
+            entry.timing = entry.response == null ? null : (Map<String, Object>) entry.response.get("timing");
+        }
+    }
+
+    /**
+     * Handle Network.loadingFinished
+     * @param event event parameters
+     */
+    public synchronized void onLoadingFinished(Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        PendingEntry entry = inFlight.remove(requestId);
+        if (entry == null) {
+            return;
+        }
+        double finished = number(event.get("timestamp"));
+        double size = number(event.get("encodedDataLength"));
+        if (bodyFetcher == null || !isText(entry.response)) {
+            complete(entry, finished, size, null, null);
+        } else if (size > bodyMaxBytes) {
+            // Not fetched: getResponseBody would transfer and decode the whole body only to cut it
+            complete(entry, finished, size, null, null, "Body of " + (long) size + " bytes not stored, over " + bodyMaxBytes + " bytes");
+        } else {
+            try {
+                bodyExecutor.execute(() -> complete(entry, finished, size, fetchBody(requestId), null));
+            } catch (RejectedExecutionException e) {
+                droppedBodies++;
+                complete(entry, finished, size, null, null, "Body dropped, " + MAX_PENDING_BODIES + " bodies already waiting");
+            }
+        }
+    }
+
+    /**
+     * Handle Network.loadingFailed
+     * @param event event parameters
+     */
+    public synchronized void onLoadingFailed(Map<String, Object> event) {
+        PendingEntry entry = inFlight.remove((String) event.get("requestId"));
+        if (entry != null) {
+            complete(entry, number(event.get("timestamp")), 0, null, String.valueOf(event.get("errorText")));
+        }
+    }
+
+    /**
+     * Flush pending entries and close the HAR file
+     * @return summary of the slowest requests per step
+     */
+    public HarSummary close() {
+        if (bodyExecutor != null) {
+            bodyExecutor.shutdown();
+            try {
+                bodyExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closed = true;
+            for (PendingEntry entry : new ArrayList<>(inFlight.values())) {
+                complete(entry, entry.timestamp, 0, null, "Not finished when capture stopped");
+            }
+            inFlight.clear();
+            writer.close(new ArrayList<>(pages.values()));
+        }
+        logger.info("HAR written with " + writer.getEntryCount() + " entries" + (dropped > 0 ? ", " + dropped + " dropped" : "")
+                + (droppedBodies > 0 ? ", " + droppedBodies + " bodies dropped" : "") + ": " + writer.getFile());
+        return summary;
+    }
+
+    /**
+     * Get number of response bodies not stored because too many were waiting to be fetched
+     * @return dropped body count
+     */
+    public synchronized int getDroppedBodies() {
+        return droppedBodies;
+    }
+
+    private ResponseBody fetchBody(String requestId) {
+        try {
+            Map<String, Object> result = bodyFetcher.apply(requestId);
+            String text = (String) result.get("body");
+            if (text == null) {
+                return null;
+            }
+            byte[] bytes = Boolean.TRUE.equals(result.get("base64Encoded"))
+                    ? Base64.getDecoder().decode(text) : text.getBytes(StandardCharsets.UTF_8);
+            return new ResponseBody(bytes, bodyMaxBytes);
+        } catch (RuntimeException e) {
+            logger.debug("Response body not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Response body as stored in the HAR: UTF-8 text cut to at most the configured number of bytes
+     */
+    private static class ResponseBody {
+        private final String text;
+        private final int length;
+        private final boolean truncated;
+
+        ResponseBody(byte[] bytes, int maxBytes) {
+            int end = Math.min(bytes.length, maxBytes);
+            // Do not cut a multi-byte character in half
+            while (end < bytes.length && end > 0 && (bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            this.text = new String(bytes, 0, end, StandardCharsets.UTF_8);
+            this.length = bytes.length;
+            this.truncated = end < bytes.length;
+        }
+    }
+
+    private void complete(PendingEntry pending, double finished, double size, ResponseBody body, String error) {
+        complete(pending, finished, size, body, error, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void complete(PendingEntry pending, double finished, double size, ResponseBody body, String error,
+                                       String contentComment) {
+        Map<String, Object> response = pending.response == null ? Collections.emptyMap() : pending.response;
+        Map<String, Object> timings = timings(pending, finished);
+        double time = 0;
+        for (Object value : timings.values()) {
+            time += Math.max(0, number(value));
+        }
+        int status = (int) number(response.get("status"));
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        String url = String.valueOf(pending.request.get("url"));
+        request.put("method", pending.request.get("method"));
+        request.put("url", url);
+        request.put("httpVersion", httpVersion(response));
+        request.put("headers", headers((Map<String, Object>) pending.request.get("headers")));
+        request.put("queryString", queryString(url));
+        request.put("cookies", List.of());
+        request.put("headersSize", -1);
+        Object postData = pending.request.get("postData");
+        request.put("bodySize", postData == null ? 0 : String.valueOf(postData).length());
+        if (postData != null) {
+            Map<String, Object> post = new LinkedHashMap<>();
+            Map<String, Object> requestHeaders = (Map<String, Object>) pending.request.get("headers");
+            Object contentType = requestHeaders == null ? null : requestHeaders.get("Content-Type");
+            post.put("mimeType", contentType == null ? "" : contentType);
+            post.put("text", postData);
+            request.put("postData", post);
+        }
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("size", (long) size);
+        content.put("mimeType", response.getOrDefault("mimeType", ""));
+        if (body != null) {
+            content.put("text", body.text);
+            if (body.truncated) {
+                content.put("comment", "Truncated to " + bodyMaxBytes + " of " + body.length + " bytes");
+            }
+        } else if (contentComment != null) {
+            content.put("comment", contentComment);
+        }
+        Map<String, Object> responseEntry = new LinkedHashMap<>();
+        responseEntry.put("status", status);
+        responseEntry.put("statusText", response.getOrDefault("statusText", ""));
+        responseEntry.put("httpVersion", httpVersion(response));
+        responseEntry.put("headers", headers((Map<String, Object>) response.get("headers")));
+        responseEntry.put("cookies", List.of());
+        responseEntry.put("content", content);
+        Object location = response.get("headers") instanceof Map ? ((Map<String, Object>) response.get("headers")).get("Location") : null;
+        responseEntry.put("redirectURL", location == null ? "" : location);
+        responseEntry.put("headersSize", -1);
+        responseEntry.put("bodySize", (long) size);
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("pageref", pending.pageref);
+        entry.put("startedDateTime", Instant.ofEpochMilli((long) (pending.wallTime * 1000)).toString());
+        entry.put("time", time);
+        entry.put("request", request);
+        entry.put("response", responseEntry);
+        entry.put("cache", Map.of());
+        entry.put("timings", timings);
+        if (error != null) {
+            entry.put("_error", error);
+        }
+        writer.writeEntry(entry);
+        summary.record(pending.pageref, new HarSummary.SlowRequest(String.valueOf(pending.request.get("method")), url,
+                status, time, Math.max(0, number(timings.get("wait")))));
+    }
+
+    /**
+     * Convert DevTools resource timing (milliseconds relative to requestTime) into HAR timings
+     */
+    private static Map<String, Object> timings(PendingEntry pending, double finished) {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        Map<String, Object> timing = pending.timing;
+        if (timing == null) {
+            double total = Math.max(0, (finished - pending.timestamp) * 1000);
+            timings.put("blocked", -1);
+            timings.put("dns", -1);
+            timings.put("connect", -1);
+            timings.put("send", 0);
+            timings.put("wait", total);
+            timings.put("receive", 0);
+            timings.put("ssl", -1);
+            return timings;
+        }
+        double requestTime = number(timing.get("requestTime"));
+        double dnsStart = number(timing.get("dnsStart"));
+        double connectStart = number(timing.get("connectStart"));
+        double sslStart = number(timing.get("sslStart"));
+        double sendStart = number(timing.get("sendStart"));
+        double sendEnd = number(timing.get("sendEnd"));
+        double headersEnd = number(timing.get("receiveHeadersEnd"));
+        double blocked = dnsStart >= 0 ? dnsStart : connectStart >= 0 ? connectStart : sendStart;
+        double connect = connectStart >= 0 ? number(timing.get("connectEnd")) - connectStart : -1;
+        double ssl = sslStart >= 0 ? number(timing.get("sslEnd")) - sslStart : -1;
+        timings.put("blocked", Math.max(0, blocked));
+        timings.put("dns", dnsStart >= 0 ? number(timing.get("dnsEnd")) - dnsStart : -1);
+        // HAR counts the TLS handshake inside connect as well, so it is not added twice to the total
+        timings.put("connect", connect >= 0 && ssl >= 0 ? connect - ssl : connect);
+        timings.put("send", Math.max(0, sendEnd - sendStart));
+        timings.put("wait", Math.max(0, headersEnd - sendEnd));
+        timings.put("receive", Math.max(0, (finished - requestTime) * 1000 - headersEnd));
+        timings.put("ssl", ssl);
+        return timings;
+    }
+
+    private static String httpVersion(Map<String, Object> response) {
+        Object protocol = response.get("protocol");
+        return protocol == null ? "" : protocol.toString().toUpperCase();
+    }
+
+    private static List<Map<String, String>> headers(Map<String, Object> headers) {
+        List<Map<String, String>> list = new ArrayList<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> list.add(Map.of("name", name, "value", String.valueOf(value))));
+        }
+        return list;
+    }
+
+    private static List<Map<String, String>> queryString(String url) {
+        List<Map<String, String>> list = new ArrayList<>();
+        try {
+            String query = URI.create(url).getRawQuery();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    String[] parts = pair.split("=", 2);
+                    list.add(Map.of("name", URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                            "value", parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : ""));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // URL without a parseable query string
+        }
+        return list;
+    }
+
+    private static boolean isText(Map<String, Object> response) {
+        Object mimeType = response == null ? null : response.get("mimeType");
+        if (mimeType == null) {
+            return false;
+        }
+        String type = mimeType.toString();
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript") || type.contains("xml");
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kiboassessment.har;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Slowest requests per step. Only the top N of each step are kept, so the summary stays small
+ * however many requests are captured.
+ */
+public class HarSummary {
+
+    /**
+     * One summarized request
+     */
+    public static class SlowRequest {
+        private final String method;
+        private final String url;
+        private final int status;
+        private final double timeMs;
+        private final double waitMs;
+
+        public SlowRequest(String method, String url, int status, double timeMs, double waitMs) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.timeMs = timeMs;
+            this.waitMs = waitMs;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public double getTimeMs() {
+            return timeMs;
+        }
+
+        /**
+         * Get time to first byte after the request was sent (server time)
+         * @return wait time in milliseconds
+         */
+        public double getWaitMs() {
+            return waitMs;
+        }
+    }
+
+    private final int top;
+    private final Map<String, PriorityQueue<SlowRequest>> steps = new LinkedHashMap<>();
+    private final Map<String, Integer> requestCounts = new LinkedHashMap<>();
+
+    /**
+     * Create summary
+     * @param top number of slowest requests kept per step
+     */
+    public HarSummary(int top) {
+        this.top = top;
+    }
+
+    /**
+     * Record a completed request
+     * @param step step the request belongs to
+     * @param request request timing
+     */
+    public synchronized void record(String step, SlowRequest request) {
+        requestCounts.merge(step, 1, Integer::sum);
+        PriorityQueue<SlowRequest> slowest = steps.computeIfAbsent(step,
+                name -> new PriorityQueue<>(Comparator.comparingDouble(SlowRequest::getTimeMs)));
+        slowest.add(request);
+        if (slowest.size() > top) {
+            slowest.poll();
+        }
+    }
+
+    /**
+     * Get slowest requests
+     * @return slowest first, by step in capture order
+     */
+    public synchronized Map<String, List<SlowRequest>> getSlowestRequests() {
+        Map<String, List<SlowRequest>> slowest = new LinkedHashMap<>();
+        for (Map.Entry<String, PriorityQueue<SlowRequest>> step : steps.entrySet()) {
+            List<SlowRequest> requests = new ArrayList<>(step.getValue());
+            requests.sort(Comparator.comparingDouble(SlowRequest::getTimeMs).reversed());
+            slowest.put(step.getKey(), requests);
+        }
+        return slowest;
+    }
+
+    public synchronized int getRequestCount(String step) {
+        return requestCounts.getOrDefault(step, 0);
+    }
+
+    /**
+     * Format summary as an HTML table for the report
+     * @return HTML table
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder("<table class=\"table table-sm\"><tr><th>Step</th><th>Request</th>"
+                + "<th>Status</th><th>Time</th><th>Server wait</th></tr>");
+        for (Map.Entry<String, List<SlowRequest>> step : getSlowestRequests().entrySet()) {
+            for (SlowRequest request : step.getValue()) {
+                html.append("<tr><td>").append(escape(step.getKey())).append(" (").append(getRequestCount(step.getKey()))
+                        .append(" requests)</td><td>").append(request.getMethod()).append(' ').append(escape(request.getUrl()))
+                        .append("</td><td>").append(request.getStatus())
+                        .append(String.format(Locale.ROOT, "</td><td>%.0f ms</td><td>%.0f ms</td></tr>", request.getTimeMs(), request.getWaitMs()));
+            }
+        }
+        return html.append("</table>").toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,97 @@
+package com.kiboassessment.har;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a HAR 1.2 file as a stream: entries go to disk as soon as they complete and only the
+ * page list is written at the end, so memory does not grow with the number of requests
+ */
+public class HarWriter implements AutoCloseable {
+    private final File file;
+    private final JsonGenerator generator;
+    private int entries;
+    private boolean closed;
+
+    /**
+     * Open a HAR file for writing
+     * @param file output file
+     */
+    public HarWriter(File file) {
+        this.file = file;
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            generator = new ObjectMapper().getFactory().createGenerator(file, JsonEncoding.UTF8);
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("log");
+            generator.writeStringField("version", "1.2");
+            Map<String, String> creator = new LinkedHashMap<>();
+            creator.put("name", "ecommerce-automation");
+            creator.put("version", "1.0.0");
+            generator.writeObjectField("creator", creator);
+            generator.writeArrayFieldStart("entries");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open HAR file: " + file, e);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Write one entry and flush it to disk
+     * @param entry HAR entry
+     */
+    public synchronized void writeEntry(Map<String, Object> entry) {
+        if (closed) {
+            return;
+        }
+        try {
+            generator.writeObject(entry);
+            generator.flush();
+            entries++;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write HAR entry: " + file, e);
+        }
+    }
+
+    /**
+     * Write the page list and close the file
+     * @param pages HAR pages
+     */
+    public synchronized void close(Collection<Map<String, Object>> pages) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            generator.writeEndArray();
+            generator.writeObjectField("pages", pages);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close HAR file: " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        close(Collections.emptyList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.kiboassessment.health;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of probing the storefront endpoints
+ */
+public class HealthReport {
+
+    /**
+     * Outcome of one endpoint probe
+     */
+    public static class EndpointResult {
+        private final String path;
+        private final int status;
+        private final long latencyMs;
+        private final String error;
+
+        public EndpointResult(String path, int status, long latencyMs, String error) {
+            this.path = path;
+            this.status = status;
+            this.latencyMs = latencyMs;
+            this.error = error;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return path + " -> " + (error != null ? error : status + " in " + latencyMs + " ms");
+        }
+    }
+
+    private final String baseUrl;
+    private final long maxLatencyMs;
+    private final List<EndpointResult> results = new ArrayList<>();
+
+    public HealthReport(String baseUrl, long maxLatencyMs) {
+        this.baseUrl = baseUrl;
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    void add(EndpointResult result) {
+        results.add(result);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public List<EndpointResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Storefront is healthy when every endpoint answered 2xx within the latency limit
+     * @return true if healthy
+     */
+    public boolean isHealthy() {
+        for (EndpointResult result : results) {
+            if (result.getError() != null || result.getStatus() < 200 || result.getStatus() >= 300
+                    || result.getLatencyMs() > maxLatencyMs) {
+                return false;
+            }
+        }
+        return !results.isEmpty();
+    }
+
+    /**
+     * Get one-line summary for logs and reports
+     * @return summary text
+     */
+    public String getSummary() {
+        return (isHealthy() ? "HEALTHY" : "UNHEALTHY") + " " + baseUrl + " (max " + maxLatencyMs + " ms) " + results;
+    }
+}
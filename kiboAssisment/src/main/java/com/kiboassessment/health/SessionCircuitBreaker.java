@@ -0,0 +1,79 @@
+package com.kiboassessment.health;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Circuit breaker shared by all tests that stops launching browser sessions after consecutive
+ * infrastructure failures. After the cool-down one trial session is allowed (half-open).
+ */
+public class SessionCircuitBreaker {
+    private static final Logger logger = LogManager.getLogger(SessionCircuitBreaker.class);
+
+    /**
+     * Circuit states
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long coolDownMs;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    /**
+     * Create circuit breaker
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param coolDownMs time the circuit stays open before a trial session is allowed
+     */
+    public SessionCircuitBreaker(int failureThreshold, long coolDownMs) {
+        this.failureThreshold = failureThreshold;
+        this.coolDownMs = coolDownMs;
+    }
+
+    /**
+     * Check whether a new session may be launched
+     * @return true if allowed
+     */
+    public synchronized boolean allowSession() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= coolDownMs) {
+            state = State.HALF_OPEN;
+            logger.info("Circuit half-open, allowing one trial session");
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Record a session that completed without an infrastructure failure
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit closed after successful session");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Record an infrastructure failure
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.error("Circuit opened after " + consecutiveFailures + " consecutive infrastructure failures");
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
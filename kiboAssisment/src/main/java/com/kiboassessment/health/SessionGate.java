@@ -0,0 +1,114 @@
+package com.kiboassessment.health;
+
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.replay.TrafficReplay;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.SkipException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+
+/**
+ * Decides whether a browser session may be launched: runs the preflight probe once per run and
+ * consults the shared circuit breaker before every session
+ */
+public class SessionGate {
+    private static final Logger logger = LogManager.getLogger(SessionGate.class);
+    private static HealthReport preflightReport;
+    private static SessionCircuitBreaker circuitBreaker;
+
+    /**
+     * Check before launching a browser session.
+     * Throws SkipException (or IllegalStateException when preflight.action=fail) if the target is unhealthy.
+     */
+    public static void beforeSession() {
+        // A replayed session never reaches the storefront, so its health is irrelevant
+        if (ConfigReader.isPreflightEnabled() && !TrafficReplay.isReplaying()) {
+            HealthReport report = getPreflightReport();
+            if (!report.isHealthy()) {
+                String message = "Preflight failed, not launching browser: " + report.getSummary();
+                if ("fail".equalsIgnoreCase(ConfigReader.getProperty("preflight.action"))) {
+                    throw new IllegalStateException(message);
+                }
+                throw new SkipException(message);
+            }
+        }
+        if (!getCircuitBreaker().allowSession()) {
+            throw new SkipException("Circuit breaker open after " + getCircuitBreaker().getConsecutiveFailures()
+                    + " consecutive infrastructure failures, not launching browser");
+        }
+    }
+
+    /**
+     * Run the preflight probe on first use and cache its result for the rest of the run
+     * @return preflight health report
+     */
+    public static synchronized HealthReport getPreflightReport() {
+        if (preflightReport == null) {
+            StorefrontHealthProbe probe = new StorefrontHealthProbe(ConfigReader.getBaseUrl(),
+                    Duration.ofSeconds(Integer.parseInt(ConfigReader.getProperty("preflight.timeout"))),
+                    Long.parseLong(ConfigReader.getProperty("preflight.max.latency.ms")));
+            preflightReport = probe.probe(ConfigReader.getSearchProduct());
+            if (preflightReport.isHealthy()) {
+                TestListener.logInfo("Preflight: " + preflightReport.getSummary());
+            } else {
+                TestListener.logWarning("Preflight: " + preflightReport.getSummary());
+            }
+        }
+        return preflightReport;
+    }
+
+    /**
+     * Get circuit breaker shared by all sessions of this run
+     * @return circuit breaker
+     */
+    public static synchronized SessionCircuitBreaker getCircuitBreaker() {
+        if (circuitBreaker == null) {
+            circuitBreaker = new SessionCircuitBreaker(
+                    Integer.parseInt(ConfigReader.getProperty("circuit.breaker.threshold")),
+                    Long.parseLong(ConfigReader.getProperty("circuit.breaker.cooldown.seconds")) * 1000);
+        }
+        return circuitBreaker;
+    }
+
+    /**
+     * Record a session that finished without an infrastructure failure
+     */
+    public static void recordSuccess() {
+        getCircuitBreaker().recordSuccess();
+    }
+
+    /**
+     * Record a session failure; only infrastructure failures count towards the circuit breaker
+     * @param cause failure cause
+     */
+    public static void recordFailure(Throwable cause) {
+        if (isInfrastructureFailure(cause)) {
+            logger.warn("Infrastructure failure recorded: " + cause.getClass().getSimpleName());
+            getCircuitBreaker().recordFailure();
+        }
+    }
+
+    /**
+     * Only failures of the browser session itself count as infrastructure failures: a session that
+     * could not be created, was lost or whose browser or grid cannot be reached. Page and locator
+     * failures (missing elements, wait timeouts, stale elements, exhausted time budgets) and assertion
+     * failures do not, so a broken page fails its tests instead of skipping every later session.
+     * @param cause failure cause
+     * @return true if the failure is infrastructure related
+     */
+    public static boolean isInfrastructureFailure(Throwable cause) {
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (current instanceof SessionNotCreatedException || current instanceof NoSuchSessionException
+                    || current instanceof UnreachableBrowserException || current instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.kiboassessment.health;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Lightweight HTTP probe of the storefront's homepage, search and cart endpoints
+ */
+public class StorefrontHealthProbe {
+    private static final Logger logger = LogManager.getLogger(StorefrontHealthProbe.class);
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final long maxLatencyMs;
+    private final HttpClient httpClient;
+
+    /**
+     * Create probe
+     * @param baseUrl storefront base URL
+     * @param timeout per-request timeout
+     * @param maxLatencyMs slowest acceptable response time
+     */
+    public StorefrontHealthProbe(String baseUrl, Duration timeout, long maxLatencyMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.maxLatencyMs = maxLatencyMs;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Probe homepage, search and cart
+     * @param searchTerm term used for the search probe
+     * @return health report
+     */
+    public HealthReport probe(String searchTerm) {
+        HealthReport report = new HealthReport(baseUrl, maxLatencyMs);
+        report.add(probePath("/"));
+        report.add(probePath("/search?q=" + URLEncoder.encode(searchTerm, StandardCharsets.UTF_8)));
+        report.add(probePath("/cart"));
+        logger.info("Preflight: " + report.getSummary());
+        return report;
+    }
+
+    private HealthReport.EndpointResult probePath(String path) {
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return new HealthReport.EndpointResult(path, response.statusCode(), elapsedMs(start), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new HealthReport.EndpointResult(path, -1, elapsedMs(start), "interrupted");
+        } catch (Exception e) {
+            return new HealthReport.EndpointResult(path, -1, elapsedMs(start), e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
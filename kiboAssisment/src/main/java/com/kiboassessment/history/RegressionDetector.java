@@ -0,0 +1,177 @@
+package com.kiboassessment.history;
+
+import com.kiboassessment.utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Flags test and step durations of a run that are significantly slower than a rolling baseline of
+ * earlier runs. Significance uses a robust z-score, (current - median) / (1.4826 * MAD), which is not
+ * skewed by the occasional outlier run; a regression must also exceed a relative and an absolute
+ * minimum so that short steps do not flag on jitter. Only passed tests are compared.
+ */
+public class RegressionDetector {
+    private static final String STEP_SEPARATOR = " > ";
+
+    private final int minRuns;
+    private final double zThreshold;
+    private final double tolerancePercent;
+    private final long minDeltaMs;
+
+    /**
+     * Create detector
+     * @param minRuns baseline runs needed before a duration is compared
+     * @param zThreshold robust z-score from which a slowdown counts as significant
+     * @param tolerancePercent slowdown tolerated in percent of the baseline median
+     * @param minDeltaMs slowdown tolerated in milliseconds
+     */
+    public RegressionDetector(int minRuns, double zThreshold, double tolerancePercent, long minDeltaMs) {
+        this.minRuns = minRuns;
+        this.zThreshold = zThreshold;
+        this.tolerancePercent = tolerancePercent;
+        this.minDeltaMs = minDeltaMs;
+    }
+
+    /**
+     * Create detector from the history.regression.* configuration
+     * @return detector
+     */
+    public static RegressionDetector fromConfig() {
+        return new RegressionDetector(
+                Integer.parseInt(ConfigReader.getProperty("history.regression.min.runs", "3")),
+                Double.parseDouble(ConfigReader.getProperty("history.regression.z", "3.5")),
+                Double.parseDouble(ConfigReader.getProperty("history.regression.tolerance", "20")),
+                Long.parseLong(ConfigReader.getProperty("history.regression.min.ms", "200")));
+    }
+
+    /**
+     * Compare a run with its baseline runs
+     * @param run run as stored by RunHistory
+     * @param baseline earlier runs with the same name
+     * @return regressions in the order of the run's tests and steps
+     */
+    public List<Regression> detect(Map<String, Object> run, List<Map<String, Object>> baseline) {
+        Map<String, List<Long>> history = new LinkedHashMap<>();
+        for (Map<String, Object> baselineRun : baseline) {
+            for (Map.Entry<String, Long> duration : durations(baselineRun).entrySet()) {
+                history.computeIfAbsent(duration.getKey(), key -> new ArrayList<>()).add(duration.getValue());
+            }
+        }
+        List<Regression> regressions = new ArrayList<>();
+        for (Map.Entry<String, Long> duration : durations(run).entrySet()) {
+            List<Long> samples = history.get(duration.getKey());
+            if (samples == null || samples.size() < minRuns) {
+                continue;
+            }
+            long current = duration.getValue();
+            long median = median(samples);
+            long[] deviations = samples.stream().mapToLong(sample -> Math.abs(sample - median)).toArray();
+            long mad = median(deviations);
+            // A perfectly stable baseline has no spread; its resolution is one millisecond
+            double z = (current - median) / Math.max(1.4826 * mad, 1.0);
+            if (z > zThreshold && current - median > minDeltaMs && current > median * (1 + tolerancePercent / 100)) {
+                regressions.add(new Regression(duration.getKey(), current, median, mad, z));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Get the durations of the passed tests of a run and of their steps, keyed "Test" and "Test > Step".
+     * A test invoked several times in one run contributes its median.
+     * @param run run as stored by RunHistory
+     * @return durations in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Long> durations(Map<String, Object> run) {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        for (Map<String, Object> test : (List<Map<String, Object>>) run.getOrDefault("tests", List.of())) {
+            if (!"PASS".equals(test.get("outcome"))) {
+                continue;
+            }
+            String name = (String) test.get("test");
+            samples.computeIfAbsent(name, key -> new ArrayList<>()).add(((Number) test.get("durationMs")).longValue());
+            Map<String, Map<String, Object>> steps = (Map<String, Map<String, Object>>) test.getOrDefault("steps", Map.of());
+            for (Map.Entry<String, Map<String, Object>> step : steps.entrySet()) {
+                samples.computeIfAbsent(name + STEP_SEPARATOR + step.getKey(), key -> new ArrayList<>())
+                        .add(((Number) step.getValue().get("durationMs")).longValue());
+            }
+        }
+        Map<String, Long> durations = new LinkedHashMap<>();
+        samples.forEach((key, values) -> durations.put(key, median(values)));
+        return durations;
+    }
+
+    private static long median(List<Long> values) {
+        return median(values.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * A test or step duration significantly above its baseline
+     */
+    public static class Regression {
+        private final String key;
+        private final long currentMs;
+        private final long baselineMedianMs;
+        private final long baselineMadMs;
+        private final double z;
+
+        Regression(String key, long currentMs, long baselineMedianMs, long baselineMadMs, double z) {
+            this.key = key;
+            this.currentMs = currentMs;
+            this.baselineMedianMs = baselineMedianMs;
+            this.baselineMadMs = baselineMadMs;
+            this.z = z;
+        }
+
+        /**
+         * Get test or step key, e.g. "EndToEndPurchaseTest.testEndToEndPurchaseFlow > Step 3: Search"
+         * @return key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public long getCurrentMs() {
+            return currentMs;
+        }
+
+        public long getBaselineMedianMs() {
+            return baselineMedianMs;
+        }
+
+        /**
+         * Get median absolute deviation of the baseline
+         * @return MAD in milliseconds
+         */
+        public long getBaselineMadMs() {
+            return baselineMadMs;
+        }
+
+        /**
+         * Get robust z-score of this run's duration
+         * @return z-score
+         */
+        public double getZ() {
+            return z;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d ms, baseline median %d ms (MAD %d ms), z %.1f",
+                    key, currentMs, baselineMedianMs, baselineMadMs, z);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.kiboassessment.history;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the per-test and per-step durations, wait times, WebDriver command counts and outcomes of
+ * every run to a local JSON-lines store (history.path) and checks each run for step latency regressions
+ * against the previous runs with the same name
+ */
+public class RunHistory {
+    private static final Logger logger = LogManager.getLogger(RunHistory.class);
+    private static final ThreadLocal<TestRecord> current = new ThreadLocal<>();
+    private static final List<TestRecord> finished = Collections.synchronizedList(new ArrayList<>());
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Check whether runs are recorded; sessions then count their WebDriver commands
+     * @return true if history.enabled is set
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("history.enabled", "false"));
+    }
+
+    /**
+     * Attribute the current thread's record to a test. Steps logged before, e.g. by a @BeforeMethod,
+     * belong to that test.
+     * @param run run name the test is published with, e.g. the TestNG test name
+     * @param testClass test class simple name
+     * @param name test method name
+     */
+    public static void testStarted(String run, String testClass, String name) {
+        if (!isEnabled()) {
+            return;
+        }
+        TestRecord record = current.get();
+        if (record == null || record.hasTest()) {
+            record = new TestRecord(CommandCounter.getThreadCount());
+            current.set(record);
+        }
+        record.setTest(run, testClass, name);
+    }
+
+    /**
+     * Start a step of the current thread's test; the previous step ends here
+     * @param name step name
+     */
+    public static void step(String name) {
+        if (isEnabled()) {
+            record().startStep(name, CommandCounter.getThreadCount());
+        }
+    }
+
+    /**
+     * Add time spent in an explicit wait to the current step
+     * @param waitMs wait time in milliseconds
+     */
+    public static void recordWait(long waitMs) {
+        if (isEnabled()) {
+            record().recordWait(waitMs);
+        }
+    }
+
+    /**
+     * Finish the current thread's test
+     * @param outcome PASS, FAIL, SKIP or RETRIED
+     */
+    public static void testFinished(String outcome) {
+        TestRecord record = current.get();
+        if (record == null || !record.hasTest()) {
+            return;
+        }
+        current.remove();
+        record.finish(outcome, CommandCounter.getThreadCount());
+        finished.add(record);
+    }
+
+    private static TestRecord record() {
+        TestRecord record = current.get();
+        if (record == null) {
+            record = new TestRecord(CommandCounter.getThreadCount());
+            current.set(record);
+        }
+        return record;
+    }
+
+    /**
+     * Get tests of a run finished since its last publish
+     * @param runName run name
+     * @return test records in finishing order
+     */
+    public static List<TestRecord> getResults(String runName) {
+        synchronized (finished) {
+            return finished.stream().filter(test -> runName.equals(test.getRun())).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Append the tests of the run finished since its last publish to the store, compare the run with the
+     * previous history.baseline.runs runs of the same name and build the report summary
+     * @param runName run name, e.g. the TestNG test name
+     * @return HTML summary, or null if no test finished
+     */
+    public static String publish(String runName) {
+        List<TestRecord> tests;
+        synchronized (finished) {
+            tests = getResults(runName);
+            finished.removeAll(tests);
+        }
+        if (tests.isEmpty() || !isEnabled()) {
+            return null;
+        }
+        File store = new File(ConfigReader.getProperty("history.path", "test-output/run-history.jsonl"));
+        int baselineRuns = Integer.parseInt(ConfigReader.getProperty("history.baseline.runs", "10"));
+        List<Map<String, Object>> baseline = readRuns(store, runName, baselineRuns);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("run", runName);
+        run.put("timestamp", System.currentTimeMillis());
+        List<Map<String, Object>> testValues = new ArrayList<>();
+        for (TestRecord test : tests) {
+            testValues.add(test.toMap());
+        }
+        run.put("tests", testValues);
+        appendRun(store, run);
+
+        List<RegressionDetector.Regression> regressions = RegressionDetector.fromConfig().detect(run, baseline);
+        for (RegressionDetector.Regression regression : regressions) {
+            logger.warn("Latency regression: " + regression);
+        }
+        return summary(tests, baseline.size(), regressions);
+    }
+
+    /**
+     * Read the most recent runs with the given name
+     * @param store history file
+     * @param runName run name
+     * @param maxRuns maximum number of runs, oldest dropped first
+     * @return runs, oldest first
+     */
+    public static List<Map<String, Object>> readRuns(File store, String runName, int maxRuns) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+        if (!store.exists()) {
+            return runs;
+        }
+        try {
+            for (String line : Files.readAllLines(store.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> run = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+                });
+                if (runName.equals(run.get("run"))) {
+                    runs.add(run);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read run history: " + e.getMessage());
+        }
+        return runs.subList(Math.max(0, runs.size() - maxRuns), runs.size());
+    }
+
+    private static void appendRun(File store, Map<String, Object> run) {
+        try {
+            if (store.getParentFile() != null) {
+                store.getParentFile().mkdirs();
+            }
+            Files.write(store.toPath(), (objectMapper.writeValueAsString(run) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to write run history: " + e.getMessage());
+        }
+    }
+
+    private static String summary(List<TestRecord> tests, int baselineRuns, List<RegressionDetector.Regression> regressions) {
+        StringBuilder html = new StringBuilder("<table class=\"table table-sm\"><tr><th>Test</th><th>Outcome</th>"
+                + "<th>Duration</th><th>Wait</th><th>Commands</th></tr>");
+        for (TestRecord test : tests) {
+            html.append("<tr><td>").append(test.getTest()).append("</td><td>").append(test.getOutcome())
+                    .append("</td><td>").append(test.getDurationMs()).append(" ms</td><td>").append(test.getWaitMs())
+                    .append(" ms</td><td>").append(test.getCommands()).append("</td></tr>");
+        }
+        html.append("</table>");
+        if (baselineRuns == 0) {
+            return html.append("<p>No earlier runs to compare with.</p>").toString();
+        }
+        if (regressions.isEmpty()) {
+            return html.append("<p>No latency regressions against the last ").append(baselineRuns).append(" runs.</p>").toString();
+        }
+        html.append("<p><b>Latency regressions against the last ").append(baselineRuns).append(" runs:</b></p>")
+                .append("<table class=\"table table-sm\"><tr><th>Test / step</th><th>This run</th>"
+                        + "<th>Baseline median</th><th>Baseline MAD</th><th>Robust z</th></tr>");
+        for (RegressionDetector.Regression regression : regressions) {
+            html.append("<tr><td>").append(regression.getKey()).append("</td><td>").append(regression.getCurrentMs())
+                    .append(" ms</td><td>").append(regression.getBaselineMedianMs()).append(" ms</td><td>")
+                    .append(regression.getBaselineMadMs()).append(" ms</td><td>")
+                    .append(String.format(Locale.ROOT, "%.1f", regression.getZ())).append("</td></tr>");
+        }
+        return html.append("</table>").toString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.kiboassessment.history;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durations, wait time, WebDriver command count and outcome of one test invocation and of its steps.
+ * A record belongs to the thread running the test until the test finishes.
+ */
+public class TestRecord {
+    /** Step of the time before the first logged step */
+    static final String SETUP_STEP = "(setup)";
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, StepRecord> steps = new LinkedHashMap<>();
+    private String run;
+    private String testClass;
+    private String name;
+    private String outcome;
+    private long durationMs;
+    private StepRecord currentStep;
+    private long currentStepStartedAt;
+    private long currentStepCommandsBefore;
+
+    TestRecord(long commands) {
+        startStep(SETUP_STEP, commands);
+    }
+
+    void setTest(String run, String testClass, String name) {
+        this.run = run;
+        this.testClass = testClass;
+        this.name = name;
+    }
+
+    boolean hasTest() {
+        return name != null;
+    }
+
+    void startStep(String step, long commands) {
+        finishStep(commands);
+        currentStep = steps.computeIfAbsent(step, key -> new StepRecord());
+        currentStepStartedAt = System.nanoTime();
+        currentStepCommandsBefore = commands;
+    }
+
+    private void finishStep(long commands) {
+        if (currentStep != null) {
+            currentStep.add((System.nanoTime() - currentStepStartedAt) / 1_000_000, 0, commands - currentStepCommandsBefore);
+        }
+    }
+
+    void recordWait(long waitMs) {
+        currentStep.add(0, waitMs, 0);
+    }
+
+    void finish(String outcome, long commands) {
+        finishStep(commands);
+        currentStep = null;
+        this.outcome = outcome;
+        this.durationMs = (System.nanoTime() - startedAt) / 1_000_000;
+        // Nothing happened before the first step
+        StepRecord setup = steps.get(SETUP_STEP);
+        if (setup != null && setup.getCommands() == 0 && setup.getWaitMs() == 0 && setup.getDurationMs() < 1) {
+            steps.remove(SETUP_STEP);
+        }
+    }
+
+    /**
+     * Get name of the run the test belongs to
+     * @return run name, e.g. the TestNG test name
+     */
+    public String getRun() {
+        return run;
+    }
+
+    /**
+     * Get test key, e.g. "EndToEndPurchaseTest.testEndToEndPurchaseFlow"
+     * @return class simple name and method name
+     */
+    public String getTest() {
+        return testClass + "." + name;
+    }
+
+    /**
+     * Get test outcome
+     * @return PASS, FAIL, SKIP or RETRIED for an attempt that failed and was retried
+     */
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Get time spent in explicit waits over all steps
+     * @return wait time in milliseconds
+     */
+    public long getWaitMs() {
+        return steps.values().stream().mapToLong(StepRecord::getWaitMs).sum();
+    }
+
+    /**
+     * Get WebDriver commands issued over all steps
+     * @return command count
+     */
+    public long getCommands() {
+        return steps.values().stream().mapToLong(StepRecord::getCommands).sum();
+    }
+
+    /**
+     * Get steps in the order they were logged; a step logged twice accumulates both runs
+     * @return step records by step name
+     */
+    public Map<String, StepRecord> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get record as a JSON-friendly map
+     * @return record values
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("test", getTest());
+        values.put("outcome", outcome);
+        values.put("durationMs", durationMs);
+        values.put("waitMs", getWaitMs());
+        values.put("commands", getCommands());
+        Map<String, Object> stepValues = new LinkedHashMap<>();
+        for (Map.Entry<String, StepRecord> step : steps.entrySet()) {
+            stepValues.put(step.getKey(), step.getValue().toMap());
+        }
+        values.put("steps", stepValues);
+        return values;
+    }
+
+    /**
+     * Duration, wait time and command count of one step
+     */
+    public static class StepRecord {
+        private long durationMs;
+        private long waitMs;
+        private long commands;
+
+        void add(long durationMs, long waitMs, long commands) {
+            this.durationMs += durationMs;
+            this.waitMs += waitMs;
+            this.commands += commands;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getWaitMs() {
+            return waitMs;
+        }
+
+        public long getCommands() {
+            return commands;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("durationMs", durationMs);
+            values.put("waitMs", waitMs);
+            values.put("commands", commands);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kiboassessment.listeners;
+
+import com.kiboassessment.flow.CheckpointedFlow;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Retry analyzer that re-runs a test after a transient WebDriver failure: a stale element, a lost
+ * session or browser, or a WebDriver call that failed in the HTTP connection to the driver.
+ * Tests built on CheckpointedFlow resume at the failed stage instead of starting over.
+ */
+public class StageRetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger logger = LogManager.getLogger(StageRetryAnalyzer.class);
+    private int attempts;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        int maxRetries = ConfigReader.getFlowMaxRetries();
+        Throwable cause = result.getThrowable();
+        CheckpointedFlow flow = CheckpointedFlow.find(result);
+
+        if (attempts < maxRetries && isTransient(cause)) {
+            attempts++;
+            String stage = flow == null ? null : flow.getFailedStage();
+            TestListener.logWarning("Retry " + attempts + "/" + maxRetries + " after transient failure"
+                    + (stage == null ? "" : " in stage '" + stage + "'") + ": " + cause.getMessage());
+            return true;
+        }
+
+        logger.info("Not retrying " + result.getName() + " after " + attempts + " retries");
+        CheckpointedFlow.discard(result);
+        return false;
+    }
+
+    /**
+     * Only failures that a new attempt can get past are transient. Missing elements, wait timeouts and
+     * exhausted time budgets fail the same way on every attempt, and assertion failures are real failures.
+     * @param cause failure cause
+     * @return true if the failure is worth retrying
+     */
+    private static boolean isTransient(Throwable cause) {
+        if (!(cause instanceof WebDriverException) || cause instanceof NoSuchElementException
+                || cause instanceof TimeoutException) {
+            return false;
+        }
+        if (cause instanceof StaleElementReferenceException || cause instanceof NoSuchSessionException
+                || cause instanceof UnreachableBrowserException) {
+            return true;
+        }
+        for (Throwable current = cause.getCause(); current != null; current = current.getCause()) {
+            if (current instanceof IOException || current instanceof UncheckedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,6 +4,15 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.kiboassessment.deadline.Deadline;
+import com.kiboassessment.har.HarCapture;
+import com.kiboassessment.health.SessionGate;
+import com.kiboassessment.history.RunHistory;
+import com.kiboassessment.locators.LocatorProfiler;
+import com.kiboassessment.network.NetworkProfile;
+import com.kiboassessment.perf.PagePerformance;
+import com.kiboassessment.proxy.CachingProxy;
+import com.kiboassessment.replay.TrafficReplay;
 import com.kiboassessment.utils.ConfigReader;
 import com.kiboassessment.utils.TestUtils;
 import com.kiboassessment.utils.WebDriverManagerUtil;
@@ -14,6 +23,8 @@ import org.testng.ITestListener;
 import org.testng.ITestResult;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * TestNG listener for handling test events and generating reports
@@ -46,6 +57,7 @@ public class TestListener implements ITestListener {
             extent.setSystemInfo("Application", "Demo Web Shop");
             extent.setSystemInfo("URL", ConfigReader.getBaseUrl());
             extent.setSystemInfo("Browser", ConfigReader.getBrowser());
+            extent.setSystemInfo("Network Profile", NetworkProfile.active().toString());
             extent.setSystemInfo("OS", System.getProperty("os.name"));
             extent.setSystemInfo("Java Version", System.getProperty("java.version"));
             
@@ -53,24 +65,43 @@ public class TestListener implements ITestListener {
         }
     }
 
+    /**
+     * Discard the current report without flushing it, so the next test start creates a new one,
+     * e.g. between benchmark iterations
+     */
+    public static void resetExtentReports() {
+        extent = null;
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
         logger.info("Test started: " + result.getName());
         initializeExtentReports();
         
+        RunHistory.testStarted(result.getTestContext().getName(),
+                result.getTestClass().getRealClass().getSimpleName(), result.getName());
         ExtentTest extentTest = extent.createTest(result.getName());
         extentTest.assignCategory(result.getTestClass().getRealClass().getSimpleName());
         test.set(extentTest);
         
         test.get().log(Status.INFO, "Test started: " + result.getName());
+        Deadline.start(result);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         logger.info("Test passed: " + result.getName());
+        Deadline.finish();
         test.get().log(Status.PASS, "Test passed: " + result.getName());
+        RunHistory.testFinished("PASS");
+        attachHar(result);
         
         // Add Base64 screenshot for successful tests
+        // Tests that run without a browser have nothing to capture
+        if (!WebDriverManagerUtil.isDriverInitialized()) {
+            return;
+        }
+        SessionGate.recordSuccess();
         String base64Screenshot = TestUtils.takeScreenshotAsBase64(result.getName() + "_PASS");
         if (base64Screenshot != null) {
             attachScreenshotToReport("Test Pass Screenshot", base64Screenshot);
@@ -81,11 +112,23 @@ public class TestListener implements ITestListener {
     public void onTestFailure(ITestResult result) {
         logger.error("Test failed: " + result.getName());
         logger.error("Failure reason: " + result.getThrowable().getMessage());
+        Deadline.finish();
         
         test.get().log(Status.FAIL, "Test failed: " + result.getName());
         test.get().log(Status.FAIL, "Failure reason: " + result.getThrowable().getMessage());
+        // Tests without a browser session say nothing about browser infrastructure
+        if (WebDriverManagerUtil.isDriverInitialized()) {
+            SessionGate.recordFailure(result.getThrowable());
+        }
+        TrafficReplay.markFailed();
+        RunHistory.testFinished("FAIL");
+        attachHar(result);
         
         // Add Base64 screenshot for failed tests
+        // Tests that run without a browser have nothing to capture
+        if (!WebDriverManagerUtil.isDriverInitialized()) {
+            return;
+        }
         String base64Screenshot = TestUtils.takeScreenshotAsBase64(result.getName() + "_FAIL");
         if (base64Screenshot != null) {
             attachScreenshotToReport("Test Fail Screenshot", base64Screenshot);
@@ -94,6 +137,17 @@ public class TestListener implements ITestListener {
 
     @Override
     public void onTestSkipped(ITestResult result) {
+        Deadline.finish();
+        RunHistory.testFinished(result.wasRetried() ? "RETRIED" : "SKIP");
+        attachHar(result);
+        if (result.wasRetried()) {
+            // A flow that needed a retry is not a clean recording
+            TrafficReplay.markFailed();
+            logger.warn("Test attempt failed and will be retried: " + result.getName());
+            test.get().log(Status.WARNING, "Attempt failed, retrying: "
+                    + (result.getThrowable() == null ? result.getName() : result.getThrowable().getMessage()));
+            return;
+        }
         logger.warn("Test skipped: " + result.getName());
         test.get().log(Status.SKIP, "Test skipped: " + result.getName());
     }
@@ -102,6 +156,7 @@ public class TestListener implements ITestListener {
     public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
         logger.warn("Test failed but within success percentage: " + result.getName());
         test.get().log(Status.WARNING, "Test failed but within success percentage: " + result.getName());
+        RunHistory.testFinished("FAIL");
     }
 
     @Override
@@ -114,6 +169,39 @@ public class TestListener implements ITestListener {
     public void onFinish(ITestContext context) {
         logger.info("Test suite finished: " + context.getName());
         
+        // Trend the page timings of this test against earlier runs
+        String performanceTrend = PagePerformance.publish(context.getName());
+        if (performanceTrend != null && extent != null) {
+            extent.createTest("Page Performance: " + context.getName()).info(performanceTrend);
+        }
+
+        // Rank the slowest page object locators of this test against earlier runs
+        String locatorProfile = LocatorProfiler.publish(context.getName());
+        if (locatorProfile != null && extent != null) {
+            extent.createTest("Locator Profile: " + context.getName()).info(locatorProfile);
+        }
+
+        // Persist this run's test and step durations and flag regressions against the earlier runs
+        String runHistory = RunHistory.publish(context.getName());
+        if (runHistory != null && extent != null) {
+            extent.createTest("Run History: " + context.getName()).info(runHistory);
+        }
+
+        // Report how much static asset traffic the caching proxy absorbed
+        CachingProxy proxy = CachingProxy.getShared();
+        if (proxy != null && extent != null) {
+            extent.createTest("Static Asset Cache: " + context.getName()).info(proxy.getStats().toString());
+            logger.info("Static asset cache: " + proxy.getStats());
+        }
+
+        // Save the run's recording, and list requests the traffic archive could not answer
+        TrafficReplay.finish();
+        TrafficReplay.saveRecording();
+        String replayReport = TrafficReplay.getReport();
+        if (replayReport != null && extent != null) {
+            extent.createTest("Traffic Replay: " + context.getName()).info(replayReport);
+        }
+
         // Flush ExtentReports
         if (extent != null) {
             extent.flush();
@@ -162,12 +250,30 @@ public class TestListener implements ITestListener {
      * @param step step description
      */
     public static void logStep(String step) {
+        HarCapture.step(step);
+        RunHistory.step(step);
+        Deadline.step(step);
         if (test.get() != null) {
             test.get().log(Status.INFO, "STEP: " + step);
         }
         logger.info("STEP: " + step);
     }
 
+    /**
+     * Finish the HAR capture of the test's session and link it from the report with the slowest requests per step
+     * @param result test result
+     */
+    private static void attachHar(ITestResult result) {
+        HarCapture.Result har = HarCapture.finish(result.getName());
+        if (har == null || test.get() == null) {
+            return;
+        }
+        Path reportDir = Paths.get(ConfigReader.getProperty("extent.report.path")).toAbsolutePath().getParent();
+        String link = reportDir.relativize(har.getFile().toPath().toAbsolutePath()).toString().replace('\\', '/');
+        test.get().info("HAR: <a href=\"" + link + "\" target=\"_blank\">" + har.getFile().getName() + "</a>");
+        test.get().info("Slowest requests per step:" + har.getSummary().toHtml());
+    }
+
     /**
      * Attach Base64 screenshot to ExtentReports
      * @param description description for the screenshot
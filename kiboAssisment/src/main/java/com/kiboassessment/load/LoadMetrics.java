@@ -0,0 +1,97 @@
+package com.kiboassessment.load;
+
+import com.kiboassessment.utils.LatencyStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe collector of per-step latencies and iteration outcomes during a load run
+ */
+public class LoadMetrics implements StepMetrics {
+    private final Map<String, LatencyStats> stepLatencies = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> stepErrors = new LinkedHashMap<>();
+    private final LatencyStats iterationLatencies = new LatencyStats();
+    private final AtomicInteger completedIterations = new AtomicInteger();
+    private final AtomicInteger failedIterations = new AtomicInteger();
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final AtomicInteger peakUsers = new AtomicInteger();
+    private final AtomicLong startedAt = new AtomicLong();
+    private final AtomicLong finishedAt = new AtomicLong();
+
+    @Override
+    public void recordStep(String step, long latencyMs, boolean success) {
+        LatencyStats stats;
+        AtomicInteger errors;
+        synchronized (stepLatencies) {
+            stats = stepLatencies.computeIfAbsent(step, name -> new LatencyStats());
+            errors = stepErrors.computeIfAbsent(step, name -> new AtomicInteger());
+        }
+        if (success) {
+            stats.record(latencyMs);
+        } else {
+            errors.incrementAndGet();
+        }
+    }
+
+    public void recordIteration(long latencyMs, boolean success) {
+        if (success) {
+            iterationLatencies.record(latencyMs);
+            completedIterations.incrementAndGet();
+        } else {
+            failedIterations.incrementAndGet();
+        }
+    }
+
+    public void userStarted() {
+        peakUsers.accumulateAndGet(activeUsers.incrementAndGet(), Math::max);
+    }
+
+    public void userStopped() {
+        activeUsers.decrementAndGet();
+    }
+
+    public void markStarted() {
+        startedAt.set(System.currentTimeMillis());
+    }
+
+    public void markFinished() {
+        finishedAt.set(System.currentTimeMillis());
+    }
+
+    public Map<String, LatencyStats> getStepLatencies() {
+        synchronized (stepLatencies) {
+            return new LinkedHashMap<>(stepLatencies);
+        }
+    }
+
+    public int getStepErrors(String step) {
+        synchronized (stepLatencies) {
+            AtomicInteger errors = stepErrors.get(step);
+            return errors == null ? 0 : errors.get();
+        }
+    }
+
+    public LatencyStats getIterationLatencies() {
+        return iterationLatencies;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations.get();
+    }
+
+    public int getFailedIterations() {
+        return failedIterations.get();
+    }
+
+    public int getPeakUsers() {
+        return peakUsers.get();
+    }
+
+    public long getElapsedMs() {
+        long end = finishedAt.get() == 0 ? System.currentTimeMillis() : finishedAt.get();
+        return end - startedAt.get();
+    }
+}
@@ -0,0 +1,72 @@
+package com.kiboassessment.load;
+
+import com.kiboassessment.utils.ConfigReader;
+
+/**
+ * Load shape: number of synthetic users, ramp-up, think time and duration
+ */
+public class LoadProfile {
+    private final int users;
+    private final long rampUpMs;
+    private final long thinkTimeMs;
+    private final long durationMs;
+
+    /**
+     * Create load profile
+     * @param users number of concurrent synthetic users
+     * @param rampUpMs time over which users are started
+     * @param thinkTimeMs mean pause after each step
+     * @param durationMs time at full load after the ramp-up; users then finish their current iteration and stop
+     */
+    public LoadProfile(int users, long rampUpMs, long thinkTimeMs, long durationMs) {
+        if (users < 1) {
+            throw new IllegalArgumentException("Load profile needs at least one user");
+        }
+        this.users = users;
+        this.rampUpMs = rampUpMs;
+        this.thinkTimeMs = thinkTimeMs;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Create load profile from load.* configuration properties
+     * @return load profile
+     */
+    public static LoadProfile fromConfig() {
+        return new LoadProfile(
+                Integer.parseInt(ConfigReader.getProperty("load.users")),
+                Long.parseLong(ConfigReader.getProperty("load.ramp.up.seconds")) * 1000,
+                Long.parseLong(ConfigReader.getProperty("load.think.time.ms")),
+                Long.parseLong(ConfigReader.getProperty("load.duration.seconds")) * 1000);
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public long getRampUpMs() {
+        return rampUpMs;
+    }
+
+    public long getThinkTimeMs() {
+        return thinkTimeMs;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Get start delay of a user so that users are spread evenly over the ramp-up
+     * @param userIndex zero-based user index
+     * @return delay in milliseconds
+     */
+    public long getStartDelayMs(int userIndex) {
+        return users == 1 ? 0 : rampUpMs * userIndex / users;
+    }
+
+    @Override
+    public String toString() {
+        return users + " users, ramp-up " + rampUpMs + " ms, think time " + thinkTimeMs + " ms, duration " + durationMs + " ms";
+    }
+}
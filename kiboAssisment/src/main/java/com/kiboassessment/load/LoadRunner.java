@@ -0,0 +1,102 @@
+package com.kiboassessment.load;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drives concurrent synthetic users through a flow according to a load profile.
+ * Each user runs on its own thread and keeps its session across iterations.
+ */
+public class LoadRunner {
+    private static final Logger logger = LogManager.getLogger(LoadRunner.class);
+
+    private final LoadProfile profile;
+    private final Supplier<? extends SyntheticUserFlow> flowFactory;
+
+    /**
+     * Create load runner
+     * @param profile load profile
+     * @param flowFactory creates one flow per synthetic user
+     */
+    public LoadRunner(LoadProfile profile, Supplier<? extends SyntheticUserFlow> flowFactory) {
+        this.profile = profile;
+        this.flowFactory = flowFactory;
+    }
+
+    /**
+     * Run the load and wait for all users to finish their last iteration
+     * @return load summary
+     */
+    public LoadSummary run() {
+        LoadMetrics metrics = new LoadMetrics();
+        ExecutorService users = Executors.newFixedThreadPool(profile.getUsers(), runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("synthetic-user-" + thread.getId());
+            return thread;
+        });
+        logger.info("Starting load run: " + profile);
+        metrics.markStarted();
+        long deadline = System.currentTimeMillis() + profile.getRampUpMs() + profile.getDurationMs();
+
+        for (int i = 0; i < profile.getUsers(); i++) {
+            long startDelay = profile.getStartDelayMs(i);
+            users.submit(() -> runUser(startDelay, deadline, metrics));
+        }
+        users.shutdown();
+        try {
+            if (!users.awaitTermination(profile.getRampUpMs() + profile.getDurationMs() + TimeUnit.MINUTES.toMillis(10),
+                    TimeUnit.MILLISECONDS)) {
+                logger.warn("Synthetic users did not finish in time, interrupting");
+                users.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            users.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        metrics.markFinished();
+
+        LoadSummary summary = new LoadSummary(profile, metrics);
+        logger.info("Load run finished\n" + summary.toText());
+        return summary;
+    }
+
+    private void runUser(long startDelay, long deadline, LoadMetrics metrics) {
+        try {
+            Thread.sleep(startDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        SyntheticUserFlow flow = flowFactory.get();
+        StepRecorder steps = new StepRecorder(metrics, profile.getThinkTimeMs());
+        metrics.userStarted();
+        try {
+            flow.startUser();
+            while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                try {
+                    flow.runIteration(steps);
+                    metrics.recordIteration((System.nanoTime() - start) / 1_000_000, true);
+                } catch (Exception e) {
+                    metrics.recordIteration((System.nanoTime() - start) / 1_000_000, false);
+                    logger.warn("Synthetic user iteration failed: " + e.getMessage());
+                    flow.onIterationFailure(e);
+                }
+            }
+        } catch (Exception e) {
+            metrics.recordIteration(0, false);
+            logger.error("Synthetic user could not start: " + e.getMessage());
+        } finally {
+            try {
+                flow.stopUser();
+            } finally {
+                metrics.userStopped();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.kiboassessment.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kiboassessment.utils.LatencyStats;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summary of a load run: per-step latency percentiles, throughput and error rate
+ */
+public class LoadSummary {
+    private final LoadProfile profile;
+    private final LoadMetrics metrics;
+
+    public LoadSummary(LoadProfile profile, LoadMetrics metrics) {
+        this.profile = profile;
+        this.metrics = metrics;
+    }
+
+    public int getIterations() {
+        return metrics.getCompletedIterations() + metrics.getFailedIterations();
+    }
+
+    public int getCompletedIterations() {
+        return metrics.getCompletedIterations();
+    }
+
+    /**
+     * Get fraction of iterations that failed
+     * @return error rate between 0 and 1
+     */
+    public double getErrorRate() {
+        return getIterations() == 0 ? 0 : (double) metrics.getFailedIterations() / getIterations();
+    }
+
+    /**
+     * Get completed iterations per second over the run
+     * @return throughput
+     */
+    public double getThroughput() {
+        long elapsedMs = metrics.getElapsedMs();
+        return elapsedMs <= 0 ? 0 : metrics.getCompletedIterations() * 1000.0 / elapsedMs;
+    }
+
+    public Map<String, LatencyStats> getStepLatencies() {
+        return metrics.getStepLatencies();
+    }
+
+    public LatencyStats getIterationLatencies() {
+        return metrics.getIterationLatencies();
+    }
+
+    public int getPeakUsers() {
+        return metrics.getPeakUsers();
+    }
+
+    /**
+     * Get summary as a JSON-friendly map
+     * @return summary values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile.toString());
+        summary.put("elapsedMs", metrics.getElapsedMs());
+        summary.put("peakUsers", metrics.getPeakUsers());
+        summary.put("iterations", getIterations());
+        summary.put("failedIterations", metrics.getFailedIterations());
+        summary.put("errorRate", getErrorRate());
+        summary.put("throughputPerSecond", getThroughput());
+        summary.put("iteration", statsToMap(metrics.getIterationLatencies(), metrics.getFailedIterations()));
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyStats> step : metrics.getStepLatencies().entrySet()) {
+            steps.put(step.getKey(), statsToMap(step.getValue(), metrics.getStepErrors(step.getKey())));
+        }
+        summary.put("steps", steps);
+        return summary;
+    }
+
+    private static Map<String, Object> statsToMap(LatencyStats stats, int errors) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", stats.getCount());
+        values.put("errors", errors);
+        values.put("meanMs", Math.round(stats.getMean()));
+        values.put("p50Ms", stats.getPercentile(50));
+        values.put("p90Ms", stats.getPercentile(90));
+        values.put("p95Ms", stats.getPercentile(95));
+        values.put("p99Ms", stats.getPercentile(99));
+        values.put("maxMs", stats.getMax());
+        return values;
+    }
+
+    /**
+     * Get summary as a text table for logs and reports
+     * @return summary text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Load run: %s%n", profile));
+        text.append(String.format(Locale.ROOT, "Iterations: %d, failed: %d, error rate: %.2f%%, throughput: %.2f/s, peak users: %d%n",
+                getIterations(), metrics.getFailedIterations(), getErrorRate() * 100, getThroughput(), metrics.getPeakUsers()));
+        text.append(String.format(Locale.ROOT, "%-30s %7s %6s %8s %8s %8s %8s%n", "Step", "Count", "Errors", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyStats> step : metrics.getStepLatencies().entrySet()) {
+            appendRow(text, step.getKey(), step.getValue(), metrics.getStepErrors(step.getKey()));
+        }
+        appendRow(text, "Iteration", metrics.getIterationLatencies(), metrics.getFailedIterations());
+        return text.toString();
+    }
+
+    private static void appendRow(StringBuilder text, String name, LatencyStats stats, int errors) {
+        text.append(String.format(Locale.ROOT, "%-30s %7d %6d %8d %8d %8d %8d%n", name, stats.getCount(), errors,
+                stats.getPercentile(50), stats.getPercentile(90), stats.getPercentile(99), stats.getMax()));
+    }
+
+    /**
+     * Write summary as JSON
+     * @param path output file path
+     */
+    public void writeJson(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write load summary: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.kiboassessment.load;
+
+import com.kiboassessment.accounts.AccountLease;
+import com.kiboassessment.accounts.AccountPool;
+import com.kiboassessment.accounts.TestAccount;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.pages.HomePage;
+import com.kiboassessment.pages.OrderConfirmationPage;
+import com.kiboassessment.pages.SearchResultsPage;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+
+/**
+ * Synthetic user that runs the purchase flow through the page objects in its own browser session.
+ * The session stays logged in between iterations and is replaced after a failed iteration.
+ * With accounts.pool.enabled each user logs in with an account leased from the pool for its lifetime.
+ */
+public class PurchaseUserFlow implements SyntheticUserFlow {
+    private HomePage homePage;
+    private SearchResultsPage searchResultsPage;
+    private CartPage cartPage;
+    private CheckoutPage checkoutPage;
+    private OrderConfirmationPage orderConfirmationPage;
+    private boolean loggedIn;
+    private AccountLease lease;
+
+    @Override
+    public void startUser() {
+        if (AccountPool.isEnabled()) {
+            lease = AccountPool.forStorefront().lease();
+        }
+        openSession();
+    }
+
+    private void openSession() {
+        WebDriverManagerUtil.initializeDriver();
+        homePage = new HomePage();
+        searchResultsPage = new SearchResultsPage();
+        cartPage = new CartPage();
+        checkoutPage = new CheckoutPage();
+        orderConfirmationPage = new OrderConfirmationPage();
+        loggedIn = false;
+    }
+
+    @Override
+    public void runIteration(StepRecorder steps) {
+        steps.step("Home", () -> homePage.navigateToHomePage());
+
+        if (!loggedIn) {
+            TestAccount account = lease == null ? new TestAccount(ConfigReader.getEmail(), ConfigReader.getPassword()) : lease.getAccount();
+            steps.step("Login", () -> {
+                homePage.login(account.getEmail(), account.getPassword());
+                if (!homePage.verifyLoginSuccess()) {
+                    throw new IllegalStateException("Login failed");
+                }
+            });
+            loggedIn = true;
+        }
+
+        steps.step("Search", () -> {
+            homePage.searchProduct(ConfigReader.getSearchProduct());
+            searchResultsPage.waitForSearchResults();
+        });
+
+        steps.step("Add to cart", () -> {
+            if (!searchResultsPage.addProductToCartByName(ConfigReader.getProductName())) {
+                throw new IllegalStateException("Product not found: " + ConfigReader.getProductName());
+            }
+            searchResultsPage.clickProductdetailsPageAddToCart();
+        });
+
+        steps.step("Cart", () -> {
+            cartPage.open();
+            cartPage.waitForCartToLoad();
+        });
+
+        steps.step("Checkout", () -> {
+            checkoutPage.open();
+            checkoutPage.completeCheckout();
+        });
+
+        steps.step("Order confirmation", () -> {
+            orderConfirmationPage.waitForOrderConfirmation();
+            if (!orderConfirmationPage.verifyOrderSuccess()) {
+                throw new IllegalStateException("Order confirmation not displayed");
+            }
+        });
+    }
+
+    @Override
+    public void onIterationFailure(Exception cause) {
+        WebDriverManagerUtil.quitDriver();
+        openSession();
+    }
+
+    @Override
+    public void stopUser() {
+        try {
+            WebDriverManagerUtil.quitDriver();
+        } finally {
+            if (lease != null) {
+                lease.close();
+                lease = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.kiboassessment.load;
+
+/**
+ * Receives the outcome of each timed step
+ */
+public interface StepMetrics {
+
+    /**
+     * Record a step outcome
+     * @param step step name
+     * @param latencyMs step latency in milliseconds
+     * @param success true if the step completed without error
+     */
+    void recordStep(String step, long latencyMs, boolean success);
+}
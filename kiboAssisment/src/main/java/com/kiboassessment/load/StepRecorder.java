@@ -0,0 +1,69 @@
+package com.kiboassessment.load;
+
+import com.kiboassessment.har.HarCapture;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times named steps of a synthetic user iteration and applies think time between them
+ */
+public class StepRecorder {
+    private final StepMetrics metrics;
+    private final long thinkTimeMs;
+
+    public StepRecorder(StepMetrics metrics, long thinkTimeMs) {
+        this.metrics = metrics;
+        this.thinkTimeMs = thinkTimeMs;
+    }
+
+    /**
+     * Run and time a step
+     * @param name step name
+     * @param action step body
+     */
+    public void step(String name, Runnable action) {
+        step(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run and time a step that returns a value
+     * @param name step name
+     * @param action step body
+     * @param <T> result type
+     * @return step result
+     */
+    public <T> T step(String name, Callable<T> action) {
+        HarCapture.step(name);
+        long start = System.nanoTime();
+        try {
+            T result = action.call();
+            metrics.recordStep(name, (System.nanoTime() - start) / 1_000_000, true);
+            think();
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordStep(name, (System.nanoTime() - start) / 1_000_000, false);
+            throw e;
+        } catch (Exception e) {
+            metrics.recordStep(name, (System.nanoTime() - start) / 1_000_000, false);
+            throw new RuntimeException("Step failed: " + name, e);
+        }
+    }
+
+    /**
+     * Pause for the configured think time, randomised between 50% and 150%
+     */
+    private void think() {
+        if (thinkTimeMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkTimeMs / 2, thinkTimeMs * 3 / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kiboassessment.load;
+
+/**
+ * One synthetic user's behaviour. The load runner calls runIteration repeatedly on the same user
+ * thread, so implementations may keep a warm session between iterations.
+ */
+public interface SyntheticUserFlow {
+
+    /**
+     * Called once on the user thread before the first iteration
+     */
+    default void startUser() {
+    }
+
+    /**
+     * Run one iteration of the flow, timing each step through the recorder
+     * @param steps step recorder
+     * @throws Exception if the iteration fails
+     */
+    void runIteration(StepRecorder steps) throws Exception;
+
+    /**
+     * Called after a failed iteration, e.g. to replace a broken session
+     * @param cause failure cause
+     */
+    default void onIterationFailure(Exception cause) {
+    }
+
+    /**
+     * Called once on the user thread after the last iteration
+     */
+    default void stopUser() {
+    }
+}
@@ -0,0 +1,134 @@
+package com.kiboassessment.load.http;
+
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the storefront document and XHR traffic of a browser flow over the DevTools Network domain,
+ * so the flow can be turned into a request script and replayed without a browser
+ */
+public class HttpFlowRecorder {
+    private static final Logger logger = LogManager.getLogger(HttpFlowRecorder.class);
+    private static final Set<String> RECORDED_TYPES = Set.of("Document", "XHR", "Fetch");
+
+    private final DevTools devTools;
+    private final String origin;
+    private final Map<String, RecordedExchange> exchanges = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<CompletableFuture<Void>> bodyFetches = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService bodyExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Create recorder for a browser session
+     * @param driver Chrome or Edge driver
+     * @param baseUrl storefront base URL; requests to other origins are ignored
+     */
+    public HttpFlowRecorder(WebDriver driver, String baseUrl) {
+        this.devTools = DevToolsUtil.getDevTools(driver);
+        URI uri = URI.create(baseUrl);
+        this.origin = uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * Start recording
+     */
+    @SuppressWarnings("unchecked")
+    public void start() {
+        DevToolsUtil.send(devTools, "Network.enable", Map.of());
+        DevToolsUtil.listen(devTools, "Network.requestWillBeSent", params -> {
+            String url = (String) DevToolsUtil.get(params, "request", "url");
+            if (params.containsKey("redirectResponse") || url == null || !url.startsWith(origin)
+                    || !RECORDED_TYPES.contains(String.valueOf(params.get("type")))) {
+                return;
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            Object rawHeaders = DevToolsUtil.get(params, "request", "headers");
+            if (rawHeaders instanceof Map) {
+                ((Map<String, Object>) rawHeaders).forEach((name, value) -> headers.put(name, String.valueOf(value)));
+            }
+            exchanges.put((String) params.get("requestId"), new RecordedExchange(
+                    (String) DevToolsUtil.get(params, "request", "method"), url, headers,
+                    (String) DevToolsUtil.get(params, "request", "postData")));
+        });
+        DevToolsUtil.listen(devTools, "Network.responseReceived", params -> {
+            RecordedExchange exchange = exchanges.get((String) params.get("requestId"));
+            Object status = DevToolsUtil.get(params, "response", "status");
+            if (exchange != null && status instanceof Number) {
+                exchange.setStatus(((Number) status).intValue());
+            }
+        });
+        DevToolsUtil.listen(devTools, "Network.loadingFinished", params -> {
+            String requestId = (String) params.get("requestId");
+            RecordedExchange exchange = exchanges.get(requestId);
+            if (exchange != null) {
+                // Fetching the body from the listener thread would block further event delivery
+                bodyFetches.add(CompletableFuture.runAsync(() -> fetchBody(requestId, exchange), bodyExecutor));
+            }
+        });
+        logger.info("HTTP flow recording started for: " + origin);
+    }
+
+    private void fetchBody(String requestId, RecordedExchange exchange) {
+        try {
+            Map<String, Object> result = DevToolsUtil.send(devTools, "Network.getResponseBody", Map.of("requestId", requestId));
+            String body = (String) result.get("body");
+            if (Boolean.TRUE.equals(result.get("base64Encoded")) && body != null) {
+                body = new String(Base64.getDecoder().decode(body));
+            }
+            exchange.setResponseBody(body);
+        } catch (RuntimeException e) {
+            logger.warn("Response body not available for: " + exchange.getUrl());
+        }
+    }
+
+    /**
+     * Stop recording and build the request script
+     * @param parameters user parameter values by name, replaced by placeholders in the script
+     * @return correlated request script
+     */
+    public RequestScript stop(Map<String, String> parameters) {
+        return new ScriptCorrelator(parameters).correlate(stop());
+    }
+
+    /**
+     * Stop recording
+     * @return recorded exchanges in request order
+     */
+    public List<RecordedExchange> stop() {
+        CompletableFuture.allOf(bodyFetches.toArray(new CompletableFuture<?>[0])).join();
+        bodyExecutor.shutdown();
+        try {
+            bodyExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        devTools.clearListeners();
+        DevToolsUtil.send(devTools, "Network.disable", Map.of());
+
+        List<RecordedExchange> recorded = new ArrayList<>();
+        synchronized (exchanges) {
+            for (RecordedExchange exchange : exchanges.values()) {
+                if (exchange.getStatus() > 0) {
+                    recorded.add(exchange);
+                }
+            }
+        }
+        logger.info("HTTP flow recording stopped, " + recorded.size() + " exchanges recorded");
+        return recorded;
+    }
+}
@@ -0,0 +1,242 @@
+package com.kiboassessment.load.http;
+
+import com.kiboassessment.load.LoadProfile;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a request script with many virtual users on one shared, non-blocking HTTP client.
+ * Each virtual user keeps its own cookies and variables; no thread is held while a user waits
+ * for a response or thinks, so hundreds of users need only a handful of threads.
+ */
+public class HttpReplayEngine {
+    private static final Logger logger = LogManager.getLogger(HttpReplayEngine.class);
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+    private static final int MAX_REDIRECTS = 5;
+
+    private final RequestScript script;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Duration timeout = Duration.ofSeconds(ConfigReader.getHttpTimeout());
+
+    /**
+     * Create replay engine
+     * @param script request script to replay
+     * @param baseUrl storefront base URL the script paths are resolved against
+     */
+    public HttpReplayEngine(RequestScript script, String baseUrl) {
+        this.script = script;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Replay the script until the profile's ramp-up and duration have passed
+     * @param profile load profile
+     * @param userParameters parameter values for the user with the given zero-based index
+     * @return replay result
+     */
+    public ReplayResult run(LoadProfile profile, IntFunction<Map<String, String>> userParameters) {
+        ReplayResult result = new ReplayResult(profile, script);
+        long start = System.currentTimeMillis();
+        long deadline = start + profile.getRampUpMs() + profile.getDurationMs();
+        logger.info("Starting HTTP replay of " + script.requests.size() + " requests: " + profile);
+
+        List<CompletableFuture<Void>> users = new ArrayList<>();
+        for (int i = 0; i < profile.getUsers(); i++) {
+            VirtualUser user = new VirtualUser(userParameters.apply(i), profile.getThinkTimeMs(), deadline, result);
+            CompletableFuture.delayedExecutor(profile.getStartDelayMs(i), TimeUnit.MILLISECONDS).execute(() -> iterate(user));
+            users.add(user.done);
+        }
+        CompletableFuture.allOf(users.toArray(new CompletableFuture<?>[0])).join();
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("HTTP replay finished:\n" + result.toText());
+        return result;
+    }
+
+    /**
+     * Run the user's iterations until the deadline. Each iteration's chain ends with it: the next one is
+     * started from its completion instead of being composed onto it, so a long run does not build up
+     * nested futures, and iterations that finish without waiting loop here instead of recursing.
+     */
+    private void iterate(VirtualUser user) {
+        while (System.currentTimeMillis() < user.deadline) {
+            CompletableFuture<Void> iteration = CompletableFuture.completedFuture(null);
+            for (RequestScript.ScriptedRequest request : script.requests) {
+                iteration = iteration.thenCompose(ignored -> execute(user, request))
+                        .thenCompose(ignored -> user.think());
+            }
+            if (!iteration.isDone()) {
+                iteration.whenComplete((ignored, error) -> {
+                    user.result.recordIteration(error == null);
+                    iterate(user);
+                });
+                return;
+            }
+            user.result.recordIteration(!iteration.isCompletedExceptionally());
+        }
+        user.done.complete(null);
+    }
+
+    private CompletableFuture<Void> execute(VirtualUser user, RequestScript.ScriptedRequest request) {
+        long start = System.nanoTime();
+        HttpRequest httpRequest;
+        try {
+            httpRequest = user.buildRequest(request);
+        } catch (IllegalStateException e) {
+            user.result.recordError(request.name, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(user, httpRequest, 0).thenAccept(response -> {
+            user.result.recordLatency(request.name, (System.nanoTime() - start) / 1000);
+            if (request.expectedStatus > 0 && response.statusCode() != request.expectedStatus) {
+                throw fail(user, request, "Expected status " + request.expectedStatus + " but was " + response.statusCode());
+            }
+            for (RequestScript.Extraction extraction : request.extractions) {
+                Matcher matcher = Pattern.compile(extraction.regex).matcher(response.body());
+                if (!matcher.find()) {
+                    throw fail(user, request, "Extraction failed for " + extraction.variable);
+                }
+                user.variables.put(extraction.variable, matcher.group(1));
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null && !(error.getCause() instanceof ReplayFailure)) {
+                user.result.recordError(request.name, String.valueOf(error.getCause()));
+            }
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(VirtualUser user, HttpRequest request, int hops) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenCompose(response -> {
+            user.storeCookies(response);
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (response.statusCode() / 100 != 3 || location == null || hops >= MAX_REDIRECTS) {
+                return CompletableFuture.completedFuture(response);
+            }
+            HttpRequest redirect = user.newRequest(request.uri().resolve(location)).GET().build();
+            return send(user, redirect, hops + 1);
+        });
+    }
+
+    private static CompletionException fail(VirtualUser user, RequestScript.ScriptedRequest request, String message) {
+        user.result.recordError(request.name, message);
+        return new CompletionException(new ReplayFailure(request.name + ": " + message));
+    }
+
+    /**
+     * Scripted check failed; already counted as a request error
+     */
+    private static class ReplayFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ReplayFailure(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Cookies, variables and pacing of one virtual user. Its requests run one after another,
+     * so the state is never accessed concurrently.
+     */
+    private class VirtualUser {
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+        private final Map<String, String> variables;
+        private final long thinkTimeMs;
+        private final long deadline;
+        private final ReplayResult result;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        VirtualUser(Map<String, String> parameters, long thinkTimeMs, long deadline, ReplayResult result) {
+            this.variables = new LinkedHashMap<>(parameters);
+            this.thinkTimeMs = thinkTimeMs;
+            this.deadline = deadline;
+            this.result = result;
+        }
+
+        HttpRequest buildRequest(RequestScript.ScriptedRequest request) {
+            HttpRequest.Builder builder = newRequest(URI.create(baseUrl + resolve(request.pathTemplate)));
+            request.headers.forEach(builder::header);
+            if (request.bodyTemplate != null) {
+                builder.method(request.method, HttpRequest.BodyPublishers.ofString(resolve(request.bodyTemplate)));
+            } else {
+                builder.method(request.method, HttpRequest.BodyPublishers.noBody());
+            }
+            return builder.build();
+        }
+
+        HttpRequest.Builder newRequest(URI uri) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(timeout);
+            if (!cookies.isEmpty()) {
+                StringJoiner cookieHeader = new StringJoiner("; ");
+                cookies.forEach((name, value) -> cookieHeader.add(name + "=" + value));
+                builder.header("Cookie", cookieHeader.toString());
+            }
+            return builder;
+        }
+
+        void storeCookies(HttpResponse<?> response) {
+            for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                String pair = setCookie.split(";", 2)[0];
+                int separator = pair.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String name = pair.substring(0, separator).trim();
+                String value = pair.substring(separator + 1).trim();
+                if (value.isEmpty() || setCookie.toLowerCase().contains("max-age=0")) {
+                    cookies.remove(name);
+                } else {
+                    cookies.put(name, value);
+                }
+            }
+        }
+
+        String resolve(String template) {
+            Matcher matcher = PLACEHOLDER.matcher(template);
+            StringBuilder resolved = new StringBuilder();
+            while (matcher.find()) {
+                String value = variables.get(matcher.group(1));
+                if (value == null) {
+                    throw new IllegalStateException("Unresolved variable: " + matcher.group(1));
+                }
+                matcher.appendReplacement(resolved, Matcher.quoteReplacement(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+            }
+            matcher.appendTail(resolved);
+            return resolved.toString();
+        }
+
+        CompletableFuture<Void> think() {
+            if (thinkTimeMs <= 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long pause = ThreadLocalRandom.current().nextLong(thinkTimeMs / 2, thinkTimeMs * 3 / 2 + 1);
+            return CompletableFuture.runAsync(() -> {
+            }, CompletableFuture.delayedExecutor(pause, TimeUnit.MILLISECONDS));
+        }
+    }
+}
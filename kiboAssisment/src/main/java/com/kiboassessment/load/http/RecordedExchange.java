@@ -0,0 +1,63 @@
+package com.kiboassessment.load.http;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One request/response pair captured from a browser run
+ */
+public class RecordedExchange {
+    private final String method;
+    private final String url;
+    private final Map<String, String> requestHeaders;
+    private final String postData;
+    private int status;
+    private String responseBody = "";
+
+    /**
+     * Create recorded exchange
+     * @param method HTTP method
+     * @param url absolute request URL
+     * @param requestHeaders request headers
+     * @param postData request body, or null
+     */
+    public RecordedExchange(String method, String url, Map<String, String> requestHeaders, String postData) {
+        this.method = method;
+        this.url = url;
+        this.requestHeaders = new LinkedHashMap<>(requestHeaders);
+        this.postData = postData;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getRequestHeaders() {
+        return Collections.unmodifiableMap(requestHeaders);
+    }
+
+    public String getPostData() {
+        return postData;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody == null ? "" : responseBody;
+    }
+}
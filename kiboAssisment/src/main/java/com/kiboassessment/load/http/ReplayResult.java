@@ -0,0 +1,154 @@
+package com.kiboassessment.load.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kiboassessment.load.LoadProfile;
+import com.kiboassessment.utils.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Result of an HTTP replay run: per-request latency histograms, error counts and throughput
+ */
+public class ReplayResult {
+    private final LoadProfile profile;
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Map<String, String> lastErrors = new ConcurrentHashMap<>();
+    private final AtomicInteger completedIterations = new AtomicInteger();
+    private final AtomicInteger failedIterations = new AtomicInteger();
+    private volatile long elapsedMs;
+
+    /**
+     * Create result for a script
+     * @param profile load profile of the run
+     * @param script replayed script; one histogram is kept per request
+     */
+    public ReplayResult(LoadProfile profile, RequestScript script) {
+        this.profile = profile;
+        for (RequestScript.ScriptedRequest request : script.requests) {
+            latencies.put(request.name, new LatencyHistogram());
+            errors.put(request.name, new AtomicLong());
+        }
+    }
+
+    void recordLatency(String request, long micros) {
+        latencies.get(request).record(micros);
+    }
+
+    void recordError(String request, String message) {
+        errors.get(request).incrementAndGet();
+        lastErrors.put(request, message);
+    }
+
+    void recordIteration(boolean completed) {
+        (completed ? completedIterations : failedIterations).incrementAndGet();
+    }
+
+    void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Map<String, LatencyHistogram> getLatencies() {
+        return latencies;
+    }
+
+    public long getErrors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long getErrors(String request) {
+        return errors.get(request).get();
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations.get();
+    }
+
+    public int getFailedIterations() {
+        return failedIterations.get();
+    }
+
+    public long getRequests() {
+        return latencies.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    /**
+     * Get requests per second over the run
+     * @return throughput
+     */
+    public double getThroughput() {
+        return elapsedMs <= 0 ? 0 : getRequests() * 1000.0 / elapsedMs;
+    }
+
+    /**
+     * Get result as a JSON-friendly map
+     * @return result values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("profile", profile.toString());
+        result.put("elapsedMs", elapsedMs);
+        result.put("requests", getRequests());
+        result.put("errors", getErrors());
+        result.put("completedIterations", getCompletedIterations());
+        result.put("failedIterations", getFailedIterations());
+        result.put("throughputPerSecond", getThroughput());
+        Map<String, Object> requests = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> request : latencies.entrySet()) {
+            LatencyHistogram histogram = request.getValue();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getCount());
+            values.put("errors", getErrors(request.getKey()));
+            values.put("lastError", lastErrors.get(request.getKey()));
+            values.put("p50Micros", histogram.getPercentile(50));
+            values.put("p90Micros", histogram.getPercentile(90));
+            values.put("p99Micros", histogram.getPercentile(99));
+            values.put("buckets", histogram.getBuckets());
+            requests.put(request.getKey(), values);
+        }
+        result.put("perRequest", requests);
+        return result;
+    }
+
+    /**
+     * Format result as a text table
+     * @return multi-line result
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%s: %d requests, %d errors, %d iterations, %.1f req/s%n",
+                profile, getRequests(), getErrors(), getCompletedIterations() + getFailedIterations(), getThroughput()));
+        text.append(String.format(Locale.ROOT, "%-40s %8s %8s %10s %10s %10s%n", "Request", "Count", "Errors", "p50 ms", "p90 ms", "p99 ms"));
+        for (Map.Entry<String, LatencyHistogram> request : latencies.entrySet()) {
+            LatencyHistogram histogram = request.getValue();
+            text.append(String.format(Locale.ROOT, "%-40s %8d %8d %10.1f %10.1f %10.1f%n", request.getKey(),
+                    histogram.getCount(), getErrors(request.getKey()), histogram.getPercentile(50) / 1000.0,
+                    histogram.getPercentile(90) / 1000.0, histogram.getPercentile(99) / 1000.0));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Write result as JSON
+     * @param path output file path
+     */
+    public void writeJson(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write replay result: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.kiboassessment.load.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameterized HTTP request script derived from a recorded browser flow.
+ * Templates use ${name} placeholders for user parameters and correlated values.
+ */
+public class RequestScript {
+
+    /**
+     * Rule that extracts a dynamic value from a response body into a variable
+     */
+    public static class Extraction {
+        public String variable;
+        public String regex;
+
+        public Extraction() {
+        }
+
+        public Extraction(String variable, String regex) {
+            this.variable = variable;
+            this.regex = regex;
+        }
+    }
+
+    /**
+     * One scripted request
+     */
+    public static class ScriptedRequest {
+        public String name;
+        public String method;
+        public String pathTemplate;
+        public Map<String, String> headers = new LinkedHashMap<>();
+        public String bodyTemplate;
+        public int expectedStatus;
+        public List<Extraction> extractions = new ArrayList<>();
+
+        public ScriptedRequest() {
+        }
+
+        public ScriptedRequest(String name, String method, String pathTemplate, String bodyTemplate, int expectedStatus) {
+            this.name = name;
+            this.method = method;
+            this.pathTemplate = pathTemplate;
+            this.bodyTemplate = bodyTemplate;
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    public List<String> parameters = new ArrayList<>();
+    public List<ScriptedRequest> requests = new ArrayList<>();
+
+    /**
+     * Save script as JSON
+     * @param path output file path
+     */
+    public void save(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save request script: " + path, e);
+        }
+    }
+
+    /**
+     * Load script from JSON
+     * @param path script file path
+     * @return request script
+     */
+    public static RequestScript load(String path) {
+        try {
+            return new ObjectMapper().readValue(new File(path), RequestScript.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load request script: " + path, e);
+        }
+    }
+}
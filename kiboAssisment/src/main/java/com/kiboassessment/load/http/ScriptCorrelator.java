@@ -0,0 +1,169 @@
+package com.kiboassessment.load.http;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns recorded exchanges into a parameterized request script. User data such as the login email is
+ * replaced by parameters, and dynamic values (ids, tokens) that a request sends back to the server are
+ * traced to the earlier response they came from and replaced by extracted variables.
+ */
+public class ScriptCorrelator {
+    private static final Logger logger = LogManager.getLogger(ScriptCorrelator.class);
+    private static final Pattern CANDIDATE = Pattern.compile("[A-Za-z0-9_\\-]{3,}");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{[^}]+}");
+    private static final Pattern DIGITS = Pattern.compile("\\d{3,}");
+    private static final Set<String> REPLAYED_HEADERS = Set.of("accept", "content-type", "x-requested-with");
+    private static final int CONTEXT_LENGTH = 24;
+
+    private final Map<String, String> parameters;
+
+    /**
+     * Create correlator
+     * @param parameters user parameter values by name, e.g. "email" to the recorded login email
+     */
+    public ScriptCorrelator(Map<String, String> parameters) {
+        this.parameters = new LinkedHashMap<>(parameters);
+    }
+
+    /**
+     * Build request script
+     * @param exchanges recorded exchanges in request order
+     * @return parameterized script
+     */
+    public RequestScript correlate(List<RecordedExchange> exchanges) {
+        RequestScript script = new RequestScript();
+        script.parameters.addAll(parameters.keySet());
+        Map<String, String> correlated = new LinkedHashMap<>();
+
+        for (int i = 0; i < exchanges.size(); i++) {
+            RecordedExchange exchange = exchanges.get(i);
+            URI uri = URI.create(exchange.getUrl());
+            String path = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            String body = exchange.getPostData();
+
+            RequestScript.ScriptedRequest request = new RequestScript.ScriptedRequest(
+                    String.format("%02d %s %s", i + 1, exchange.getMethod(), uri.getRawPath()),
+                    exchange.getMethod(), path, body, exchange.getStatus());
+            for (Map.Entry<String, String> header : exchange.getRequestHeaders().entrySet()) {
+                if (REPLAYED_HEADERS.contains(header.getKey().toLowerCase())) {
+                    request.headers.put(header.getKey(), header.getValue());
+                }
+            }
+
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                String encoded = URLEncoder.encode(parameter.getValue(), StandardCharsets.UTF_8);
+                request.pathTemplate = request.pathTemplate.replace(encoded, "${" + parameter.getKey() + "}");
+                if (request.bodyTemplate != null) {
+                    request.bodyTemplate = request.bodyTemplate.replace(encoded, "${" + parameter.getKey() + "}");
+                }
+            }
+            for (String value : dynamicValues(request.pathTemplate, request.bodyTemplate)) {
+                if (!correlated.containsKey(value)) {
+                    String variable = traceToResponse(value, exchanges, i, script, correlated.size() + 1);
+                    if (variable != null) {
+                        correlated.put(value, variable);
+                    }
+                }
+            }
+            for (Map.Entry<String, String> value : correlated.entrySet()) {
+                request.pathTemplate = replaceValue(request.pathTemplate, value.getKey(), value.getValue());
+                request.bodyTemplate = replaceValue(request.bodyTemplate, value.getKey(), value.getValue());
+            }
+            script.requests.add(request);
+        }
+        logger.info("Correlated " + correlated.size() + " dynamic values across " + exchanges.size() + " requests");
+        return script;
+    }
+
+    /**
+     * Values worth correlating: tokens with at least three digits, or long opaque tokens
+     */
+    private Set<String> dynamicValues(String path, String body) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String part : new String[]{path, body}) {
+            if (part == null) {
+                continue;
+            }
+            Matcher matcher = CANDIDATE.matcher(URLDecoder.decode(PLACEHOLDER.matcher(part).replaceAll(" "), StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                String token = matcher.group();
+                if (token.length() >= 20) {
+                    values.add(token);
+                }
+                Matcher digits = DIGITS.matcher(token);
+                while (digits.find()) {
+                    values.add(digits.group());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Find the latest earlier response containing the value as an attribute, parameter or path value
+     * and add an extraction rule to its request
+     * @return variable name, or null if the value does not come from an earlier response
+     */
+    private String traceToResponse(String value, List<RecordedExchange> exchanges, int before,
+                                   RequestScript script, int variableNumber) {
+        Pattern bounded = Pattern.compile("(?<![A-Za-z0-9])" + Pattern.quote(value) + "(?![A-Za-z0-9])");
+        for (int j = before - 1; j >= 0; j--) {
+            String responseBody = exchanges.get(j).getResponseBody();
+            Matcher matcher = bounded.matcher(responseBody);
+            int start = -1;
+            while (matcher.find()) {
+                if (matcher.start() > 0 && "\"'=/".indexOf(responseBody.charAt(matcher.start() - 1)) >= 0) {
+                    start = matcher.start();
+                    break;
+                }
+            }
+            if (start < 0) {
+                continue;
+            }
+            String left = responseBody.substring(Math.max(0, start - CONTEXT_LENGTH), start);
+            int lineBreak = left.lastIndexOf('\n');
+            left = lineBreak >= 0 ? left.substring(lineBreak + 1) : left;
+            Matcher otherValue = DIGITS.matcher(left);
+            int cut = 0;
+            while (otherValue.find()) {
+                cut = otherValue.end();
+            }
+            left = left.substring(cut);
+            if (left.isEmpty()) {
+                continue;
+            }
+            String capture = value.chars().allMatch(Character::isDigit) ? "(\\d+)" : "([A-Za-z0-9_\\-]+)";
+            String variable = "corr_" + variableNumber;
+            script.requests.get(j).extractions.add(new RequestScript.Extraction(variable, Pattern.quote(left) + capture));
+            logger.info("Correlated '" + value + "' from response of " + script.requests.get(j).name + " as " + variable);
+            return variable;
+        }
+        return null;
+    }
+
+    /**
+     * Replace a correlated value by its placeholder where it is not part of a longer number or token
+     */
+    private static String replaceValue(String template, String value, String variable) {
+        if (template == null) {
+            return null;
+        }
+        String bounded = value.chars().allMatch(Character::isDigit)
+                ? "(?<!\\d)" + Pattern.quote(value) + "(?!\\d)"
+                : "(?<![A-Za-z0-9])" + Pattern.quote(value) + "(?![A-Za-z0-9])";
+        return template.replaceAll(bounded, Matcher.quoteReplacement("${" + variable + "}"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.kiboassessment.locators;
+
+import com.kiboassessment.deadline.Deadline;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * PageFactory locator factory that keeps every @FindBy resolution of a page object within the running
+ * test's time budget, so element calls made outside TestUtils waits cannot outlast it
+ */
+public class DeadlineLocatorFactory implements ElementLocatorFactory {
+    private final ElementLocatorFactory delegate;
+
+    /**
+     * Create a factory wrapping the locators of another factory
+     * @param delegate factory creating the locators that do the lookups
+     */
+    public DeadlineLocatorFactory(ElementLocatorFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        ElementLocator locator = delegate.createLocator(field);
+        return locator == null ? null : new DeadlineLocator(locator);
+    }
+
+    private static class DeadlineLocator implements ElementLocator {
+        private final ElementLocator delegate;
+
+        DeadlineLocator(ElementLocator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            Deadline.beforeLookup();
+            try {
+                return delegate.findElement();
+            } catch (NoSuchElementException e) {
+                throw Deadline.lookupFailed(e);
+            }
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            Deadline.beforeLookup();
+            return delegate.findElements();
+        }
+
+        @Override
+        public String toString() {
+            return "Time-budgeted " + delegate;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kiboassessment.locators;
+
+import com.kiboassessment.pages.BasePage;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the page HTML seen by each page object during a browser run (snapshot.record), so that
+ * LocatorAudit can validate the page locators later without a browser. Snapshots are written to
+ * snapshot.dir as &lt;PageClass&gt;-&lt;n&gt;.html, one per distinct document state.
+ */
+public class DomSnapshots {
+    private static final Logger logger = LogManager.getLogger(DomSnapshots.class);
+    private static final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Set<Integer> recorded = new HashSet<>();
+    private static final Map<String, Integer> counters = new HashMap<>();
+    private static boolean cleared;
+
+    /**
+     * Check whether snapshots are recorded
+     * @return true if snapshot.record is set
+     */
+    public static boolean isRecording() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("snapshot.record", "false"));
+    }
+
+    /**
+     * Get the snapshot directory
+     * @return snapshot.dir
+     */
+    public static File getDirectory() {
+        return new File(ConfigReader.getProperty("snapshot.dir", "src/test/resources/dom-snapshots"));
+    }
+
+    /**
+     * Record the current document for the page object that is calling, unless that page has already
+     * recorded an identical document. Calls from outside a page object are ignored.
+     */
+    public static void record() {
+        if (isRecording()) {
+            String page = callingPage();
+            if (page != null) {
+                record(page);
+            }
+        }
+    }
+
+    /**
+     * Record the current document for a page
+     * @param page page object class name
+     */
+    public static void record(String page) {
+        if (!isRecording() || !WebDriverManagerUtil.isDriverInitialized()) {
+            return;
+        }
+        try {
+            record(page, WebDriverManagerUtil.getDriver().getPageSource());
+        } catch (WebDriverException e) {
+            logger.warn("DOM snapshot not recorded for " + page + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record a document for a page
+     * @param page page object class name
+     * @param html document source
+     */
+    public static synchronized void record(String page, String html) {
+        if (!recorded.add((page + "\n" + html).hashCode())) {
+            return;
+        }
+        File directory = getDirectory();
+        try {
+            if (!cleared) {
+                // A recording run replaces the snapshots of the previous one
+                Files.createDirectories(directory.toPath());
+                File[] previous = directory.listFiles((dir, name) -> name.endsWith(".html"));
+                for (File file : previous == null ? new File[0] : previous) {
+                    Files.delete(file.toPath());
+                }
+                cleared = true;
+            }
+            int index = counters.merge(page, 1, Integer::sum);
+            File file = new File(directory, page + "-" + index + ".html");
+            Files.write(file.toPath(), html.getBytes(StandardCharsets.UTF_8));
+            logger.info("Recorded DOM snapshot: " + file.getPath());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write DOM snapshot for " + page, e);
+        }
+    }
+
+    /**
+     * Forget the snapshots recorded so far, so the next recording starts a new set numbered from 1 and
+     * replaces the snapshot directory, e.g. between tests recording into different directories
+     */
+    public static synchronized void reset() {
+        recorded.clear();
+        counters.clear();
+        cleared = false;
+    }
+
+    private static String callingPage() {
+        return stackWalker.walk(frames -> frames
+                .map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> type != BasePage.class && BasePage.class.isAssignableFrom(type))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(null));
+    }
+}
@@ -0,0 +1,257 @@
+package com.kiboassessment.locators;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.BasePage;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Validates every @FindBy of the page objects against recorded DOM snapshots, without a browser.
+ * A single WebElement locator must match exactly one element and a List locator at least one,
+ * in at least one snapshot of its page.
+ */
+public class LocatorAudit {
+    private static final Logger logger = LogManager.getLogger(LocatorAudit.class);
+    private static final String PAGES_PACKAGE = BasePage.class.getPackage().getName();
+
+    private final Map<String, Map<String, FakeWebDriver>> snapshots = new TreeMap<>();
+
+    /**
+     * Load the snapshots of a directory, named &lt;PageClass&gt;-&lt;n&gt;.html as written by DomSnapshots
+     * @param directory snapshot directory
+     * @return audit over the loaded snapshots
+     */
+    public static LocatorAudit load(File directory) {
+        LocatorAudit audit = new LocatorAudit();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".html") && name.contains("-"));
+        if (files == null) {
+            return audit;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                audit.add(name.substring(0, name.lastIndexOf('-')), name, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read DOM snapshot: " + file, e);
+            }
+        }
+        logger.info("Loaded " + audit.getSnapshotCount() + " DOM snapshots from " + directory);
+        return audit;
+    }
+
+    /**
+     * Add a snapshot for a page
+     * @param page page object class name
+     * @param name snapshot name
+     * @param html document source
+     * @return this audit
+     */
+    public LocatorAudit add(String page, String name, String html) {
+        FakeWebDriver driver = new FakeWebDriver().load("http://snapshot/" + name, html);
+        snapshots.computeIfAbsent(page, key -> new LinkedHashMap<>()).put(name, driver);
+        return this;
+    }
+
+    /**
+     * Get number of loaded snapshots
+     * @return snapshot count
+     */
+    public int getSnapshotCount() {
+        return snapshots.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Audit the locators of all page objects
+     * @return one check per locator
+     */
+    public List<LocatorCheck> audit() {
+        return audit(findPageClasses());
+    }
+
+    /**
+     * Audit the locators of the given page objects
+     * @param pageClasses page object classes
+     * @return one check per locator
+     */
+    public List<LocatorCheck> audit(Collection<Class<?>> pageClasses) {
+        Set<String> optional = new LinkedHashSet<>(Arrays.asList(ConfigReader.getProperty("snapshot.audit.optional", "").split("\\s*,\\s*")));
+        List<LocatorCheck> checks = new ArrayList<>();
+        for (Class<?> pageClass : pageClasses) {
+            String page = pageClass.getSimpleName();
+            Map<String, FakeWebDriver> pageSnapshots = snapshots.getOrDefault(page, Map.of());
+            for (Field field : locatorFields(pageClass)) {
+                By by = new Annotations(field).buildBy();
+                boolean list = List.class.isAssignableFrom(field.getType());
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (Map.Entry<String, FakeWebDriver> snapshot : pageSnapshots.entrySet()) {
+                    counts.put(snapshot.getKey(), count(snapshot.getValue(), by));
+                }
+                int max = counts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+                LocatorCheck.Status status;
+                if (pageSnapshots.isEmpty()) {
+                    status = LocatorCheck.Status.NOT_RECORDED;
+                } else if (max == 0) {
+                    status = optional.contains(page + "." + field.getName()) ? LocatorCheck.Status.ABSENT : LocatorCheck.Status.NO_MATCH;
+                } else if (!list && max > 1) {
+                    status = LocatorCheck.Status.AMBIGUOUS;
+                } else {
+                    status = LocatorCheck.Status.OK;
+                }
+                checks.add(new LocatorCheck(page, field.getName(), by.toString(), list, counts, status));
+            }
+        }
+        return checks;
+    }
+
+    private static int count(FakeWebDriver driver, By by) {
+        try {
+            return driver.findElements(by).size();
+        } catch (WebDriverException | IllegalArgumentException e) {
+            // Selectors the parser rejects count as unmatched
+            logger.warn("Locator could not be evaluated: " + by + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Get the PageFactory-annotated fields of a page object, including inherited ones
+     * @param pageClass page object class
+     * @return locator fields
+     */
+    public static List<Field> locatorFields(Class<?> pageClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                        || field.isAnnotationPresent(FindAll.class)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Find the concrete page object classes of the pages package
+     * @return page classes sorted by name
+     */
+    public static List<Class<?>> findPageClasses() {
+        List<Class<?>> pageClasses = new ArrayList<>();
+        for (String className : classNames(PAGES_PACKAGE)) {
+            try {
+                Class<?> type = Class.forName(className);
+                if (BasePage.class.isAssignableFrom(type) && !Modifier.isAbstract(type.getModifiers())) {
+                    pageClasses.add(type);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Failed to load page class " + className, e);
+            }
+        }
+        pageClasses.sort(Comparator.comparing(Class::getSimpleName));
+        return pageClasses;
+    }
+
+    private static Set<String> classNames(String packageName) {
+        String path = packageName.replace('.', '/');
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = LocatorAudit.class.getClassLoader().getResources(path);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (resource.getProtocol().equals("jar")) {
+                    JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        for (JarEntry entry : Collections.list(jar.entries())) {
+                            String name = entry.getName();
+                            if (name.startsWith(path + "/") && name.endsWith(".class") && name.indexOf('/', path.length() + 1) < 0) {
+                                names.add(className(name.replace('/', '.')));
+                            }
+                        }
+                    }
+                } else {
+                    String[] files = new File(resource.toURI()).list((dir, name) -> name.endsWith(".class"));
+                    for (String file : files == null ? new String[0] : files) {
+                        names.add(className(packageName + "." + file));
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException("Failed to list classes of package " + packageName, e);
+        }
+        names.removeIf(name -> name.contains("$"));
+        return names;
+    }
+
+    private static String className(String fileName) {
+        return fileName.substring(0, fileName.length() - ".class".length());
+    }
+
+    /**
+     * Format checks as a plain text report, problems first
+     * @param checks audit results
+     * @return report text
+     */
+    public static String format(List<LocatorCheck> checks) {
+        List<LocatorCheck> sorted = new ArrayList<>(checks);
+        sorted.sort(Comparator.comparing(LocatorCheck::getStatus).thenComparing(LocatorCheck::getKey));
+        StringBuilder report = new StringBuilder();
+        Map<LocatorCheck.Status, Long> totals = new TreeMap<>();
+        for (LocatorCheck check : sorted) {
+            totals.merge(check.getStatus(), 1L, Long::sum);
+            report.append(String.format("%-12s %-50s max %3d  %s%n", check.getStatus(), check.getKey(), check.getMaxCount(), check.getLocator()));
+        }
+        return "Locator audit: " + totals + System.lineSeparator() + report;
+    }
+
+    /**
+     * Write the report to snapshot.audit.report
+     * @param checks audit results
+     * @return report file
+     */
+    public static File writeReport(List<LocatorCheck> checks) {
+        File file = new File(ConfigReader.getProperty("snapshot.audit.report", "target/locator-audit.txt"));
+        try {
+            if (file.getParentFile() != null) {
+                Files.createDirectories(file.getParentFile().toPath());
+            }
+            Files.writeString(file.toPath(), format(checks), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write locator audit report", e);
+        }
+        logger.info("Locator audit report: " + file.getAbsolutePath());
+        return file;
+    }
+}
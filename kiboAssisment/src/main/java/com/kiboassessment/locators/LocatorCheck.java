@@ -0,0 +1,92 @@
+package com.kiboassessment.locators;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Audit result of one page object locator across the snapshots recorded for its page
+ */
+public class LocatorCheck {
+
+    /**
+     * Outcome of a locator check
+     */
+    public enum Status {
+        /** Matches nothing in any snapshot of its page */
+        NO_MATCH,
+        /** Single-element locator matching more than one element; PageFactory silently uses the first */
+        AMBIGUOUS,
+        /** No snapshot was recorded for the page */
+        NOT_RECORDED,
+        /** Matches nothing, but is listed in snapshot.audit.optional */
+        ABSENT,
+        /** Matches as expected */
+        OK
+    }
+
+    private final String page;
+    private final String field;
+    private final String locator;
+    private final boolean list;
+    private final Map<String, Integer> counts;
+    private final Status status;
+
+    LocatorCheck(String page, String field, String locator, boolean list, Map<String, Integer> counts, Status status) {
+        this.page = page;
+        this.field = field;
+        this.locator = locator;
+        this.list = list;
+        this.counts = new LinkedHashMap<>(counts);
+        this.status = status;
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Get page and field name, e.g. "CartPage.cartItems"
+     * @return locator key
+     */
+    public String getKey() {
+        return page + "." + field;
+    }
+
+    public String getLocator() {
+        return locator;
+    }
+
+    public boolean isList() {
+        return list;
+    }
+
+    /**
+     * Get match counts
+     * @return number of matching elements by snapshot name
+     */
+    public Map<String, Integer> getCounts() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Get highest match count over all snapshots
+     * @return match count
+     */
+    public int getMaxCount() {
+        return counts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + getKey() + " " + locator + " (max " + getMaxCount() + " in " + counts.size() + " snapshots)";
+    }
+}
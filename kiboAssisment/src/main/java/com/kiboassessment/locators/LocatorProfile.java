@@ -0,0 +1,96 @@
+package com.kiboassessment.locators;
+
+import com.kiboassessment.utils.LatencyStats;
+
+/**
+ * Resolution timings of one page object locator in the current run
+ */
+public class LocatorProfile {
+    private final String key;
+    private final String locator;
+    // LatencyStats is unit agnostic; locator resolutions are sampled in microseconds
+    private final LatencyStats micros = new LatencyStats();
+    private volatile int maxMatches;
+    private volatile int depth = -1;
+    private volatile String suggestion;
+
+    LocatorProfile(String key, String locator) {
+        this.key = key;
+        this.locator = locator;
+    }
+
+    /**
+     * Record one resolution
+     * @param elapsedMicros time spent resolving the locator
+     * @param matches number of matching elements
+     */
+    void record(long elapsedMicros, int matches) {
+        micros.record(elapsedMicros);
+        maxMatches = Math.max(maxMatches, matches);
+    }
+
+    /**
+     * Record the result of inspecting the matched element in a page snapshot
+     * @param depth DOM depth of the first match
+     * @param matches number of matching elements in the snapshot
+     * @param suggestion suggested alternative locator, or null
+     */
+    void setInspection(int depth, int matches, String suggestion) {
+        this.depth = depth;
+        this.maxMatches = Math.max(maxMatches, matches);
+        this.suggestion = suggestion;
+    }
+
+    /**
+     * Get page and field name, e.g. "CartPage.cartItems"
+     * @return locator key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getLocator() {
+        return locator;
+    }
+
+    public int getCalls() {
+        return micros.getCount();
+    }
+
+    public long getMedianMicros() {
+        return micros.getPercentile(50);
+    }
+
+    public long getP95Micros() {
+        return micros.getPercentile(95);
+    }
+
+    public int getMaxMatches() {
+        return maxMatches;
+    }
+
+    /**
+     * Get DOM depth of the first matched element
+     * @return number of elements from the root element down to the match, -1 if never inspected
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the suggested id- or data-attribute-based locator resolving to the same element
+     * @return suggestion, or null if none was found
+     */
+    public String getSuggestion() {
+        return suggestion;
+    }
+
+    boolean isInspected() {
+        return depth >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return key + " " + locator + ": " + getCalls() + " calls, median " + getMedianMicros() + " us, p95 " + getP95Micros() + " us";
+    }
+}
@@ -0,0 +1,305 @@
+package com.kiboassessment.locators;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.fake.FakeWebElement;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Profiler mode (locator.profile.enabled): times every @FindBy resolution in the live browser, records
+ * match counts and DOM depth, and ranks the slowest locators across runs. Each locator gets a suggested
+ * id- or data-attribute-based alternative that resolves to the same element.
+ */
+public class LocatorProfiler {
+    private static final Logger logger = LogManager.getLogger(LocatorProfiler.class);
+    private static final Pattern CSS_IDENTIFIER = Pattern.compile("-?[A-Za-z_][\\w-]*");
+    private static final Map<String, LocatorProfile> profiles = new ConcurrentHashMap<>();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Check whether locator resolutions are profiled
+     * @return true if locator.profile.enabled is set
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("locator.profile.enabled", "false"));
+    }
+
+    /**
+     * Record one locator resolution. The first successful resolution of each locator also inspects
+     * the element in a snapshot of the page for its DOM depth and a faster alternative.
+     * @param driver driver the locator was resolved with
+     * @param key page and field name
+     * @param by field locator
+     * @param elapsedMicros time spent resolving
+     * @param matches number of elements returned
+     */
+    static void record(WebDriver driver, String key, By by, long elapsedMicros, int matches) {
+        LocatorProfile profile = profiles.computeIfAbsent(key, name -> new LocatorProfile(name, by.toString()));
+        profile.record(elapsedMicros, matches);
+        if (matches > 0 && !profile.isInspected()) {
+            inspect(driver, by, profile);
+        }
+    }
+
+    private static void inspect(WebDriver driver, By by, LocatorProfile profile) {
+        try {
+            FakeWebDriver snapshot = new FakeWebDriver().load("http://snapshot/", driver.getPageSource());
+            List<WebElement> found = snapshot.findElements(by);
+            if (found.isEmpty()) {
+                return;
+            }
+            Element element = ((FakeWebElement) found.get(0)).getElement();
+            profile.setInspection(element.parents().size() + 1, found.size(), by instanceof By.ById ? null : suggest(element));
+        } catch (WebDriverException e) {
+            logger.warn("Could not inspect locator " + profile.getKey() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Suggest an id- or data-attribute-based locator that uniquely resolves to an element: its own id,
+     * one of its data attributes, or a short selector anchored on the nearest ancestor with either
+     * @param element element in a parsed document
+     * @return locator description such as "By.id: checkout", or null if none is unique
+     */
+    public static String suggest(Element element) {
+        Document document = element.ownerDocument();
+        if (document == null) {
+            return null;
+        }
+        if (!element.id().isEmpty() && document.getElementsByAttributeValue("id", element.id()).size() == 1) {
+            return "By.id: " + element.id();
+        }
+        for (Attribute attribute : element.attributes()) {
+            String css = element.tagName() + attributeSelector(attribute.getKey(), attribute.getValue());
+            if (attribute.getKey().startsWith("data-") && isUnique(document, css, element)) {
+                return "By.cssSelector: " + css;
+            }
+        }
+        for (Element ancestor : element.parents()) {
+            String anchor = anchor(document, ancestor);
+            if (anchor == null) {
+                continue;
+            }
+            for (String relative : relativeSelectors(element)) {
+                String css = anchor + " " + relative;
+                if (isUnique(document, css, element)) {
+                    return "By.cssSelector: " + css;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String anchor(Document document, Element ancestor) {
+        if (!ancestor.id().isEmpty() && document.getElementsByAttributeValue("id", ancestor.id()).size() == 1) {
+            return CSS_IDENTIFIER.matcher(ancestor.id()).matches() ? "#" + ancestor.id() : attributeSelector("id", ancestor.id());
+        }
+        for (Attribute attribute : ancestor.attributes()) {
+            if (attribute.getKey().startsWith("data-")) {
+                String css = ancestor.tagName() + attributeSelector(attribute.getKey(), attribute.getValue());
+                if (isUnique(document, css, ancestor)) {
+                    return css;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<String> relativeSelectors(Element element) {
+        StringBuilder base = new StringBuilder(element.tagName());
+        for (String cssClass : element.classNames()) {
+            if (CSS_IDENTIFIER.matcher(cssClass).matches()) {
+                base.append('.').append(cssClass);
+            }
+        }
+        List<String> selectors = new ArrayList<>();
+        selectors.add(base.toString());
+        for (String attribute : new String[]{"name", "type", "value"}) {
+            if (element.hasAttr(attribute)) {
+                selectors.add(base + attributeSelector(attribute, element.attr(attribute)));
+            }
+        }
+        return selectors;
+    }
+
+    private static String attributeSelector(String name, String value) {
+        return "[" + name + "='" + value.replace("'", "\\'") + "']";
+    }
+
+    private static boolean isUnique(Document document, String css, Element element) {
+        try {
+            Elements found = document.select(css);
+            return found.size() == 1 && found.first() == element;
+        } catch (Selector.SelectorParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the locator profiles recorded since the last publish
+     * @return profiles by locator key
+     */
+    public static Map<String, LocatorProfile> getProfiles() {
+        return new LinkedHashMap<>(profiles);
+    }
+
+    /**
+     * Discard profiles recorded since the last publish
+     */
+    public static void clear() {
+        profiles.clear();
+    }
+
+    /**
+     * Append the profiles recorded since the last publish to the history file (locator.profile.history.path)
+     * and rank the locators by their median resolution time averaged over the last runs with the same name
+     * @param runName run name, e.g. the TestNG test name
+     * @return HTML table of the slowest locators, or null if nothing was profiled
+     */
+    public static String publish(String runName) {
+        Map<String, LocatorProfile> current = getProfiles();
+        profiles.clear();
+        if (current.isEmpty()) {
+            return null;
+        }
+        File history = new File(ConfigReader.getProperty("locator.profile.history.path", "test-output/locator-profile.jsonl"));
+        int trendRuns = Integer.parseInt(ConfigReader.getProperty("locator.profile.trend.runs", "5"));
+        List<Map<String, Map<String, Object>>> previousRuns = readHistory(history, runName, trendRuns - 1);
+        Map<String, Map<String, Object>> summary = summarize(current);
+        appendHistory(history, runName, summary);
+
+        List<Map<String, Object>> ranked = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> locator : summary.entrySet()) {
+            double total = ((Number) locator.getValue().get("medianMicros")).doubleValue();
+            int runs = 1;
+            for (Map<String, Map<String, Object>> run : previousRuns) {
+                Map<String, Object> previous = run.get(locator.getKey());
+                if (previous != null) {
+                    total += ((Number) previous.get("medianMicros")).doubleValue();
+                    runs++;
+                }
+            }
+            Map<String, Object> row = new LinkedHashMap<>(locator.getValue());
+            row.put("key", locator.getKey());
+            row.put("averageMicros", total / runs);
+            row.put("runs", runs);
+            ranked.add(row);
+        }
+        ranked.sort(Comparator.comparingDouble((Map<String, Object> row) -> (Double) row.get("averageMicros")).reversed());
+        int top = Integer.parseInt(ConfigReader.getProperty("locator.profile.top", "20"));
+        List<Map<String, Object>> slowest = ranked.subList(0, Math.min(top, ranked.size()));
+        for (Map<String, Object> row : slowest.subList(0, Math.min(5, slowest.size()))) {
+            logger.info("Slow locator: " + row.get("key") + " " + row.get("locator") + " averaging " + millis((Double) row.get("averageMicros")) + " ms");
+        }
+        return rankingTable(slowest);
+    }
+
+    private static Map<String, Map<String, Object>> summarize(Map<String, LocatorProfile> current) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        for (LocatorProfile profile : current.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("locator", profile.getLocator());
+            entry.put("calls", profile.getCalls());
+            entry.put("medianMicros", profile.getMedianMicros());
+            entry.put("p95Micros", profile.getP95Micros());
+            entry.put("matches", profile.getMaxMatches());
+            entry.put("depth", profile.getDepth());
+            entry.put("suggestion", profile.getSuggestion());
+            summary.put(profile.getKey(), entry);
+        }
+        return summary;
+    }
+
+    private static void appendHistory(File history, String run, Map<String, Map<String, Object>> summary) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("run", run);
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("locators", summary);
+        try {
+            if (history.getParentFile() != null) {
+                history.getParentFile().mkdirs();
+            }
+            Files.write(history.toPath(), (objectMapper.writeValueAsString(entry) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to write locator profile history: " + e.getMessage());
+        }
+    }
+
+    private static List<Map<String, Map<String, Object>>> readHistory(File history, String runName, int maxRuns) {
+        List<Map<String, Map<String, Object>>> runs = new ArrayList<>();
+        if (!history.exists() || maxRuns <= 0) {
+            return runs;
+        }
+        try {
+            for (String line : Files.readAllLines(history.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> entry = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+                });
+                if (runName.equals(entry.get("run"))) {
+                    runs.add(objectMapper.convertValue(entry.get("locators"), new TypeReference<Map<String, Map<String, Object>>>() {
+                    }));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read locator profile history: " + e.getMessage());
+        }
+        return runs.subList(Math.max(0, runs.size() - maxRuns), runs.size());
+    }
+
+    private static String rankingTable(List<Map<String, Object>> rows) {
+        StringBuilder html = new StringBuilder("<table class=\"table table-sm\"><tr><th>#</th><th>Locator</th><th>Selector</th>"
+                + "<th>Calls</th><th>Median (ms)</th><th>p95 (ms)</th><th>Average over runs (ms)</th><th>Matches</th>"
+                + "<th>DOM depth</th><th>Suggested locator</th></tr>");
+        int rank = 1;
+        for (Map<String, Object> row : rows) {
+            Object suggestion = row.get("suggestion");
+            html.append("<tr><td>").append(rank++).append("</td><td>").append(escape(row.get("key")))
+                    .append("</td><td>").append(escape(row.get("locator")))
+                    .append("</td><td>").append(row.get("calls"))
+                    .append("</td><td>").append(millis(((Number) row.get("medianMicros")).doubleValue()))
+                    .append("</td><td>").append(millis(((Number) row.get("p95Micros")).doubleValue()))
+                    .append("</td><td>").append(millis((Double) row.get("averageMicros"))).append(" (").append(row.get("runs")).append(" runs)")
+                    .append("</td><td>").append(row.get("matches"))
+                    .append("</td><td>").append(((Number) row.get("depth")).intValue() < 0 ? "" : row.get("depth"))
+                    .append("</td><td>").append(suggestion == null ? "" : escape(suggestion)).append("</td></tr>");
+        }
+        return html.append("</table>").toString();
+    }
+
+    private static String millis(double micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+
+    private static String escape(Object value) {
+        return String.valueOf(value).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
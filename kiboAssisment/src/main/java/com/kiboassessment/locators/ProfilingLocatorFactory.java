@@ -0,0 +1,74 @@
+package com.kiboassessment.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * PageFactory locator factory that times every @FindBy resolution of a page object for the LocatorProfiler
+ */
+public class ProfilingLocatorFactory implements ElementLocatorFactory {
+    private final WebDriver driver;
+    private final String page;
+
+    /**
+     * Create a factory for a page object
+     * @param driver WebDriver the page object uses
+     * @param page page object class name
+     */
+    public ProfilingLocatorFactory(WebDriver driver, String page) {
+        this.driver = driver;
+        this.page = page;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new ProfilingLocator(new DefaultElementLocator(driver, field), page + "." + field.getName(), new Annotations(field).buildBy());
+    }
+
+    private class ProfilingLocator implements ElementLocator {
+        private final ElementLocator delegate;
+        private final String key;
+        private final By by;
+
+        ProfilingLocator(ElementLocator delegate, String key, By by) {
+            this.delegate = delegate;
+            this.key = key;
+            this.by = by;
+        }
+
+        @Override
+        public WebElement findElement() {
+            long start = System.nanoTime();
+            try {
+                WebElement element = delegate.findElement();
+                LocatorProfiler.record(driver, key, by, (System.nanoTime() - start) / 1000, 1);
+                return element;
+            } catch (NoSuchElementException e) {
+                LocatorProfiler.record(driver, key, by, (System.nanoTime() - start) / 1000, 0);
+                throw e;
+            }
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            long start = System.nanoTime();
+            List<WebElement> elements = delegate.findElements();
+            LocatorProfiler.record(driver, key, by, (System.nanoTime() - start) / 1000, elements.size());
+            return elements;
+        }
+
+        @Override
+        public String toString() {
+            return "Profiled " + delegate;
+        }
+    }
+}
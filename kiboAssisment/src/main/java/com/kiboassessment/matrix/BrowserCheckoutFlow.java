@@ -0,0 +1,111 @@
+package com.kiboassessment.matrix;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.pages.OrderConfirmationPage;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+
+/**
+ * Checks out matrix combinations through the page objects in one browser session. Every combination
+ * starts as a new guest whose cart is filled over HTTP and handed to the browser, so sessions running
+ * in parallel never share a server-side cart. The session is replaced after a failed checkout.
+ */
+public class BrowserCheckoutFlow implements CheckoutMatrixFlow {
+    private final CheckoutCart cart;
+    private CartPage cartPage;
+    private CheckoutPage checkoutPage;
+    private OrderConfirmationPage orderConfirmationPage;
+
+    /**
+     * Create flow
+     * @param cart cart contents to check out, shared by all sessions
+     */
+    public BrowserCheckoutFlow(CheckoutCart cart) {
+        this.cart = cart;
+    }
+
+    @Override
+    public void startSession() {
+        openSession();
+    }
+
+    private void openSession() {
+        WebDriverManagerUtil.initializeDriver();
+        cartPage = new CartPage();
+        checkoutPage = new CheckoutPage();
+        orderConfirmationPage = new OrderConfirmationPage();
+    }
+
+    @Override
+    public void checkout(CheckoutCombination combination, StepRecorder steps) {
+        String shippingMethod = combination.get(CheckoutMatrix.SHIPPING, "ground");
+        String paymentMethod = combination.get(CheckoutMatrix.PAYMENT, "check");
+        boolean separateShipping = combination.get(CheckoutMatrix.ADDRESS, "same").equalsIgnoreCase("separate");
+        String[] region = combination.get(CheckoutMatrix.REGION,
+                ConfigReader.getProperty("shipping.country") + "/" + ConfigReader.getProperty("shipping.state")).split("/", 2);
+        String country = region[0].trim();
+        String state = region.length > 1 ? region[1].trim() : "";
+
+        steps.step("Cart setup", () -> {
+            StorefrontFixtures fixtures = cart.applyTo(new StorefrontFixtures());
+            fixtures.handOffTo(WebDriverManagerUtil.getDriver(), "/cart");
+            cartPage.waitForCartToLoad();
+        });
+
+        steps.step("Billing address", () -> {
+            checkoutPage.clickAgreeTermsOfService();
+            checkoutPage.clickCheckoutBillingPage();
+            checkoutPage.checkoutAsGuestIfAsked();
+            // The region is where the order ships to: the billing address unless shipping goes elsewhere
+            if (separateShipping) {
+                checkoutPage.enterNewBillingAddress(ConfigReader.getProperty("billing.country"), ConfigReader.getProperty("billing.state"));
+            } else {
+                checkoutPage.enterNewBillingAddress(country, state);
+            }
+            checkoutPage.clickBillingContinue();
+        });
+
+        steps.step("Shipping address", () -> {
+            if (separateShipping) {
+                checkoutPage.enterNewShippingAddress(country, state);
+            }
+            checkoutPage.clickShippingContinue();
+        });
+
+        steps.step("Shipping method", () -> {
+            checkoutPage.selectShippingMethod(shippingMethod);
+            checkoutPage.clickShippingMethodContinue();
+        });
+
+        steps.step("Payment", () -> {
+            checkoutPage.selectPaymentMethod(paymentMethod);
+            checkoutPage.clickPaymentMethodContinue();
+            if (paymentMethod.equalsIgnoreCase("creditcard")) {
+                checkoutPage.fillCreditCardInfo();
+            }
+            checkoutPage.clickPaymentInfoContinue();
+        });
+
+        steps.step("Confirm order", () -> {
+            checkoutPage.clickConfirmOrder();
+            orderConfirmationPage.waitForOrderConfirmation();
+            if (!orderConfirmationPage.verifyOrderSuccess()) {
+                throw new IllegalStateException("Order confirmation not displayed");
+            }
+        });
+    }
+
+    @Override
+    public void onCheckoutFailure(Exception cause) {
+        WebDriverManagerUtil.quitDriver();
+        openSession();
+    }
+
+    @Override
+    public void stopSession() {
+        WebDriverManagerUtil.quitDriver();
+    }
+}
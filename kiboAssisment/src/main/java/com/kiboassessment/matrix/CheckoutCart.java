@@ -0,0 +1,87 @@
+package com.kiboassessment.matrix;
+
+import com.kiboassessment.catalog.ProductIndex;
+import com.kiboassessment.catalog.ProductRecord;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.utils.ConfigReader;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cart contents every checkout of the matrix starts from. Products are resolved once from the catalog
+ * index, then posted to each new session over HTTP instead of being searched for and added in the browser.
+ */
+public class CheckoutCart {
+    private final Map<ProductRecord, Integer> lines;
+
+    /**
+     * Create a cart
+     * @param lines quantity by indexed product, in the order they are added
+     */
+    public CheckoutCart(Map<ProductRecord, Integer> lines) {
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Checkout cart has no products");
+        }
+        this.lines = Collections.unmodifiableMap(new LinkedHashMap<>(lines));
+    }
+
+    /**
+     * Create the cart described by checkout.matrix.cart, or the configured product once if it is empty
+     * @return checkout cart
+     */
+    public static CheckoutCart fromConfig() {
+        String cart = ConfigReader.getProperty("checkout.matrix.cart", "");
+        return of(ProductIndex.forStorefront(), cart.trim().isEmpty() ? ConfigReader.getProductName() : cart);
+    }
+
+    /**
+     * Create a cart from a description such as "Build your own cheap computer:2, Smartphone"
+     * @param index catalog index to resolve the product names in
+     * @param cart comma-separated product names, each optionally followed by ":quantity"
+     * @return checkout cart
+     */
+    public static CheckoutCart of(ProductIndex index, String cart) {
+        Map<ProductRecord, Integer> lines = new LinkedHashMap<>();
+        for (String line : cart.split(",")) {
+            String name = line.trim();
+            int quantity = 1;
+            int separator = name.lastIndexOf(':');
+            if (separator > 0) {
+                quantity = Integer.parseInt(name.substring(separator + 1).trim());
+                name = name.substring(0, separator).trim();
+            }
+            String productName = name;
+            ProductRecord product = index.findByName(productName)
+                    .orElseThrow(() -> new IllegalStateException("Product not in catalog index: " + productName));
+            lines.merge(product, quantity, Integer::sum);
+        }
+        return new CheckoutCart(lines);
+    }
+
+    /**
+     * Get the cart lines
+     * @return quantity by product
+     */
+    public Map<ProductRecord, Integer> getLines() {
+        return lines;
+    }
+
+    /**
+     * Fill the cart of a session
+     * @param fixtures fixtures of the session to fill
+     * @return the same fixtures
+     */
+    public StorefrontFixtures applyTo(StorefrontFixtures fixtures) {
+        for (Map.Entry<ProductRecord, Integer> line : lines.entrySet()) {
+            fixtures.addProductToCart(line.getKey(), line.getValue());
+        }
+        return fixtures;
+    }
+
+    @Override
+    public String toString() {
+        return lines.entrySet().toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.kiboassessment.matrix;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One checkout variant: a value for each dimension of the matrix, e.g. shipping=nextday, payment=creditcard
+ */
+public class CheckoutCombination {
+    private final Map<String, String> values;
+
+    /**
+     * Create a combination
+     * @param values value by dimension name, in matrix order
+     */
+    public CheckoutCombination(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Get the value of a dimension
+     * @param dimension dimension name
+     * @return value, null if the matrix has no such dimension
+     */
+    public String get(String dimension) {
+        return values.get(dimension);
+    }
+
+    /**
+     * Get the value of a dimension, or a default when the matrix does not vary it
+     * @param dimension dimension name
+     * @param defaultValue value to use when the dimension is absent
+     * @return value
+     */
+    public String get(String dimension, String defaultValue) {
+        return values.getOrDefault(dimension, defaultValue);
+    }
+
+    /**
+     * Get all values
+     * @return value by dimension name, in matrix order
+     */
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    /**
+     * Get a short label for logs and reports
+     * @return values joined in matrix order, e.g. "ground / check / same / United States/California"
+     */
+    public String getLabel() {
+        return String.join(" / ", values.values());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CheckoutCombination && values.equals(((CheckoutCombination) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return values.entrySet().stream().map(value -> value.getKey() + "=" + value.getValue()).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,168 @@
+package com.kiboassessment.matrix;
+
+import com.kiboassessment.utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout variants to run: named dimensions, each with its values, combined either exhaustively or
+ * reduced to a set in which every pair of values of any two dimensions occurs at least once
+ */
+public class CheckoutMatrix {
+    public static final String SHIPPING = "shipping";
+    public static final String PAYMENT = "payment";
+    public static final String ADDRESS = "address";
+    public static final String REGION = "region";
+
+    private final Map<String, List<String>> dimensions = new LinkedHashMap<>();
+    private boolean pairwise;
+
+    /**
+     * Add a dimension
+     * @param name dimension name
+     * @param values values to combine, in order
+     * @return this matrix
+     */
+    public CheckoutMatrix dimension(String name, List<String> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Checkout matrix dimension has no values: " + name);
+        }
+        dimensions.put(name, List.copyOf(values));
+        return this;
+    }
+
+    /**
+     * Choose whether getCombinations reduces the matrix to pairwise coverage
+     * @param pairwise true to cover every pair of values instead of every combination
+     * @return this matrix
+     */
+    public CheckoutMatrix pairwise(boolean pairwise) {
+        this.pairwise = pairwise;
+        return this;
+    }
+
+    /**
+     * Create the matrix from the checkout.matrix.* settings; dimensions left empty are not varied
+     * @return checkout matrix
+     */
+    public static CheckoutMatrix fromConfig() {
+        CheckoutMatrix matrix = new CheckoutMatrix()
+                .pairwise(Boolean.parseBoolean(ConfigReader.getProperty("checkout.matrix.pairwise", "true")));
+        for (String name : new String[]{SHIPPING, PAYMENT, ADDRESS, REGION}) {
+            List<String> values = Arrays.stream(ConfigReader.getProperty("checkout.matrix." + name, "").split(","))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .collect(Collectors.toList());
+            if (!values.isEmpty()) {
+                matrix.dimension(name, values);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Get the dimensions
+     * @return values by dimension name, in order
+     */
+    public Map<String, List<String>> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Get the combinations to run
+     * @return pairwise or all combinations, depending on the pairwise setting
+     */
+    public List<CheckoutCombination> getCombinations() {
+        return pairwise ? pairwiseCombinations() : allCombinations();
+    }
+
+    /**
+     * Get every combination of the dimension values, varying the last dimension fastest
+     * @return cartesian product
+     */
+    public List<CheckoutCombination> allCombinations() {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> dimension : dimensions.entrySet()) {
+            List<Map<String, String>> extended = new ArrayList<>();
+            for (Map<String, String> combination : combinations) {
+                for (String value : dimension.getValue()) {
+                    Map<String, String> next = new LinkedHashMap<>(combination);
+                    next.put(dimension.getKey(), value);
+                    extended.add(next);
+                }
+            }
+            combinations = extended;
+        }
+        return combinations.stream().map(CheckoutCombination::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Reduce the matrix so that every pair of values of any two dimensions is still run together once.
+     * Combinations are chosen greedily from the cartesian product, each time the one covering the most
+     * pairs not yet covered, which stays close to the smallest such set for matrices of this size.
+     * @return pairwise combinations, all combinations when there are fewer than three dimensions
+     */
+    public List<CheckoutCombination> pairwiseCombinations() {
+        List<CheckoutCombination> remaining = allCombinations();
+        if (dimensions.size() < 3) {
+            return remaining;
+        }
+        Map<CheckoutCombination, Set<String>> pairsOf = new LinkedHashMap<>();
+        Set<String> uncovered = new HashSet<>();
+        for (CheckoutCombination combination : remaining) {
+            Set<String> pairs = pairs(combination);
+            pairsOf.put(combination, pairs);
+            uncovered.addAll(pairs);
+        }
+
+        List<CheckoutCombination> chosen = new ArrayList<>();
+        while (!uncovered.isEmpty()) {
+            CheckoutCombination best = null;
+            long bestCovered = 0;
+            for (CheckoutCombination candidate : remaining) {
+                long covered = pairsOf.get(candidate).stream().filter(uncovered::contains).count();
+                if (covered > bestCovered) {
+                    best = candidate;
+                    bestCovered = covered;
+                }
+            }
+            chosen.add(best);
+            remaining.remove(best);
+            uncovered.removeAll(pairsOf.get(best));
+        }
+        return chosen;
+    }
+
+    /**
+     * Get the value pairs a combination covers
+     * @param combination checkout combination
+     * @return pairs as "dimension=value|dimension=value", dimensions in matrix order
+     */
+    private static Set<String> pairs(CheckoutCombination combination) {
+        List<String> values = combination.getValues().entrySet().stream()
+                .map(value -> value.getKey() + "=" + value.getValue())
+                .collect(Collectors.toList());
+        Set<String> pairs = new HashSet<>();
+        for (int i = 0; i < values.size(); i++) {
+            for (int j = i + 1; j < values.size(); j++) {
+                pairs.add(values.get(i) + "|" + values.get(j));
+            }
+        }
+        return pairs;
+    }
+
+    @Override
+    public String toString() {
+        return dimensions.entrySet().stream()
+                .map(dimension -> dimension.getKey() + " " + dimension.getValue())
+                .collect(Collectors.joining(" x ")) + (pairwise ? ", pairwise" : "");
+    }
+}
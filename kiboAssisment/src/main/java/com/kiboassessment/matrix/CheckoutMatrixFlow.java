@@ -0,0 +1,37 @@
+package com.kiboassessment.matrix;
+
+import com.kiboassessment.load.StepRecorder;
+
+/**
+ * Checkout of one matrix combination. The matrix runner calls checkout repeatedly on the same worker
+ * thread, so implementations keep their session between combinations.
+ */
+public interface CheckoutMatrixFlow {
+
+    /**
+     * Called once on the worker thread before the first combination
+     */
+    default void startSession() {
+    }
+
+    /**
+     * Check out one combination, timing each step through the recorder
+     * @param combination shipping, payment, address and region to use
+     * @param steps step recorder
+     * @throws Exception if the checkout fails
+     */
+    void checkout(CheckoutCombination combination, StepRecorder steps) throws Exception;
+
+    /**
+     * Called after a failed checkout, e.g. to replace a broken session
+     * @param cause failure cause
+     */
+    default void onCheckoutFailure(Exception cause) {
+    }
+
+    /**
+     * Called once on the worker thread after the last combination
+     */
+    default void stopSession() {
+    }
+}
@@ -0,0 +1,167 @@
+package com.kiboassessment.matrix;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Results of a checkout matrix run: one row per combination with its outcome and step latencies
+ */
+public class CheckoutMatrixReport {
+    private final List<CheckoutResult> results;
+    private final int sessions;
+    private final long elapsedMs;
+
+    public CheckoutMatrixReport(List<CheckoutResult> results, int sessions, long elapsedMs) {
+        this.results = List.copyOf(results);
+        this.sessions = sessions;
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * Get the results in matrix order
+     * @return one result per combination
+     */
+    public List<CheckoutResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the combinations that did not place an order
+     * @return failed results
+     */
+    public List<CheckoutResult> getFailures() {
+        return results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Get wall-clock time of the run
+     * @return milliseconds from the first session start to the last session stop
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Get the time the checkouts would have taken one after another
+     * @return sum of the checkout times in milliseconds
+     */
+    public long getSerialMs() {
+        return results.stream().mapToLong(CheckoutResult::getElapsedMs).sum();
+    }
+
+    /**
+     * Get report as a JSON-friendly map
+     * @return report values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("combinations", results.size());
+        report.put("failed", getFailures().size());
+        report.put("sessions", sessions);
+        report.put("elapsedMs", elapsedMs);
+        report.put("serialMs", getSerialMs());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (CheckoutResult result : results) {
+            Map<String, Object> row = new LinkedHashMap<>(result.getCombination().getValues());
+            row.put("session", result.getSession());
+            row.put("success", result.isSuccess());
+            row.put("elapsedMs", result.getElapsedMs());
+            row.put("steps", result.getStepMs());
+            row.put("error", result.getError());
+            rows.add(row);
+        }
+        report.put("results", rows);
+        return report;
+    }
+
+    /**
+     * Get report as a text table for logs and reports
+     * @return report text
+     */
+    public String toText() {
+        Set<String> dimensions = new LinkedHashSet<>();
+        Set<String> steps = new LinkedHashSet<>();
+        for (CheckoutResult result : results) {
+            dimensions.addAll(result.getCombination().getValues().keySet());
+            steps.addAll(result.getStepMs().keySet());
+        }
+        List<String> header = new ArrayList<>(dimensions);
+        header.add("Session");
+        header.add("Outcome");
+        header.add("Total ms");
+        header.addAll(steps);
+        header.add("Error");
+
+        List<List<String>> rows = new ArrayList<>();
+        for (CheckoutResult result : results) {
+            List<String> row = new ArrayList<>();
+            for (String dimension : dimensions) {
+                row.add(result.getCombination().get(dimension, ""));
+            }
+            row.add(result.getSession() < 0 ? "-" : String.valueOf(result.getSession() + 1));
+            row.add(result.isSuccess() ? "passed" : "FAILED");
+            row.add(String.valueOf(result.getElapsedMs()));
+            for (String step : steps) {
+                Long ms = result.getStepMs().get(step);
+                row.add(ms == null ? "-" : String.valueOf(ms));
+            }
+            row.add(result.getError() == null ? "" : result.getError().replaceAll("\\s+", " "));
+            rows.add(row);
+        }
+
+        int[] widths = new int[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            widths[i] = header.get(i).length();
+            for (List<String> row : rows) {
+                widths[i] = Math.max(widths[i], i == header.size() - 1 ? 0 : row.get(i).length());
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Checkout matrix: %d combinations, %d failed, %d sessions, %d ms elapsed (%d ms serial)%n",
+                results.size(), getFailures().size(), sessions, elapsedMs, getSerialMs()));
+        appendRow(text, header, widths);
+        for (List<String> row : rows) {
+            appendRow(text, row, widths);
+        }
+        return text.toString();
+    }
+
+    private static void appendRow(StringBuilder text, List<String> row, int[] widths) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.size(); i++) {
+            line.append(i == row.size() - 1 ? row.get(i) : String.format(Locale.ROOT, "%-" + widths[i] + "s  ", row.get(i)));
+        }
+        text.append(line.toString().stripTrailing()).append(System.lineSeparator());
+    }
+
+    /**
+     * Write report as JSON
+     * @param path output file path
+     */
+    public void writeJson(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write checkout matrix report: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.kiboassessment.matrix;
+
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Checks out the combinations of a checkout matrix in parallel. A fixed number of sessions is opened
+ * once; each takes the next combination from a shared queue until none is left, so a slow combination
+ * holds up only its own session.
+ */
+public class CheckoutMatrixRunner {
+    private static final Logger logger = LogManager.getLogger(CheckoutMatrixRunner.class);
+
+    private final List<CheckoutCombination> combinations;
+    private final int sessions;
+    private final Supplier<? extends CheckoutMatrixFlow> flowFactory;
+
+    /**
+     * Create matrix runner
+     * @param combinations combinations to check out
+     * @param sessions sessions to run at the same time
+     * @param flowFactory creates one flow per session
+     */
+    public CheckoutMatrixRunner(List<CheckoutCombination> combinations, int sessions, Supplier<? extends CheckoutMatrixFlow> flowFactory) {
+        if (sessions < 1) {
+            throw new IllegalArgumentException("Checkout matrix needs at least one session");
+        }
+        this.combinations = List.copyOf(combinations);
+        this.sessions = sessions;
+        this.flowFactory = flowFactory;
+    }
+
+    /**
+     * Create matrix runner for the checkout.matrix.* settings
+     * @param flowFactory creates one flow per session
+     * @return matrix runner
+     */
+    public static CheckoutMatrixRunner fromConfig(Supplier<? extends CheckoutMatrixFlow> flowFactory) {
+        CheckoutMatrix matrix = CheckoutMatrix.fromConfig();
+        logger.info("Checkout matrix: " + matrix);
+        return new CheckoutMatrixRunner(matrix.getCombinations(),
+                Integer.parseInt(ConfigReader.getProperty("checkout.matrix.sessions", "4")), flowFactory);
+    }
+
+    /**
+     * Get the combinations this runner checks out
+     * @return combinations in matrix order
+     */
+    public List<CheckoutCombination> getCombinations() {
+        return combinations;
+    }
+
+    /**
+     * Check out every combination and wait for all sessions to finish
+     * @return matrix report
+     */
+    public CheckoutMatrixReport run() {
+        int workers = Math.max(1, Math.min(sessions, combinations.size()));
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < combinations.size(); i++) {
+            pending.add(i);
+        }
+        AtomicReferenceArray<CheckoutResult> results = new AtomicReferenceArray<>(combinations.size());
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("checkout-session-" + thread.getId());
+            return thread;
+        });
+        logger.info("Starting checkout matrix: " + combinations.size() + " combinations on " + workers + " sessions");
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < workers; i++) {
+            int session = i;
+            pool.submit(() -> runSession(session, pending, results));
+        }
+        pool.shutdown();
+        try {
+            long rounds = (combinations.size() + workers - 1) / workers;
+            if (!pool.awaitTermination(Math.max(1, rounds) * TimeUnit.MINUTES.toMillis(10), TimeUnit.MILLISECONDS)) {
+                logger.warn("Checkout sessions did not finish in time, interrupting");
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<CheckoutResult> ordered = new ArrayList<>();
+        for (int i = 0; i < combinations.size(); i++) {
+            CheckoutResult result = results.get(i);
+            ordered.add(result == null ? CheckoutResult.notRun(combinations.get(i)) : result);
+        }
+        CheckoutMatrixReport report = new CheckoutMatrixReport(ordered, workers, System.currentTimeMillis() - start);
+        logger.info("Checkout matrix finished\n" + report.toText());
+        return report;
+    }
+
+    private void runSession(int session, Queue<Integer> pending, AtomicReferenceArray<CheckoutResult> results) {
+        CheckoutMatrixFlow flow = flowFactory.get();
+        try {
+            flow.startSession();
+            Integer index;
+            while (!Thread.currentThread().isInterrupted() && (index = pending.poll()) != null) {
+                CheckoutCombination combination = combinations.get(index);
+                Map<String, Long> stepMs = new LinkedHashMap<>();
+                StepRecorder steps = new StepRecorder((step, latencyMs, success) -> stepMs.put(step, latencyMs), 0);
+                long begin = System.nanoTime();
+                try {
+                    flow.checkout(combination, steps);
+                    results.set(index, new CheckoutResult(combination, session, true, (System.nanoTime() - begin) / 1_000_000, stepMs, null));
+                    logger.info("Checked out " + combination.getLabel() + " on session " + (session + 1));
+                } catch (Exception e) {
+                    String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                    results.set(index, new CheckoutResult(combination, session, false, (System.nanoTime() - begin) / 1_000_000, stepMs, error));
+                    logger.warn("Checkout failed for " + combination.getLabel() + ": " + error);
+                    flow.onCheckoutFailure(e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Checkout session " + (session + 1) + " stopped: " + e.getMessage());
+        } finally {
+            flow.stopSession();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.kiboassessment.matrix;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome and latency of one combination's checkout
+ */
+public class CheckoutResult {
+    private final CheckoutCombination combination;
+    private final int session;
+    private final boolean success;
+    private final long elapsedMs;
+    private final Map<String, Long> stepMs;
+    private final String error;
+
+    /**
+     * Create a result
+     * @param combination checked out combination
+     * @param session index of the session that ran it, -1 if it was not run
+     * @param success true if the order was placed
+     * @param elapsedMs checkout time in milliseconds
+     * @param stepMs time of each step that ran, in order
+     * @param error failure message, null on success
+     */
+    public CheckoutResult(CheckoutCombination combination, int session, boolean success, long elapsedMs,
+                          Map<String, Long> stepMs, String error) {
+        this.combination = combination;
+        this.session = session;
+        this.success = success;
+        this.elapsedMs = elapsedMs;
+        this.stepMs = Collections.unmodifiableMap(new LinkedHashMap<>(stepMs));
+        this.error = error;
+    }
+
+    /**
+     * Result of a combination left over when no session was available to run it
+     * @param combination combination
+     * @return failed result
+     */
+    static CheckoutResult notRun(CheckoutCombination combination) {
+        return new CheckoutResult(combination, -1, false, 0, Map.of(), "Not run: no session available");
+    }
+
+    public CheckoutCombination getCombination() {
+        return combination;
+    }
+
+    public int getSession() {
+        return session;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Get step latencies
+     * @return milliseconds by step name, in the order the steps ran
+     */
+    public Map<String, Long> getStepMs() {
+        return stepMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return combination.getLabel() + ": " + (success ? "passed" : "failed") + " in " + elapsedMs + " ms"
+                + (error == null ? "" : " (" + error + ")");
+    }
+}
@@ -0,0 +1,90 @@
+package com.kiboassessment.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Local HTTP endpoint serving monitor metrics: /metrics in Prometheus text format and /metrics.json
+ */
+public class MetricsServer {
+    private static final Logger logger = LogManager.getLogger(MetricsServer.class);
+
+    private final MonitorMetrics metrics;
+    private final int port;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+
+    /**
+     * Create metrics server
+     * @param metrics metrics to serve
+     * @param port port to listen on, 0 for any free port
+     */
+    public MetricsServer(MonitorMetrics metrics, int port) {
+        this.metrics = metrics;
+        this.port = port;
+    }
+
+    /**
+     * Start serving metrics
+     * @return this server
+     */
+    public MetricsServer start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        } catch (IOException e) {
+            logger.error("Failed to start metrics server: " + e.getMessage());
+            throw new RuntimeException("Failed to start metrics server", e);
+        }
+        server.createContext("/metrics", this::handle);
+        server.start();
+        logger.info("Metrics server started at http://localhost:" + getPort() + "/metrics");
+        return this;
+    }
+
+    /**
+     * Stop serving metrics
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            logger.info("Metrics server stopped");
+        }
+    }
+
+    /**
+     * Get port of the running server
+     * @return port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/metrics")) {
+            send(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", metrics.toPrometheus());
+        } else if (path.equals("/metrics.json")) {
+            send(exchange, 200, "application/json", objectMapper.writeValueAsString(metrics.toMap()));
+        } else {
+            send(exchange, 404, "text/plain; charset=utf-8", "Not found");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
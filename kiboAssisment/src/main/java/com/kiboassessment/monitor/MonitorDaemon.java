@@ -0,0 +1,150 @@
+package com.kiboassessment.monitor;
+
+import com.kiboassessment.load.PurchaseUserFlow;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.load.SyntheticUserFlow;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Long-running synthetic monitor: runs a flow on a schedule in one warm session and records
+ * per-step latency and success into MonitorMetrics. The session is only replaced after a failure,
+ * so browser start-up is not paid on every iteration.
+ */
+public class MonitorDaemon {
+    private static final Logger logger = LogManager.getLogger(MonitorDaemon.class);
+
+    private final Supplier<? extends SyntheticUserFlow> flowFactory;
+    private final MonitorMetrics metrics;
+    private final long intervalMs;
+    private final String jsonPath;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "synthetic-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SyntheticUserFlow flow;
+
+    /**
+     * Create monitor daemon
+     * @param flowFactory creates the monitored flow
+     * @param metrics metrics to record into
+     * @param intervalMs pause between the end of one iteration and the start of the next
+     * @param jsonPath file rewritten with the metrics after each iteration, or null
+     */
+    public MonitorDaemon(Supplier<? extends SyntheticUserFlow> flowFactory, MonitorMetrics metrics, long intervalMs, String jsonPath) {
+        this.flowFactory = flowFactory;
+        this.metrics = metrics;
+        this.intervalMs = intervalMs;
+        this.jsonPath = jsonPath;
+    }
+
+    /**
+     * Start running iterations on the schedule
+     * @return this daemon
+     */
+    public MonitorDaemon start() {
+        logger.info("Starting synthetic monitor, interval " + intervalMs + " ms");
+        scheduler.scheduleWithFixedDelay(this::runIteration, 0, intervalMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Stop the schedule and close the session
+     */
+    public void stop() {
+        // The flow's session is bound to the scheduler thread, so it is closed there after the current iteration
+        scheduler.execute(() -> {
+            if (flow != null) {
+                try {
+                    flow.stopUser();
+                } catch (Exception e) {
+                    logger.warn("Failed to stop monitored flow: " + e.getMessage());
+                }
+                flow = null;
+            }
+        });
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.MINUTES)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Synthetic monitor stopped");
+    }
+
+    public MonitorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void runIteration() {
+        long start = System.nanoTime();
+        try {
+            if (flow == null) {
+                flow = flowFactory.get();
+                flow.startUser();
+            }
+            flow.runIteration(new StepRecorder(metrics, 0));
+            metrics.recordIteration((System.nanoTime() - start) / 1_000_000, true);
+        } catch (Exception e) {
+            metrics.recordIteration((System.nanoTime() - start) / 1_000_000, false);
+            logger.warn("Monitored iteration failed: " + e.getMessage());
+            recover(e);
+        }
+        if (jsonPath != null) {
+            try {
+                metrics.writeJson(jsonPath);
+            } catch (RuntimeException e) {
+                logger.warn(e.getMessage());
+            }
+        }
+    }
+
+    private void recover(Exception cause) {
+        if (flow == null) {
+            return;
+        }
+        try {
+            flow.onIterationFailure(cause);
+        } catch (Exception e) {
+            logger.warn("Failed to recover monitored flow, starting a new one: " + e.getMessage());
+            try {
+                flow.stopUser();
+            } catch (Exception ignored) {
+                // Session is already broken
+            }
+            flow = null;
+        }
+    }
+
+    /**
+     * Run the purchase flow monitor until the process is stopped
+     * @param args unused
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        MonitorMetrics metrics = MonitorMetrics.fromConfig();
+        MetricsServer server = new MetricsServer(metrics, Integer.parseInt(ConfigReader.getProperty("monitor.metrics.port"))).start();
+        MonitorDaemon daemon = new MonitorDaemon(PurchaseUserFlow::new, metrics,
+                TimeUnit.SECONDS.toMillis(Long.parseLong(ConfigReader.getProperty("monitor.interval.seconds"))),
+                ConfigReader.getProperty("monitor.metrics.json.path")).start();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            daemon.stop();
+            server.stop();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+}
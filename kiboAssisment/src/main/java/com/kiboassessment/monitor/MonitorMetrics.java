@@ -0,0 +1,252 @@
+package com.kiboassessment.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kiboassessment.load.StepMetrics;
+import com.kiboassessment.utils.ConfigReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling step latencies, success counters and SLO burn rates of the synthetic monitor.
+ * An iteration is good when it succeeds within the latency objective; the burn rate of a window is
+ * its bad-iteration ratio divided by the error budget (1 - target), so 1.0 spends the budget exactly.
+ */
+public class MonitorMetrics implements StepMetrics {
+    private static final double[] QUANTILES = {50, 90, 99};
+
+    private final double sloTarget;
+    private final long sloLatencyMs;
+    private final long windowMs;
+    private final List<Long> burnWindowsMs;
+    private final LongSupplier clock;
+    private final long retentionMs;
+
+    private final Map<String, RollingWindow> stepWindows = new LinkedHashMap<>();
+    private final Map<String, long[]> stepTotals = new LinkedHashMap<>();
+    private final RollingWindow iterationWindow;
+    private long successfulIterations;
+    private long failedIterations;
+    private long lastIterationAt;
+    private boolean lastIterationSuccess;
+
+    /**
+     * Create monitor metrics
+     * @param sloTarget fraction of iterations that must be good, e.g. 0.99
+     * @param sloLatencyMs slowest iteration that still counts as good
+     * @param windowMs window of the reported latency percentiles
+     * @param burnWindowsMs windows for which burn rates are reported
+     * @param clock current time in milliseconds
+     */
+    public MonitorMetrics(double sloTarget, long sloLatencyMs, long windowMs, List<Long> burnWindowsMs, LongSupplier clock) {
+        if (sloTarget <= 0 || sloTarget >= 1) {
+            throw new IllegalArgumentException("SLO target must be between 0 and 1: " + sloTarget);
+        }
+        this.sloTarget = sloTarget;
+        this.sloLatencyMs = sloLatencyMs;
+        this.windowMs = windowMs;
+        this.burnWindowsMs = new ArrayList<>(burnWindowsMs);
+        this.clock = clock;
+        this.retentionMs = Math.max(windowMs, burnWindowsMs.stream().mapToLong(Long::longValue).max().orElse(0));
+        this.iterationWindow = new RollingWindow(retentionMs);
+    }
+
+    /**
+     * Create monitor metrics from monitor.* configuration properties
+     * @return monitor metrics
+     */
+    public static MonitorMetrics fromConfig() {
+        List<Long> burnWindows = new ArrayList<>();
+        for (String minutes : ConfigReader.getProperty("monitor.burn.windows.minutes").split(",")) {
+            burnWindows.add(TimeUnit.MINUTES.toMillis(Long.parseLong(minutes.trim())));
+        }
+        return new MonitorMetrics(
+                Double.parseDouble(ConfigReader.getProperty("monitor.slo.target")),
+                Long.parseLong(ConfigReader.getProperty("monitor.slo.latency.ms")),
+                TimeUnit.MINUTES.toMillis(Long.parseLong(ConfigReader.getProperty("monitor.window.minutes"))),
+                burnWindows, System::currentTimeMillis);
+    }
+
+    @Override
+    public synchronized void recordStep(String step, long latencyMs, boolean success) {
+        stepWindows.computeIfAbsent(step, name -> new RollingWindow(retentionMs)).record(clock.getAsLong(), latencyMs, success);
+        stepTotals.computeIfAbsent(step, name -> new long[2])[success ? 0 : 1]++;
+    }
+
+    /**
+     * Record an iteration outcome
+     * @param latencyMs iteration latency in milliseconds
+     * @param success true if every step succeeded
+     */
+    public synchronized void recordIteration(long latencyMs, boolean success) {
+        lastIterationAt = clock.getAsLong();
+        lastIterationSuccess = success;
+        iterationWindow.record(lastIterationAt, latencyMs, success && latencyMs <= sloLatencyMs);
+        if (success) {
+            successfulIterations++;
+        } else {
+            failedIterations++;
+        }
+    }
+
+    /**
+     * Get SLO burn rate over a window
+     * @param burnWindowMs window length
+     * @return bad-iteration ratio divided by the error budget
+     */
+    public synchronized double getBurnRate(long burnWindowMs) {
+        return iterationWindow.snapshot(clock.getAsLong(), burnWindowMs).getBadRatio() / (1 - sloTarget);
+    }
+
+    /**
+     * Get rolling iteration window
+     * @return snapshot over the percentile window
+     */
+    public synchronized RollingWindow.Snapshot getIterationSnapshot() {
+        return iterationWindow.snapshot(clock.getAsLong(), windowMs);
+    }
+
+    /**
+     * Get rolling step windows
+     * @return snapshots over the percentile window by step name
+     */
+    public synchronized Map<String, RollingWindow.Snapshot> getStepSnapshots() {
+        Map<String, RollingWindow.Snapshot> snapshots = new LinkedHashMap<>();
+        long now = clock.getAsLong();
+        for (Map.Entry<String, RollingWindow> step : stepWindows.entrySet()) {
+            snapshots.put(step.getKey(), step.getValue().snapshot(now, windowMs));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Format metrics in the Prometheus text exposition format
+     * @return metrics text
+     */
+    public synchronized String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        header(text, "storefront_monitor_iterations_total", "counter", "Monitored purchase flow iterations");
+        text.append("storefront_monitor_iterations_total{result=\"success\"} ").append(successfulIterations).append('\n');
+        text.append("storefront_monitor_iterations_total{result=\"failure\"} ").append(failedIterations).append('\n');
+
+        header(text, "storefront_monitor_last_iteration_success", "gauge", "1 if the last iteration succeeded");
+        text.append("storefront_monitor_last_iteration_success ").append(lastIterationSuccess ? 1 : 0).append('\n');
+        header(text, "storefront_monitor_last_iteration_timestamp_seconds", "gauge", "Time of the last iteration");
+        text.append("storefront_monitor_last_iteration_timestamp_seconds ").append(lastIterationAt / 1000).append('\n');
+
+        header(text, "storefront_monitor_iteration_latency_ms", "gauge", "Rolling iteration latency percentiles");
+        RollingWindow.Snapshot iterations = getIterationSnapshot();
+        for (double quantile : QUANTILES) {
+            text.append("storefront_monitor_iteration_latency_ms{quantile=\"").append(quantile(quantile)).append("\"} ")
+                    .append(iterations.getPercentile(quantile)).append('\n');
+        }
+
+        header(text, "storefront_monitor_step_total", "counter", "Monitored flow steps");
+        for (Map.Entry<String, long[]> step : stepTotals.entrySet()) {
+            String label = escape(step.getKey());
+            text.append("storefront_monitor_step_total{step=\"").append(label).append("\",result=\"success\"} ")
+                    .append(step.getValue()[0]).append('\n');
+            text.append("storefront_monitor_step_total{step=\"").append(label).append("\",result=\"failure\"} ")
+                    .append(step.getValue()[1]).append('\n');
+        }
+
+        header(text, "storefront_monitor_step_latency_ms", "gauge", "Rolling step latency percentiles");
+        for (Map.Entry<String, RollingWindow.Snapshot> step : getStepSnapshots().entrySet()) {
+            for (double quantile : QUANTILES) {
+                text.append("storefront_monitor_step_latency_ms{step=\"").append(escape(step.getKey()))
+                        .append("\",quantile=\"").append(quantile(quantile)).append("\"} ")
+                        .append(step.getValue().getPercentile(quantile)).append('\n');
+            }
+        }
+
+        header(text, "storefront_monitor_slo_target", "gauge", "Fraction of iterations that must be good");
+        text.append("storefront_monitor_slo_target ").append(sloTarget).append('\n');
+        header(text, "storefront_monitor_slo_burn_rate", "gauge", "Bad-iteration ratio divided by the error budget");
+        for (long burnWindowMs : burnWindowsMs) {
+            text.append("storefront_monitor_slo_burn_rate{window=\"").append(windowLabel(burnWindowMs)).append("\"} ")
+                    .append(String.format(Locale.ROOT, "%.4f", getBurnRate(burnWindowMs))).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Get metrics as a JSON-friendly map
+     * @return metric values
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timestamp", clock.getAsLong());
+        metrics.put("windowMinutes", TimeUnit.MILLISECONDS.toMinutes(windowMs));
+        metrics.put("sloTarget", sloTarget);
+        metrics.put("sloLatencyMs", sloLatencyMs);
+        metrics.put("successfulIterations", successfulIterations);
+        metrics.put("failedIterations", failedIterations);
+        metrics.put("lastIterationAt", lastIterationAt);
+        metrics.put("lastIterationSuccess", lastIterationSuccess);
+        Map<String, Object> burnRates = new LinkedHashMap<>();
+        for (long burnWindowMs : burnWindowsMs) {
+            burnRates.put(windowLabel(burnWindowMs), getBurnRate(burnWindowMs));
+        }
+        metrics.put("burnRates", burnRates);
+        metrics.put("iteration", snapshotToMap(getIterationSnapshot()));
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Map.Entry<String, RollingWindow.Snapshot> step : getStepSnapshots().entrySet()) {
+            steps.put(step.getKey(), snapshotToMap(step.getValue()));
+        }
+        metrics.put("steps", Collections.unmodifiableMap(steps));
+        return metrics;
+    }
+
+    /**
+     * Write metrics as JSON
+     * @param path output file path
+     */
+    public void writeJson(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write monitor metrics: " + path, e);
+        }
+    }
+
+    private static Map<String, Object> snapshotToMap(RollingWindow.Snapshot snapshot) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", snapshot.getCount());
+        values.put("errors", snapshot.getBad());
+        values.put("p50", snapshot.getPercentile(50));
+        values.put("p90", snapshot.getPercentile(90));
+        values.put("p99", snapshot.getPercentile(99));
+        return values;
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String quantile(double percentile) {
+        return String.valueOf(percentile / 100);
+    }
+
+    private static String windowLabel(long windowMs) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(windowMs);
+        return minutes % 60 == 0 ? minutes / 60 + "h" : minutes + "m";
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
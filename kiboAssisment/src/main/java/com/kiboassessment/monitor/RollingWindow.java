@@ -0,0 +1,119 @@
+package com.kiboassessment.monitor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Time-bounded sample window. Samples older than the retention are dropped as new ones arrive,
+ * so memory stays bounded however long the monitor runs.
+ */
+public class RollingWindow {
+
+    private static class Sample {
+        private final long timestampMs;
+        private final long latencyMs;
+        private final boolean good;
+
+        Sample(long timestampMs, long latencyMs, boolean good) {
+            this.timestampMs = timestampMs;
+            this.latencyMs = latencyMs;
+            this.good = good;
+        }
+    }
+
+    /**
+     * Counts and latencies of the samples within one window
+     */
+    public static class Snapshot {
+        private final int count;
+        private final int bad;
+        private final long[] sortedLatencies;
+
+        Snapshot(int count, int bad, long[] sortedLatencies) {
+            this.count = count;
+            this.bad = bad;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getBad() {
+            return bad;
+        }
+
+        /**
+         * Get fraction of bad samples
+         * @return ratio between 0 and 1, 0 if the window is empty
+         */
+        public double getBadRatio() {
+            return count == 0 ? 0 : (double) bad / count;
+        }
+
+        /**
+         * Get latency percentile over all samples (nearest-rank)
+         * @param percentile percentile between 0 and 100
+         * @return latency in milliseconds, 0 if the window is empty
+         */
+        public long getPercentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, rank - 1))];
+        }
+    }
+
+    private final long retentionMs;
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    /**
+     * Create window
+     * @param retentionMs how long samples are kept; the longest window that can be queried
+     */
+    public RollingWindow(long retentionMs) {
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Record a sample
+     * @param timestampMs sample time
+     * @param latencyMs latency in milliseconds
+     * @param good true if the sample counts towards the objective
+     */
+    public synchronized void record(long timestampMs, long latencyMs, boolean good) {
+        samples.addLast(new Sample(timestampMs, latencyMs, good));
+        while (!samples.isEmpty() && samples.peekFirst().timestampMs <= timestampMs - retentionMs) {
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * Get samples recorded within the last windowMs before nowMs
+     * @param nowMs current time
+     * @param windowMs window length, at most the retention
+     * @return window snapshot
+     */
+    public synchronized Snapshot snapshot(long nowMs, long windowMs) {
+        long[] latencies = new long[samples.size()];
+        int count = 0;
+        int bad = 0;
+        Iterator<Sample> newestFirst = samples.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Sample sample = newestFirst.next();
+            if (sample.timestampMs <= nowMs - windowMs) {
+                break;
+            }
+            latencies[count++] = sample.latencyMs;
+            if (!sample.good) {
+                bad++;
+            }
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Snapshot(count, bad, sorted);
+    }
+}
@@ -0,0 +1,64 @@
+package com.kiboassessment.network;
+
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.Map;
+
+/**
+ * Applies network profiles to browser sessions. Blocking and throttling use the DevTools Network
+ * domain (Chrome/Edge); other browsers only get image suppression through their startup preferences.
+ */
+public class NetworkConditioner {
+    private static final Logger logger = LogManager.getLogger(NetworkConditioner.class);
+    private static final ThreadLocal<NetworkProfile> applied = new ThreadLocal<>();
+
+    /**
+     * Apply a profile to a running session, replacing any profile applied before
+     * @param driver WebDriver instance
+     * @param profile network profile
+     */
+    public static void apply(WebDriver driver, NetworkProfile profile) {
+        applied.set(profile);
+        if (!DevToolsUtil.isSupported(driver)) {
+            if (!profile.getBlockedUrls().isEmpty() || profile.isThrottled()) {
+                logger.warn("Network profile " + profile.getName() + " needs DevTools; only image suppression applies to "
+                        + driver.getClass().getSimpleName());
+            }
+            return;
+        }
+        DevTools devTools = DevToolsUtil.getDevTools(driver);
+        DevToolsUtil.send(devTools, "Network.enable", Map.of());
+        DevToolsUtil.send(devTools, "Network.setBlockedURLs", Map.of("urls", profile.getBlockedUrls()));
+        DevToolsUtil.send(devTools, "Network.emulateNetworkConditions", profile.getNetworkConditions());
+        logger.info("Network profile applied: " + profile);
+    }
+
+    /**
+     * Apply a configured profile to a running session, e.g. to measure one flow under emulated 3G
+     * @param driver WebDriver instance
+     * @param profileName profile name
+     */
+    public static void apply(WebDriver driver, String profileName) {
+        apply(driver, NetworkProfile.fromConfig(profileName));
+    }
+
+    /**
+     * Get the profile applied to the current thread's session
+     * @return applied profile, or the configured active profile if none was applied
+     */
+    public static NetworkProfile getAppliedProfile() {
+        NetworkProfile profile = applied.get();
+        return profile == null ? NetworkProfile.active() : profile;
+    }
+
+    /**
+     * Forget the profile of the current thread's session
+     */
+    public static void reset() {
+        applied.remove();
+    }
+}
@@ -0,0 +1,126 @@
+package com.kiboassessment.network;
+
+import com.kiboassessment.utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named network profile applied to browser sessions: URL blocklist, image suppression and emulated
+ * latency/bandwidth. Profiles are configured as network.profile.&lt;name&gt;.* properties.
+ */
+public class NetworkProfile {
+    public static final String NONE = "none";
+    private static final List<String> IMAGE_PATTERNS = List.of("*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico", "*.bmp");
+
+    private final String name;
+    private final List<String> blockedPatterns;
+    private final boolean imagesEnabled;
+    private final long latencyMs;
+    private final long downloadKbps;
+    private final long uploadKbps;
+
+    /**
+     * Create network profile
+     * @param name profile name
+     * @param blockedPatterns URL patterns to block, '*' matches any characters
+     * @param imagesEnabled false to suppress images
+     * @param latencyMs added round-trip latency, 0 for none
+     * @param downloadKbps download bandwidth in kbit/s, 0 for unlimited
+     * @param uploadKbps upload bandwidth in kbit/s, 0 for unlimited
+     */
+    public NetworkProfile(String name, List<String> blockedPatterns, boolean imagesEnabled,
+                          long latencyMs, long downloadKbps, long uploadKbps) {
+        this.name = name;
+        this.blockedPatterns = new ArrayList<>(blockedPatterns);
+        this.imagesEnabled = imagesEnabled;
+        this.latencyMs = latencyMs;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+    }
+
+    /**
+     * Get the profile selected by network.profile
+     * @return active network profile
+     */
+    public static NetworkProfile active() {
+        return fromConfig(ConfigReader.getProperty("network.profile", NONE).trim());
+    }
+
+    /**
+     * Create a profile from network.profile.&lt;name&gt;.* properties; unset properties leave the network unchanged
+     * @param name profile name
+     * @return network profile
+     */
+    public static NetworkProfile fromConfig(String name) {
+        String prefix = "network.profile." + name + ".";
+        List<String> blocked = new ArrayList<>();
+        for (String pattern : ConfigReader.getProperty(prefix + "block", "").split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                blocked.add(pattern.trim());
+            }
+        }
+        return new NetworkProfile(name, blocked,
+                Boolean.parseBoolean(ConfigReader.getProperty(prefix + "images", "true")),
+                Long.parseLong(ConfigReader.getProperty(prefix + "latency.ms", "0")),
+                Long.parseLong(ConfigReader.getProperty(prefix + "download.kbps", "0")),
+                Long.parseLong(ConfigReader.getProperty(prefix + "upload.kbps", "0")));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isImagesEnabled() {
+        return imagesEnabled;
+    }
+
+    /**
+     * Check whether the profile changes anything
+     * @return true if no blocking or throttling is configured
+     */
+    public boolean isDefault() {
+        return blockedPatterns.isEmpty() && imagesEnabled && !isThrottled();
+    }
+
+    public boolean isThrottled() {
+        return latencyMs > 0 || downloadKbps > 0 || uploadKbps > 0;
+    }
+
+    /**
+     * Get URL patterns to block, including image patterns when images are suppressed
+     * @return blocked URL patterns
+     */
+    public List<String> getBlockedUrls() {
+        List<String> urls = new ArrayList<>(blockedPatterns);
+        if (!imagesEnabled) {
+            urls.addAll(IMAGE_PATTERNS);
+        }
+        return Collections.unmodifiableList(urls);
+    }
+
+    /**
+     * Get parameters of the DevTools Network.emulateNetworkConditions command
+     * @return conditions with throughput in bytes per second, -1 meaning unlimited
+     */
+    public Map<String, Object> getNetworkConditions() {
+        Map<String, Object> conditions = new LinkedHashMap<>();
+        conditions.put("offline", false);
+        conditions.put("latency", latencyMs);
+        conditions.put("downloadThroughput", downloadKbps > 0 ? downloadKbps * 1000 / 8 : -1);
+        conditions.put("uploadThroughput", uploadKbps > 0 ? uploadKbps * 1000 / 8 : -1);
+        return conditions;
+    }
+
+    @Override
+    public String toString() {
+        if (isDefault()) {
+            return name;
+        }
+        return name + " (blocked " + getBlockedUrls().size() + " patterns, images " + (imagesEnabled ? "on" : "off")
+                + (isThrottled() ? ", " + latencyMs + " ms latency, " + downloadKbps + "/" + uploadKbps + " kbit/s" : "") + ")";
+    }
+}
@@ -1,18 +1,35 @@
 package com.kiboassessment.pages;
 
+import com.kiboassessment.locators.DeadlineLocatorFactory;
+import com.kiboassessment.locators.DomSnapshots;
+import com.kiboassessment.locators.LocatorProfiler;
+import com.kiboassessment.locators.ProfilingLocatorFactory;
+import com.kiboassessment.perf.PagePerformance;
+import com.kiboassessment.utils.ConfigReader;
 import com.kiboassessment.utils.TestUtils;
 import com.kiboassessment.utils.WebDriverManagerUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Base page class that all page objects extend
  */
 public abstract class BasePage {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\d+)}");
+
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected Logger logger;
@@ -24,14 +41,26 @@ public abstract class BasePage {
         this.driver = WebDriverManagerUtil.getDriver();
         this.wait = WebDriverManagerUtil.getWait();
         this.logger = LogManager.getLogger(this.getClass());
-        PageFactory.initElements(driver, this);
+        ElementLocatorFactory locators = LocatorProfiler.isEnabled()
+                ? new ProfilingLocatorFactory(driver, getClass().getSimpleName()) : new DefaultElementLocatorFactory(driver);
+        PageFactory.initElements(new DeadlineLocatorFactory(locators), this);
     }
 
     /**
-     * Wait for page to load
+     * Wait for page to load and record its timings
      */
     public void waitForPageLoad() {
         TestUtils.waitForPageLoad();
+        recordPageTimings();
+        DomSnapshots.record(getClass().getSimpleName());
+    }
+
+    /**
+     * Record Navigation Timing and Web Vitals of the current document for this page object.
+     * Each document is recorded once, by the first page object that waits for it.
+     */
+    protected void recordPageTimings() {
+        PagePerformance.capture(getClass().getSimpleName(), driver);
     }
 
     /**
@@ -56,15 +85,86 @@ public abstract class BasePage {
      */
     public void navigateTo(String url) {
         logger.info("Navigating to: " + url);
+        PagePerformance.captureBeforeLeaving(driver);
         driver.get(url);
         waitForPageLoad();
     }
 
+    /**
+     * Open a page directly at its route and wait until it is ready, instead of clicking through
+     * the pages that lead to it
+     * @param page page object class annotated with Route
+     * @param parameters values of the route placeholders, e.g. the search term of SearchResultsPage
+     * @param <T> page object type
+     * @return page object of the opened page
+     */
+    public static <T extends BasePage> T goTo(Class<T> page, String... parameters) {
+        T instance;
+        try {
+            instance = page.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create page object: " + page.getSimpleName(), e);
+        }
+        instance.open(parameters);
+        return instance;
+    }
+
+    /**
+     * Open this page directly at its route and wait for its readiness selector
+     * @param parameters values of the route placeholders
+     * @throws IllegalArgumentException if the number of parameters does not match the route placeholders
+     * @throws IllegalStateException if the page has no route, or the storefront redirected elsewhere
+     * because a prerequisite such as a non-empty cart is missing
+     */
+    public void open(String... parameters) {
+        Route route = getClass().getAnnotation(Route.class);
+        if (route == null) {
+            throw new IllegalStateException("No route declared for page object: " + getClass().getSimpleName());
+        }
+        String path = route.value();
+        int placeholders = 0;
+        for (Matcher placeholder = PLACEHOLDER.matcher(path); placeholder.find(); ) {
+            placeholders = Math.max(placeholders, Integer.parseInt(placeholder.group(1)) + 1);
+        }
+        if (parameters.length > placeholders) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " route " + route.value() + " takes "
+                    + placeholders + " parameters, got " + parameters.length);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            path = path.replace("{" + i + "}", URLEncoder.encode(parameters[i], StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        Matcher unreplaced = PLACEHOLDER.matcher(path);
+        if (unreplaced.find()) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " route " + route.value()
+                    + " has no parameter for " + unreplaced.group());
+        }
+        String baseUrl = ConfigReader.getBaseUrl();
+        String url = (baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl) + path;
+        logger.info("Opening " + getClass().getSimpleName() + " at: " + url);
+        PagePerformance.captureBeforeLeaving(driver);
+        driver.get(url);
+
+        String expected = stripTrailingSlash(path.split("\\?")[0]).toLowerCase();
+        String landed = stripTrailingSlash(URI.create(driver.getCurrentUrl()).getPath()).toLowerCase();
+        if (!landed.endsWith(expected)) {
+            throw new IllegalStateException(getClass().getSimpleName() + " not opened, the storefront redirected to " + landed
+                    + (route.requires().isEmpty() ? "" : "; it requires " + route.requires()));
+        }
+        TestUtils.waitForElementPresent(By.cssSelector(route.ready()), ConfigReader.getExplicitWait());
+        recordPageTimings();
+        DomSnapshots.record(getClass().getSimpleName());
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
     /**
      * Refresh page
      */
     public void refreshPage() {
         logger.info("Refreshing page");
+        PagePerformance.captureBeforeLeaving(driver);
         driver.navigate().refresh();
         waitForPageLoad();
     }
@@ -74,6 +174,7 @@ public abstract class BasePage {
      */
     public void goBack() {
         logger.info("Going back to previous page");
+        PagePerformance.captureBeforeLeaving(driver);
         driver.navigate().back();
         waitForPageLoad();
     }
@@ -83,6 +184,7 @@ public abstract class BasePage {
      */
     public void goForward() {
         logger.info("Going forward to next page");
+        PagePerformance.captureBeforeLeaving(driver);
         driver.navigate().forward();
         waitForPageLoad();
     }
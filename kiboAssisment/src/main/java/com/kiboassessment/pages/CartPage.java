@@ -1,15 +1,46 @@
 package com.kiboassessment.pages;
 
 import com.kiboassessment.utils.TestUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * CartPage class representing the shopping cart page
  */
+@Route(value = "/cart", ready = ".order-summary-content")
 public class CartPage extends BasePage {
+    /**
+     * Reads every row in one round trip and starts a MutationObserver on the cart that clears
+     * window.__cartIndexValid when rows are added, removed or re-rendered. A new document has no flag.
+     */
+    private static final String INDEX_SCRIPT =
+            "if (window.__cartIndexObserver) { window.__cartIndexObserver.disconnect(); }"
+            + "var root = document.querySelector('.order-summary-content') || document.body;"
+            + "window.__cartIndexObserver = new MutationObserver(function() { window.__cartIndexValid = false; });"
+            + "window.__cartIndexObserver.observe(root, {childList: true, subtree: true, characterData: true});"
+            + "window.__cartIndexValid = true;"
+            + "var text = function(row, css) { var e = row.querySelector(css); return e ? e.textContent.trim() : ''; };"
+            + "return Array.prototype.map.call(document.querySelectorAll('.cart-item-row'), function(row) {"
+            + "  var qty = row.querySelector('.qty-input');"
+            + "  return {name: text(row, '.product-name'), price: text(row, '.product-unit-price'),"
+            + "    quantity: qty ? qty.value : '', row: row, remove: row.querySelector('.remove-from-cart'), qty: qty};"
+            + "});";
+    private static final String INDEX_VALID_SCRIPT = "return window.__cartIndexValid === true;";
+
+    private Map<String, CartRow> cartIndex;
+    private boolean observerUnavailable;
 
     // Cart elements
     @FindBy(css = ".cart-item-row")
@@ -95,19 +126,35 @@ public class CartPage extends BasePage {
         return TestUtils.getElementText(cartTotal);
     }
 
+    /**
+     * Get the cart rows by product name. The index is built in one round trip and reused until the
+     * cart changes; without script support it is rebuilt whenever its rows have gone stale.
+     * @return cart rows keyed by product name, in page order
+     */
+    public Map<String, CartRow> getCartIndex() {
+        if (cartIndex == null || !isCartIndexValid()) {
+            cartIndex = buildCartIndex();
+        }
+        return cartIndex;
+    }
+
+    /**
+     * Get the cart row of a product
+     * @param productName product name, or part of it
+     * @return cart row, null if not found
+     */
+    public CartRow getCartRow(String productName) {
+        return findRow(getCartIndex(), productName);
+    }
+
     /**
      * Find cart item by name
      * @param productName name of the product to find
      * @return index of the cart item, -1 if not found
      */
     public int findCartItemByName(String productName) {
-        List<String> names = getCartItemNames();
-        for (int i = 0; i < names.size(); i++) {
-            if (names.get(i).contains(productName)) {
-                return i;
-            }
-        }
-        return -1;
+        CartRow row = getCartRow(productName);
+        return row == null ? -1 : row.getPosition();
     }
 
     /**
@@ -125,15 +172,16 @@ public class CartPage extends BasePage {
      * @return true if product removed successfully, false otherwise
      */
     public boolean removeItemFromCart(String productName) {
-        int itemIndex = findCartItemByName(productName);
-        if (itemIndex >= 0 && itemIndex < removeButtons.size()) {
-            TestUtils.safeClick(removeButtons.get(itemIndex));
-            logger.info("Removed item from cart: " + productName);
-            return true;
-        } else {
-            logger.warn("Item not found in cart: " + productName);
-            return false;
-        }
+        return removeItemsFromCart(List.of(productName));
+    }
+
+    /**
+     * Remove several items and submit the cart once
+     * @param productNames names of the products to remove
+     * @return true if all products were found and removed, false otherwise
+     */
+    public boolean removeItemsFromCart(Collection<String> productNames) {
+        return updateCart(Collections.emptyMap(), productNames);
     }
 
     /**
@@ -143,16 +191,54 @@ public class CartPage extends BasePage {
      * @return true if quantity updated successfully, false otherwise
      */
     public boolean updateItemQuantity(String productName, int quantity) {
-        int itemIndex = findCartItemByName(productName);
-        if (itemIndex >= 0 && itemIndex < cartItemQuantities.size()) {
-            TestUtils.safeSendKeys(cartItemQuantities.get(itemIndex), String.valueOf(quantity));
+        return updateItemQuantities(Map.of(productName, quantity));
+    }
+
+    /**
+     * Update several item quantities and submit the cart once
+     * @param quantities new quantity by product name
+     * @return true if all products were found and updated, false otherwise
+     */
+    public boolean updateItemQuantities(Map<String, Integer> quantities) {
+        return updateCart(quantities, Collections.emptyList());
+    }
+
+    /**
+     * Enter quantities and mark removals for any number of rows, then submit the cart once
+     * @param quantities new quantity by product name
+     * @param removals names of the products to remove
+     * @return true if all products were found, false otherwise
+     */
+    public boolean updateCart(Map<String, Integer> quantities, Collection<String> removals) {
+        Map<String, CartRow> index = getCartIndex();
+        boolean allFound = true;
+        int changed = 0;
+        for (Map.Entry<String, Integer> quantity : quantities.entrySet()) {
+            CartRow row = findRow(index, quantity.getKey());
+            if (row == null || row.getQuantityInput() == null) {
+                logger.warn("Item not found in cart: " + quantity.getKey());
+                allFound = false;
+            } else if (!removals.contains(quantity.getKey())) {
+                TestUtils.safeSendKeys(row.getQuantityInput(), String.valueOf(quantity.getValue()));
+                changed++;
+            }
+        }
+        for (String productName : removals) {
+            CartRow row = findRow(index, productName);
+            if (row == null || row.getRemoveControl() == null) {
+                logger.warn("Item not found in cart: " + productName);
+                allFound = false;
+            } else {
+                TestUtils.safeClick(row.getRemoveControl());
+                changed++;
+            }
+        }
+        if (changed > 0) {
             TestUtils.safeClick(updateCartButton);
-            logger.info("Updated quantity for item: " + productName + " to " + quantity);
-            return true;
-        } else {
-            logger.warn("Item not found in cart: " + productName);
-            return false;
+            cartIndex = null;
+            logger.info("Updated cart: quantities " + quantities + ", removed " + removals);
         }
+        return allFound;
     }
 
     /**
@@ -203,5 +289,160 @@ public class CartPage extends BasePage {
         TestUtils.waitForElementPresent(org.openqa.selenium.By.cssSelector(".cart-item-row"), 
                 com.kiboassessment.utils.ConfigReader.getExplicitWait());
         logger.info("Cart loaded");
+        recordPageTimings();
+    }
+
+    private boolean isCartIndexValid() {
+        if (!observerUnavailable) {
+            try {
+                return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(INDEX_VALID_SCRIPT));
+            } catch (WebDriverException e) {
+                logger.warn("Cart index validity check failed: " + e.getMessage());
+                return false;
+            }
+        }
+        if (cartIndex.isEmpty()) {
+            return false;
+        }
+        try {
+            // Same staleness probe as ExpectedConditions.stalenessOf
+            cartIndex.values().iterator().next().getRow().isEnabled();
+            return true;
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    private Map<String, CartRow> buildCartIndex() {
+        if (!observerUnavailable && driver instanceof JavascriptExecutor) {
+            try {
+                Object rows = ((JavascriptExecutor) driver).executeScript(INDEX_SCRIPT);
+                return indexRows(rows);
+            } catch (WebDriverException e) {
+                logger.info("Cart index script unavailable, reading rows one by one: " + e.getMessage());
+            }
+        }
+        observerUnavailable = true;
+        List<CartRow> rows = new ArrayList<>();
+        for (WebElement row : cartItems) {
+            WebElement quantityInput = optional(row, ".qty-input");
+            rows.add(new CartRow(rows.size(), row, row.findElement(By.cssSelector(".product-name")).getText().trim(),
+                    text(optional(row, ".product-unit-price")),
+                    quantityInput == null ? "" : quantityInput.getAttribute("value"),
+                    optional(row, ".remove-from-cart"), quantityInput));
+        }
+        return index(rows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, CartRow> indexRows(Object result) {
+        List<CartRow> rows = new ArrayList<>();
+        for (Object item : (List<Object>) result) {
+            Map<String, Object> row = (Map<String, Object>) item;
+            rows.add(new CartRow(rows.size(), (WebElement) row.get("row"), String.valueOf(row.get("name")),
+                    String.valueOf(row.get("price")), String.valueOf(row.get("quantity")),
+                    (WebElement) row.get("remove"), (WebElement) row.get("qty")));
+        }
+        return index(rows);
+    }
+
+    private Map<String, CartRow> index(List<CartRow> rows) {
+        Map<String, CartRow> index = new LinkedHashMap<>();
+        for (CartRow row : rows) {
+            // The first row wins for duplicate names, as with the row-by-row lookup
+            index.putIfAbsent(row.getName(), row);
+        }
+        logger.info("Indexed cart rows: " + rows.size());
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static CartRow findRow(Map<String, CartRow> index, String productName) {
+        CartRow row = index.get(productName);
+        if (row != null) {
+            return row;
+        }
+        for (CartRow candidate : index.values()) {
+            if (candidate.getName().contains(productName)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static WebElement optional(WebElement row, String cssSelector) {
+        try {
+            return row.findElement(By.cssSelector(cssSelector));
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static String text(WebElement element) {
+        return element == null ? "" : element.getText().trim();
+    }
+
+    /**
+     * A cart line as read when the index was built, with handles to its controls
+     */
+    public static class CartRow {
+        private final int position;
+        private final WebElement row;
+        private final String name;
+        private final String price;
+        private final String quantity;
+        private final WebElement removeControl;
+        private final WebElement quantityInput;
+
+        CartRow(int position, WebElement row, String name, String price, String quantity,
+                WebElement removeControl, WebElement quantityInput) {
+            this.position = position;
+            this.row = row;
+            this.name = name;
+            this.price = price;
+            this.quantity = quantity;
+            this.removeControl = removeControl;
+            this.quantityInput = quantityInput;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public WebElement getRow() {
+            return row;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPrice() {
+            return price;
+        }
+
+        /**
+         * Get the quantity shown when the index was built
+         * @return quantity, 0 if the row has no readable quantity
+         */
+        public int getQuantity() {
+            try {
+                return Integer.parseInt(quantity.trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        public WebElement getRemoveControl() {
+            return removeControl;
+        }
+
+        public WebElement getQuantityInput() {
+            return quantityInput;
+        }
+
+        @Override
+        public String toString() {
+            return name + " x" + quantity + " @ " + price;
+        }
     }
-} 
\ No newline at end of file
+}
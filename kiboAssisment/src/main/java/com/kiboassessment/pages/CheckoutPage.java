@@ -9,6 +9,8 @@ import org.openqa.selenium.support.ui.Select;
 /**
  * CheckoutPage class representing the checkout process
  */
+@Route(value = "/onepagecheckout", ready = "#checkout-steps",
+        requires = "items in the cart, and a logged-in customer unless guest checkout is allowed")
 public class CheckoutPage extends BasePage {
 
     // Billing address elements
@@ -79,6 +81,13 @@ public class CheckoutPage extends BasePage {
     @FindBy(id = "billing-address-select")
     private WebElement billingAddressSelect;
 
+    @FindBy(id = "shipping-address-select")
+    private WebElement shippingAddressSelect;
+
+    // Shown instead of the checkout to anonymous customers when guest checkout is allowed
+    @FindBy(css = "input.checkout-as-guest-button")
+    private WebElement checkoutAsGuestButton;
+
     // Checkout buttons
     @FindBy(css = "input[onclick='Billing.save()']")
     private WebElement billingContinueButton;
@@ -115,6 +124,22 @@ public class CheckoutPage extends BasePage {
     @FindBy(id = "paymentmethod_1")
     private WebElement creditCardOption;
 
+    // Credit card payment information
+    @FindBy(id = "CardholderName")
+    private WebElement cardholderName;
+
+    @FindBy(id = "CardNumber")
+    private WebElement cardNumber;
+
+    @FindBy(id = "ExpireMonth")
+    private WebElement expireMonth;
+
+    @FindBy(id = "ExpireYear")
+    private WebElement expireYear;
+
+    @FindBy(id = "CardCode")
+    private WebElement cardCode;
+
     // Order summary
     @FindBy(css = ".order-summary-content")
     private WebElement orderSummary;
@@ -133,54 +158,123 @@ public class CheckoutPage extends BasePage {
         logger.info("Selected billing address: " + address);
     }
 
+    /**
+     * Select shipping address dropdown
+     * @param address shipping address
+     */
+    public void selectShippingAddressDropdown(String address) {
+        Select addressSelect = new Select(shippingAddressSelect);
+        addressSelect.selectByVisibleText(address);
+        logger.info("Selected shipping address: " + address);
+    }
+
+    /**
+     * Continue as guest when the storefront asks an anonymous customer to log in before checkout
+     */
+    public void checkoutAsGuestIfAsked() {
+        if (driver.getCurrentUrl().toLowerCase().contains("checkoutasguest")) {
+            TestUtils.safeClick(checkoutAsGuestButton);
+            logger.info("Continued checkout as guest");
+        }
+    }
+
     /**
      * Fill billing address information
      */
     public void fillBillingAddress() {
+        fillBillingAddress(ConfigReader.getProperty("billing.country"), ConfigReader.getProperty("billing.state"));
+    }
+
+    /**
+     * Fill billing address information for the given country and state
+     * @param country country name
+     * @param state state or province name, empty to keep the default
+     */
+    public void fillBillingAddress(String country, String state) {
         TestUtils.safeSendKeys(billingFirstName, ConfigReader.getProperty("billing.firstname"));
         TestUtils.safeSendKeys(billingLastName, ConfigReader.getProperty("billing.lastname"));
         TestUtils.safeSendKeys(billingEmail, ConfigReader.getProperty("billing.email"));
         TestUtils.safeSendKeys(billingCompany, ConfigReader.getProperty("billing.company"));
         
-        // Select country
+        // Select country, then the state once the country's states are loaded
         Select countrySelect = new Select(billingCountry);
-        countrySelect.selectByVisibleText(ConfigReader.getProperty("billing.country"));
-        
-        // Select state
-        Select stateSelect = new Select(billingState);
-        stateSelect.selectByVisibleText(ConfigReader.getProperty("billing.state"));
+        countrySelect.selectByVisibleText(country);
+        selectState(billingState, state);
         
         TestUtils.safeSendKeys(billingCity, ConfigReader.getProperty("billing.city"));
         TestUtils.safeSendKeys(billingAddress1, ConfigReader.getProperty("billing.address1"));
         TestUtils.safeSendKeys(billingZipCode, ConfigReader.getProperty("billing.zipcode"));
         TestUtils.safeSendKeys(billingPhone, ConfigReader.getProperty("billing.phone"));
         
-        logger.info("Filled billing address information");
+        logger.info("Filled billing address information: " + country + " " + state);
+    }
+
+    /**
+     * Enter a new billing address, choosing "New Address" first when an address book entry is preselected
+     * @param country country name
+     * @param state state or province name, empty to keep the default
+     */
+    public void enterNewBillingAddress(String country, String state) {
+        if (!TestUtils.isElementDisplayed(billingFirstName)) {
+            selectBillingAddressdropdown("New Address");
+        }
+        fillBillingAddress(country, state);
     }
 
     /**
      * Fill shipping address information
      */
     public void fillShippingAddress() {
+        fillShippingAddress(ConfigReader.getProperty("shipping.country"), ConfigReader.getProperty("shipping.state"));
+    }
+
+    /**
+     * Fill shipping address information for the given country and state
+     * @param country country name
+     * @param state state or province name, empty to keep the default
+     */
+    public void fillShippingAddress(String country, String state) {
         TestUtils.safeSendKeys(shippingFirstName, ConfigReader.getProperty("shipping.firstname"));
         TestUtils.safeSendKeys(shippingLastName, ConfigReader.getProperty("shipping.lastname"));
         TestUtils.safeSendKeys(shippingEmail, ConfigReader.getProperty("shipping.email"));
         TestUtils.safeSendKeys(shippingCompany, ConfigReader.getProperty("shipping.company"));
         
-        // Select country
+        // Select country, then the state once the country's states are loaded
         Select countrySelect = new Select(shippingCountry);
-        countrySelect.selectByVisibleText(ConfigReader.getProperty("shipping.country"));
-        
-        // Select state
-        Select stateSelect = new Select(shippingState);
-        stateSelect.selectByVisibleText(ConfigReader.getProperty("shipping.state"));
+        countrySelect.selectByVisibleText(country);
+        selectState(shippingState, state);
         
         TestUtils.safeSendKeys(shippingCity, ConfigReader.getProperty("shipping.city"));
         TestUtils.safeSendKeys(shippingAddress1, ConfigReader.getProperty("shipping.address1"));
         TestUtils.safeSendKeys(shippingZipCode, ConfigReader.getProperty("shipping.zipcode"));
         TestUtils.safeSendKeys(shippingPhone, ConfigReader.getProperty("shipping.phone"));
         
-        logger.info("Filled shipping address information");
+        logger.info("Filled shipping address information: " + country + " " + state);
+    }
+
+    /**
+     * Enter a new shipping address instead of the preselected billing address
+     * @param country country name
+     * @param state state or province name, empty to keep the default
+     */
+    public void enterNewShippingAddress(String country, String state) {
+        if (!TestUtils.isElementDisplayed(shippingFirstName)) {
+            selectShippingAddressDropdown("New Address");
+        }
+        fillShippingAddress(country, state);
+    }
+
+    /**
+     * Select a state once the storefront has loaded the states of the selected country
+     * @param stateSelect state dropdown
+     * @param state state name, empty to keep the default
+     */
+    private void selectState(WebElement stateSelect, String state) {
+        if (state == null || state.isEmpty()) {
+            return;
+        }
+        wait.until(page -> new Select(stateSelect).getOptions().stream().anyMatch(option -> option.getText().equals(state)));
+        new Select(stateSelect).selectByVisibleText(state);
     }
 
     /**
@@ -272,6 +366,26 @@ public class CheckoutPage extends BasePage {
         logger.info("Clicked payment method continue button");
     }
 
+    /**
+     * Fill credit card payment information from the payment.card.* settings
+     */
+    public void fillCreditCardInfo() {
+        fillCardField(cardholderName, ConfigReader.getProperty("payment.card.holder"));
+        fillCardField(cardNumber, ConfigReader.getProperty("payment.card.number"));
+        fillCardField(expireMonth, ConfigReader.getProperty("payment.card.expire.month"));
+        fillCardField(expireYear, ConfigReader.getProperty("payment.card.expire.year"));
+        fillCardField(cardCode, ConfigReader.getProperty("payment.card.code"));
+        logger.info("Filled credit card information");
+    }
+
+    private void fillCardField(WebElement field, String value) {
+        if ("select".equalsIgnoreCase(field.getTagName())) {
+            new Select(field).selectByVisibleText(value);
+        } else {
+            TestUtils.safeSendKeys(field, value);
+        }
+    }
+
     /**
      * Click payment info continue button
      */
@@ -305,25 +419,37 @@ public class CheckoutPage extends BasePage {
     }
 
     /**
-     * Complete checkout process
+     * Complete checkout process with ground shipping and check / money order
      */
     public void completeCheckout() {
+        completeCheckout("ground", "check");
+    }
+
+    /**
+     * Complete checkout process
+     * @param shippingMethod shipping method (ground, nextday, secondday)
+     * @param paymentMethod payment method (check, creditcard)
+     */
+    public void completeCheckout(String shippingMethod, String paymentMethod) {
         selectBillingAddressdropdown("New Address");
         fillBillingAddress();
         clickBillingContinue();
         
         clickShippingContinue();
         
-        selectShippingMethod("ground");
+        selectShippingMethod(shippingMethod);
         clickShippingMethodContinue();
         
-        selectPaymentMethod("check");
+        selectPaymentMethod(paymentMethod);
         clickPaymentMethodContinue();
         
+        if (paymentMethod.equalsIgnoreCase("creditcard")) {
+            fillCreditCardInfo();
+        }
         clickPaymentInfoContinue();
         
         clickConfirmOrder();
         
-        logger.info("Completed checkout process");
+        logger.info("Completed checkout process: " + shippingMethod + ", " + paymentMethod);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.openqa.selenium.support.FindBy;
 /**
  * HomePage class representing the main homepage of the demo e-commerce site
  */
+@Route(value = "/", ready = ".header-links")
 public class HomePage extends BasePage {
 
     // Header elements
@@ -7,6 +7,7 @@ import org.openqa.selenium.support.FindBy;
 /**
  * OrderConfirmationPage class representing the order confirmation page
  */
+@Route(value = "/checkout/completed/", ready = ".order-completed", requires = "an order placed in this session")
 public class OrderConfirmationPage extends BasePage {
 
     // Order confirmation elements
@@ -243,6 +244,7 @@ public class OrderConfirmationPage extends BasePage {
         TestUtils.waitForElementPresent(org.openqa.selenium.By.cssSelector(".order-completed"), 
                 com.kiboassessment.utils.ConfigReader.getExplicitWait());
         logger.info("Order confirmation loaded");
+        recordPageTimings();
     }
 
     /**
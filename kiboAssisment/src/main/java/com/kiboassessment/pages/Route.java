@@ -0,0 +1,33 @@
+package com.kiboassessment.pages;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Canonical storefront URL of a page object, used by BasePage.goTo to open the page directly
+ * instead of clicking through the pages that lead to it
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Route {
+
+    /**
+     * Path of the page relative to the base URL, with {0}, {1}... replaced by the goTo parameters
+     * @return path, e.g. "/cart" or "/search?q={0}"
+     */
+    String value();
+
+    /**
+     * CSS selector of an element that is present once the page is ready to use
+     * @return readiness selector
+     */
+    String ready();
+
+    /**
+     * Session state the storefront needs before it serves the page instead of redirecting, for error messages
+     * @return prerequisite description, empty if the page has none
+     */
+    String requires() default "";
+}
@@ -1,16 +1,26 @@
 package com.kiboassessment.pages;
 
+import com.kiboassessment.search.SearchResult;
+import com.kiboassessment.search.SearchResultSpliterator;
+import com.kiboassessment.utils.StorefrontClient;
 import com.kiboassessment.utils.TestUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.FindBys;
 import org.openqa.selenium.support.FindAll;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * SearchResultsPage class representing the search results page
  */
+@Route(value = "/search?q={0}", ready = ".search-results")
 public class SearchResultsPage extends BasePage {
 
     // Search results elements
@@ -81,13 +91,47 @@ public class SearchResultsPage extends BasePage {
      * @return index of the product, -1 if not found
      */
     public int findProductByName(String productName) {
-        List<String> names = getProductNames();
-        for (int i = 0; i < names.size(); i++) {
-            if (names.get(i).contains(productName)) {
-                return i;
-            }
+        List<SearchResult> results = SearchResultSpliterator.parse(readCurrentPage(), 1, null);
+        return results.stream()
+                .filter(SearchResult.nameContains(productName))
+                .mapToInt(SearchResult::getPosition)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+     * Stream the results of this and all following result pages. The current page is read from the
+     * browser in one call, later pages over HTTP with the browser's cookies, each prefetched while
+     * the previous page is consumed. Close the stream when it is not consumed to the end.
+     * @return ordered stream of results
+     */
+    public Stream<SearchResult> streamResults() {
+        Document page = readCurrentPage();
+        URI uri = URI.create(page.location());
+        StorefrontClient client = new StorefrontClient(uri.getScheme() + "://" + uri.getRawAuthority());
+        client.importCookies(driver);
+        return SearchResultSpliterator.stream(page, client);
+    }
+
+    /**
+     * Find the first result on any page matching the given condition, reading no further pages than needed
+     * @param condition e.g. SearchResult.nameContains, priceBetween or skuEquals
+     * @return first match, empty if none of the pages has one
+     */
+    public Optional<SearchResult> findResult(Predicate<SearchResult> condition) {
+        try (Stream<SearchResult> results = streamResults()) {
+            Optional<SearchResult> match = results.filter(condition).findFirst();
+            logger.info("Search result lookup: " + match.map(SearchResult::toString).orElse("no match"));
+            return match;
         }
-        return -1;
+    }
+
+    /**
+     * Open the details page of a result, which may be listed on another page
+     * @param result search result
+     */
+    public void openResult(SearchResult result) {
+        navigateTo(result.getUrl());
     }
 
     /**
@@ -181,5 +225,10 @@ public class SearchResultsPage extends BasePage {
         TestUtils.waitForElementPresent(org.openqa.selenium.By.cssSelector(".product-item"), 
                 com.kiboassessment.utils.ConfigReader.getExplicitWait());
         logger.info("Search results loaded");
+        recordPageTimings();
+    }
+
+    private Document readCurrentPage() {
+        return Jsoup.parse(driver.getPageSource(), driver.getCurrentUrl());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,340 @@
+package com.kiboassessment.perf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.network.NetworkConditioner;
+import com.kiboassessment.network.NetworkProfile;
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects page timings on each page transition, checks them against the performance budgets and
+ * trends the per-page medians of each run against earlier runs
+ */
+public class PagePerformance {
+    private static final Logger logger = LogManager.getLogger(PagePerformance.class);
+    private static final String SCRIPT = loadScript();
+    private static final String DOCUMENT_SCRIPT = "return location.href + '@' + performance.timeOrigin;";
+    private static final String[] TRENDED_METRICS = {"ttfb", "domContentLoaded", "load", "lcp", "cls", "inp", "transferSize"};
+    private static final List<PageTimings> results = Collections.synchronizedList(new ArrayList<>());
+    private static final String[] LATE_METRICS = {"lcp", "cls", "inp"};
+    private static final ThreadLocal<String> lastDocument = new ThreadLocal<>();
+    private static final ThreadLocal<PageTimings> openTimings = new ThreadLocal<>();
+    private static final PerformanceBudget budget = new PerformanceBudget();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static String loadScript() {
+        try (InputStream in = PagePerformance.class.getResourceAsStream("/js/page-timings.js")) {
+            if (in == null) {
+                throw new IllegalStateException("Page timing script not found on classpath: /js/page-timings.js");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load page timing script", e);
+        }
+    }
+
+    /**
+     * Check whether page timings are collected (perf.enabled)
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("perf.enabled", "true"));
+    }
+
+    /**
+     * Collect timings of the current document, once per document. INP is left out: no interaction has
+     * happened yet; it is added, with the final LCP and CLS, by captureBeforeLeaving.
+     * @param page page object name the timings are attributed to
+     * @param driver WebDriver instance
+     */
+    public static void capture(String page, WebDriver driver) {
+        if (!isEnabled() || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        // Most page loads re-wait on a document that was already measured; the timing script waits
+        // for a timer, so the cheap identity check comes first
+        String document = document(page, driver);
+        if (document == null || document.equals(lastDocument.get())) {
+            return;
+        }
+        Map<String, Object> data = collect(page, driver);
+        if (data == null) {
+            return;
+        }
+        lastDocument.set(document);
+
+        Map<String, Double> metrics = metrics(data);
+        metrics.remove("inp");
+        PageTimings timings = new PageTimings(page, String.valueOf(data.get("url")), System.currentTimeMillis(),
+                NetworkConditioner.getAppliedProfile().getName(), metrics);
+        openTimings.set(timings);
+        record(timings);
+    }
+
+    /**
+     * Re-collect the metrics that change after the page load (LCP, CLS and INP) before the browser leaves
+     * the last captured document, and update its recorded timings. Called by page objects before they
+     * navigate; a document left by a click keeps the values taken when it loaded.
+     * @param driver WebDriver instance
+     * @throws IllegalStateException if a late metric exceeds its budget and budgets are enforced
+     */
+    public static void captureBeforeLeaving(WebDriver driver) {
+        PageTimings timings = openTimings.get();
+        openTimings.remove();
+        if (timings == null || !isEnabled() || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        String document = document(timings.getPage(), driver);
+        if (document == null || !document.equals(lastDocument.get())) {
+            // The browser already left the document
+            return;
+        }
+        Map<String, Object> data = collect(timings.getPage(), driver);
+        if (data == null) {
+            return;
+        }
+        Map<String, Double> metrics = metrics(data);
+        Map<String, Double> late = new LinkedHashMap<>();
+        for (String metric : LATE_METRICS) {
+            Double value = metrics.get(metric);
+            // INP only exists once the page was interacted with
+            if (value != null && (!"inp".equals(metric) || value > 0)) {
+                late.put(metric, value);
+            }
+        }
+        if (late.isEmpty()) {
+            return;
+        }
+        timings.update(late);
+        PageTimings lateTimings = new PageTimings(timings.getPage(), timings.getUrl(), System.currentTimeMillis(),
+                timings.getNetworkProfile(), late);
+        TestListener.logInfo("Page timings on leaving: " + lateTimings);
+        checkBudget(lateTimings);
+    }
+
+    /**
+     * Identify the current document by its URL and time origin, which changes on every load
+     */
+    private static String document(String page, WebDriver driver) {
+        try {
+            Object document = ((JavascriptExecutor) driver).executeScript(DOCUMENT_SCRIPT);
+            return document == null ? null : document.toString();
+        } catch (WebDriverException e) {
+            logger.warn("Page timings not available for " + page + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> collect(String page, WebDriver driver) {
+        Object raw;
+        try {
+            raw = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT);
+        } catch (WebDriverException e) {
+            logger.warn("Page timings not available for " + page + ": " + e.getMessage());
+            return null;
+        }
+        return raw instanceof Map ? (Map<String, Object>) raw : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> metrics(Map<String, Object> data) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        Object rawMetrics = data.get("metrics");
+        if (rawMetrics instanceof Map) {
+            ((Map<String, Object>) rawMetrics).forEach((name, value) -> {
+                if (value instanceof Number) {
+                    metrics.put(name, ((Number) value).doubleValue());
+                }
+            });
+        }
+        return metrics;
+    }
+
+    /**
+     * Record page timings and check them against the budgets
+     * @param timings page timings
+     * @throws IllegalStateException if a budget is exceeded and budgets are enforced
+     */
+    public static void record(PageTimings timings) {
+        results.add(timings);
+        TestListener.logInfo("Page timings: " + timings);
+        checkBudget(timings);
+    }
+
+    private static void checkBudget(PageTimings timings) {
+        List<String> violations = budget.check(timings);
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Performance budget exceeded on " + timings.getPage() + ": " + String.join("; ", violations);
+        if (budget.isEnforced()) {
+            TestListener.logError(message);
+            throw new IllegalStateException(message);
+        }
+        TestListener.logWarning(message);
+    }
+
+    /**
+     * Get timings recorded since the last publish
+     * @return page timings in capture order
+     */
+    public static List<PageTimings> getResults() {
+        synchronized (results) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    /**
+     * Discard timings recorded since the last publish
+     */
+    public static void clear() {
+        results.clear();
+    }
+
+    /**
+     * Summarize timings as per-page medians
+     * @param timings page timings
+     * @return median of each metric by page name
+     */
+    public static Map<String, Map<String, Double>> summarize(List<PageTimings> timings) {
+        Map<String, Map<String, List<Double>>> samples = new LinkedHashMap<>();
+        for (PageTimings pageTimings : timings) {
+            Map<String, List<Double>> page = samples.computeIfAbsent(pageTimings.getPage(), name -> new LinkedHashMap<>());
+            pageTimings.getMetrics().forEach((metric, value) -> page.computeIfAbsent(metric, name -> new ArrayList<>()).add(value));
+        }
+        Map<String, Map<String, Double>> summary = new LinkedHashMap<>();
+        samples.forEach((page, metrics) -> {
+            Map<String, Double> medians = new LinkedHashMap<>();
+            metrics.forEach((metric, values) -> {
+                Collections.sort(values);
+                medians.put(metric, values.get((values.size() - 1) / 2));
+            });
+            summary.put(page, medians);
+        });
+        return summary;
+    }
+
+    /**
+     * Append the per-page medians of the timings recorded since the last publish to the history file
+     * (perf.history.path) and build a trend table against the previous runs with the same name.
+     * Timings taken under a network profile are trended separately as "runName @ profile".
+     * @param runName run name, e.g. the TestNG test name
+     * @return HTML trend tables, or null if no timings were recorded
+     */
+    public static String publish(String runName) {
+        Map<String, List<PageTimings>> byProfile = new LinkedHashMap<>();
+        synchronized (results) {
+            for (PageTimings timings : results) {
+                byProfile.computeIfAbsent(timings.getNetworkProfile(), name -> new ArrayList<>()).add(timings);
+            }
+            results.clear();
+        }
+        if (byProfile.isEmpty()) {
+            return null;
+        }
+        File history = new File(ConfigReader.getProperty("perf.history.path", "test-output/perf-history.jsonl"));
+        int trendRuns = Integer.parseInt(ConfigReader.getProperty("perf.trend.runs", "5"));
+        StringBuilder html = new StringBuilder();
+        for (Map.Entry<String, List<PageTimings>> profile : byProfile.entrySet()) {
+            String run = NetworkProfile.NONE.equals(profile.getKey()) ? runName : runName + " @ " + profile.getKey();
+            Map<String, Map<String, Double>> summary = summarize(profile.getValue());
+            List<Map<String, Map<String, Double>>> previousRuns = readHistory(history, run, trendRuns);
+            appendHistory(history, run, summary);
+            if (byProfile.size() > 1 || !NetworkProfile.NONE.equals(profile.getKey())) {
+                html.append("<p><b>Network profile: ").append(profile.getKey()).append("</b></p>");
+            }
+            html.append(trendTable(summary, previousRuns));
+        }
+        return html.toString();
+    }
+
+    private static void appendHistory(File history, String run, Map<String, Map<String, Double>> summary) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("run", run);
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("pages", summary);
+        try {
+            if (history.getParentFile() != null) {
+                history.getParentFile().mkdirs();
+            }
+            Files.write(history.toPath(), (objectMapper.writeValueAsString(entry) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to write performance history: " + e.getMessage());
+        }
+    }
+
+    private static List<Map<String, Map<String, Double>>> readHistory(File history, String runName, int maxRuns) {
+        List<Map<String, Map<String, Double>>> runs = new ArrayList<>();
+        if (!history.exists()) {
+            return runs;
+        }
+        try {
+            for (String line : Files.readAllLines(history.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> entry = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+                });
+                if (runName.equals(entry.get("run"))) {
+                    runs.add(objectMapper.convertValue(entry.get("pages"), new TypeReference<Map<String, Map<String, Double>>>() {
+                    }));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read performance history: " + e.getMessage());
+        }
+        return runs.subList(Math.max(0, runs.size() - maxRuns), runs.size());
+    }
+
+    private static String trendTable(Map<String, Map<String, Double>> summary, List<Map<String, Map<String, Double>>> previousRuns) {
+        StringBuilder html = new StringBuilder("<table class=\"table table-sm\"><tr><th>Page</th><th>Metric</th><th>Budget</th>"
+                + "<th>This run (median)</th><th>Previous runs (oldest first)</th><th>Change</th></tr>");
+        for (Map.Entry<String, Map<String, Double>> page : summary.entrySet()) {
+            for (String metric : TRENDED_METRICS) {
+                Double current = page.getValue().get(metric);
+                if (current == null) {
+                    continue;
+                }
+                List<String> previous = new ArrayList<>();
+                double previousSum = 0;
+                for (Map<String, Map<String, Double>> run : previousRuns) {
+                    Double value = run.getOrDefault(page.getKey(), Collections.emptyMap()).get(metric);
+                    if (value != null) {
+                        previous.add(PerformanceBudget.format(metric, value));
+                        previousSum += value;
+                    }
+                }
+                String change = previous.isEmpty() || previousSum == 0 ? "" : String.format(Locale.ROOT, "%+.0f%%",
+                        (current / (previousSum / previous.size()) - 1) * 100);
+                Double pageBudget = budget.getBudget(page.getKey(), metric);
+                html.append("<tr><td>").append(page.getKey()).append("</td><td>").append(metric)
+                        .append("</td><td>").append(pageBudget == null ? "" : PerformanceBudget.format(metric, pageBudget))
+                        .append("</td><td>").append(PerformanceBudget.format(metric, current))
+                        .append("</td><td>").append(String.join(", ", previous))
+                        .append("</td><td>").append(change).append("</td></tr>");
+            }
+        }
+        return html.append("</table>").toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kiboassessment.perf;
+
+import com.kiboassessment.network.NetworkProfile;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Timings of one page load, attributed to the page object that waited for it.
+ * Times are milliseconds since navigation start, cls is unitless, sizes are bytes.
+ */
+public class PageTimings {
+    private final String page;
+    private final String url;
+    private final long timestamp;
+    private final String networkProfile;
+    private final Map<String, Double> metrics;
+
+    /**
+     * Create page timings captured without a network profile
+     * @param page page object name, e.g. "HomePage"
+     * @param url page URL
+     * @param timestamp capture time in epoch milliseconds
+     * @param metrics metric values by name (ttfb, domContentLoaded, load, fcp, lcp, cls, inp, ...)
+     */
+    public PageTimings(String page, String url, long timestamp, Map<String, Double> metrics) {
+        this(page, url, timestamp, NetworkProfile.NONE, metrics);
+    }
+
+    /**
+     * Create page timings
+     * @param page page object name, e.g. "HomePage"
+     * @param url page URL
+     * @param timestamp capture time in epoch milliseconds
+     * @param networkProfile name of the network profile the page was loaded under
+     * @param metrics metric values by name (ttfb, domContentLoaded, load, fcp, lcp, cls, inp, ...)
+     */
+    public PageTimings(String page, String url, long timestamp, String networkProfile, Map<String, Double> metrics) {
+        this.page = page;
+        this.url = url;
+        this.timestamp = timestamp;
+        this.networkProfile = networkProfile;
+        this.metrics = new LinkedHashMap<>(metrics);
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getNetworkProfile() {
+        return networkProfile;
+    }
+
+    public Map<String, Double> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Replace metric values re-collected later on the same document
+     * @param values metric values by name
+     */
+    void update(Map<String, Double> values) {
+        metrics.putAll(values);
+    }
+
+    /**
+     * Get metric value
+     * @param name metric name
+     * @return value, or 0 if not collected
+     */
+    public double get(String name) {
+        return metrics.getOrDefault(name, 0.0);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", page + " [network " + networkProfile + ": ", "]");
+        metrics.forEach((name, value) -> joiner.add(name + "=" + PerformanceBudget.format(name, value)));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.kiboassessment.perf;
+
+import com.kiboassessment.utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-page performance budgets from configuration: perf.budget.&lt;Page&gt;.&lt;metric&gt;, falling back to
+ * perf.budget.default.&lt;metric&gt;. A metric without a budget is not checked.
+ */
+public class PerformanceBudget {
+
+    /**
+     * Get budget for a page metric
+     * @param page page object name
+     * @param metric metric name
+     * @return budget, or null if none is configured
+     */
+    public Double getBudget(String page, String metric) {
+        String value = ConfigReader.getProperty("perf.budget." + page + "." + metric,
+                ConfigReader.getProperty("perf.budget.default." + metric, null));
+        return value == null || value.trim().isEmpty() ? null : Double.valueOf(value.trim());
+    }
+
+    /**
+     * Check page timings against their budgets
+     * @param timings page timings
+     * @return one message per exceeded budget
+     */
+    public List<String> check(PageTimings timings) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : timings.getMetrics().entrySet()) {
+            Double budget = getBudget(timings.getPage(), metric.getKey());
+            if (budget != null && metric.getValue() > budget) {
+                violations.add(metric.getKey() + " " + format(metric.getKey(), metric.getValue())
+                        + " exceeds budget " + format(metric.getKey(), budget));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Check whether exceeded budgets fail the test (perf.budget.action=fail) or only warn
+     * @return true if budgets are enforced
+     */
+    public boolean isEnforced() {
+        return "fail".equalsIgnoreCase(ConfigReader.getProperty("perf.budget.action", "warn"));
+    }
+
+    static String format(String metric, double value) {
+        if (metric.equals("cls")) {
+            return String.format(Locale.ROOT, "%.3f", value);
+        }
+        if (metric.equals("resourceCount")) {
+            return String.valueOf((long) value);
+        }
+        if (metric.equals("transferSize")) {
+            return String.format(Locale.ROOT, "%.1f KB", value / 1024);
+        }
+        return String.format(Locale.ROOT, "%.0f ms", value);
+    }
+}
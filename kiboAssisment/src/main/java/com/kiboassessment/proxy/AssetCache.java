@@ -0,0 +1,251 @@
+package com.kiboassessment.proxy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Disk cache of static assets with least-recently-used eviction. Each asset is stored as a body file
+ * and a metadata file, so the cache survives across runs and is shared by all sessions.
+ */
+public class AssetCache {
+    private static final Logger logger = LogManager.getLogger(AssetCache.class);
+
+    /**
+     * Cached asset metadata
+     */
+    public static class Entry {
+        private final String url;
+        private final String key;
+        private final long size;
+        private final Map<String, String> headers;
+        private long expiresAt;
+
+        Entry(String url, String key, long size, Map<String, String> headers, long expiresAt) {
+            this.url = url;
+            this.key = key;
+            this.size = size;
+            this.headers = new LinkedHashMap<>(headers);
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Get stored response headers (Content-Type, Content-Encoding, ETag, Last-Modified)
+         * @return headers by name
+         */
+        public Map<String, String> getHeaders() {
+            return Collections.unmodifiableMap(headers);
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        /**
+         * Check whether the asset can be revalidated with a conditional request
+         * @return true if an ETag or Last-Modified validator is stored
+         */
+        public boolean hasValidator() {
+            return headers.containsKey("ETag") || headers.containsKey("Last-Modified");
+        }
+    }
+
+    private final File directory;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Open cache, loading assets stored by earlier runs
+     * @param directory cache directory
+     * @param maxBytes size limit; least recently used assets are evicted beyond it
+     */
+    public AssetCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        directory.mkdirs();
+        File[] metaFiles = directory.listFiles((dir, name) -> name.endsWith(".meta"));
+        if (metaFiles != null) {
+            for (File metaFile : metaFiles) {
+                load(metaFile);
+            }
+        }
+        logger.info("Asset cache opened with " + entries.size() + " assets (" + totalBytes / 1024 + " KB): " + directory);
+    }
+
+    private void load(File metaFile) {
+        Properties meta = new Properties();
+        try (InputStream in = new FileInputStream(metaFile)) {
+            meta.load(in);
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable cache entry: " + metaFile);
+            return;
+        }
+        String key = metaFile.getName().substring(0, metaFile.getName().length() - ".meta".length());
+        File body = bodyFile(key);
+        if (!body.exists()) {
+            metaFile.delete();
+            return;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : meta.stringPropertyNames()) {
+            if (name.startsWith("header.")) {
+                headers.put(name.substring("header.".length()), meta.getProperty(name));
+            }
+        }
+        Entry entry = new Entry(meta.getProperty("url"), key, body.length(), headers,
+                Long.parseLong(meta.getProperty("expiresAt", "0")));
+        entries.put(entry.getUrl(), entry);
+        totalBytes += entry.getSize();
+    }
+
+    /**
+     * Look up an asset
+     * @param url asset URL
+     * @return cached entry, or null
+     */
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Read a cached asset body
+     * @param entry cached entry
+     * @return body bytes, or null if the body file is gone
+     */
+    public byte[] read(Entry entry) {
+        try {
+            return Files.readAllBytes(bodyFile(entry.key).toPath());
+        } catch (IOException e) {
+            synchronized (this) {
+                remove(entry);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Store an asset, evicting least recently used assets beyond the size limit
+     * @param url asset URL
+     * @param body body bytes
+     * @param headers response headers to replay
+     * @param expiresAt time until which the asset is fresh
+     */
+    public synchronized void put(String url, byte[] body, Map<String, String> headers, long expiresAt) {
+        if (body.length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.get(url);
+        if (previous != null) {
+            remove(previous);
+        }
+        Entry entry = new Entry(url, keyOf(url), body.length, headers, expiresAt);
+        try {
+            Files.write(bodyFile(entry.key).toPath(), body);
+            writeMeta(entry);
+        } catch (IOException e) {
+            logger.warn("Failed to cache asset " + url + ": " + e.getMessage());
+            return;
+        }
+        entries.put(url, entry);
+        totalBytes += entry.getSize();
+        evict();
+    }
+
+    /**
+     * Extend the freshness of an asset after the upstream server confirmed it unchanged
+     * @param entry cached entry
+     * @param expiresAt new expiry time
+     */
+    public synchronized void refresh(Entry entry, long expiresAt) {
+        entry.expiresAt = expiresAt;
+        try {
+            writeMeta(entry);
+        } catch (IOException e) {
+            logger.warn("Failed to update cache entry " + entry.getUrl() + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Entry entry = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            deleteFiles(entry);
+            logger.debug("Evicted cached asset: " + entry.getUrl());
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.getUrl()) != null) {
+            deleteFiles(entry);
+        }
+    }
+
+    private void deleteFiles(Entry entry) {
+        totalBytes -= entry.getSize();
+        bodyFile(entry.key).delete();
+        new File(directory, entry.key + ".meta").delete();
+    }
+
+    private void writeMeta(Entry entry) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("url", entry.getUrl());
+        meta.setProperty("expiresAt", String.valueOf(entry.getExpiresAt()));
+        entry.getHeaders().forEach((name, value) -> meta.setProperty("header." + name, value));
+        try (OutputStream out = new FileOutputStream(new File(directory, entry.key + ".meta"))) {
+            meta.store(out, null);
+        }
+    }
+
+    private File bodyFile(String key) {
+        return new File(directory, key + ".body");
+    }
+
+    private static String keyOf(String url) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.kiboassessment.proxy;
+
+import com.kiboassessment.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP proxy that serves static storefront assets from a disk cache. Static GET requests are
+ * answered from the cache, revalidated with conditional requests once stale; everything else (cart,
+ * checkout, login) is passed straight through. HTTPS CONNECT requests are tunneled without caching,
+ * so only plain HTTP origins benefit from the cache.
+ */
+public class CachingProxy {
+    private static final Logger logger = LogManager.getLogger(CachingProxy.class);
+    private static final Set<String> STATIC_EXTENSIONS = Set.of("css", "js", "map", "png", "jpg", "jpeg", "gif",
+            "svg", "ico", "webp", "woff", "woff2", "ttf", "eot", "otf");
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade", "keep-alive", "te", "trailer", "transfer-encoding", "proxy-connection", "proxy-authorization");
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of("connection", "content-length", "keep-alive",
+            "transfer-encoding", "proxy-connection", ":status");
+    private static final List<String> CACHED_HEADERS = List.of("Content-Type", "Content-Encoding", "ETag", "Last-Modified", "Vary");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static CachingProxy shared;
+
+    private final AssetCache cache;
+    private final int requestedPort;
+    private final long defaultTtlMs;
+    private final ProxyStats stats = new ProxyStats();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private ServerSocket serverSocket;
+    private ExecutorService connections;
+
+    /**
+     * Create proxy
+     * @param cache asset cache
+     * @param port listen port, 0 for any free port
+     * @param defaultTtlMs freshness of assets whose response has no Cache-Control max-age or Expires
+     */
+    public CachingProxy(AssetCache cache, int port, long defaultTtlMs) {
+        this.cache = cache;
+        this.requestedPort = port;
+        this.defaultTtlMs = defaultTtlMs;
+    }
+
+    /**
+     * Check whether browser sessions should be routed through the proxy
+     * @return true if proxy.enabled is set
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("proxy.enabled", "false"));
+    }
+
+    /**
+     * Get the proxy shared by all sessions of this JVM, starting it from configuration on first use
+     * @return running proxy
+     */
+    public static synchronized CachingProxy shared() {
+        if (shared == null) {
+            AssetCache cache = new AssetCache(new File(ConfigReader.getProperty("proxy.cache.dir", "target/asset-cache")),
+                    Long.parseLong(ConfigReader.getProperty("proxy.cache.max.mb", "256")) * 1024 * 1024);
+            shared = new CachingProxy(cache, Integer.parseInt(ConfigReader.getProperty("proxy.port", "0")),
+                    Long.parseLong(ConfigReader.getProperty("proxy.cache.default.ttl.seconds", "3600")) * 1000);
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    /**
+     * Get the shared proxy if it has been started
+     * @return shared proxy, or null
+     */
+    public static synchronized CachingProxy getShared() {
+        return shared;
+    }
+
+    /**
+     * Start accepting connections on the loopback interface
+     */
+    public synchronized void start() {
+        if (serverSocket != null) {
+            return;
+        }
+        try {
+            serverSocket = new ServerSocket(requestedPort, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start caching proxy on port " + requestedPort, e);
+        }
+        connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "caching-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connections.execute(this::acceptLoop);
+        logger.info("Caching proxy started on port: " + getPort());
+    }
+
+    /**
+     * Stop accepting connections and close open ones
+     */
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close caching proxy socket: " + e.getMessage());
+        }
+        connections.shutdownNow();
+        serverSocket = null;
+        logger.info("Caching proxy stopped: " + stats);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Get proxy address in host:port form, as used for browser proxy settings
+     * @return proxy address
+     */
+    public String getAddress() {
+        return "127.0.0.1:" + getPort();
+    }
+
+    public ProxyStats getStats() {
+        return stats;
+    }
+
+    public AssetCache getCache() {
+        return cache;
+    }
+
+    private void acceptLoop() {
+        ServerSocket server = serverSocket;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.warn("Caching proxy accept failed: " + e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                return;
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (Socket client = socket) {
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            OutputStream out = client.getOutputStream();
+            while (true) {
+                String requestLine = readLine(in);
+                if (requestLine == null || requestLine.isEmpty()) {
+                    return;
+                }
+                String[] parts = requestLine.split(" ");
+                if (parts.length != 3) {
+                    writeResponse(out, 400, Map.of(), new byte[0], false);
+                    return;
+                }
+                Map<String, String> headers = readHeaders(in);
+                if (parts[0].equals("CONNECT")) {
+                    tunnel(parts[1], client, in, out);
+                    return;
+                }
+                byte[] body = readBody(in, headers);
+                if (body == null) {
+                    writeResponse(out, 400, Map.of(), "Invalid request body length".getBytes(StandardCharsets.UTF_8), false);
+                    return;
+                }
+                boolean keepAlive = !"close".equalsIgnoreCase(headers.getOrDefault("proxy-connection", headers.get("connection")));
+                handleRequest(parts[0], parts[1], headers, body, out, keepAlive);
+                if (!keepAlive) {
+                    return;
+                }
+            }
+        } catch (SocketException e) {
+            logger.debug("Proxy client disconnected: " + e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Proxy connection failed: " + e.getMessage());
+        }
+    }
+
+    private void handleRequest(String method, String target, Map<String, String> headers, byte[] body,
+                               OutputStream out, boolean keepAlive) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(target);
+        } catch (IllegalArgumentException e) {
+            writeResponse(out, 400, Map.of(), new byte[0], keepAlive);
+            return;
+        }
+        if (!uri.isAbsolute()) {
+            writeResponse(out, 400, Map.of(), "Proxy requests must use absolute URLs".getBytes(StandardCharsets.UTF_8), keepAlive);
+            return;
+        }
+
+        try {
+            if (method.equals("GET") && isStatic(uri)) {
+                serveStatic(uri, headers, out, keepAlive);
+            } else {
+                HttpResponse<byte[]> response = forward(method, uri, headers, body);
+                stats.passThrough(response.body().length);
+                writeResponse(out, response.statusCode(), responseHeaders(response), response.body(), keepAlive, method.equals("HEAD"));
+            }
+        } catch (IOException e) {
+            logger.warn("Upstream request failed for " + uri + ": " + e.getMessage());
+            writeResponse(out, 502, Map.of(), new byte[0], keepAlive);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while proxying " + uri, e);
+        }
+    }
+
+    private void serveStatic(URI uri, Map<String, String> headers, OutputStream out, boolean keepAlive)
+            throws IOException, InterruptedException {
+        String url = cacheKey(uri, headers);
+        AssetCache.Entry entry = cache.get(url);
+        byte[] cached = entry == null ? null : cache.read(entry);
+        if (cached != null && entry.isFresh(System.currentTimeMillis())) {
+            stats.hit(cached.length);
+            writeResponse(out, 200, entry.getHeaders(), cached, keepAlive);
+            return;
+        }
+
+        Map<String, String> upstreamHeaders = new LinkedHashMap<>(headers);
+        upstreamHeaders.keySet().removeIf(name -> name.equals("if-none-match") || name.equals("if-modified-since"));
+        boolean revalidating = cached != null && entry.hasValidator();
+        if (revalidating) {
+            Map<String, String> validators = entry.getHeaders();
+            if (validators.containsKey("ETag")) {
+                upstreamHeaders.put("if-none-match", validators.get("ETag"));
+            }
+            if (validators.containsKey("Last-Modified")) {
+                upstreamHeaders.put("if-modified-since", validators.get("Last-Modified"));
+            }
+        }
+
+        HttpResponse<byte[]> response = forward("GET", uri, upstreamHeaders, new byte[0]);
+        if (revalidating && response.statusCode() == 304) {
+            cache.refresh(entry, expiresAt(response));
+            stats.revalidatedHit(cached.length);
+            writeResponse(out, 200, entry.getHeaders(), cached, keepAlive);
+            return;
+        }
+
+        stats.miss(response.body().length);
+        if (isCacheable(response)) {
+            Map<String, String> stored = new LinkedHashMap<>();
+            for (String name : CACHED_HEADERS) {
+                response.headers().firstValue(name).ifPresent(value -> stored.put(name, value));
+            }
+            cache.put(url, response.body(), stored, expiresAt(response));
+        }
+        writeResponse(out, response.statusCode(), responseHeaders(response), response.body(), keepAlive);
+    }
+
+    private HttpResponse<byte[]> forward(String method, URI uri, Map<String, String> headers, byte[] body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!SKIPPED_REQUEST_HEADERS.contains(header.getKey())) {
+                try {
+                    request.header(header.getKey(), header.getValue());
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Dropping restricted request header: " + header.getKey());
+                }
+            }
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Check whether a request targets a static asset, judged by the path extension
+     * @param uri request URI
+     * @return true if the asset may be served from the cache
+     */
+    static boolean isStatic(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath().toLowerCase(Locale.ROOT);
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') && STATIC_EXTENSIONS.contains(path.substring(dot + 1));
+    }
+
+    /**
+     * Get the cache key of a static request. Responses may only vary by Accept-Encoding (see
+     * isCacheable), so the requested encodings are part of the key: a gzip body is never replayed
+     * to a client that did not ask for it.
+     * @param uri request URI
+     * @param headers request headers, names in lower case
+     * @return cache key
+     */
+    static String cacheKey(URI uri, Map<String, String> headers) {
+        String encodings = headers.getOrDefault("accept-encoding", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        return encodings.isEmpty() ? uri.toString() : uri + " " + encodings;
+    }
+
+    private static boolean isCacheable(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200 || response.headers().firstValue("Set-Cookie").isPresent()) {
+            return false;
+        }
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("").toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return false;
+        }
+        String vary = response.headers().firstValue("Vary").orElse("").toLowerCase(Locale.ROOT);
+        return vary.isEmpty() || vary.replace("accept-encoding", "").replace(",", "").trim().isEmpty();
+    }
+
+    private long expiresAt(HttpResponse<byte[]> response) {
+        long now = System.currentTimeMillis();
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("").toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-cache")) {
+            return now;
+        }
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        if (maxAge.find()) {
+            return now + Long.parseLong(maxAge.group(1)) * 1000;
+        }
+        String expires = response.headers().firstValue("Expires").orElse(null);
+        if (expires != null) {
+            try {
+                return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return now;
+            }
+        }
+        return now + defaultTtlMs;
+    }
+
+    private static Map<String, String> responseHeaders(HttpResponse<byte[]> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!SKIPPED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, String.join(name.equalsIgnoreCase("Set-Cookie") ? "\n" : ", ", values));
+            }
+        });
+        return headers;
+    }
+
+    private void tunnel(String target, Socket client, InputStream clientIn, OutputStream clientOut) throws IOException {
+        int colon = target.lastIndexOf(':');
+        String host = colon < 0 ? target : target.substring(0, colon);
+        int port;
+        try {
+            port = colon < 0 ? 443 : Integer.parseInt(target.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            writeResponse(clientOut, 400, Map.of(), new byte[0], false);
+            return;
+        }
+        try (Socket upstream = new Socket(host, port)) {
+            stats.tunnel();
+            clientOut.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            clientOut.flush();
+            Thread upload = new Thread(() -> pump(clientIn, upstream), "caching-proxy-tunnel");
+            upload.setDaemon(true);
+            upload.start();
+            pump(upstream.getInputStream(), client);
+            upload.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            writeResponse(clientOut, 502, Map.of(), new byte[0], false);
+        }
+    }
+
+    private static void pump(InputStream in, Socket destination) {
+        byte[] buffer = new byte[16 * 1024];
+        try {
+            OutputStream out = destination.getOutputStream();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            destination.shutdownOutput();
+        } catch (IOException e) {
+            logger.debug("Tunnel closed: " + e.getMessage());
+        }
+    }
+
+    private static void writeResponse(OutputStream out, int status, Map<String, String> headers, byte[] body,
+                                      boolean keepAlive) throws IOException {
+        writeResponse(out, status, headers, body, keepAlive, false);
+    }
+
+    private static void writeResponse(OutputStream out, int status, Map<String, String> headers, byte[] body,
+                                      boolean keepAlive, boolean headOnly) throws IOException {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(" ").append(reason(status)).append("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            for (String value : header.getValue().split("\n")) {
+                head.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        boolean noBody = headOnly || status == 204 || status == 304;
+        if (!noBody) {
+            head.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (!noBody) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 204: return "No Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 502: return "Bad Gateway";
+            default: return "Status";
+        }
+    }
+
+    private static Map<String, String> readHeaders(InputStream in) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.merge(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim(),
+                        (first, second) -> first + ", " + second);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Read a request body framed by Content-Length or chunked transfer encoding
+     * @return body bytes, or null if the length or a chunk size is not a valid number
+     */
+    private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String sizeLine = readLine(in);
+                int size = sizeLine == null ? 0 : parseLength(sizeLine.split(";")[0].trim(), 16);
+                if (size < 0) {
+                    return null;
+                }
+                if (size == 0) {
+                    readHeaders(in);
+                    return body.toByteArray();
+                }
+                body.write(in.readNBytes(size));
+                readLine(in);
+            }
+        }
+        int length = parseLength(headers.getOrDefault("content-length", "0").trim(), 10);
+        return length < 0 ? null : in.readNBytes(length);
+    }
+
+    private static int parseLength(String value, int radix) {
+        try {
+            return Integer.parseInt(value, radix);
+        } catch (NumberFormatException e) {
+            logger.debug("Invalid body length: " + value);
+            return -1;
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.kiboassessment.proxy;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the caching proxy
+ */
+public class ProxyStats {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidatedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong passThrough = new AtomicLong();
+    private final AtomicLong tunnels = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong bytesFetched = new AtomicLong();
+
+    void hit(long bytes) {
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(bytes);
+    }
+
+    void revalidatedHit(long bytes) {
+        revalidatedHits.incrementAndGet();
+        bytesSaved.addAndGet(bytes);
+    }
+
+    void miss(long bytes) {
+        misses.incrementAndGet();
+        bytesFetched.addAndGet(bytes);
+    }
+
+    void passThrough(long bytes) {
+        passThrough.incrementAndGet();
+        bytesFetched.addAndGet(bytes);
+    }
+
+    void tunnel() {
+        tunnels.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRevalidatedHits() {
+        return revalidatedHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getPassThrough() {
+        return passThrough.get();
+    }
+
+    public long getTunnels() {
+        return tunnels.get();
+    }
+
+    /**
+     * Get bytes served from the cache instead of the upstream server
+     * @return bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public long getBytesFetched() {
+        return bytesFetched.get();
+    }
+
+    /**
+     * Get fraction of cacheable requests served from the cache, including revalidated ones
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long served = getHits() + getRevalidatedHits();
+        long total = served + getMisses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    /**
+     * Get counters as a map
+     * @return counter values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", getHits());
+        stats.put("revalidatedHits", getRevalidatedHits());
+        stats.put("misses", getMisses());
+        stats.put("hitRate", getHitRate());
+        stats.put("passThrough", getPassThrough());
+        stats.put("httpsTunnels", getTunnels());
+        stats.put("bytesSaved", getBytesSaved());
+        stats.put("bytesFetched", getBytesFetched());
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "hit rate %.1f%% (%d hits, %d revalidated, %d misses), %d passed through, "
+                        + "%d HTTPS tunnels, %.1f KB saved, %.1f KB fetched", getHitRate() * 100, getHits(), getRevalidatedHits(),
+                getMisses(), getPassThrough(), getTunnels(), getBytesSaved() / 1024.0, getBytesFetched() / 1024.0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kiboassessment.replay;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One recorded HTTP response, stored in the form the DevTools Fetch domain fulfills requests with
+ */
+public class ArchivedResponse {
+    private String method;
+    private String url;
+    private int status;
+    private List<Map<String, String>> headers = new ArrayList<>();
+    private String body = "";
+
+    public ArchivedResponse() {
+    }
+
+    /**
+     * Create archived response
+     * @param method request method
+     * @param url request URL
+     * @param status response status code
+     * @param headers response headers as name/value entries, so repeated headers such as Set-Cookie are kept
+     * @param body base64 encoded response body
+     */
+    public ArchivedResponse(String method, String url, int status, List<Map<String, String>> headers, String body) {
+        this.method = method;
+        this.url = url;
+        this.status = status;
+        for (Map<String, String> header : headers) {
+            Map<String, String> entry = new LinkedHashMap<>();
+            entry.put("name", header.get("name"));
+            entry.put("value", header.get("value"));
+            this.headers.add(entry);
+        }
+        this.body = body == null ? "" : body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public List<Map<String, String>> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(List<Map<String, String>> headers) {
+        this.headers = headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
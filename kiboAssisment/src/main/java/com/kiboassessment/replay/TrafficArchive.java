@@ -0,0 +1,207 @@
+package com.kiboassessment.replay;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Responses recorded during a passing run, matched to the requests of a replayed run.
+ * Requests are matched on method, origin, path and query; ignored query parameters and values that
+ * look generated (timestamps, cache busters, long tokens) do not take part. Repeated requests for the
+ * same key are answered in recorded order, so stateful pages such as the cart replay their progression.
+ */
+public class TrafficArchive {
+    private static final Logger logger = LogManager.getLogger(TrafficArchive.class);
+    private static final Pattern DYNAMIC_VALUE = Pattern.compile("\\d{10,}|[A-Za-z0-9_\\-]{24,}");
+
+    private final Set<String> ignoredParameters;
+    private final List<ArchivedResponse> responses = new ArrayList<>();
+    private final Map<String, List<ArchivedResponse>> byKey = new HashMap<>();
+    private final Map<String, List<ArchivedResponse>> byPath = new HashMap<>();
+    private final Map<String, Integer> served = new HashMap<>();
+    private final List<String> unmatched = new ArrayList<>();
+    private int exactMatches;
+    private int looseMatches;
+
+    /**
+     * Create empty archive
+     * @param ignoredParameters query parameter names excluded from matching
+     */
+    public TrafficArchive(Set<String> ignoredParameters) {
+        this.ignoredParameters = ignoredParameters;
+    }
+
+    /**
+     * Load archive from a file written by {@link #save(File)}
+     * @param file archive file
+     * @param ignoredParameters query parameter names excluded from matching
+     * @return archive
+     */
+    public static TrafficArchive load(File file, Set<String> ignoredParameters) {
+        TrafficArchive archive = new TrafficArchive(ignoredParameters);
+        try {
+            List<ArchivedResponse> loaded = new ObjectMapper().readValue(file, new TypeReference<List<ArchivedResponse>>() { });
+            loaded.forEach(archive::add);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load traffic archive: " + file, e);
+        }
+        logger.info("Loaded traffic archive with " + archive.size() + " responses: " + file);
+        return archive;
+    }
+
+    /**
+     * Append a recorded response
+     * @param response recorded response
+     */
+    public synchronized void add(ArchivedResponse response) {
+        responses.add(response);
+        byKey.computeIfAbsent(key(response.getMethod(), response.getUrl()), k -> new ArrayList<>()).add(response);
+        byPath.computeIfAbsent(pathKey(response.getMethod(), response.getUrl()), k -> new ArrayList<>()).add(response);
+    }
+
+    /**
+     * Find the response for a replayed request. Falls back to a response for the same path with a
+     * different query; requests without any recorded response are listed as unmatched.
+     * @param method request method
+     * @param url request URL
+     * @return response, or null if the archive has none
+     */
+    public synchronized ArchivedResponse match(String method, String url) {
+        String key = key(method, url);
+        List<ArchivedResponse> candidates = byKey.get(key);
+        if (candidates != null) {
+            exactMatches++;
+        } else {
+            key = "path:" + pathKey(method, url);
+            candidates = byPath.get(pathKey(method, url));
+            if (candidates == null) {
+                unmatched.add(method + " " + url);
+                return null;
+            }
+            looseMatches++;
+        }
+        int index = served.merge(key, 1, Integer::sum) - 1;
+        return candidates.get(Math.min(index, candidates.size() - 1));
+    }
+
+    /**
+     * List a replayed request as unmatched, e.g. when its recorded response could not be served
+     * @param method request method
+     * @param url request URL
+     */
+    synchronized void addUnmatched(String method, String url) {
+        unmatched.add(method + " " + url);
+    }
+
+    /**
+     * Append the responses of another archive after the responses of this one
+     * @param other archive, e.g. the recording of one browser session
+     */
+    public void addAll(TrafficArchive other) {
+        List<ArchivedResponse> added;
+        synchronized (other) {
+            added = new ArrayList<>(other.responses);
+        }
+        added.forEach(this::add);
+    }
+
+    /**
+     * Write archive as JSON
+     * @param file target file
+     */
+    public synchronized void save(File file) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, responses);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write traffic archive: " + file, e);
+        }
+        logger.info("Traffic archive saved with " + responses.size() + " responses: " + file);
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized int getExactMatches() {
+        return exactMatches;
+    }
+
+    /**
+     * Get number of requests answered by a response recorded with a different query
+     * @return loose matches
+     */
+    public synchronized int getLooseMatches() {
+        return looseMatches;
+    }
+
+    /**
+     * Get requests that had no recorded response
+     * @return "METHOD url" entries in request order
+     */
+    public synchronized List<String> getUnmatched() {
+        return Collections.unmodifiableList(new ArrayList<>(unmatched));
+    }
+
+    /**
+     * Build the matching key of a request
+     * @param method request method
+     * @param url request URL
+     * @return key with the query sorted and dynamic parameters left out
+     */
+    String key(String method, String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return method.toUpperCase() + " " + url;
+        }
+        Map<String, List<String>> query = new TreeMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String pair : uri.getRawQuery().split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                if (name.isEmpty() || ignoredParameters.contains(name)) {
+                    continue;
+                }
+                query.computeIfAbsent(name, k -> new ArrayList<>()).add(DYNAMIC_VALUE.matcher(value).matches() ? "*" : value);
+            }
+        }
+        return pathKey(method, url) + (query.isEmpty() ? "" : "?" + query);
+    }
+
+    private static String pathKey(String method, String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return method.toUpperCase() + " " + url;
+        }
+        return method.toUpperCase() + " " + uri.getScheme() + "://" + uri.getRawAuthority()
+                + (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+    }
+
+    private static URI parse(String url) {
+        try {
+            URI uri = new URI(url);
+            return uri.getScheme() == null ? null : uri;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
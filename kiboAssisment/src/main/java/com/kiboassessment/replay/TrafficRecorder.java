@@ -0,0 +1,115 @@
+package com.kiboassessment.replay;
+
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every response a browser session receives into a traffic archive, using DevTools Fetch
+ * interception at the response stage
+ */
+public class TrafficRecorder {
+    private static final Logger logger = LogManager.getLogger(TrafficRecorder.class);
+    // Bodies are stored decoded, so the transfer framing of the original response must not be replayed
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private final DevTools devTools;
+    private final TrafficArchive archive;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Create recorder
+     * @param devTools DevTools connection of the session
+     * @param archive archive receiving the responses
+     */
+    public TrafficRecorder(DevTools devTools, TrafficArchive archive) {
+        this.devTools = devTools;
+        this.archive = archive;
+    }
+
+    /**
+     * Start intercepting responses
+     */
+    public void start() {
+        DevToolsUtil.send(devTools, "Fetch.enable",
+                Map.of("patterns", List.of(Map.of("urlPattern", "*", "requestStage", "Response"))));
+        // Paused requests are handled off the listener thread, which must stay free to deliver command results
+        DevToolsUtil.listen(devTools, "Fetch.requestPaused", params -> executor.execute(() -> onResponsePaused(params)));
+        logger.info("Traffic recording started");
+    }
+
+    /**
+     * Archive a paused response and let it continue to the page
+     * @param params Fetch.requestPaused event parameters
+     */
+    @SuppressWarnings("unchecked")
+    void onResponsePaused(Map<String, Object> params) {
+        String requestId = (String) params.get("requestId");
+        try {
+            Object status = params.get("responseStatusCode");
+            if (status instanceof Number && params.get("responseErrorReason") == null) {
+                int code = ((Number) status).intValue();
+                List<Map<String, String>> headers = new ArrayList<>();
+                Object rawHeaders = params.get("responseHeaders");
+                if (rawHeaders instanceof List) {
+                    for (Map<String, String> header : (List<Map<String, String>>) rawHeaders) {
+                        if (!DROPPED_HEADERS.contains(String.valueOf(header.get("name")).toLowerCase())) {
+                            headers.add(header);
+                        }
+                    }
+                }
+                String body = code >= 300 && code < 400 ? "" : fetchBody(requestId);
+                archive.add(new ArchivedResponse((String) DevToolsUtil.get(params, "request", "method"),
+                        (String) DevToolsUtil.get(params, "request", "url"), code, headers, body));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record response for " + DevToolsUtil.get(params, "request", "url") + ": " + e.getMessage());
+        } finally {
+            try {
+                DevToolsUtil.send(devTools, "Fetch.continueRequest", Map.of("requestId", requestId));
+            } catch (RuntimeException e) {
+                logger.debug("Paused request no longer available: " + requestId);
+            }
+        }
+    }
+
+    private String fetchBody(String requestId) {
+        Map<String, Object> result = DevToolsUtil.send(devTools, "Fetch.getResponseBody", Map.of("requestId", requestId));
+        String body = result.get("body") == null ? "" : (String) result.get("body");
+        if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+            return body;
+        }
+        return Base64.getEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stop intercepting
+     * @return archive with the recorded responses
+     */
+    public TrafficArchive stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            DevToolsUtil.send(devTools, "Fetch.disable", Map.of());
+        } catch (RuntimeException e) {
+            logger.debug("Fetch domain already closed: " + e.getMessage());
+        }
+        logger.info("Traffic recording stopped, " + archive.size() + " responses recorded");
+        return archive;
+    }
+}
@@ -0,0 +1,174 @@
+package com.kiboassessment.replay;
+
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-traffic record/replay for deterministic offline runs (replay.mode). In record mode every response
+ * of the run's Chrome/Edge sessions is archived, and the sessions together are written to
+ * replay.archive.path if no test of the run failed or was retried; in replay mode the session is served
+ * entirely from that archive and unmatched requests are reported.
+ */
+public class TrafficReplay {
+    private static final Logger logger = LogManager.getLogger(TrafficReplay.class);
+    private static final ThreadLocal<TrafficRecorder> recorder = new ThreadLocal<>();
+    private static final ThreadLocal<TrafficReplayer> replayer = new ThreadLocal<>();
+    private static TrafficArchive recording;
+    private static boolean recordingFailed;
+    private static final List<String> unmatched = new ArrayList<>();
+    private static int replayedSessions;
+    private static int exactMatches;
+    private static int looseMatches;
+
+    /**
+     * Get configured mode
+     * @return "off", "record" or "replay"
+     */
+    public static String getMode() {
+        return ConfigReader.getProperty("replay.mode", "off").toLowerCase();
+    }
+
+    public static boolean isRecording() {
+        return getMode().equals("record");
+    }
+
+    public static boolean isReplaying() {
+        return getMode().equals("replay");
+    }
+
+    /**
+     * Start recording or replaying the session on the current thread
+     * @param driver WebDriver instance
+     */
+    public static void start(WebDriver driver) {
+        if (!isRecording() && !isReplaying()) {
+            return;
+        }
+        if (!DevToolsUtil.isSupported(driver)) {
+            throw new IllegalStateException("replay.mode=" + getMode() + " needs DevTools, not available for "
+                    + driver.getClass().getSimpleName());
+        }
+        if (isRecording()) {
+            TrafficRecorder trafficRecorder = new TrafficRecorder(DevToolsUtil.getDevTools(driver), new TrafficArchive(getIgnoredParameters()));
+            trafficRecorder.start();
+            recorder.set(trafficRecorder);
+        } else {
+            File archive = getArchiveFile();
+            if (!archive.exists()) {
+                throw new IllegalStateException("Traffic archive not found, record it first with replay.mode=record: " + archive);
+            }
+            TrafficReplayer trafficReplayer = new TrafficReplayer(DevToolsUtil.getDevTools(driver),
+                    TrafficArchive.load(archive, getIgnoredParameters()));
+            trafficReplayer.start();
+            replayer.set(trafficReplayer);
+        }
+    }
+
+    /**
+     * Mark the recording of this run as failed, so it is not saved. The mark stays for the whole run:
+     * a retried test resumes in a new session that skips the stages before its checkpoint, so none of
+     * the run's sessions is a complete recording.
+     */
+    public static synchronized void markFailed() {
+        if (isRecording() && !recordingFailed) {
+            recordingFailed = true;
+            logger.warn("A test failed or was retried, traffic archive of this run will not be saved");
+        }
+    }
+
+    /**
+     * Stop recording or replaying the session on the current thread
+     */
+    public static void finish() {
+        TrafficRecorder trafficRecorder = recorder.get();
+        if (trafficRecorder != null) {
+            recorder.remove();
+            TrafficArchive archive = trafficRecorder.stop();
+            synchronized (TrafficReplay.class) {
+                if (recording == null) {
+                    recording = new TrafficArchive(getIgnoredParameters());
+                }
+                recording.addAll(archive);
+            }
+        }
+        TrafficReplayer trafficReplayer = replayer.get();
+        if (trafficReplayer != null) {
+            replayer.remove();
+            TrafficArchive archive = trafficReplayer.stop();
+            synchronized (TrafficReplay.class) {
+                replayedSessions++;
+                exactMatches += archive.getExactMatches();
+                looseMatches += archive.getLooseMatches();
+                unmatched.addAll(archive.getUnmatched());
+            }
+        }
+    }
+
+    /**
+     * Write the sessions recorded so far in this run to replay.archive.path, replacing the previous
+     * recording, unless a test of the run failed or was retried
+     */
+    public static synchronized void saveRecording() {
+        if (recording == null) {
+            return;
+        }
+        if (recordingFailed) {
+            logger.warn("Run had failing or retried tests, traffic archive not saved: " + getArchiveFile());
+            return;
+        }
+        recording.save(getArchiveFile());
+    }
+
+    /**
+     * Get requests of finished replay sessions that had no recorded response
+     * @return "METHOD url" entries
+     */
+    public static synchronized List<String> getUnmatched() {
+        return new ArrayList<>(unmatched);
+    }
+
+    /**
+     * Build report of the finished replay sessions
+     * @return HTML summary with the unmatched requests, or null if nothing was replayed
+     */
+    public static synchronized String getReport() {
+        if (replayedSessions == 0) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder("Replayed ").append(replayedSessions).append(" session(s) from ")
+                .append(getArchiveFile()).append(": ").append(exactMatches).append(" exact matches, ")
+                .append(looseMatches).append(" matched ignoring query, ").append(unmatched.size()).append(" unmatched");
+        if (!unmatched.isEmpty()) {
+            html.append("<table><tr><th>Unmatched request</th></tr>");
+            for (String request : unmatched) {
+                html.append("<tr><td>").append(request.replace("&", "&amp;").replace("<", "&lt;")).append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+        return html.toString();
+    }
+
+    private static File getArchiveFile() {
+        return new File(ConfigReader.getProperty("replay.archive.path", "src/test/resources/traffic/archive.json"));
+    }
+
+    private static Set<String> getIgnoredParameters() {
+        Set<String> names = new HashSet<>();
+        for (String name : Arrays.asList(ConfigReader.getProperty("replay.ignore.params", "").split(","))) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,115 @@
+package com.kiboassessment.replay;
+
+import com.kiboassessment.utils.DevToolsUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Serves every request of a browser session from a traffic archive, using DevTools Fetch interception
+ * at the request stage. Requests without a recorded response fail as if the network were down.
+ */
+public class TrafficReplayer {
+    private static final Logger logger = LogManager.getLogger(TrafficReplayer.class);
+
+    private final DevTools devTools;
+    private final TrafficArchive archive;
+    private final BiConsumer<String, Map<String, Object>> send;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Create replayer
+     * @param devTools DevTools connection of the session
+     * @param archive archive to serve responses from
+     */
+    public TrafficReplayer(DevTools devTools, TrafficArchive archive) {
+        this.devTools = devTools;
+        this.archive = archive;
+        this.send = (method, params) -> DevToolsUtil.send(devTools, method, params);
+    }
+
+    /**
+     * Create replayer answering paused requests passed to onRequestPaused through the given commands
+     * @param archive archive to serve responses from
+     * @param send sends a Fetch command with its parameters
+     */
+    public TrafficReplayer(TrafficArchive archive, BiConsumer<String, Map<String, Object>> send) {
+        this.devTools = null;
+        this.archive = archive;
+        this.send = send;
+    }
+
+    /**
+     * Start intercepting requests
+     */
+    public void start() {
+        if (devTools == null) {
+            throw new IllegalStateException("Traffic replay needs a DevTools session to listen to");
+        }
+        send.accept("Fetch.enable", Map.of("patterns", List.of(Map.of("urlPattern", "*"))));
+        DevToolsUtil.listen(devTools, "Fetch.requestPaused", params -> executor.execute(() -> onRequestPaused(params)));
+        logger.info("Traffic replay started from archive with " + archive.size() + " responses");
+    }
+
+    /**
+     * Answer a paused request from the archive. A request that cannot be answered is failed, never
+     * left paused, and listed as unmatched.
+     * @param params Fetch.requestPaused event parameters
+     */
+    public void onRequestPaused(Map<String, Object> params) {
+        String requestId = (String) params.get("requestId");
+        String method = (String) DevToolsUtil.get(params, "request", "method");
+        String url = (String) DevToolsUtil.get(params, "request", "url");
+        try {
+            ArchivedResponse response = archive.match(method, url);
+            if (response == null) {
+                logger.warn("No recorded response for: " + method + " " + url);
+                send.accept("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "InternetDisconnected"));
+                return;
+            }
+            Map<String, Object> fulfill = new LinkedHashMap<>();
+            fulfill.put("requestId", requestId);
+            fulfill.put("responseCode", response.getStatus());
+            fulfill.put("responseHeaders", response.getHeaders());
+            fulfill.put("body", response.getBody());
+            send.accept("Fetch.fulfillRequest", fulfill);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to replay response for " + url + ": " + e.getMessage());
+            archive.addUnmatched(method, url);
+            try {
+                send.accept("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "Failed"));
+            } catch (RuntimeException failError) {
+                logger.warn("Failed to fail paused request " + url + ": " + failError.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop intercepting
+     * @return archive with the match counts of this session
+     */
+    public TrafficArchive stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            send.accept("Fetch.disable", Map.of());
+        } catch (RuntimeException e) {
+            logger.debug("Fetch domain already closed: " + e.getMessage());
+        }
+        logger.info("Traffic replay stopped: " + archive.getExactMatches() + " exact, " + archive.getLooseMatches()
+                + " loose, " + archive.getUnmatched().size() + " unmatched requests");
+        return archive;
+    }
+}
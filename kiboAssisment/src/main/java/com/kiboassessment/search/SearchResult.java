@@ -0,0 +1,124 @@
+package com.kiboassessment.search;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A product of a search results page, read in bulk from the page markup
+ */
+public class SearchResult {
+    private final int page;
+    private final int position;
+    private final String productId;
+    private final String name;
+    private final String url;
+    private final String price;
+    private final Supplier<String> skuLoader;
+    private String sku;
+    private boolean skuLoaded;
+
+    SearchResult(int page, int position, String productId, String name, String url, String price, Supplier<String> skuLoader) {
+        this.page = page;
+        this.position = position;
+        this.productId = productId;
+        this.name = name;
+        this.url = url;
+        this.price = price;
+        this.skuLoader = skuLoader;
+    }
+
+    /**
+     * Products whose name contains the given text
+     * @param text part of the product name
+     * @return predicate
+     */
+    public static Predicate<SearchResult> nameContains(String text) {
+        return result -> result.getName().contains(text);
+    }
+
+    /**
+     * Products whose price lies in the given range
+     * @param min lowest price, inclusive
+     * @param max highest price, inclusive
+     * @return predicate
+     */
+    public static Predicate<SearchResult> priceBetween(double min, double max) {
+        return result -> result.getPriceValue() >= min && result.getPriceValue() <= max;
+    }
+
+    /**
+     * Products with the given SKU. The SKU is not part of the listing, so each product tested
+     * costs one request for its details page.
+     * @param sku product SKU
+     * @return predicate
+     */
+    public static Predicate<SearchResult> skuEquals(String sku) {
+        return result -> sku.equals(result.getSku());
+    }
+
+    /**
+     * Get the results page this product was listed on
+     * @return page number, starting at 1
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Get the position of this product on its page
+     * @return index on the page, starting at 0
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the absolute URL of the product details page
+     * @return product URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    /**
+     * Get the price as a number
+     * @return price, NaN if the listing shows none
+     */
+    public double getPriceValue() {
+        String digits = price.replaceAll("[^0-9.]", "");
+        try {
+            return Double.parseDouble(digits);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Get the SKU from the product details page, fetched on first use
+     * @return SKU, null if the details page shows none
+     */
+    public synchronized String getSku() {
+        if (!skuLoaded) {
+            sku = skuLoader.get();
+            skuLoaded = true;
+        }
+        return sku;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + price + ", page " + page + ")";
+    }
+}
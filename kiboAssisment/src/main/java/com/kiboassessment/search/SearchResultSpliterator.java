@@ -0,0 +1,173 @@
+package com.kiboassessment.search;
+
+import com.kiboassessment.utils.StorefrontClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy traversal of all pages of a search. Each page is parsed in one pass, and the next page is
+ * requested over HTTP as soon as a page is parsed, so it is usually ready when the current one is consumed.
+ */
+public class SearchResultSpliterator implements Spliterator<SearchResult>, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(SearchResultSpliterator.class);
+    private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "search-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final StorefrontClient client;
+    private Iterator<SearchResult> current;
+    private CompletableFuture<Document> next;
+    private int pagesRead;
+
+    /**
+     * Start at a results page already loaded, e.g. from the browser
+     * @param firstPage parsed results page, with its URL as base URI
+     * @param client client for the following pages and product details
+     */
+    public SearchResultSpliterator(Document firstPage, StorefrontClient client) {
+        this.client = client;
+        load(firstPage);
+    }
+
+    /**
+     * Stream all results from the given page on. Close the stream to drop a pending prefetch.
+     * @param firstPage parsed results page, with its URL as base URI
+     * @param client client for the following pages and product details
+     * @return ordered stream of results
+     */
+    public static Stream<SearchResult> stream(Document firstPage, StorefrontClient client) {
+        SearchResultSpliterator spliterator = new SearchResultSpliterator(firstPage, client);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Read all products of a results page
+     * @param page parsed results page
+     * @param pageNumber number of the page
+     * @param client client to fetch SKUs with, or null if they are not needed
+     * @return products in page order
+     */
+    public static List<SearchResult> parse(Document page, int pageNumber, StorefrontClient client) {
+        List<SearchResult> results = new ArrayList<>();
+        for (Element item : page.select(".product-item")) {
+            Element title = item.selectFirst(".product-title a");
+            Element price = item.selectFirst(".prices .actual-price");
+            String url = title == null ? "" : title.absUrl("href");
+            results.add(new SearchResult(pageNumber, results.size(), item.attr("data-productid"),
+                    title == null ? item.select(".product-title").text() : title.text(), url,
+                    price == null ? "" : price.text(), () -> client == null ? null : fetchSku(client, url)));
+        }
+        return results;
+    }
+
+    /**
+     * Get the link to the page after the given one
+     * @param page parsed results page
+     * @return absolute URL, null on the last page
+     */
+    public static String nextPageUrl(Document page) {
+        Element next = page.selectFirst(".pager .next-page a");
+        return next == null ? null : next.absUrl("href");
+    }
+
+    /**
+     * Get number of result pages parsed so far
+     * @return page count
+     */
+    public int getPagesRead() {
+        return pagesRead;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SearchResult> action) {
+        while (!current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            load(await(next));
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<SearchResult> trySplit() {
+        // Pages arrive one after another, so there is nothing to hand to another thread
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Drop the prefetched page, if any
+     */
+    @Override
+    public void close() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    private void load(Document page) {
+        pagesRead++;
+        current = parse(page, pagesRead, client).iterator();
+        String nextUrl = nextPageUrl(page);
+        next = nextUrl == null ? null : CompletableFuture.supplyAsync(() -> fetch(nextUrl), PREFETCH);
+        logger.info("Read search results page " + pagesRead + (nextUrl == null ? " (last)" : ", prefetching " + nextUrl));
+    }
+
+    private Document fetch(String url) {
+        HttpResponse<String> response = client.get(pathOf(url));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Search results page returned HTTP " + response.statusCode() + ": " + url);
+        }
+        return Jsoup.parse(response.body(), url);
+    }
+
+    private static Document await(CompletableFuture<Document> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to fetch search results page", e.getCause());
+        }
+    }
+
+    private static String fetchSku(StorefrontClient client, String url) {
+        HttpResponse<String> response = client.get(pathOf(url));
+        Element sku = Jsoup.parse(response.body(), url).selectFirst(".sku .value");
+        return sku == null ? null : sku.text().trim();
+    }
+
+    private static String pathOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+}
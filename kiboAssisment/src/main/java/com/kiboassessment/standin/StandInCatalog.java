@@ -0,0 +1,255 @@
+package com.kiboassessment.standin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fixed product catalog, countries and states served by the stand-in storefront
+ */
+public class StandInCatalog {
+
+    /**
+     * Catalog product
+     */
+    public static class Product {
+        private final int id;
+        private final String name;
+        private final String seName;
+        private final String sku;
+        private final double price;
+        private final boolean hasAttributes;
+
+        public Product(int id, String name, String seName, String sku, double price, boolean hasAttributes) {
+            this.id = id;
+            this.name = name;
+            this.seName = seName;
+            this.sku = sku;
+            this.price = price;
+            this.hasAttributes = hasAttributes;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSeName() {
+            return seName;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * Products with attributes cannot be added from the catalog grid and redirect to their details page
+         * @return true if the product has required attributes
+         */
+        public boolean hasAttributes() {
+            return hasAttributes;
+        }
+    }
+
+    /**
+     * Catalog category listing products by id
+     */
+    public static class Category {
+        private final String name;
+        private final String seName;
+        private final List<Integer> productIds;
+
+        public Category(String name, String seName, List<Integer> productIds) {
+            this.name = name;
+            this.seName = seName;
+            this.productIds = productIds;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSeName() {
+            return seName;
+        }
+
+        public List<Integer> getProductIds() {
+            return productIds;
+        }
+    }
+
+    private final Map<Integer, Product> products = new LinkedHashMap<>();
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<Integer, String> countries = new LinkedHashMap<>();
+    private final Map<Integer, Map<Integer, String>> states = new LinkedHashMap<>();
+    private final Map<String, Double> shippingMethods = new LinkedHashMap<>();
+    private final List<String> paymentMethods = new ArrayList<>();
+
+    public StandInCatalog() {
+        add(new Product(72, "Build your own cheap computer", "build-your-cheap-own-computer", "CMP-72", 800.00, true));
+        add(new Product(74, "Build your own expensive computer", "build-your-own-expensive-computer", "CMP-74", 1800.00, true));
+        add(new Product(75, "Simple Computer", "simple-computer", "CMP-75", 800.00, true));
+        add(new Product(31, "14.1-inch Laptop", "141-inch-laptop", "LPT-31", 1590.00, false));
+        add(new Product(16, "Computing and Internet", "computing-and-internet", "BK-16", 10.00, false));
+        add(new Product(43, "Smartphone", "smartphone", "PHN-43", 100.00, false));
+        add(new Product(45, "Fiction", "fiction", "BK-45", 24.00, false));
+        add(new Product(22, "Health Book", "health", "BK-22", 10.00, false));
+
+        categories.add(new Category("Books", "books", List.of(16, 45, 22)));
+        categories.add(new Category("Computers", "computers", List.of(72, 74, 75, 31)));
+        categories.add(new Category("Cell phones", "cell-phones", List.of(43)));
+
+        countries.put(1, "United States");
+        countries.put(2, "Canada");
+
+        Map<Integer, String> usStates = new LinkedHashMap<>();
+        usStates.put(12, "California");
+        usStates.put(39, "New York");
+        usStates.put(51, "Texas");
+        usStates.put(58, "Washington");
+        states.put(1, usStates);
+
+        Map<Integer, String> canadaStates = new LinkedHashMap<>();
+        canadaStates.put(66, "Ontario");
+        canadaStates.put(71, "Quebec");
+        states.put(2, canadaStates);
+
+        shippingMethods.put("Ground", 0.00);
+        shippingMethods.put("Next Day Air", 20.00);
+        shippingMethods.put("2nd Day Air", 10.00);
+        paymentMethods.add("Check / Money Order");
+        paymentMethods.add("Credit Card");
+    }
+
+    private void add(Product product) {
+        products.put(product.getId(), product);
+    }
+
+    /**
+     * Get all products in catalog order
+     * @return list of products
+     */
+    public List<Product> getProducts() {
+        return new ArrayList<>(products.values());
+    }
+
+    /**
+     * Get categories in menu order
+     * @return list of categories
+     */
+    public List<Category> getCategories() {
+        return Collections.unmodifiableList(categories);
+    }
+
+    /**
+     * Get category by its search engine friendly name
+     * @param seName URL slug
+     * @return category, or null if unknown
+     */
+    public Category getCategoryBySeName(String seName) {
+        for (Category category : categories) {
+            if (category.getSeName().equals(seName)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the products of a category in listing order
+     * @param category category
+     * @return list of products
+     */
+    public List<Product> getProducts(Category category) {
+        List<Product> result = new ArrayList<>();
+        for (int id : category.getProductIds()) {
+            result.add(products.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Get product by id
+     * @param id product id
+     * @return product, or null if unknown
+     */
+    public Product getProduct(int id) {
+        return products.get(id);
+    }
+
+    /**
+     * Get product by its search engine friendly name
+     * @param seName URL slug
+     * @return product, or null if unknown
+     */
+    public Product getProductBySeName(String seName) {
+        for (Product product : products.values()) {
+            if (product.getSeName().equals(seName)) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Search products by case-insensitive name match
+     * @param term search term
+     * @return matching products
+     */
+    public List<Product> search(String term) {
+        List<Product> result = new ArrayList<>();
+        if (term == null || term.trim().isEmpty()) {
+            return result;
+        }
+        String needle = term.trim().toLowerCase(Locale.ROOT);
+        for (Product product : products.values()) {
+            if (product.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get countries by id
+     * @return country names by id
+     */
+    public Map<Integer, String> getCountries() {
+        return Collections.unmodifiableMap(countries);
+    }
+
+    /**
+     * Get states of a country by id
+     * @param countryId country id
+     * @return state names by id
+     */
+    public Map<Integer, String> getStates(int countryId) {
+        return Collections.unmodifiableMap(states.getOrDefault(countryId, Collections.emptyMap()));
+    }
+
+    /**
+     * Get shipping methods of the one-page checkout, in option order (shippingoption_0, _1, ...)
+     * @return shipping rates by method name
+     */
+    public Map<String, Double> getShippingMethods() {
+        return Collections.unmodifiableMap(shippingMethods);
+    }
+
+    /**
+     * Get payment methods of the one-page checkout, in option order (paymentmethod_0, _1, ...)
+     * @return payment method names
+     */
+    public List<String> getPaymentMethods() {
+        return Collections.unmodifiableList(paymentMethods);
+    }
+}
@@ -0,0 +1,203 @@
+package com.kiboassessment.standin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side state of one stand-in customer (guest or registered)
+ */
+public class StandInCustomer {
+
+    /**
+     * Shopping cart line
+     */
+    public static class CartLine {
+        private final int id;
+        private final StandInCatalog.Product product;
+        private int quantity;
+
+        public CartLine(int id, StandInCatalog.Product product, int quantity) {
+            this.id = id;
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public StandInCatalog.Product getProduct() {
+            return product;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public double getSubtotal() {
+            return product.getPrice() * quantity;
+        }
+    }
+
+    private final String email;
+    private final String password;
+    private final Map<Integer, CartLine> cart = new LinkedHashMap<>();
+    private final List<Map<String, String>> addresses = new ArrayList<>();
+    private final List<StandInOrder> orders = new ArrayList<>();
+    private Map<String, String> checkoutBillingAddress;
+    private Map<String, String> checkoutShippingAddress;
+    private String checkoutShippingMethod;
+    private String checkoutPaymentMethod;
+
+    /**
+     * Create a guest customer
+     */
+    public StandInCustomer() {
+        this(null, null);
+    }
+
+    /**
+     * Create a registered customer
+     * @param email login email
+     * @param password login password
+     */
+    public StandInCustomer(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isGuest() {
+        return email == null;
+    }
+
+    public boolean checkPassword(String candidate) {
+        return password != null && password.equals(candidate);
+    }
+
+    /**
+     * Add product to cart, merging with an existing line for the same product
+     * @param lineId id to use if a new line is created
+     * @param product product to add
+     * @param quantity quantity to add
+     */
+    public synchronized void addToCart(int lineId, StandInCatalog.Product product, int quantity) {
+        for (CartLine line : cart.values()) {
+            if (line.getProduct().getId() == product.getId()) {
+                line.quantity += quantity;
+                return;
+            }
+        }
+        cart.put(lineId, new CartLine(lineId, product, quantity));
+    }
+
+    /**
+     * Set quantity of a cart line; zero or less removes the line
+     * @param lineId cart line id
+     * @param quantity new quantity
+     */
+    public synchronized void updateQuantity(int lineId, int quantity) {
+        CartLine line = cart.get(lineId);
+        if (line == null) {
+            return;
+        }
+        if (quantity <= 0) {
+            cart.remove(lineId);
+        } else {
+            line.quantity = quantity;
+        }
+    }
+
+    public synchronized void removeFromCart(int lineId) {
+        cart.remove(lineId);
+    }
+
+    public synchronized void clearCart() {
+        cart.clear();
+    }
+
+    public synchronized List<CartLine> getCart() {
+        return new ArrayList<>(cart.values());
+    }
+
+    public synchronized int getCartQuantity() {
+        return cart.values().stream().mapToInt(CartLine::getQuantity).sum();
+    }
+
+    public synchronized double getCartTotal() {
+        return cart.values().stream().mapToDouble(CartLine::getSubtotal).sum();
+    }
+
+    /**
+     * Move all cart lines of another customer into this one (guest cart merge on login)
+     * @param other customer whose cart is merged
+     */
+    public synchronized void mergeCart(StandInCustomer other) {
+        for (CartLine line : other.getCart()) {
+            addToCart(line.getId(), line.getProduct(), line.getQuantity());
+        }
+        other.clearCart();
+    }
+
+    public synchronized void addAddress(Map<String, String> address) {
+        addresses.add(new LinkedHashMap<>(address));
+    }
+
+    public synchronized List<Map<String, String>> getAddresses() {
+        return new ArrayList<>(addresses);
+    }
+
+    public synchronized Map<String, String> getCheckoutBillingAddress() {
+        return checkoutBillingAddress;
+    }
+
+    public synchronized void setCheckoutBillingAddress(Map<String, String> address) {
+        this.checkoutBillingAddress = address;
+    }
+
+    public synchronized Map<String, String> getCheckoutShippingAddress() {
+        return checkoutShippingAddress;
+    }
+
+    public synchronized void setCheckoutShippingAddress(Map<String, String> address) {
+        this.checkoutShippingAddress = address;
+    }
+
+    public synchronized String getCheckoutShippingMethod() {
+        return checkoutShippingMethod;
+    }
+
+    public synchronized void setCheckoutShippingMethod(String shippingMethod) {
+        this.checkoutShippingMethod = shippingMethod;
+    }
+
+    public synchronized String getCheckoutPaymentMethod() {
+        return checkoutPaymentMethod;
+    }
+
+    public synchronized void setCheckoutPaymentMethod(String paymentMethod) {
+        this.checkoutPaymentMethod = paymentMethod;
+    }
+
+    /**
+     * Record a placed order and reset the cart and checkout progress
+     * @param order placed order
+     */
+    public synchronized void addOrder(StandInOrder order) {
+        orders.add(order);
+        cart.clear();
+        checkoutBillingAddress = null;
+        checkoutShippingAddress = null;
+        checkoutShippingMethod = null;
+        checkoutPaymentMethod = null;
+    }
+
+    public synchronized List<StandInOrder> getOrders() {
+        return new ArrayList<>(orders);
+    }
+}
@@ -0,0 +1,77 @@
+package com.kiboassessment.standin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order placed through the stand-in one-page checkout
+ */
+public class StandInOrder {
+    private final int id;
+    private final StandInCustomer customer;
+    private final List<StandInCustomer.CartLine> lines;
+    private final Map<String, String> billingAddress;
+    private final Map<String, String> shippingAddress;
+    private final String shippingMethod;
+    private final double shippingCost;
+    private final String paymentMethod;
+    private final long createdOn = System.currentTimeMillis();
+
+    public StandInOrder(int id, StandInCustomer customer, List<StandInCustomer.CartLine> lines, Map<String, String> billingAddress,
+                        Map<String, String> shippingAddress, String shippingMethod, double shippingCost, String paymentMethod) {
+        this.id = id;
+        this.customer = customer;
+        this.lines = new ArrayList<>(lines);
+        this.billingAddress = new LinkedHashMap<>(billingAddress);
+        this.shippingAddress = new LinkedHashMap<>(shippingAddress);
+        this.shippingMethod = shippingMethod;
+        this.shippingCost = shippingCost;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public StandInCustomer getCustomer() {
+        return customer;
+    }
+
+    public List<StandInCustomer.CartLine> getLines() {
+        return new ArrayList<>(lines);
+    }
+
+    public Map<String, String> getBillingAddress() {
+        return billingAddress;
+    }
+
+    public Map<String, String> getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public String getShippingMethod() {
+        return shippingMethod;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public long getCreatedOn() {
+        return createdOn;
+    }
+
+    public double getSubtotal() {
+        return lines.stream().mapToDouble(StandInCustomer.CartLine::getSubtotal).sum();
+    }
+
+    public double getTotal() {
+        return getSubtotal() + shippingCost;
+    }
+
+    public double getShippingCost() {
+        return shippingCost;
+    }
+}
@@ -0,0 +1,624 @@
+package com.kiboassessment.standin;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTML rendering for the stand-in storefront, using the markup and element ids of Demo Web Shop
+ */
+public class StandInPages {
+    private final StandInCatalog catalog;
+
+    public StandInPages(StandInCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Render the common page layout around page content
+     * @param title page title
+     * @param customer current customer
+     * @param content page body content
+     * @return full HTML document
+     */
+    public String layout(String title, StandInCustomer customer, String content) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"/><title>Demo Web Shop. ")
+                .append(escape(title)).append("</title></head><body><div class=\"master-wrapper-page\">")
+                .append("<div class=\"header\"><div class=\"header-links-wrapper\"><div class=\"header-links\"><ul>");
+        if (customer.isGuest()) {
+            html.append("<li><a href=\"/register\" class=\"ico-register\">Register</a></li>")
+                    .append("<li><a href=\"/login\" class=\"ico-login\">Log in</a></li>");
+        } else {
+            html.append("<li><a href=\"/customer/info\" class=\"account\">").append(escape(customer.getEmail())).append("</a></li>")
+                    .append("<li><a href=\"/logout\" class=\"ico-logout\">Log out</a></li>");
+        }
+        html.append("<li id=\"topcartlink\"><a href=\"/cart\" class=\"ico-cart\"><span class=\"cart-label\">Shopping cart</span>")
+                .append("<span class=\"cart-qty\">(").append(customer.getCartQuantity()).append(")</span></a></li>")
+                .append("</ul></div></div>")
+                .append("<div class=\"search-box\"><form action=\"/search\" method=\"get\">")
+                .append("<input type=\"text\" class=\"search-box-text\" id=\"small-searchterms\" name=\"q\" value=\"\"/>")
+                .append("<input type=\"submit\" class=\"button-1 search-box-button\" value=\"Search\"/>")
+                .append("</form></div></div>")
+                .append("<div class=\"master-wrapper-content\"><div class=\"page\">")
+                .append(content)
+                .append("</div></div></div></body></html>");
+        return html.toString();
+    }
+
+    public String home() {
+        StringBuilder html = new StringBuilder(categoryNavigation())
+                .append("<div class=\"page home-page\"><div class=\"product-grid home-page-product-grid\">");
+        for (StandInCatalog.Product product : catalog.getProducts()) {
+            html.append(productBox(product));
+        }
+        return html.append("</div></div>").toString();
+    }
+
+    public String login(boolean failed) {
+        StringBuilder html = new StringBuilder("<div class=\"page login-page\"><div class=\"page-title\"><h1>Welcome, Please Sign In!</h1></div>");
+        if (failed) {
+            html.append("<div class=\"message-error\"><div class=\"validation-summary-errors\"><span>")
+                    .append("Login was unsuccessful. Please correct the errors and try again.</span></div></div>");
+        }
+        return html.append("<form action=\"/login\" method=\"post\">")
+                .append("<input class=\"email\" id=\"Email\" name=\"Email\" type=\"text\" value=\"\"/>")
+                .append("<input class=\"password\" id=\"Password\" name=\"Password\" type=\"password\"/>")
+                .append("<input id=\"RememberMe\" name=\"RememberMe\" type=\"checkbox\" value=\"true\"/>")
+                .append("<input type=\"submit\" class=\"button-1 login-button\" value=\"Log in\"/>")
+                .append("</form></div>").toString();
+    }
+
+    /**
+     * Render the registration form
+     * @param error validation message to show, null for none
+     * @return page content
+     */
+    public String register(String error) {
+        StringBuilder html = new StringBuilder("<div class=\"page registration-page\"><div class=\"page-title\"><h1>Register</h1></div>");
+        if (error != null) {
+            html.append("<div class=\"message-error\"><div class=\"validation-summary-errors\"><ul><li>")
+                    .append(escape(error)).append("</li></ul></div></div>");
+        }
+        html.append("<form action=\"/register\" method=\"post\">")
+                .append("<input id=\"gender-male\" name=\"Gender\" type=\"radio\" value=\"M\"/>")
+                .append("<input id=\"gender-female\" name=\"Gender\" type=\"radio\" value=\"F\"/>");
+        for (String field : new String[]{"FirstName", "LastName", "Email"}) {
+            html.append("<input class=\"text-box single-line\" id=\"").append(field).append("\" name=\"").append(field)
+                    .append("\" type=\"text\" value=\"\"/>");
+        }
+        return html.append("<input id=\"Password\" name=\"Password\" type=\"password\"/>")
+                .append("<input id=\"ConfirmPassword\" name=\"ConfirmPassword\" type=\"password\"/>")
+                .append("<input type=\"submit\" id=\"register-button\" class=\"button-1 register-next-step-button\" name=\"register-button\" value=\"Register\"/>")
+                .append("</form></div>").toString();
+    }
+
+    /**
+     * Render the page shown after a successful registration
+     * @return page content
+     */
+    public String registerResult() {
+        return "<div class=\"page registration-result-page\"><div class=\"page-title\"><h1>Register</h1></div>"
+                + "<div class=\"page-body\"><div class=\"result\">Your registration completed</div>"
+                + "<div class=\"buttons\"><input type=\"button\" class=\"button-1 register-continue-button\" value=\"Continue\""
+                + " onclick=\"location.href='/'\"/></div></div></div>";
+    }
+
+    public String searchResults(String term, List<StandInCatalog.Product> products) {
+        return searchResults(term, products, 1, 0);
+    }
+
+    /**
+     * Render one page of search results with a pager linking the other pages
+     * @param term search term
+     * @param products all matching products
+     * @param pageNumber page to render, starting at 1
+     * @param pageSize products per page, 0 for a single page
+     * @return page content
+     */
+    public String searchResults(String term, List<StandInCatalog.Product> products, int pageNumber, int pageSize) {
+        int pageCount = pageCount(products.size(), pageSize);
+        int current = Math.min(Math.max(pageNumber, 1), pageCount);
+        StringBuilder html = new StringBuilder("<div class=\"page search-page\"><div class=\"page-title\"><h1>Search</h1></div>")
+                .append("<div class=\"search-input\"><input class=\"search-text\" id=\"Q\" name=\"q\" type=\"text\" value=\"")
+                .append(escape(term)).append("\"/></div><div class=\"search-results\">");
+        if (products.isEmpty()) {
+            html.append("<strong class=\"result no-result\">No products were found that matched your criteria.</strong>");
+        } else {
+            html.append("<div class=\"product-grid\">");
+            for (StandInCatalog.Product product : page(products, current, pageSize)) {
+                html.append(productBox(product));
+            }
+            html.append("</div>");
+            if (pageCount > 1) {
+                html.append(pager("/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8) + "&amp;pagesize=" + pageSize + "&amp;pagenumber=",
+                        current, pageCount));
+            }
+        }
+        return html.append("</div></div>").toString();
+    }
+
+    /**
+     * Render one page of a category listing with a pager linking the other pages
+     * @param category category
+     * @param pageNumber page to render, starting at 1
+     * @param pageSize products per page, 0 for a single page
+     * @return page content
+     */
+    public String category(StandInCatalog.Category category, int pageNumber, int pageSize) {
+        List<StandInCatalog.Product> products = catalog.getProducts(category);
+        int pageCount = pageCount(products.size(), pageSize);
+        int current = Math.min(Math.max(pageNumber, 1), pageCount);
+        StringBuilder html = new StringBuilder(categoryNavigation())
+                .append("<div class=\"page category-page\"><div class=\"page-title\"><h1>").append(escape(category.getName()))
+                .append("</h1></div><div class=\"page-body\"><div class=\"product-grid\">");
+        for (StandInCatalog.Product product : page(products, current, pageSize)) {
+            html.append(productBox(product));
+        }
+        html.append("</div>");
+        if (pageCount > 1) {
+            html.append(pager("/" + category.getSeName() + "?pagesize=" + pageSize + "&amp;pagenumber=", current, pageCount));
+        }
+        return html.append("</div></div>").toString();
+    }
+
+    private String categoryNavigation() {
+        StringBuilder html = new StringBuilder("<div class=\"block block-category-navigation\"><div class=\"title\"><strong>Categories</strong></div>")
+                .append("<div class=\"listbox\"><ul class=\"list\">");
+        for (StandInCatalog.Category category : catalog.getCategories()) {
+            html.append("<li class=\"inactive\"><a href=\"/").append(category.getSeName()).append("\">")
+                    .append(escape(category.getName())).append("</a></li>");
+        }
+        return html.append("</ul></div></div>").toString();
+    }
+
+    private static int pageCount(int size, int pageSize) {
+        return pageSize > 0 ? Math.max(1, (size + pageSize - 1) / pageSize) : 1;
+    }
+
+    private static List<StandInCatalog.Product> page(List<StandInCatalog.Product> products, int current, int pageSize) {
+        if (pageSize <= 0) {
+            return products;
+        }
+        return products.subList(Math.min((current - 1) * pageSize, products.size()), Math.min(current * pageSize, products.size()));
+    }
+
+    private static String pager(String href, int current, int pageCount) {
+        StringBuilder html = new StringBuilder("<div class=\"pager\"><ul>");
+        if (current > 1) {
+            html.append("<li class=\"previous-page\"><a href=\"").append(href).append(current - 1).append("\">Previous</a></li>");
+        }
+        for (int number = 1; number <= pageCount; number++) {
+            html.append(number == current
+                    ? "<li class=\"current-page\"><span>" + number + "</span></li>"
+                    : "<li class=\"individual-page\"><a href=\"" + href + number + "\">" + number + "</a></li>");
+        }
+        if (current < pageCount) {
+            html.append("<li class=\"next-page\"><a href=\"").append(href).append(current + 1).append("\">Next</a></li>");
+        }
+        return html.append("</ul></div>").toString();
+    }
+
+    private String productBox(StandInCatalog.Product product) {
+        return "<div class=\"item-box\"><div class=\"product-item\" data-productid=\"" + product.getId() + "\">"
+                + "<div class=\"details\"><h2 class=\"product-title\"><a href=\"/" + product.getSeName() + "\">"
+                + escape(product.getName()) + "</a></h2>"
+                + "<div class=\"add-info\"><div class=\"prices\"><span class=\"price actual-price\">"
+                + price(product.getPrice()) + "</span></div><div class=\"buttons\">"
+                + "<form method=\"post\" action=\"/addproducttocart/catalog/" + product.getId() + "/1/1\">"
+                + "<input type=\"submit\" value=\"Add to cart\" class=\"button-2 product-box-add-to-cart-button\"/>"
+                + "</form></div></div></div></div></div>";
+    }
+
+    public String product(StandInCatalog.Product product) {
+        StringBuilder html = new StringBuilder("<div class=\"page product-details-page\">")
+                .append("<form action=\"/").append(product.getSeName()).append("\" id=\"product-details-form\" method=\"post\">")
+                .append("<div class=\"product-name\"><h1 itemprop=\"name\">").append(escape(product.getName())).append("</h1></div>")
+                .append("<div class=\"sku\"><span class=\"value\">").append(escape(product.getSku())).append("</span></div>");
+        if (product.hasAttributes()) {
+            String field = "product_attribute_" + product.getId() + "_5_1";
+            html.append("<div class=\"attributes\"><dl><dt><label>Processor</label><span class=\"required\">*</span></dt><dd><ul class=\"option-list\">")
+                    .append("<li><input id=\"").append(field).append("_1\" type=\"radio\" name=\"").append(field)
+                    .append("\" value=\"1\" checked=\"checked\"/><label for=\"").append(field).append("_1\">Fast</label></li>")
+                    .append("<li><input id=\"").append(field).append("_2\" type=\"radio\" name=\"").append(field)
+                    .append("\" value=\"2\"/><label for=\"").append(field).append("_2\">Medium</label></li>")
+                    .append("</ul></dd></dl></div>");
+        }
+        return html.append("<div class=\"product-price\"><span>").append(price(product.getPrice())).append("</span></div>")
+                .append("<div class=\"add-to-cart\"><div class=\"add-to-cart-panel\">")
+                .append("<input class=\"qty-input\" id=\"addtocart_").append(product.getId())
+                .append("_EnteredQuantity\" name=\"addtocart_").append(product.getId()).append(".EnteredQuantity\" type=\"text\" value=\"1\"/>")
+                .append("<input type=\"submit\" id=\"add-to-cart-button-").append(product.getId())
+                .append("\" class=\"button-1 add-to-cart-button\" value=\"Add to cart\" data-productid=\"").append(product.getId())
+                .append("\" formaction=\"/addproducttocart/details/").append(product.getId()).append("/1\"/>")
+                .append("</div></div></form></div>").toString();
+    }
+
+    public String cart(StandInCustomer customer) {
+        return cart(customer, false);
+    }
+
+    /**
+     * Render the cart page
+     * @param customer current customer
+     * @param termsWarning show the terms of service warning of a rejected checkout
+     * @return page content
+     */
+    public String cart(StandInCustomer customer, boolean termsWarning) {
+        List<StandInCustomer.CartLine> lines = customer.getCart();
+        StringBuilder html = new StringBuilder("<div class=\"page shopping-cart-page\"><div class=\"page-title\"><h1>Shopping cart</h1></div>")
+                .append("<div class=\"page-body\"><div class=\"order-summary-content\">");
+        if (lines.isEmpty()) {
+            return html.append("<div class=\"no-data\">Your Shopping Cart is empty!</div></div></div></div>").toString();
+        }
+        html.append("<form action=\"/cart\" method=\"post\"><table class=\"cart\"><tbody>");
+        for (StandInCustomer.CartLine line : lines) {
+            html.append("<tr class=\"cart-item-row\">")
+                    .append("<td class=\"remove-from-cart\"><input type=\"checkbox\" name=\"removefromcart\" value=\"").append(line.getId()).append("\"/></td>")
+                    .append("<td class=\"product\"><a href=\"/").append(line.getProduct().getSeName()).append("\" class=\"product-name\">")
+                    .append(escape(line.getProduct().getName())).append("</a></td>")
+                    .append("<td class=\"unit-price nobr\"><span class=\"product-unit-price\">").append(price(line.getProduct().getPrice())).append("</span></td>")
+                    .append("<td class=\"qty nobr\"><input name=\"itemquantity").append(line.getId())
+                    .append("\" type=\"text\" value=\"").append(line.getQuantity()).append("\" class=\"qty-input\"/></td>")
+                    .append("<td class=\"subtotal nobr end\"><span class=\"product-subtotal\">").append(price(line.getSubtotal())).append("</span></td>")
+                    .append("</tr>");
+        }
+        return html.append("</tbody></table><div class=\"cart-options\"><div class=\"common-buttons\">")
+                .append("<input type=\"submit\" name=\"updatecart\" value=\"Update shopping cart\" class=\"button-2 update-cart-button\"/>")
+                .append("<input type=\"submit\" name=\"continueshopping\" value=\"Continue shopping\" class=\"button-2 continue-shopping-button\"/>")
+                .append("</div></div><div class=\"cart-footer\"><div class=\"totals\"><table class=\"cart-total\"><tbody>")
+                .append("<tr><td class=\"cart-total-left\"><span class=\"nobr\">Total:</span></td>")
+                .append("<td class=\"cart-total-right\"><span class=\"nobr\"><span class=\"product-price order-total\"><strong>")
+                .append(price(customer.getCartTotal())).append("</strong></span></span></td></tr></tbody></table>")
+                .append(termsWarning ? "<div id=\"terms-of-service-warning-box\" class=\"message-error\">Please accept the terms of service before the next step.</div>" : "")
+                .append("<div class=\"terms-of-service\"><input id=\"termsofservice\" type=\"checkbox\" name=\"termsofservice\"/>")
+                .append("<label for=\"termsofservice\">I agree with the terms of service</label></div>")
+                .append("<div class=\"checkout-buttons\"><button type=\"submit\" id=\"checkout\" name=\"checkout\" value=\"checkout\" ")
+                .append("class=\"button-1 checkout-button\">Checkout</button></div></div></div></form></div></div></div>").toString();
+    }
+
+    public String addresses(StandInCustomer customer) {
+        StringBuilder html = new StringBuilder("<div class=\"page account-page address-list-page\"><div class=\"page-title\"><h1>My account - Addresses</h1></div><div class=\"address-list\">");
+        for (Map<String, String> address : customer.getAddresses()) {
+            html.append("<div class=\"section address-item\"><div class=\"title\"><strong>")
+                    .append(escape(address.getOrDefault("Address.FirstName", "") + " " + address.getOrDefault("Address.LastName", "")))
+                    .append("</strong></div><ul class=\"info\">")
+                    .append("<li class=\"email\">Email: ").append(escape(address.getOrDefault("Address.Email", ""))).append("</li>")
+                    .append("<li class=\"address1\">").append(escape(address.getOrDefault("Address.Address1", ""))).append("</li>")
+                    .append("<li class=\"city-state-zip\">").append(escape(address.getOrDefault("Address.City", ""))).append("</li>")
+                    .append("</ul></div>");
+        }
+        return html.append("</div><div class=\"add-button\"><input type=\"button\" class=\"button-1 add-address-button\" ")
+                .append("onclick=\"location.href='/customer/addressadd'\" value=\"Add new\"/></div></div>").toString();
+    }
+
+    public String addressAdd() {
+        StringBuilder html = new StringBuilder("<div class=\"page account-page address-edit-page\"><div class=\"page-title\"><h1>My account - Add new address</h1></div>")
+                .append("<form action=\"/customer/addressadd\" method=\"post\"><input id=\"Address_Id\" name=\"Address.Id\" type=\"hidden\" value=\"0\"/>");
+        for (String field : new String[]{"FirstName", "LastName", "Email", "Company", "City", "Address1", "Address2", "ZipPostalCode", "PhoneNumber", "FaxNumber"}) {
+            html.append("<input id=\"Address_").append(field).append("\" name=\"Address.").append(field).append("\" type=\"text\" value=\"\"/>");
+        }
+        html.append("<select id=\"Address_CountryId\" name=\"Address.CountryId\"><option value=\"0\">Select country</option>");
+        for (Map.Entry<Integer, String> country : catalog.getCountries().entrySet()) {
+            html.append("<option value=\"").append(country.getKey()).append("\">").append(escape(country.getValue())).append("</option>");
+        }
+        return html.append("</select><select id=\"Address_StateProvinceId\" name=\"Address.StateProvinceId\"><option value=\"0\">Other (Non US)</option></select>")
+                .append("<input type=\"submit\" class=\"button-1 save-address-button\" value=\"Save\"/></form></div>").toString();
+    }
+
+    /**
+     * Render the one-page checkout. All steps are on the page; each step's Continue button posts its
+     * form to the matching /checkout/OpcSave* endpoint, which answers with the next step to open.
+     * @param customer current customer
+     * @return page content
+     */
+    public String onePageCheckout(StandInCustomer customer) {
+        StringBuilder html = new StringBuilder("<div class=\"page checkout-page\"><div class=\"page-title\"><h1>Checkout</h1></div>")
+                .append("<div class=\"page-body checkout-data\"><ol class=\"opc\" id=\"checkout-steps\">")
+                .append(step("billing", "Billing address", true, billingAddress(customer)))
+                .append(step("shipping", "Shipping address", false, shippingAddress(customer)))
+                .append(step("shipping_method", "Shipping method", false, shippingMethod()))
+                .append(step("payment_method", "Payment method", false, paymentMethod()))
+                .append(step("payment_info", "Payment information", false, paymentInfo(catalog.getPaymentMethods().get(0))))
+                .append(step("confirm_order", "Confirm order", false, confirmOrder(customer)))
+                .append("</ol></div></div>");
+        return html.append(checkoutScript()).toString();
+    }
+
+    private static String step(String name, String title, boolean active, String content) {
+        return "<li id=\"opc-" + name + "\" class=\"tab-section allow" + (active ? " active" : "") + "\">"
+                + "<div class=\"step-title\"><h2>" + title + "</h2></div>"
+                + "<div id=\"checkout-step-" + name + "\" class=\"step a-item\" style=\"display:" + (active ? "block" : "none") + "\">"
+                + "<div id=\"checkout-" + name + "-load\">" + content + "</div></div></li>";
+    }
+
+    /**
+     * Render the billing address step
+     * @param customer current customer
+     * @return step content
+     */
+    public String billingAddress(StandInCustomer customer) {
+        return addressStep("billing", "Billing", "BillingNewAddress", customer, 0);
+    }
+
+    /**
+     * Render the shipping address step, preselecting the address chosen for billing
+     * @param customer current customer
+     * @return step content
+     */
+    public String shippingAddress(StandInCustomer customer) {
+        int selected = customer.getAddresses().indexOf(customer.getCheckoutBillingAddress());
+        return addressStep("shipping", "Shipping", "ShippingNewAddress", customer, Math.max(selected, 0));
+    }
+
+    private String addressStep(String name, String script, String prefix, StandInCustomer customer, int selected) {
+        List<Map<String, String>> addresses = customer.getAddresses();
+        StringBuilder html = new StringBuilder("<form id=\"co-").append(name).append("-form\" action=\"\">")
+                .append("<div class=\"message-error\" style=\"display:none\"></div>")
+                .append("<div class=\"select-").append(name).append("-address\"><label for=\"").append(name)
+                .append("-address-select\">Select a ").append(name).append(" address from your address book or enter a new address.</label>")
+                .append("<select name=\"").append(name).append("_address_id\" id=\"").append(name)
+                .append("-address-select\" class=\"address-select\" onchange=\"").append(script).append(".newAddress(!this.value)\">");
+        for (int i = 0; i < addresses.size(); i++) {
+            html.append("<option value=\"").append(i).append("\"").append(i == selected ? " selected=\"selected\"" : "").append(">")
+                    .append(escape(formatAddress(addresses.get(i)))).append("</option>");
+        }
+        html.append("<option value=\"\"").append(addresses.isEmpty() ? " selected=\"selected\"" : "").append(">New Address</option></select></div>")
+                .append("<div id=\"").append(name).append("-new-address-form\" style=\"display:").append(addresses.isEmpty() ? "block" : "none").append("\">");
+        for (String field : new String[]{"FirstName", "LastName", "Email", "Company"}) {
+            html.append(addressInput(prefix, field));
+        }
+        html.append("<div class=\"inputs\"><label for=\"").append(prefix).append("_CountryId\">Country:</label><select id=\"")
+                .append(prefix).append("_CountryId\" name=\"").append(prefix).append(".CountryId\" onchange=\"Checkout.states(this, '")
+                .append(prefix).append("_StateProvinceId')\"><option value=\"0\">Select country</option>");
+        for (Map.Entry<Integer, String> country : catalog.getCountries().entrySet()) {
+            html.append("<option value=\"").append(country.getKey()).append("\">").append(escape(country.getValue())).append("</option>");
+        }
+        html.append("</select></div><div class=\"inputs\"><label for=\"").append(prefix).append("_StateProvinceId\">State / province:</label><select id=\"")
+                .append(prefix).append("_StateProvinceId\" name=\"").append(prefix).append(".StateProvinceId\"><option value=\"0\">Other (Non US)</option></select></div>");
+        for (String field : new String[]{"City", "Address1", "Address2", "ZipPostalCode", "PhoneNumber", "FaxNumber"}) {
+            html.append(addressInput(prefix, field));
+        }
+        return html.append("</div><div class=\"buttons\"><input type=\"button\" title=\"Continue\" class=\"button-1 new-address-next-step-button\" ")
+                .append("onclick=\"").append(script).append(".save()\" value=\"Continue\"/></div></form>").toString();
+    }
+
+    private static String addressInput(String prefix, String field) {
+        return "<div class=\"inputs\"><label for=\"" + prefix + "_" + field + "\">" + field + ":</label><input class=\"text-box single-line\" id=\""
+                + prefix + "_" + field + "\" name=\"" + prefix + "." + field + "\" type=\"text\" value=\"\"/></div>";
+    }
+
+    /**
+     * Render the shipping method step
+     * @return step content
+     */
+    public String shippingMethod() {
+        StringBuilder html = new StringBuilder("<form id=\"co-shipping-method-form\" action=\"\"><div class=\"message-error\" style=\"display:none\"></div>")
+                .append("<div class=\"shipping-method\"><ul class=\"method-list\">");
+        int index = 0;
+        for (Map.Entry<String, Double> method : catalog.getShippingMethods().entrySet()) {
+            html.append("<li><div class=\"method-name\"><input id=\"shippingoption_").append(index).append("\" type=\"radio\" name=\"shippingoption\" value=\"")
+                    .append(escape(method.getKey())).append("\"").append(index == 0 ? " checked=\"checked\"" : "").append("/><label for=\"shippingoption_")
+                    .append(index).append("\">").append(escape(method.getKey())).append(" (").append(price(method.getValue())).append(")</label></div></li>");
+            index++;
+        }
+        return html.append("</ul></div><div class=\"buttons\"><input type=\"button\" class=\"button-1 shipping-method-next-step-button\" ")
+                .append("onclick=\"ShippingMethod.save()\" value=\"Continue\"/></div></form>").toString();
+    }
+
+    /**
+     * Render the payment method step
+     * @return step content
+     */
+    public String paymentMethod() {
+        StringBuilder html = new StringBuilder("<form id=\"co-payment-method-form\" action=\"\"><div class=\"message-error\" style=\"display:none\"></div>")
+                .append("<div class=\"payment-method\"><ul class=\"method-list\">");
+        List<String> methods = catalog.getPaymentMethods();
+        for (int i = 0; i < methods.size(); i++) {
+            html.append("<li><div class=\"method-name\"><input id=\"paymentmethod_").append(i).append("\" type=\"radio\" name=\"paymentmethod\" value=\"")
+                    .append(escape(methods.get(i))).append("\"").append(i == 0 ? " checked=\"checked\"" : "").append("/><label for=\"paymentmethod_")
+                    .append(i).append("\">").append(escape(methods.get(i))).append("</label></div></li>");
+        }
+        return html.append("</ul></div><div class=\"buttons\"><input type=\"button\" class=\"button-1 payment-method-next-step-button\" ")
+                .append("onclick=\"PaymentMethod.save()\" value=\"Continue\"/></div></form>").toString();
+    }
+
+    /**
+     * Render the payment information step for the chosen payment method
+     * @param paymentMethod payment method name
+     * @return step content
+     */
+    public String paymentInfo(String paymentMethod) {
+        StringBuilder html = new StringBuilder("<form id=\"co-payment-info-form\" action=\"\"><div class=\"message-error\" style=\"display:none\"></div>")
+                .append("<div class=\"payment-info\"><div class=\"info\">");
+        if ("Credit Card".equals(paymentMethod)) {
+            for (String field : new String[]{"CardholderName", "CardNumber", "ExpireMonth", "ExpireYear", "CardCode"}) {
+                html.append("<div class=\"inputs\"><label for=\"").append(field).append("\">").append(field).append(":</label><input id=\"")
+                        .append(field).append("\" name=\"").append(field).append("\" type=\"text\" value=\"\"/></div>");
+            }
+        } else {
+            html.append("<p>Mail Personal or Business Check, Cashier's Check or money order to: Demo Web Shop, 10 Test Street, Test City</p>");
+        }
+        return html.append("</div></div><div class=\"buttons\"><input type=\"button\" class=\"button-1 payment-info-next-step-button\" ")
+                .append("onclick=\"PaymentInfo.save()\" value=\"Continue\"/></div></form>").toString();
+    }
+
+    /**
+     * Render the confirm order step with the cart and the chosen shipping method
+     * @param customer current customer
+     * @return step content
+     */
+    public String confirmOrder(StandInCustomer customer) {
+        double shipping = catalog.getShippingMethods().getOrDefault(customer.getCheckoutShippingMethod(), 0.0);
+        StringBuilder html = new StringBuilder("<form id=\"co-confirm-order-form\" action=\"\"><div class=\"message-error\" style=\"display:none\"></div>")
+                .append("<div class=\"order-summary-content\"><table class=\"cart\"><tbody>");
+        for (StandInCustomer.CartLine line : customer.getCart()) {
+            html.append("<tr class=\"cart-item-row\"><td class=\"product\"><span class=\"product-name\">").append(escape(line.getProduct().getName()))
+                    .append("</span></td><td class=\"qty nobr\">").append(line.getQuantity()).append("</td><td class=\"subtotal nobr end\">")
+                    .append(price(line.getSubtotal())).append("</td></tr>");
+        }
+        return html.append("</tbody></table><table class=\"cart-total\"><tbody>")
+                .append("<tr><td class=\"cart-total-left\">Shipping:</td><td class=\"cart-total-right\">").append(price(shipping)).append("</td></tr>")
+                .append("<tr><td class=\"cart-total-left\">Total:</td><td class=\"cart-total-right\"><span class=\"product-price order-total\"><strong>")
+                .append(price(customer.getCartTotal() + shipping)).append("</strong></span></td></tr></tbody></table></div>")
+                .append("<div class=\"buttons\"><input type=\"button\" class=\"button-1 confirm-order-next-step-button\" ")
+                .append("onclick=\"ConfirmOrder.save()\" value=\"Confirm\"/></div></form>").toString();
+    }
+
+    private String checkoutScript() {
+        StringBuilder states = new StringBuilder("{");
+        for (Integer countryId : catalog.getCountries().keySet()) {
+            states.append(states.length() > 1 ? "," : "").append("\"").append(countryId).append("\":[");
+            String separator = "";
+            for (Map.Entry<Integer, String> state : catalog.getStates(countryId).entrySet()) {
+                states.append(separator).append("[").append(state.getKey()).append(",\"").append(escape(state.getValue())).append("\"]");
+                separator = ",";
+            }
+            states.append("]");
+        }
+        states.append("}");
+        return "<script>"
+                + "var checkoutStates = " + states + ";"
+                + "var Checkout = {"
+                + "sections: ['billing', 'shipping', 'shipping_method', 'payment_method', 'payment_info', 'confirm_order'],"
+                + "gotoSection: function (name) { Checkout.sections.forEach(function (section) {"
+                + " var active = section === name;"
+                + " document.getElementById('opc-' + section).className = 'tab-section allow' + (active ? ' active' : '');"
+                + " document.getElementById('checkout-step-' + section).style.display = active ? 'block' : 'none'; }); },"
+                + "save: function (url, formId) { var form = document.getElementById(formId);"
+                + " fetch(url, {method: 'POST', credentials: 'same-origin', headers: {'X-Requested-With': 'XMLHttpRequest'},"
+                + " body: new URLSearchParams(new FormData(form))})"
+                + " .then(function (response) { return response.json(); })"
+                + " .then(function (result) {"
+                + "  if (result.error) { var box = form.querySelector('.message-error'); box.textContent = result.error; box.style.display = 'block'; return; }"
+                + "  if (result.redirect) { window.location.href = result.redirect; return; }"
+                + "  if (result.update_section) { document.getElementById('checkout-' + result.update_section.name + '-load').innerHTML = result.update_section.html; }"
+                + "  Checkout.gotoSection(result.goto_section); }); },"
+                + "toggle: function (id, show) { document.getElementById(id).style.display = show ? 'block' : 'none'; },"
+                + "states: function (country, stateSelectId) { var select = document.getElementById(stateSelectId);"
+                + " var states = checkoutStates[country.value] || []; select.innerHTML = '';"
+                + " if (!states.length) { select.add(new Option('Other (Non US)', '0')); }"
+                + " states.forEach(function (state) { select.add(new Option(state[1], state[0])); }); }"
+                + "};"
+                + "var Billing = { save: function () { Checkout.save('/checkout/OpcSaveBilling/', 'co-billing-form'); },"
+                + " newAddress: function (show) { Checkout.toggle('billing-new-address-form', show); } };"
+                + "var Shipping = { save: function () { Checkout.save('/checkout/OpcSaveShipping/', 'co-shipping-form'); },"
+                + " newAddress: function (show) { Checkout.toggle('shipping-new-address-form', show); } };"
+                + "var ShippingMethod = { save: function () { Checkout.save('/checkout/OpcSaveShippingMethod/', 'co-shipping-method-form'); } };"
+                + "var PaymentMethod = { save: function () { Checkout.save('/checkout/OpcSavePaymentMethod/', 'co-payment-method-form'); } };"
+                + "var PaymentInfo = { save: function () { Checkout.save('/checkout/OpcSavePaymentInfo/', 'co-payment-info-form'); } };"
+                + "var ConfirmOrder = { save: function () { Checkout.save('/checkout/OpcConfirmOrder/', 'co-confirm-order-form'); } };"
+                + "</script>";
+    }
+
+    /**
+     * Render the order completed page
+     * @param order placed order
+     * @return page content
+     */
+    public String orderCompleted(StandInOrder order) {
+        return "<div class=\"page checkout-page\"><div class=\"page-title\"><h1>Thank you</h1></div><div class=\"page-body checkout-data\">"
+                + "<div class=\"section order-completed\"><div class=\"title\"><strong>Your order has been successfully processed!</strong></div>"
+                + "<ul class=\"details\"><li>Order number: " + order.getId() + "</li>"
+                + "<li><a href=\"/orderdetails/" + order.getId() + "\">Click here for order details.</a></li></ul>"
+                + "<div class=\"buttons\"><input type=\"button\" value=\"Continue\" class=\"button-2 order-completed-continue-button\" "
+                + "onclick=\"location.href='/'\"/></div></div></div></div>";
+    }
+
+    /**
+     * Render the order details page
+     * @param order placed order
+     * @return page content
+     */
+    public String orderDetails(StandInOrder order) {
+        StringBuilder html = new StringBuilder("<div class=\"page order-details-page\"><div class=\"page-title\"><h1>Order information</h1></div>")
+                .append("<div class=\"page-body\"><div class=\"order-overview\"><div class=\"order-number\"><strong>Order #").append(order.getId())
+                .append("</strong></div><ul class=\"order-details\"><li>Order Date: ")
+                .append(new SimpleDateFormat("EEEE, MMMM d, yyyy", Locale.ROOT).format(new Date(order.getCreatedOn())))
+                .append("</li><li>Order Status: Pending</li><li class=\"order-total\">Order Total: <strong>").append(price(order.getTotal()))
+                .append("</strong></li></ul></div><div class=\"order-details-area\">")
+                .append(addressInfo("billing-info", "Billing Address", order.getBillingAddress()))
+                .append(addressInfo("shipping-info", "Shipping Address", order.getShippingAddress()))
+                .append("<div class=\"shipping-method-info\"><strong>Shipping Method</strong> ").append(escape(order.getShippingMethod())).append("</div>")
+                .append("<div class=\"payment-method-info\"><strong>Payment Method</strong> ").append(escape(order.getPaymentMethod())).append("</div>")
+                .append("</div><div class=\"section products\"><div class=\"title\"><strong>Product(s)</strong></div><table class=\"data-table\">")
+                .append("<tr><th>Name</th><th>Price</th><th>Quantity</th><th>Total</th></tr>");
+        for (StandInCustomer.CartLine line : order.getLines()) {
+            html.append("<tr><td class=\"a-left name\"><em><a href=\"/").append(line.getProduct().getSeName()).append("\">")
+                    .append(escape(line.getProduct().getName())).append("</a></em></td>")
+                    .append("<td class=\"a-right price nobr\">").append(price(line.getProduct().getPrice())).append("</td>")
+                    .append("<td class=\"a-center quantity nobr\">").append(line.getQuantity()).append("</td>")
+                    .append("<td class=\"a-right total nobr\">").append(price(line.getSubtotal())).append("</td></tr>");
+        }
+        return html.append("</table></div><div class=\"section options\"><div class=\"order-summary\">Sub-Total: ").append(price(order.getSubtotal()))
+                .append(", Shipping: ").append(price(order.getShippingCost())).append(", Order Total: ").append(price(order.getTotal()))
+                .append("</div></div></div></div>").toString();
+    }
+
+    private String addressInfo(String cssClass, String title, Map<String, String> address) {
+        return "<div class=\"" + cssClass + "\"><div class=\"title\"><strong>" + title + "</strong></div><ul class=\"info-list\">"
+                + "<li class=\"name\">" + escape(address.getOrDefault("Address.FirstName", "") + " " + address.getOrDefault("Address.LastName", "")) + "</li>"
+                + "<li class=\"email\">Email: " + escape(address.getOrDefault("Address.Email", "")) + "</li>"
+                + "<li class=\"phone\">Phone: " + escape(address.getOrDefault("Address.PhoneNumber", "")) + "</li>"
+                + "<li class=\"address1\">" + escape(address.getOrDefault("Address.Address1", "")) + "</li>"
+                + "<li class=\"city-state-zip\">" + escape(address.getOrDefault("Address.City", "") + " , " + stateName(address)
+                + " " + address.getOrDefault("Address.ZipPostalCode", "")) + "</li>"
+                + "<li class=\"country\">" + escape(countryName(address)) + "</li></ul></div>";
+    }
+
+    /**
+     * Format an address the way the checkout address selects show it
+     * @param address address fields with the "Address." prefix
+     * @return one-line address
+     */
+    public String formatAddress(Map<String, String> address) {
+        return address.getOrDefault("Address.FirstName", "") + " " + address.getOrDefault("Address.LastName", "") + ", "
+                + address.getOrDefault("Address.Address1", "") + ", " + address.getOrDefault("Address.City", "") + ", "
+                + stateName(address) + " " + address.getOrDefault("Address.ZipPostalCode", "") + ", " + countryName(address);
+    }
+
+    private String countryName(Map<String, String> address) {
+        return catalog.getCountries().getOrDefault(parseId(address.get("Address.CountryId")), "");
+    }
+
+    private String stateName(Map<String, String> address) {
+        return catalog.getStates(parseId(address.get("Address.CountryId"))).getOrDefault(parseId(address.get("Address.StateProvinceId")), "");
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    public String notFound() {
+        return "<div class=\"page\"><div class=\"page-title\"><h1>Page not found</h1></div></div>";
+    }
+
+    /**
+     * Format a price the way the storefront does
+     * @param value price value
+     * @return formatted price
+     */
+    public static String price(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /**
+     * Escape text for HTML output
+     * @param text raw text
+     * @return escaped text
+     */
+    public static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,647 @@
+package com.kiboassessment.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.utils.ConfigReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP server that stands in for the Demo Web Shop storefront in local runs and framework tests
+ */
+public class StandInStorefront {
+    private static final Logger logger = LogManager.getLogger(StandInStorefront.class);
+
+    public static final String CUSTOMER_COOKIE = "Nop.customer";
+    public static final String AUTH_COOKIE = "NOPCOMMERCE.AUTH";
+
+    private static final Pattern CATALOG_ADD = Pattern.compile("^/addproducttocart/catalog/(\\d+)/1/(\\d+)$");
+    private static final Pattern DETAILS_ADD = Pattern.compile("^/addproducttocart/details/(\\d+)/1$");
+    private static final Pattern CHECKOUT_STEP = Pattern.compile("^/checkout/(OpcSave\\w+|OpcConfirmOrder)/?$");
+    private static final Pattern ORDER_DETAILS = Pattern.compile("^/orderdetails/(\\d+)$");
+    private static final String[] REQUIRED_ADDRESS_FIELDS = {"FirstName", "LastName", "Email", "City", "Address1", "ZipPostalCode", "PhoneNumber"};
+    private static StandInStorefront shared;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private final Map<String, StandInCustomer> guests = new ConcurrentHashMap<>();
+    private final Map<String, StandInCustomer> accounts = new ConcurrentHashMap<>();
+    private final Map<String, StandInCustomer> authTokens = new ConcurrentHashMap<>();
+    private final Map<Integer, StandInOrder> orders = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCartLineId = new AtomicInteger(1000);
+    private final AtomicInteger nextOrderId = new AtomicInteger(1000);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Create stand-in storefront on an ephemeral port
+     */
+    public StandInStorefront() {
+        this(0);
+    }
+
+    /**
+     * Create stand-in storefront on the given port, with the configured test account registered
+     * @param port port to listen on, 0 for any free port
+     */
+    public StandInStorefront(int port) {
+        this.port = port;
+        registerAccount(ConfigReader.getEmail(), ConfigReader.getPassword());
+    }
+
+    /**
+     * Get the storefront shared by this JVM, starting it on standin.port on first use.
+     * Used when standin.enabled is set, so that browser tests run against it instead of base.url.
+     * @return running storefront
+     */
+    public static synchronized StandInStorefront shared() {
+        if (shared == null) {
+            shared = new StandInStorefront(Integer.parseInt(ConfigReader.getProperty("standin.port", "0"))).start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    /**
+     * Start serving requests
+     * @return this storefront
+     */
+    public StandInStorefront start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        } catch (IOException e) {
+            logger.error("Failed to start stand-in storefront: " + e.getMessage());
+            throw new RuntimeException("Failed to start stand-in storefront", e);
+        }
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Stand-in storefront started at " + getBaseUrl());
+        return this;
+    }
+
+    /**
+     * Stop serving requests
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            logger.info("Stand-in storefront stopped");
+        }
+    }
+
+    /**
+     * Get base URL of the running server
+     * @return base URL with trailing slash
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Register a customer account
+     * @param email login email
+     * @param password login password
+     */
+    public void registerAccount(String email, String password) {
+        accounts.putIfAbsent(email.toLowerCase(), new StandInCustomer(email, password));
+    }
+
+    /**
+     * Get registered account state
+     * @param email login email
+     * @return account, or null if not registered
+     */
+    public StandInCustomer getAccount(String email) {
+        return accounts.get(email.toLowerCase());
+    }
+
+    /**
+     * Get a placed order
+     * @param id order id
+     * @return order, or null if unknown
+     */
+    public StandInOrder getOrder(int id) {
+        return orders.get(id);
+    }
+
+    /**
+     * Get number of anonymous customers kept by the storefront
+     * @return guest count
+     */
+    public int getGuestCount() {
+        return guests.size();
+    }
+
+    /**
+     * Get number of requests served so far
+     * @return request count
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            route(new Request(exchange));
+        } catch (Exception e) {
+            logger.error("Stand-in request failed: " + exchange.getRequestURI() + ", Error: " + e.getMessage());
+            send(exchange, 500, "text/plain", "Internal error: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(Request request) throws IOException {
+        String path = request.path;
+        boolean post = "POST".equals(request.exchange.getRequestMethod());
+        Matcher catalogAdd = CATALOG_ADD.matcher(path);
+        Matcher detailsAdd = DETAILS_ADD.matcher(path);
+        Matcher checkoutStep = CHECKOUT_STEP.matcher(path);
+        Matcher orderDetails = ORDER_DETAILS.matcher(path);
+
+        if (path.equals("/")) {
+            html(request, "Home", pages.home());
+        } else if (path.equals("/login") && post) {
+            handleLogin(request);
+        } else if (path.equals("/login")) {
+            html(request, "Login", pages.login(false));
+        } else if (path.equals("/register") && post) {
+            handleRegister(request);
+        } else if (path.equals("/register")) {
+            html(request, "Register", pages.register(null));
+        } else if (path.startsWith("/registerresult")) {
+            html(request, "Register", pages.registerResult());
+        } else if (path.equals("/logout")) {
+            String token = request.cookies.get(AUTH_COOKIE);
+            if (token != null) {
+                authTokens.remove(token);
+            }
+            request.exchange.getResponseHeaders().add("Set-Cookie", AUTH_COOKIE + "=; Path=/; Max-Age=0");
+            redirect(request, "/");
+        } else if (path.equals("/search")) {
+            String term = request.query.getOrDefault("q", "");
+            int pageSize = parseInt(request.query.get("pagesize"), 0);
+            int pageNumber = parseInt(request.query.get("pagenumber"), 1);
+            html(request, "Search", pages.searchResults(term, catalog.search(term), pageNumber, pageSize));
+        } else if (catalogAdd.matches() && post) {
+            handleCatalogAdd(request, Integer.parseInt(catalogAdd.group(1)), Integer.parseInt(catalogAdd.group(2)));
+        } else if (detailsAdd.matches() && post) {
+            handleDetailsAdd(request, Integer.parseInt(detailsAdd.group(1)));
+        } else if (path.equals("/cart") && post) {
+            handleCartUpdate(request);
+        } else if (path.equals("/cart")) {
+            html(request, "Shopping Cart", pages.cart(request.customer));
+        } else if (path.equals("/onepagecheckout")) {
+            if (request.customer.getCart().isEmpty()) {
+                redirect(request, "/cart");
+            } else {
+                html(request, "Checkout", pages.onePageCheckout(request.customer));
+            }
+        } else if (checkoutStep.matches() && post) {
+            handleCheckoutStep(request, checkoutStep.group(1));
+        } else if (path.equals("/checkout/completed") || path.equals("/checkout/completed/")) {
+            List<StandInOrder> placed = request.customer.getOrders();
+            if (placed.isEmpty()) {
+                redirect(request, "/");
+            } else {
+                html(request, "Checkout", pages.orderCompleted(placed.get(placed.size() - 1)));
+            }
+        } else if (orderDetails.matches()) {
+            StandInOrder order = orders.get(Integer.parseInt(orderDetails.group(1)));
+            if (order == null || order.getCustomer() != request.customer) {
+                send(request.exchange, 404, "text/html; charset=utf-8", pages.layout("Page not found", request.customer, pages.notFound()));
+            } else {
+                html(request, "Order information", pages.orderDetails(order));
+            }
+        } else if (path.equals("/customer/addresses")) {
+            html(request, "Addresses", pages.addresses(request.customer));
+        } else if (path.equals("/customer/addressadd") && post) {
+            handleAddressAdd(request);
+        } else if (path.equals("/customer/addressadd")) {
+            html(request, "Add new address", pages.addressAdd());
+        } else if (path.equals("/country/getstatesbycountryid")) {
+            handleStates(request);
+        } else if (catalog.getCategoryBySeName(path.substring(1)) != null) {
+            StandInCatalog.Category category = catalog.getCategoryBySeName(path.substring(1));
+            html(request, category.getName(), pages.category(category,
+                    parseInt(request.query.get("pagenumber"), 1), parseInt(request.query.get("pagesize"), 0)));
+        } else if (catalog.getProductBySeName(path.substring(1)) != null) {
+            StandInCatalog.Product product = catalog.getProductBySeName(path.substring(1));
+            html(request, product.getName(), pages.product(product));
+        } else {
+            send(request.exchange, 404, "text/html; charset=utf-8", pages.layout("Page not found", request.customer, pages.notFound()));
+        }
+    }
+
+    private void handleLogin(Request request) throws IOException {
+        String email = request.form("Email");
+        StandInCustomer account = email == null ? null : accounts.get(email.toLowerCase());
+        if (account == null || !account.checkPassword(request.form("Password"))) {
+            html(request, "Login", pages.login(true));
+            return;
+        }
+        signIn(request, account);
+        redirect(request, "/");
+    }
+
+    /**
+     * Register an account from the registration form and sign it in, as the storefront does
+     */
+    private void handleRegister(Request request) throws IOException {
+        String email = request.form("Email");
+        String password = request.form("Password");
+        String error = null;
+        if (isBlank(request.form("FirstName")) || isBlank(request.form("LastName")) || isBlank(email) || isBlank(password)) {
+            error = "Please fill in all required fields";
+        } else if (!password.equals(request.form("ConfirmPassword"))) {
+            error = "The password and confirmation password do not match.";
+        } else if (accounts.putIfAbsent(email.toLowerCase(), new StandInCustomer(email, password)) != null) {
+            error = "The specified email already exists";
+        }
+        if (error != null) {
+            html(request, "Register", pages.register(error));
+            return;
+        }
+        signIn(request, accounts.get(email.toLowerCase()));
+        logger.info("Stand-in account registered: " + email);
+        redirect(request, "/registerresult/1");
+    }
+
+    private void signIn(Request request, StandInCustomer account) {
+        account.mergeCart(request.customer);
+        String token = UUID.randomUUID().toString();
+        authTokens.put(token, account);
+        request.exchange.getResponseHeaders().add("Set-Cookie", AUTH_COOKIE + "=" + token + "; Path=/; HttpOnly");
+    }
+
+    private void handleCatalogAdd(Request request, int productId, int quantity) throws IOException {
+        StandInCatalog.Product product = catalog.getProduct(productId);
+        if (product == null) {
+            json(request, Map.of("success", false, "message", "No product found with the specified ID"));
+            return;
+        }
+        if (product.hasAttributes()) {
+            if (request.isBrowserNavigation()) {
+                redirect(request, "/" + product.getSeName());
+            } else {
+                json(request, Map.of("redirect", "/" + product.getSeName()));
+            }
+            return;
+        }
+        addToCart(request, product, quantity);
+    }
+
+    private void handleDetailsAdd(Request request, int productId) throws IOException {
+        StandInCatalog.Product product = catalog.getProduct(productId);
+        if (product == null) {
+            json(request, Map.of("success", false, "message", "No product found with the specified ID"));
+            return;
+        }
+        if (product.hasAttributes() && request.form("product_attribute_" + productId + "_5_1") == null) {
+            json(request, Map.of("success", false, "message", new String[]{"Please select Processor"}));
+            return;
+        }
+        int quantity = parseInt(request.form("addtocart_" + productId + ".EnteredQuantity"), 1);
+        addToCart(request, product, quantity);
+    }
+
+    private void addToCart(Request request, StandInCatalog.Product product, int quantity) throws IOException {
+        request.customer.addToCart(nextCartLineId.incrementAndGet(), product, quantity);
+        if (request.isBrowserNavigation()) {
+            redirect(request, request.exchange.getRequestHeaders().getFirst("Referer") != null
+                    ? request.exchange.getRequestHeaders().getFirst("Referer") : "/" + product.getSeName());
+            return;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("message", "The product has been added to your <a href=\"/cart\">shopping cart</a>");
+        result.put("updatetopcartsectionhtml", "(" + request.customer.getCartQuantity() + ")");
+        json(request, result);
+    }
+
+    private void handleCartUpdate(Request request) throws IOException {
+        for (StandInCustomer.CartLine line : request.customer.getCart()) {
+            String quantity = request.form("itemquantity" + line.getId());
+            if (quantity != null) {
+                request.customer.updateQuantity(line.getId(), parseInt(quantity, line.getQuantity()));
+            }
+        }
+        for (String lineId : request.formValues("removefromcart")) {
+            request.customer.removeFromCart(parseInt(lineId, -1));
+        }
+        if (request.form("checkout") != null) {
+            if (request.form("termsofservice") == null) {
+                html(request, "Shopping Cart", pages.cart(request.customer, true));
+                return;
+            }
+            redirect(request, "/onepagecheckout");
+            return;
+        }
+        redirect(request, "/cart");
+    }
+
+    /**
+     * Handle a Continue button of the one-page checkout. Each step stores its choice in the session
+     * and answers with the section to open next, or with an error shown in the current section.
+     */
+    private void handleCheckoutStep(Request request, String step) throws IOException {
+        StandInCustomer customer = request.customer;
+        if (customer.getCart().isEmpty()) {
+            json(request, Map.of("redirect", "/cart"));
+            return;
+        }
+        switch (step) {
+            case "OpcSaveBilling": {
+                Map<String, String> address = checkoutAddress(request, "billing_address_id", "BillingNewAddress.");
+                if (address == null) {
+                    json(request, Map.of("error", "Please enter all required billing address fields"));
+                    return;
+                }
+                customer.setCheckoutBillingAddress(address);
+                nextSection(request, "shipping", pages.shippingAddress(customer));
+                return;
+            }
+            case "OpcSaveShipping": {
+                Map<String, String> address = checkoutAddress(request, "shipping_address_id", "ShippingNewAddress.");
+                if (address == null) {
+                    json(request, Map.of("error", "Please enter all required shipping address fields"));
+                    return;
+                }
+                customer.setCheckoutShippingAddress(address);
+                nextSection(request, "shipping_method", null);
+                return;
+            }
+            case "OpcSaveShippingMethod": {
+                String method = request.form("shippingoption");
+                if (method == null || !catalog.getShippingMethods().containsKey(method)) {
+                    json(request, Map.of("error", "Please select a shipping method"));
+                    return;
+                }
+                customer.setCheckoutShippingMethod(method);
+                nextSection(request, "payment_method", null);
+                return;
+            }
+            case "OpcSavePaymentMethod": {
+                String method = request.form("paymentmethod");
+                if (method == null || !catalog.getPaymentMethods().contains(method)) {
+                    json(request, Map.of("error", "Please select a payment method"));
+                    return;
+                }
+                customer.setCheckoutPaymentMethod(method);
+                nextSection(request, "payment_info", pages.paymentInfo(method));
+                return;
+            }
+            case "OpcSavePaymentInfo": {
+                if ("Credit Card".equals(customer.getCheckoutPaymentMethod())) {
+                    for (String field : new String[]{"CardholderName", "CardNumber", "ExpireMonth", "ExpireYear", "CardCode"}) {
+                        if (isBlank(request.form(field))) {
+                            json(request, Map.of("error", "Please enter the card details"));
+                            return;
+                        }
+                    }
+                }
+                nextSection(request, "confirm_order", pages.confirmOrder(customer));
+                return;
+            }
+            case "OpcConfirmOrder": {
+                if (customer.getCheckoutBillingAddress() == null || customer.getCheckoutShippingAddress() == null
+                        || customer.getCheckoutShippingMethod() == null || customer.getCheckoutPaymentMethod() == null) {
+                    json(request, Map.of("error", "Checkout steps are incomplete"));
+                    return;
+                }
+                StandInOrder order = new StandInOrder(nextOrderId.incrementAndGet(), customer, customer.getCart(),
+                        customer.getCheckoutBillingAddress(), customer.getCheckoutShippingAddress(), customer.getCheckoutShippingMethod(),
+                        catalog.getShippingMethods().get(customer.getCheckoutShippingMethod()), customer.getCheckoutPaymentMethod());
+                orders.put(order.getId(), order);
+                customer.addOrder(order);
+                logger.info("Stand-in order placed: " + order.getId());
+                json(request, Map.of("redirect", "/checkout/completed/"));
+                return;
+            }
+            default:
+                send(request.exchange, 404, "application/json; charset=utf-8", "{}");
+        }
+    }
+
+    /**
+     * Resolve the address chosen in a checkout address step: an address book entry, or a new address
+     * that is validated and saved to the address book
+     * @return address fields with the "Address." prefix, or null if the new address is incomplete
+     */
+    private Map<String, String> checkoutAddress(Request request, String selectField, String prefix) {
+        String selected = request.form(selectField);
+        List<Map<String, String>> addresses = request.customer.getAddresses();
+        int index = parseInt(selected, -1);
+        if (index >= 0 && index < addresses.size()) {
+            return addresses.get(index);
+        }
+        Map<String, String> address = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : request.form) {
+            if (field.getKey().startsWith(prefix)) {
+                address.put("Address." + field.getKey().substring(prefix.length()), field.getValue());
+            }
+        }
+        for (String required : REQUIRED_ADDRESS_FIELDS) {
+            if (isBlank(address.get("Address." + required))) {
+                return null;
+            }
+        }
+        if (parseInt(address.get("Address.CountryId"), 0) == 0) {
+            return null;
+        }
+        request.customer.addAddress(address);
+        return address;
+    }
+
+    private void nextSection(Request request, String section, String html) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (html != null) {
+            result.put("update_section", Map.of("name", section, "html", html));
+        }
+        result.put("goto_section", section);
+        json(request, result);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private void handleAddressAdd(Request request) throws IOException {
+        Map<String, String> address = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : request.form) {
+            if (field.getKey().startsWith("Address.")) {
+                address.put(field.getKey(), field.getValue());
+            }
+        }
+        request.customer.addAddress(address);
+        redirect(request, "/customer/addresses");
+    }
+
+    private void handleStates(Request request) throws IOException {
+        List<Map<String, Object>> states = new ArrayList<>();
+        int countryId = parseInt(request.query.get("countryId"), 0);
+        for (Map.Entry<Integer, String> state : catalog.getStates(countryId).entrySet()) {
+            states.add(Map.of("id", state.getKey(), "name", state.getValue()));
+        }
+        json(request, states);
+    }
+
+    private void html(Request request, String title, String content) throws IOException {
+        send(request.exchange, 200, "text/html; charset=utf-8", pages.layout(title, request.customer, content));
+    }
+
+    private void json(Request request, Object value) throws IOException {
+        send(request.exchange, 200, "application/json; charset=utf-8", objectMapper.writeValueAsString(value));
+    }
+
+    private void redirect(Request request, String location) throws IOException {
+        request.exchange.getResponseHeaders().add("Location", location);
+        request.exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    private static List<Map.Entry<String, String>> parseForm(String encoded) {
+        List<Map.Entry<String, String>> fields = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return fields;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            fields.add(new AbstractMap.SimpleEntry<>(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8)));
+        }
+        return fields;
+    }
+
+    /**
+     * Parsed request with resolved customer
+     */
+    private class Request {
+        private final HttpExchange exchange;
+        private final String path;
+        private final Map<String, String> query = new LinkedHashMap<>();
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+        private final List<Map.Entry<String, String>> form;
+        private final StandInCustomer customer;
+
+        Request(HttpExchange exchange) throws IOException {
+            this.exchange = exchange;
+            this.path = exchange.getRequestURI().getPath();
+            for (Map.Entry<String, String> field : parseForm(exchange.getRequestURI().getRawQuery())) {
+                query.put(field.getKey(), field.getValue());
+            }
+            List<String> cookieHeaders = exchange.getRequestHeaders().get("Cookie");
+            if (cookieHeaders != null) {
+                for (String header : cookieHeaders) {
+                    for (String cookie : header.split(";")) {
+                        int separator = cookie.indexOf('=');
+                        if (separator > 0) {
+                            cookies.put(cookie.substring(0, separator).trim(), cookie.substring(separator + 1).trim());
+                        }
+                    }
+                }
+            }
+            try (InputStream body = exchange.getRequestBody()) {
+                this.form = parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            this.customer = resolveCustomer();
+        }
+
+        private StandInCustomer resolveCustomer() {
+            String token = cookies.get(AUTH_COOKIE);
+            if (token != null && authTokens.containsKey(token)) {
+                return authTokens.get(token);
+            }
+            String customerId = cookies.get(CUSTOMER_COOKIE);
+            StandInCustomer guest = customerId == null ? null : guests.get(customerId);
+            if (guest != null) {
+                return guest;
+            }
+            // Only requests that change state get a stored guest; probes, assets and page views of
+            // anonymous visitors are served from an empty customer that is not kept
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                return new StandInCustomer();
+            }
+            customerId = UUID.randomUUID().toString();
+            guest = new StandInCustomer();
+            guests.put(customerId, guest);
+            exchange.getResponseHeaders().add("Set-Cookie", CUSTOMER_COOKIE + "=" + customerId + "; Path=/; HttpOnly");
+            return guest;
+        }
+
+        String form(String name) {
+            for (Map.Entry<String, String> field : form) {
+                if (field.getKey().equals(name)) {
+                    return field.getValue();
+                }
+            }
+            return null;
+        }
+
+        List<String> formValues(String name) {
+            List<String> values = new ArrayList<>();
+            for (Map.Entry<String, String> field : form) {
+                if (field.getKey().equals(name)) {
+                    values.add(field.getValue());
+                }
+            }
+            return values;
+        }
+
+        /**
+         * Browsers submitting forms get redirects; XHR and HTTP fixture clients get JSON
+         * @return true if the request is a top-level browser navigation
+         */
+        boolean isBrowserNavigation() {
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            String requestedWith = exchange.getRequestHeaders().getFirst("X-Requested-With");
+            return requestedWith == null && accept != null && accept.contains("text/html");
+        }
+    }
+}
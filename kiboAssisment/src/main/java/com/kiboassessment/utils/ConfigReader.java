@@ -1,5 +1,6 @@
 package com.kiboassessment.utils;
 
+import com.kiboassessment.standin.StandInStorefront;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -34,12 +35,13 @@ public class ConfigReader {
     }
 
     /**
-     * Get property value by key
+     * Get property value by key. A JVM system property with the same key (e.g. -Dbrowser=firefox)
+     * overrides the value from the config file.
      * @param key property key
      * @return property value
      */
     public static String getProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = System.getProperty(key, properties.getProperty(key));
         if (value == null) {
             logger.warn("Property not found: " + key);
             return "";
@@ -48,10 +50,23 @@ public class ConfigReader {
     }
 
     /**
-     * Get base URL from configuration
+     * Get optional property value by key, with the same system property override
+     * @param key property key
+     * @param defaultValue value returned if the key is not configured
+     * @return property value
+     */
+    public static String getProperty(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Get base URL from configuration, or of the in-process stand-in storefront when standin.enabled is set
      * @return base URL
      */
     public static String getBaseUrl() {
+        if (Boolean.parseBoolean(getProperty("standin.enabled", "false"))) {
+            return StandInStorefront.shared().getBaseUrl();
+        }
         return getProperty("base.url");
     }
 
@@ -110,4 +125,28 @@ public class ConfigReader {
     public static String getProductName() {
         return getProperty("product.name");
     }
-} 
\ No newline at end of file
+
+    /**
+     * Get HTTP client timeout from configuration
+     * @return HTTP timeout in seconds
+     */
+    public static int getHttpTimeout() {
+        return Integer.parseInt(getProperty("http.timeout"));
+    }
+
+    /**
+     * Get maximum number of retries for checkpointed flows
+     * @return maximum retries
+     */
+    public static int getFlowMaxRetries() {
+        return Integer.parseInt(getProperty("flow.max.retries"));
+    }
+
+    /**
+     * Check whether the storefront preflight probe runs before launching browsers
+     * @return true if preflight is enabled
+     */
+    public static boolean isPreflightEnabled() {
+        return Boolean.parseBoolean(getProperty("preflight.enabled"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.kiboassessment.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for raw Chrome DevTools Protocol access. Commands and events are addressed by name
+ * so the framework does not depend on a browser-version specific CDP binding.
+ */
+public class DevToolsUtil {
+    private static final Logger logger = LogManager.getLogger(DevToolsUtil.class);
+
+    /**
+     * Check whether the driver supports DevTools (Chrome and Edge)
+     * @param driver WebDriver instance
+     * @return true if DevTools is available
+     */
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasDevTools && ((HasDevTools) driver).maybeGetDevTools().isPresent();
+    }
+
+    /**
+     * Get DevTools connection with an open session
+     * @param driver WebDriver instance
+     * @return DevTools connection
+     */
+    public static DevTools getDevTools(WebDriver driver) {
+        if (!isSupported(driver)) {
+            throw new UnsupportedOperationException("DevTools is not supported by " + driver.getClass().getSimpleName());
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        return devTools;
+    }
+
+    /**
+     * Send CDP command and return its result
+     * @param devTools DevTools connection
+     * @param method CDP method, e.g. "Network.enable"
+     * @param params command parameters
+     * @return command result
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> send(DevTools devTools, String method, Map<String, Object> params) {
+        Map<String, Object> result = devTools.send(new Command<>(method, params,
+                input -> (Map<String, Object>) input.read(Json.MAP_TYPE)));
+        logger.debug("CDP command sent: " + method);
+        return result == null ? Collections.emptyMap() : result;
+    }
+
+    /**
+     * Listen to a CDP event
+     * @param devTools DevTools connection
+     * @param event CDP event name, e.g. "Network.requestWillBeSent"
+     * @param handler receives the event parameters
+     */
+    @SuppressWarnings("unchecked")
+    public static void listen(DevTools devTools, String event, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<>(event, input -> (Map<String, Object>) input.read(Json.MAP_TYPE)), handler);
+    }
+
+    /**
+     * Read a nested value from CDP event parameters
+     * @param params event parameters
+     * @param path keys of the nested maps
+     * @return value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public static Object get(Map<String, Object> params, String... path) {
+        Object current = params;
+        for (String key : path) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<String, Object>) current).get(key);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kiboassessment.utils;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples and computes percentiles (nearest-rank)
+ */
+public class LatencyStats {
+    private long[] samples = new long[64];
+    private int count;
+
+    /**
+     * Record a latency sample
+     * @param latencyMs latency in milliseconds
+     */
+    public synchronized void record(long latencyMs) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyMs;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Get percentile
+     * @param percentile percentile between 0 and 100
+     * @return latency in milliseconds, 0 if there are no samples
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+
+    public synchronized double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return (double) sum / count;
+    }
+
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,183 @@
+package com.kiboassessment.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Plain HTTP client for the storefront that can share its cookies with the browser session
+ */
+public class StorefrontClient {
+    private static final Logger logger = LogManager.getLogger(StorefrontClient.class);
+
+    private final String baseUrl;
+    private final CookieManager cookieManager;
+    private final HttpClient httpClient;
+
+    /**
+     * Create a client for the configured base URL
+     */
+    public StorefrontClient() {
+        this(ConfigReader.getBaseUrl());
+    }
+
+    /**
+     * Create a client for the given base URL
+     * @param baseUrl storefront base URL
+     */
+    public StorefrontClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        this.httpClient = HttpClient.newBuilder()
+                .cookieHandler(cookieManager)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(ConfigReader.getHttpTimeout()))
+                .build();
+    }
+
+    /**
+     * Get storefront base URL without trailing slash
+     * @return base URL
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Resolve a storefront path against the base URL
+     * @param path path starting with "/"
+     * @return absolute URI
+     */
+    public URI resolve(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * Send GET request
+     * @param path storefront path
+     * @return HTTP response
+     */
+    public HttpResponse<String> get(String path) {
+        HttpRequest request = newRequest(path).GET().build();
+        return send(request);
+    }
+
+    /**
+     * Send form-encoded POST request
+     * @param path storefront path
+     * @param form form fields, in submission order
+     * @return HTTP response
+     */
+    public HttpResponse<String> postForm(String path, Map<String, String> form) {
+        return postForm(path, new ArrayList<>(form.entrySet()));
+    }
+
+    /**
+     * Send form-encoded POST request with repeatable field names
+     * @param path storefront path
+     * @param form form fields, in submission order
+     * @return HTTP response
+     */
+    public HttpResponse<String> postForm(String path, List<Map.Entry<String, String>> form) {
+        HttpRequest request = newRequest(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encodeForm(form)))
+                .build();
+        return send(request);
+    }
+
+    /**
+     * Copy cookies from the browser into this client
+     * @param driver browser session to read cookies from
+     */
+    public void importCookies(WebDriver driver) {
+        URI uri = resolve("/");
+        for (Cookie cookie : driver.manage().getCookies()) {
+            HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+            httpCookie.setPath(cookie.getPath() == null ? "/" : cookie.getPath());
+            httpCookie.setVersion(0);
+            cookieManager.getCookieStore().add(uri, httpCookie);
+        }
+        logger.info("Imported " + driver.manage().getCookies().size() + " cookies from browser");
+    }
+
+    /**
+     * Copy cookies from this client into the browser.
+     * The browser must already be on the storefront domain.
+     * @param driver browser session to write cookies to
+     */
+    public void exportCookies(WebDriver driver) {
+        List<HttpCookie> cookies = getCookies();
+        for (HttpCookie httpCookie : cookies) {
+            driver.manage().deleteCookieNamed(httpCookie.getName());
+            driver.manage().addCookie(new Cookie(httpCookie.getName(), httpCookie.getValue(),
+                    httpCookie.getPath() == null ? "/" : httpCookie.getPath()));
+        }
+        logger.info("Exported " + cookies.size() + " cookies to browser");
+    }
+
+    /**
+     * Get cookies held for the storefront
+     * @return list of cookies
+     */
+    public List<HttpCookie> getCookies() {
+        return cookieManager.getCookieStore().get(resolve("/"));
+    }
+
+    /**
+     * Remove all cookies held by this client
+     */
+    public void clearCookies() {
+        cookieManager.getCookieStore().removeAll();
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(resolve(path))
+                .timeout(Duration.ofSeconds(ConfigReader.getHttpTimeout()));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            logger.info(request.method() + " " + request.uri() + " -> " + response.statusCode());
+            return response;
+        } catch (IOException e) {
+            logger.error("HTTP request failed: " + request.uri() + ", Error: " + e.getMessage());
+            throw new RuntimeException("HTTP request failed: " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("HTTP request interrupted: " + request.uri(), e);
+        }
+    }
+
+    /**
+     * Encode form fields as application/x-www-form-urlencoded
+     * @param form form fields
+     * @return encoded body
+     */
+    public static String encodeForm(List<Map.Entry<String, String>> form) {
+        StringJoiner body = new StringJoiner("&");
+        for (Map.Entry<String, String> field : form) {
+            body.add(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                    + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+}
@@ -1,5 +1,9 @@
 package com.kiboassessment.utils;
 
+import com.kiboassessment.deadline.BudgetExhaustedException;
+import com.kiboassessment.deadline.DeadlineWait;
+import com.kiboassessment.history.RunHistory;
+import com.kiboassessment.locators.DomSnapshots;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
@@ -15,6 +19,7 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
 
 /**
  * Utility class for common test operations
@@ -29,9 +34,10 @@ public class TestUtils {
      */
     public static void waitForElementVisible(WebElement element, int timeout) {
         try {
-            WebDriverWait wait = new WebDriverWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
-            wait.until(ExpectedConditions.visibilityOf(element));
+            WebDriverWait wait = new DeadlineWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
+            timedUntil(wait, ExpectedConditions.visibilityOf(element));
             logger.info("PASS: Element is visible: " + element);
+            DomSnapshots.record();
         } catch (TimeoutException e) {
             logger.error("Element not visible within timeout: " + element);
             throw e;
@@ -45,9 +51,10 @@ public class TestUtils {
      */
     public static void waitForElementClickable(WebElement element, int timeout) {
         try {
-            WebDriverWait wait = new WebDriverWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
-            wait.until(ExpectedConditions.elementToBeClickable(element));
+            WebDriverWait wait = new DeadlineWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
+            timedUntil(wait, ExpectedConditions.elementToBeClickable(element));
             logger.info("PASS: Element is clickable: " + element);
+            DomSnapshots.record();
         } catch (TimeoutException e) {
             logger.error("Element not clickable within timeout: " + element);
             throw e;
@@ -61,9 +68,10 @@ public class TestUtils {
      */
     public static void waitForElementPresent(By locator, int timeout) {
         try {
-            WebDriverWait wait = new WebDriverWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
-            wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            WebDriverWait wait = new DeadlineWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(timeout));
+            timedUntil(wait, ExpectedConditions.presenceOfElementLocated(locator));
             logger.info("PASS: Element is present: " + locator);
+            DomSnapshots.record();
         } catch (TimeoutException e) {
             logger.error("Element not present within timeout: " + locator);
             throw e;
@@ -253,11 +261,29 @@ public class TestUtils {
      */
     public static void waitForPageLoad() {
         try {
-            WebDriverWait wait = new WebDriverWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(webDriver -> ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete"));
+            WebDriverWait wait = new DeadlineWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(ConfigReader.getExplicitWait()));
+            timedUntil(wait, webDriver -> ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete"));
             logger.info("PASS: Page loaded successfully");
+        } catch (BudgetExhaustedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to wait for page load: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Wait for a condition and add the time spent waiting to the run history
+     * @param wait wait to use
+     * @param condition condition to wait for
+     * @param <T> condition result type
+     * @return condition result
+     */
+    private static <T> T timedUntil(WebDriverWait wait, Function<? super WebDriver, T> condition) {
+        long start = System.nanoTime();
+        try {
+            return wait.until(condition);
+        } finally {
+            RunHistory.recordWait((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -3,7 +3,17 @@ package com.kiboassessment.utils;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.deadline.DeadlineWait;
+import com.kiboassessment.har.HarCapture;
+import com.kiboassessment.health.SessionGate;
+import com.kiboassessment.network.NetworkConditioner;
+import com.kiboassessment.network.NetworkProfile;
+import com.kiboassessment.proxy.CachingProxy;
+import com.kiboassessment.replay.TrafficReplay;
+import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
@@ -13,62 +23,128 @@ import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Locale;
 
 /**
- * WebDriver manager utility class for browser setup and management
+ * WebDriver manager utility class for browser setup and management.
+ * Each thread owns its own browser session so that parallel workers do not share a driver.
  */
 public class WebDriverManagerUtil {
     private static final Logger logger = LogManager.getLogger(WebDriverManagerUtil.class);
-    private static WebDriver driver;
-    private static WebDriverWait wait;
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
 
     /**
      * Initialize WebDriver based on configuration
      * @return WebDriver instance
      */
     public static WebDriver initializeDriver() {
-        if (driver == null) {
+        if (driver.get() == null) {
+            SessionGate.beforeSession();
             String browser = ConfigReader.getBrowser().toLowerCase();
-            logger.info("Initializing WebDriver for browser: " + browser);
-
-            switch (browser) {
-                case "chrome":
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--start-maximized");
-                    chromeOptions.addArguments("--disable-notifications");
-                    chromeOptions.addArguments("--disable-popup-blocking");
-                    driver = new ChromeDriver(chromeOptions);
-                    break;
-
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    firefoxOptions.addArguments("--start-maximized");
-                    driver = new FirefoxDriver(firefoxOptions);
-                    break;
-
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    edgeOptions.addArguments("--start-maximized");
-                    driver = new EdgeDriver(edgeOptions);
-                    break;
-
-                default:
-                    logger.error("Unsupported browser: " + browser);
-                    throw new IllegalArgumentException("Unsupported browser: " + browser);
+            NetworkProfile networkProfile = NetworkProfile.active();
+            logger.info("Initializing WebDriver for browser: " + browser + ", network profile: " + networkProfile);
+
+            WebDriver newDriver;
+            try {
+                newDriver = createDriver(browser, networkProfile);
+                if (!networkProfile.isDefault()) {
+                    NetworkConditioner.apply(newDriver, networkProfile);
+                }
+            } catch (WebDriverException e) {
+                SessionGate.recordFailure(e);
+                throw e;
             }
 
             // Set implicit wait
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
+            newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
+            // Page objects use the counting session while a latency benchmark counts commands
+            WebDriver sessionDriver = CommandCounter.attach(newDriver);
+            driver.set(sessionDriver);
             
             // Initialize WebDriverWait
-            wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
+            wait.set(new DeadlineWait(sessionDriver, Duration.ofSeconds(ConfigReader.getExplicitWait())));
+            HarCapture.start(newDriver);
+            TrafficReplay.start(newDriver);
 
             logger.info("WebDriver initialized successfully");
         }
-        return driver;
+        return driver.get();
+    }
+
+    /**
+     * Create WebDriver for the given browser
+     * @param browser browser name
+     * @param networkProfile network profile; image suppression is set as a browser preference
+     * @return new WebDriver instance
+     */
+    private static WebDriver createDriver(String browser, NetworkProfile networkProfile) {
+        Proxy proxy = cachingProxy();
+        switch (browser) {
+            case "chrome":
+                WebDriverManager.chromedriver().setup();
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.addArguments("--start-maximized");
+                chromeOptions.addArguments("--disable-notifications");
+                chromeOptions.addArguments("--disable-popup-blocking");
+                if (!networkProfile.isImagesEnabled()) {
+                    chromeOptions.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+                }
+                if (proxy != null) {
+                    chromeOptions.setProxy(proxy);
+                    chromeOptions.addArguments("--proxy-bypass-list=<-loopback>");
+                }
+                return new ChromeDriver(chromeOptions);
+
+            case "firefox":
+                WebDriverManager.firefoxdriver().setup();
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                firefoxOptions.addArguments("--start-maximized");
+                if (!networkProfile.isImagesEnabled()) {
+                    firefoxOptions.addPreference("permissions.default.image", 2);
+                }
+                if (proxy != null) {
+                    firefoxOptions.setProxy(proxy);
+                    firefoxOptions.addPreference("network.proxy.allow_hijacking_localhost", true);
+                }
+                return new FirefoxDriver(firefoxOptions);
+
+            case "edge":
+                WebDriverManager.edgedriver().setup();
+                EdgeOptions edgeOptions = new EdgeOptions();
+                edgeOptions.addArguments("--start-maximized");
+                if (!networkProfile.isImagesEnabled()) {
+                    edgeOptions.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+                }
+                if (proxy != null) {
+                    edgeOptions.setProxy(proxy);
+                    edgeOptions.addArguments("--proxy-bypass-list=<-loopback>");
+                }
+                return new EdgeDriver(edgeOptions);
+
+            default:
+                logger.error("Unsupported browser: " + browser);
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    /**
+     * Get proxy settings routing the session through the shared caching proxy
+     * @return proxy settings, or null if proxy.enabled is not set or the storefront is served over HTTPS
+     */
+    private static Proxy cachingProxy() {
+        if (!CachingProxy.isEnabled()) {
+            return null;
+        }
+        if (ConfigReader.getBaseUrl().toLowerCase(Locale.ROOT).startsWith("https:")) {
+            // HTTPS is only tunneled, so the proxy would add a hop without caching anything
+            logger.warn("Caching proxy not used: it cannot cache HTTPS, and base.url is " + ConfigReader.getBaseUrl());
+            return null;
+        }
+        String address = CachingProxy.shared().getAddress();
+        logger.info("Routing browser traffic through caching proxy: " + address);
+        return new Proxy().setHttpProxy(address).setSslProxy(address);
     }
 
     /**
@@ -76,10 +152,34 @@ public class WebDriverManagerUtil {
      * @return WebDriver instance
      */
     public static WebDriver getDriver() {
-        if (driver == null) {
+        if (driver.get() == null) {
             initializeDriver();
         }
-        return driver;
+        return driver.get();
+    }
+
+    /**
+     * Check whether a browser session is currently open
+     * @return true if WebDriver is initialized, false otherwise
+     */
+    public static boolean isDriverInitialized() {
+        return driver.get() != null;
+    }
+
+    /**
+     * Use an already created driver for the current thread, e.g. a FakeWebDriver in page-object unit tests.
+     * The driver is used as is: no session gate, network profile or capture is applied.
+     * @param newDriver WebDriver instance, or null to detach the current one without quitting it
+     */
+    public static void setDriver(WebDriver newDriver) {
+        if (newDriver == null) {
+            driver.remove();
+            wait.remove();
+            return;
+        }
+        driver.set(newDriver);
+        wait.set(new DeadlineWait(newDriver, Duration.ofSeconds(ConfigReader.getExplicitWait())));
+        logger.info("Using provided WebDriver: " + newDriver.getClass().getSimpleName());
     }
 
     /**
@@ -87,21 +187,25 @@ public class WebDriverManagerUtil {
      * @return WebDriverWait instance
      */
     public static WebDriverWait getWait() {
-        if (wait == null) {
+        if (wait.get() == null) {
             initializeDriver();
         }
-        return wait;
+        return wait.get();
     }
 
     /**
      * Quit WebDriver and clean up resources
      */
     public static void quitDriver() {
-        if (driver != null) {
+        if (driver.get() != null) {
             logger.info("Quitting WebDriver");
-            driver.quit();
-            driver = null;
-            wait = null;
+            // Captures not finished by a test (e.g. load and monitoring sessions) are closed with the session
+            HarCapture.finish("session");
+            TrafficReplay.finish();
+            driver.get().quit();
+            driver.remove();
+            wait.remove();
+            NetworkConditioner.reset();
         }
     }
 
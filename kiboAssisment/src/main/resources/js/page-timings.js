@@ -0,0 +1,71 @@
+// Collects Navigation Timing, a resource timing summary and LCP/CLS/INP-style metrics of the current document.
+// Run with executeAsyncScript; the observers stay installed so later calls on the same document see new entries.
+var done = arguments[arguments.length - 1];
+
+function collect() {
+    var state = window.__pageTimings;
+    if (!state) {
+        state = window.__pageTimings = {lcp: 0, cls: 0, inp: 0};
+        var observe = function (type, handler, options) {
+            try {
+                var init = {type: type, buffered: true};
+                for (var key in options || {}) {
+                    init[key] = options[key];
+                }
+                new PerformanceObserver(function (list) {
+                    list.getEntries().forEach(handler);
+                }).observe(init);
+            } catch (e) {
+                // Entry type not supported by this browser
+            }
+        };
+        observe('largest-contentful-paint', function (entry) {
+            state.lcp = Math.max(state.lcp, entry.renderTime || entry.loadTime || entry.startTime);
+        });
+        observe('layout-shift', function (entry) {
+            if (!entry.hadRecentInput) {
+                state.cls += entry.value;
+            }
+        });
+        observe('event', function (entry) {
+            if (entry.interactionId) {
+                state.inp = Math.max(state.inp, entry.duration);
+            }
+        }, {durationThreshold: 16});
+    }
+
+    // Buffered observer entries are delivered asynchronously
+    setTimeout(function () {
+        var navigation = performance.getEntriesByType('navigation')[0] || {};
+        var resources = performance.getEntriesByType('resource');
+        var paint = performance.getEntriesByName('first-contentful-paint')[0];
+        var resourceBytes = 0;
+        var slowestResource = 0;
+        resources.forEach(function (resource) {
+            resourceBytes += resource.transferSize || 0;
+            slowestResource = Math.max(slowestResource, resource.duration);
+        });
+        done({
+            url: location.href,
+            timeOrigin: String(performance.timeOrigin),
+            metrics: {
+                ttfb: navigation.responseStart || 0,
+                domContentLoaded: navigation.domContentLoadedEventEnd || 0,
+                load: navigation.loadEventEnd || 0,
+                fcp: paint ? paint.startTime : 0,
+                lcp: state.lcp,
+                cls: state.cls,
+                inp: state.inp,
+                resourceCount: resources.length,
+                transferSize: resourceBytes + (navigation.transferSize || 0),
+                slowestResource: slowestResource
+            }
+        });
+    }, 50);
+}
+
+if (document.readyState === 'complete') {
+    collect();
+} else {
+    window.addEventListener('load', collect);
+}
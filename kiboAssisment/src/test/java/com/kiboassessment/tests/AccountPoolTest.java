@@ -0,0 +1,134 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.accounts.AccountLease;
+import com.kiboassessment.accounts.AccountPool;
+import com.kiboassessment.accounts.TestAccount;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Account pool provisioning over HTTP against the stand-in storefront, exclusive leases and cart reset on return
+ */
+public class AccountPoolTest {
+    private StandInStorefront storefront;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    private static List<TestAccount> accounts(String prefix, int size) {
+        List<TestAccount> accounts = new ArrayList<>();
+        for (int n = 1; n <= size; n++) {
+            accounts.add(new TestAccount(prefix + "." + n + "@example.com", "Secret-" + n));
+        }
+        return accounts;
+    }
+
+    @Test(description = "Missing accounts are registered, existing ones are logged in to and their carts emptied")
+    public void testProvisioning() {
+        List<TestAccount> accounts = accounts("provisioned", 3);
+        StorefrontFixtures existing = new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()))
+                .register(accounts.get(0).getEmail(), accounts.get(0).getPassword(), "Jane", "Doe")
+                .addProductToCart("Smartphone", 1);
+        Assert.assertEquals(existing.getCartItemNames(), List.of("Smartphone"));
+
+        AccountPool pool = AccountPool.provision(() -> new StorefrontClient(storefront.getBaseUrl()), accounts, 1000);
+        Assert.assertEquals(pool.getRegistered(), 2);
+        for (TestAccount account : accounts) {
+            Assert.assertNotNull(storefront.getAccount(account.getEmail()), account.getEmail());
+            Assert.assertTrue(storefront.getAccount(account.getEmail()).getCart().isEmpty(), account.getEmail());
+        }
+        Assert.assertEquals(AccountPool.provision(() -> new StorefrontClient(storefront.getBaseUrl()), accounts, 1000).getRegistered(), 0);
+        Assert.assertThrows(IllegalStateException.class, () -> new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()))
+                .register(accounts.get(0).getEmail(), "other", "Jane", "Doe"));
+    }
+
+    @Test(description = "Each account is held by one worker at a time; workers wait for a returned account")
+    public void testExclusiveLeases() throws Exception {
+        AccountPool pool = AccountPool.provision(() -> new StorefrontClient(storefront.getBaseUrl()), accounts("leased", 2), 5000);
+        Set<String> held = ConcurrentHashMap.newKeySet();
+        AtomicBoolean shared = new AtomicBoolean();
+        ExecutorService workers = Executors.newFixedThreadPool(5);
+        List<Future<?>> done = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            done.add(workers.submit(() -> {
+                try (AccountLease lease = pool.lease()) {
+                    Assert.assertEquals(pool.current(), lease.getAccount());
+                    if (!held.add(lease.getAccount().getEmail())) {
+                        shared.set(true);
+                    }
+                    Thread.sleep(100);
+                    held.remove(lease.getAccount().getEmail());
+                }
+                Assert.assertNull(pool.current());
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        workers.shutdown();
+
+        Assert.assertFalse(shared.get(), "An account was leased to two workers at once");
+        Assert.assertEquals(pool.getLeases(), 5);
+        Assert.assertEquals(pool.getPeakInUse(), 2);
+        Assert.assertTrue(pool.getLeaseWaits().getMax() >= 50, pool.toText());
+        Assert.assertTrue(pool.getUtilization() > 0 && pool.getUtilization() <= 1, pool.toText());
+        Assert.assertTrue(pool.toText().contains("5 leases"), pool.toText());
+    }
+
+    @Test(description = "A returned account's cart is emptied; a thread holds one account and waits only until the timeout")
+    public void testReturnAndTimeout() throws Exception {
+        AccountPool pool = AccountPool.provision(() -> new StorefrontClient(storefront.getBaseUrl()), accounts("returned", 1), 200);
+        AccountLease lease = pool.lease();
+        TestAccount account = lease.getAccount();
+        new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()))
+                .login(account.getEmail(), account.getPassword())
+                .addProductToCart("Fiction", 2);
+        Assert.assertFalse(storefront.getAccount(account.getEmail()).getCart().isEmpty());
+
+        Assert.assertThrows(IllegalStateException.class, pool::lease);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiting = other.submit(() -> pool.lease());
+            try {
+                waiting.get(10, TimeUnit.SECONDS);
+                Assert.fail("Lease granted while the only account was held");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+            }
+        } finally {
+            other.shutdownNow();
+        }
+        Assert.assertEquals(pool.getTimeouts(), 1);
+
+        lease.close();
+        lease.close();
+        Assert.assertTrue(storefront.getAccount(account.getEmail()).getCart().isEmpty());
+        try (AccountLease again = pool.lease()) {
+            Assert.assertEquals(again.getAccount(), account);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.proxy.AssetCache;
+import com.kiboassessment.proxy.CachingProxy;
+import com.kiboassessment.proxy.ProxyStats;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caching proxy tests against a local upstream server
+ */
+public class CachingProxyTest {
+    private HttpServer upstream;
+    private CachingProxy proxy;
+    private HttpClient client;
+    private File cacheDir;
+    private final Map<String, AtomicInteger> upstreamRequests = new ConcurrentHashMap<>();
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", this::serve);
+        upstream.start();
+        cacheDir = Files.createTempDirectory("asset-cache").toFile();
+        proxy = new CachingProxy(new AssetCache(cacheDir, 1024 * 1024), 0, 60_000);
+        proxy.start();
+        client = HttpClient.newBuilder()
+                .proxy(ProxySelector.of(new InetSocketAddress("127.0.0.1", proxy.getPort())))
+                .build();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        proxy.stop();
+        upstream.stop(0);
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        cacheDir.delete();
+    }
+
+    @Test(description = "Fresh static assets are served from the cache, stale ones are revalidated, dynamic pages pass through")
+    public void testCachingAndPassThrough() throws Exception {
+        HttpResponse<String> logo = get("/images/logo.png");
+        Assert.assertEquals(logo.statusCode(), 200);
+        Assert.assertEquals(get("/images/logo.png").body(), logo.body());
+        Assert.assertEquals(upstreamRequests.get("/images/logo.png").get(), 1, "Fresh asset fetched from upstream again");
+
+        HttpResponse<String> css = get("/css/site.css");
+        HttpResponse<String> revalidated = get("/css/site.css");
+        Assert.assertEquals(revalidated.statusCode(), 200);
+        Assert.assertEquals(revalidated.body(), css.body());
+        Assert.assertEquals(revalidated.headers().firstValue("Content-Type").orElse(""), "text/css");
+        Assert.assertEquals(upstreamRequests.get("/css/site.css").get(), 2, "Stale asset not revalidated");
+
+        get("/cart");
+        get("/cart");
+        Assert.assertEquals(upstreamRequests.get("/cart").get(), 2, "Dynamic page served from the cache");
+
+        ProxyStats stats = proxy.getStats();
+        Assert.assertEquals(stats.getMisses(), 2);
+        Assert.assertEquals(stats.getHits(), 1);
+        Assert.assertEquals(stats.getRevalidatedHits(), 1);
+        Assert.assertEquals(stats.getPassThrough(), 2);
+        Assert.assertEquals(stats.getHitRate(), 0.5, 0.001);
+        Assert.assertEquals(stats.getBytesSaved(), logo.body().length() + css.body().length());
+    }
+
+    @Test(description = "Least recently used assets are evicted beyond the size limit, and the cache reloads from disk")
+    public void testEvictionAndReload() {
+        AssetCache cache = new AssetCache(cacheDir, 2500);
+        Map<String, String> headers = Map.of("Content-Type", "image/png");
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("http://shop/a.png", new byte[1000], headers, expiresAt);
+        cache.put("http://shop/b.png", new byte[1000], headers, expiresAt);
+        Assert.assertNotNull(cache.get("http://shop/a.png"));
+        cache.put("http://shop/c.png", new byte[1000], headers, expiresAt);
+
+        Assert.assertNull(cache.get("http://shop/b.png"), "Least recently used asset not evicted");
+        Assert.assertEquals(cache.getTotalBytes(), 2000);
+
+        AssetCache reopened = new AssetCache(cacheDir, 2500);
+        Assert.assertEquals(reopened.size(), 2);
+        AssetCache.Entry entry = reopened.get("http://shop/c.png");
+        Assert.assertEquals(entry.getHeaders().get("Content-Type"), "image/png");
+        Assert.assertEquals(reopened.read(entry).length, 1000);
+        Assert.assertTrue(entry.isFresh(System.currentTimeMillis()));
+    }
+
+    @Test(description = "Assets are cached per Accept-Encoding, and a malformed Content-Length is rejected instead of failing the connection")
+    public void testEncodingVariantsAndBadLength() throws Exception {
+        HttpResponse<String> gzip = get("/js/app.js", "gzip");
+        HttpResponse<String> identity = get("/js/app.js", "identity");
+        Assert.assertEquals(gzip.headers().firstValue("Content-Encoding").orElse(""), "gzip");
+        Assert.assertEquals(identity.body(), "var app = 1;", "Compressed body served to a client that did not accept it");
+        Assert.assertEquals(get("/js/app.js", "gzip").body(), gzip.body());
+        Assert.assertEquals(get("/js/app.js", "identity").body(), identity.body());
+        Assert.assertEquals(upstreamRequests.get("/js/app.js").get(), 2, "One upstream fetch per encoding");
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), proxy.getPort())) {
+            String request = "POST http://127.0.0.1:" + upstream.getAddress().getPort() + "/checkout HTTP/1.1\r\n"
+                    + "Content-Length: 12abc\r\n\r\n";
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1)).readLine();
+            Assert.assertEquals(status, "HTTP/1.1 400 Bad Request");
+        }
+        Assert.assertNull(upstreamRequests.get("/checkout"));
+    }
+
+    private HttpResponse<String> get(String path, String acceptEncoding) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + path);
+        return client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", acceptEncoding).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + path);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        upstreamRequests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        byte[] body;
+        if (path.endsWith(".png")) {
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            body = "PNG-BYTES-0123456789".getBytes();
+        } else if (path.endsWith(".js")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/javascript");
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                body = "GZIP-BYTES".getBytes();
+            } else {
+                body = "var app = 1;".getBytes();
+            }
+        } else if (path.endsWith(".css")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/css");
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=0");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            body = "body { color: black; }".getBytes();
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.getResponseHeaders().set("Set-Cookie", "session=1");
+            body = "<html>cart</html>".getBytes();
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cart row index and bulk cart updates against the fake driver over stand-in cart markup
+ */
+public class CartIndexTest {
+    private static final String BASE_URL = "http://fake.test";
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private FakeWebDriver driver;
+
+    @BeforeMethod
+    public void setUp() {
+        driver = new FakeWebDriver();
+        WebDriverManagerUtil.setDriver(driver);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Test(description = "A large cart is indexed once, looked up without re-reading rows and updated in a single submit")
+    public void testCartIndexBulkUpdate() {
+        StandInCustomer customer = new StandInCustomer();
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            StandInCatalog.Product product = new StandInCatalog.Product(100 + i, "Bulk item " + i, "bulk-item-" + i, "BULK-" + i, 9.5, false);
+            customer.addToCart(i, product, i);
+            names.add(product.getName());
+        }
+        int[] submits = new int[1];
+        driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)))
+                .onClick(".cart-item-row .remove-from-cart", (fake, cell) -> cell.closest(".cart-item-row").remove())
+                .onClick("input[name=updatecart]", (fake, button) -> submits[0]++);
+        // The session reports to the counter that is active when it is decorated
+        CommandCounter counter = CommandCounter.start();
+        try {
+            WebDriverManagerUtil.setDriver(CommandCounter.attach(driver));
+        } finally {
+            CommandCounter.stop();
+        }
+
+        CartPage cartPage = new CartPage();
+        Map<String, CartPage.CartRow> index = cartPage.getCartIndex();
+        Assert.assertEquals(index.keySet(), new LinkedHashSet<>(names));
+        Assert.assertEquals(index.get("Bulk item 7").getQuantity(), 7);
+        Assert.assertEquals(index.get("Bulk item 7").getPrice(), StandInPages.price(9.5));
+
+        Assert.assertTrue(counter.getCount() > 0, "Session commands not counted");
+        long beforeLookups = counter.getCount();
+        for (int i = 0; i < names.size(); i++) {
+            Assert.assertEquals(cartPage.findCartItemByName(names.get(i)), i);
+        }
+        long lookups = counter.getCount() - beforeLookups;
+        // One validity probe per lookup instead of re-reading all 40 names
+        Assert.assertTrue(lookups <= names.size(), "Commands for 40 lookups: " + lookups);
+
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        quantities.put("Bulk item 2", 12);
+        quantities.put("Bulk item 30", 1);
+        Assert.assertTrue(cartPage.updateCart(quantities, List.of("Bulk item 1", "Bulk item 40")));
+        Assert.assertEquals(submits[0], 1);
+        Assert.assertEquals(driver.getDocument().select(".cart-item-row").size(), 38);
+        Assert.assertEquals(cartPage.getCartRow("Bulk item 2").getQuantity(), 12);
+        Assert.assertEquals(cartPage.findCartItemByName("Bulk item 2"), 0);
+        Assert.assertEquals(cartPage.findCartItemByName("Bulk item 40"), -1);
+
+        Assert.assertFalse(cartPage.removeItemsFromCart(List.of("Bulk item 3", "No such product")));
+        Assert.assertEquals(submits[0], 2);
+
+        // A reloaded page leaves the indexed rows stale, so the index is rebuilt
+        customer.removeFromCart(5);
+        driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+        Assert.assertEquals(cartPage.getCartIndex().size(), 39);
+        Assert.assertEquals(cartPage.findCartItemByName("Bulk item 5"), -1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.catalog.CatalogCrawler;
+import com.kiboassessment.catalog.ProductIndex;
+import com.kiboassessment.catalog.ProductRecord;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog crawl of the stand-in storefront into an on-disk index, incremental refresh and adding indexed products to the cart
+ */
+public class CatalogCrawlerTest {
+    private final StandInCatalog catalog = new StandInCatalog();
+    private StandInStorefront storefront;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @Test(description = "Every category page and product page is crawled and the index survives a round trip to disk")
+    public void testCrawlAndStore() throws IOException {
+        CatalogCrawler crawler = new CatalogCrawler(new StorefrontClient(storefront.getBaseUrl()), 4, 2, 3_600_000L);
+        ProductIndex index = crawler.crawl(ProductIndex.load(new File("does-not-exist.json")));
+
+        Assert.assertEquals(index.size(), catalog.getProducts().size());
+        // Books and computers span two pages of two products each
+        Assert.assertEquals(crawler.getListingPagesRead(), 5);
+        Assert.assertEquals(crawler.getProductPagesRead(), catalog.getProducts().size());
+
+        StandInCatalog.Product computer = catalog.getProductBySeName("simple-computer");
+        ProductRecord record = index.findBySku(computer.getSku()).orElseThrow();
+        Assert.assertEquals(record.getName(), computer.getName());
+        Assert.assertEquals(record.getPath(), "/simple-computer");
+        Assert.assertEquals(record.getPriceValue(), computer.getPrice(), 0.001);
+        Assert.assertEquals(record.getCategories(), List.of("Computers"));
+        Assert.assertEquals(record.getAttributes(), Map.of("Processor", List.of("Fast", "Medium")));
+        Assert.assertEquals(record.getAddToCartAction(), "/addproducttocart/details/" + computer.getId() + "/1");
+        Assert.assertTrue(record.getAddToCartForm().stream().anyMatch(field -> field.getValue().equals("1")
+                && field.getKey().startsWith("product_attribute_")), record.getAddToCartForm().toString());
+        Assert.assertEquals(index.select(ProductIndex.inCategory("books")).stream().map(ProductRecord::getName).collect(Collectors.toList()),
+                List.of("Computing and Internet", "Fiction", "Health Book"));
+        Assert.assertEquals(index.getUrl(record), new StorefrontClient(storefront.getBaseUrl()).resolve("/simple-computer").toString());
+
+        File file = File.createTempFile("catalog-index", ".json");
+        try {
+            index.save(file);
+            ProductIndex stored = ProductIndex.load(file);
+            Assert.assertEquals(stored.size(), index.size());
+            Assert.assertEquals(stored.get("/simple-computer").getAddToCartForm(), record.getAddToCartForm());
+            Assert.assertEquals(stored.getCrawledAt(), index.getCrawledAt());
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test(description = "A refresh reads only the details pages of products whose listing changed")
+    public void testIncrementalRefresh() throws IOException {
+        CatalogCrawler crawler = new CatalogCrawler(new StorefrontClient(storefront.getBaseUrl()), 4, 0, 3_600_000L);
+        File file = File.createTempFile("catalog-index", ".json");
+        Files.delete(file.toPath());
+        try {
+            crawler.crawl(ProductIndex.load(file)).save(file);
+            // The stored listing of one product no longer matches the storefront
+            String stored = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Files.write(file.toPath(), stored.replace("Fiction | 24.00", "Fiction | 19.00").getBytes(StandardCharsets.UTF_8));
+
+            ProductIndex refreshed = crawler.crawl(ProductIndex.load(file));
+            Assert.assertEquals(refreshed.size(), catalog.getProducts().size());
+            Assert.assertEquals(crawler.getProductPagesRead(), 1);
+            Assert.assertEquals(crawler.getProductsReused(), catalog.getProducts().size() - 1);
+            Assert.assertEquals(refreshed.findByName("Fiction").orElseThrow().getListing(), "Fiction | 24.00");
+
+            CatalogCrawler expiring = new CatalogCrawler(new StorefrontClient(storefront.getBaseUrl()), 4, 0, -1);
+            expiring.crawl(refreshed);
+            Assert.assertEquals(expiring.getProductPagesRead(), catalog.getProducts().size());
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test(description = "An indexed product is added to the cart from its stored form without searching")
+    public void testAddIndexedProduct() {
+        ProductIndex index = new CatalogCrawler(new StorefrontClient(storefront.getBaseUrl()), 2, 0, 3_600_000L)
+                .crawl(ProductIndex.load(new File("does-not-exist.json")));
+        StorefrontFixtures fixtures = new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()));
+
+        fixtures.addProductToCart(index.findByName("Build your own cheap computer").orElseThrow(), 2);
+        fixtures.addProductToCart(index.findByName("Smartphone").orElseThrow(), 1);
+        Assert.assertEquals(fixtures.getCartContents(), Map.of("Build your own cheap computer", 2, "Smartphone", 1));
+    }
+}
@@ -0,0 +1,29 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.matrix.BrowserCheckoutFlow;
+import com.kiboassessment.matrix.CheckoutCart;
+import com.kiboassessment.matrix.CheckoutMatrixReport;
+import com.kiboassessment.matrix.CheckoutMatrixRunner;
+import com.kiboassessment.utils.ConfigReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Shipping, payment, address and region combinations checked out in parallel browser sessions,
+ * run with: mvn test -Pmatrix
+ */
+public class CheckoutCombinationsTest {
+
+    @Test(description = "Every checkout combination of the matrix places an order")
+    public void testCheckoutMatrix() {
+        CheckoutCart cart = CheckoutCart.fromConfig();
+        CheckoutMatrixRunner runner = CheckoutMatrixRunner.fromConfig(() -> new BrowserCheckoutFlow(cart));
+        TestListener.logStep("Checking out " + runner.getCombinations().size() + " combinations with cart " + cart);
+
+        CheckoutMatrixReport report = runner.run();
+        report.writeJson(ConfigReader.getProperty("checkout.matrix.report.path"));
+        TestListener.logInfo("<pre>" + report.toText() + "</pre>");
+        Assert.assertTrue(report.getFailures().isEmpty(), "Failed combinations: " + report.getFailures());
+    }
+}
@@ -0,0 +1,159 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.catalog.CatalogCrawler;
+import com.kiboassessment.catalog.ProductIndex;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.matrix.CheckoutCart;
+import com.kiboassessment.matrix.CheckoutCombination;
+import com.kiboassessment.matrix.CheckoutMatrix;
+import com.kiboassessment.matrix.CheckoutMatrixFlow;
+import com.kiboassessment.matrix.CheckoutMatrixReport;
+import com.kiboassessment.matrix.CheckoutMatrixRunner;
+import com.kiboassessment.matrix.CheckoutResult;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout matrix generation, pairwise reduction and parallel runs on pooled sessions
+ */
+public class CheckoutMatrixTest {
+
+    private static CheckoutMatrix matrix() {
+        return new CheckoutMatrix()
+                .dimension(CheckoutMatrix.SHIPPING, List.of("ground", "nextday", "secondday"))
+                .dimension(CheckoutMatrix.PAYMENT, List.of("check", "creditcard"))
+                .dimension(CheckoutMatrix.ADDRESS, List.of("same", "separate"))
+                .dimension(CheckoutMatrix.REGION, List.of("United States/California", "United States/New York", "Canada/Ontario"));
+    }
+
+    @Test(description = "The pairwise set is much smaller than the full matrix and still covers every pair of values")
+    public void testPairwiseCoverage() {
+        List<CheckoutCombination> all = matrix().allCombinations();
+        List<CheckoutCombination> pairwise = matrix().pairwiseCombinations();
+
+        Assert.assertEquals(all.size(), 36);
+        Assert.assertEquals(new HashSet<>(all).size(), 36);
+        Assert.assertTrue(pairwise.size() <= 12, "Pairwise combinations: " + pairwise.size());
+        Assert.assertTrue(all.containsAll(pairwise));
+        Assert.assertEquals(pairs(pairwise), pairs(all));
+        Assert.assertEquals(matrix().pairwise(true).getCombinations(), pairwise);
+
+        List<CheckoutCombination> twoDimensions = new CheckoutMatrix()
+                .dimension(CheckoutMatrix.SHIPPING, List.of("ground", "nextday"))
+                .dimension(CheckoutMatrix.PAYMENT, List.of("check", "creditcard"))
+                .pairwiseCombinations();
+        Assert.assertEquals(twoDimensions.size(), 4);
+    }
+
+    @Test(description = "Combinations run once each in parallel on pooled sessions; a failed session is replaced")
+    public void testParallelRun() {
+        List<CheckoutCombination> combinations = matrix().pairwiseCombinations();
+        AtomicInteger sessionsStarted = new AtomicInteger();
+        AtomicInteger sessionsReplaced = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        CheckoutMatrixRunner runner = new CheckoutMatrixRunner(combinations, 3, () -> new CheckoutMatrixFlow() {
+            @Override
+            public void startSession() {
+                sessionsStarted.incrementAndGet();
+            }
+
+            @Override
+            public void checkout(CheckoutCombination combination, StepRecorder steps) {
+                threads.add(Thread.currentThread().getName());
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    steps.step("Cart setup", () -> sleep(20));
+                    steps.step("Payment", () -> {
+                        sleep(20);
+                        if (combination.get(CheckoutMatrix.PAYMENT).equals("creditcard")
+                                && combination.get(CheckoutMatrix.REGION).startsWith("Canada")) {
+                            throw new IllegalStateException("Card declined");
+                        }
+                    });
+                    steps.step("Confirm order", () -> sleep(20));
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+
+            @Override
+            public void onCheckoutFailure(Exception cause) {
+                sessionsReplaced.incrementAndGet();
+            }
+        });
+        CheckoutMatrixReport report = runner.run();
+
+        Assert.assertEquals(report.getResults().stream().map(CheckoutResult::getCombination).collect(Collectors.toList()), combinations);
+        Assert.assertEquals(sessionsStarted.get(), 3);
+        Assert.assertEquals(threads.size(), 3);
+        Assert.assertTrue(peak.get() > 1, "Combinations did not run in parallel");
+        Assert.assertTrue(report.getElapsedMs() < report.getSerialMs(), report.toText());
+
+        List<CheckoutResult> failures = report.getFailures();
+        Assert.assertFalse(failures.isEmpty(), report.toText());
+        Assert.assertEquals(sessionsReplaced.get(), failures.size());
+        for (CheckoutResult failure : failures) {
+            Assert.assertEquals(failure.getError(), "Card declined");
+            Assert.assertEquals(failure.getStepMs().keySet(), Set.of("Cart setup", "Payment"));
+        }
+        CheckoutResult passed = report.getResults().stream().filter(CheckoutResult::isSuccess).findFirst().orElseThrow();
+        Assert.assertEquals(List.copyOf(passed.getStepMs().keySet()), List.of("Cart setup", "Payment", "Confirm order"));
+
+        String text = report.toText();
+        Assert.assertTrue(text.contains("Card declined") && text.contains("Confirm order") && text.contains("Canada/Ontario"), text);
+    }
+
+    @Test(description = "The cart is resolved once and fills the separate cart of every new guest session")
+    public void testSharedCartSetup() {
+        StandInStorefront storefront = new StandInStorefront().start();
+        try {
+            ProductIndex index = new CatalogCrawler(new StorefrontClient(storefront.getBaseUrl()), 2, 0, 3_600_000L)
+                    .crawl(ProductIndex.load(new File("does-not-exist.json")));
+            CheckoutCart cart = CheckoutCart.of(index, "Build your own cheap computer:2, Smartphone");
+
+            for (int guest = 0; guest < 2; guest++) {
+                StorefrontFixtures fixtures = cart.applyTo(new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl())));
+                Assert.assertEquals(fixtures.getCartContents(), Map.of("Build your own cheap computer", 2, "Smartphone", 1));
+            }
+            Assert.assertThrows(IllegalStateException.class, () -> CheckoutCart.of(index, "No such product"));
+        } finally {
+            storefront.stop();
+        }
+    }
+
+    private static Set<String> pairs(List<CheckoutCombination> combinations) {
+        Set<String> pairs = new HashSet<>();
+        for (CheckoutCombination combination : combinations) {
+            List<Map.Entry<String, String>> values = List.copyOf(combination.getValues().entrySet());
+            for (int i = 0; i < values.size(); i++) {
+                for (int j = i + 1; j < values.size(); j++) {
+                    pairs.add(values.get(i) + "|" + values.get(j));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
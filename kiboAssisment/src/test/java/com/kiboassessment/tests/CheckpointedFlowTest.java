@@ -0,0 +1,169 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.deadline.BudgetExhaustedException;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.flow.CheckpointedFlow;
+import com.kiboassessment.flow.FlowCheckpoint;
+import com.kiboassessment.listeners.StageRetryAnalyzer;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Checkpointed flows retried by StageRetryAnalyzer: a fake browser over stand-in storefront pages runs a
+ * nested TestNG test whose stage fails, and the retry must resume at that stage from the last checkpoint
+ */
+public class CheckpointedFlowTest {
+    private static StandInStorefront storefront;
+    private static FakeWebDriver driver;
+    private static StorefrontClient client;
+    private static final Map<String, Integer> stageRuns = new LinkedHashMap<>();
+    private static int failuresLeft;
+    private static Supplier<RuntimeException> checkoutFailure;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+        System.setProperty("base.url", storefront.getBaseUrl());
+        System.setProperty("flow.max.retries", "2");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        System.clearProperty("base.url");
+        System.clearProperty("flow.max.retries");
+        storefront.stop();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        driver = new FakeWebDriver();
+        client = new StorefrontClient(storefront.getBaseUrl());
+        WebDriverManagerUtil.setDriver(driver);
+        stageRuns.clear();
+        checkoutFailure = () -> new StaleElementReferenceException("Transient checkout failure");
+        browse("/");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    /**
+     * Open a storefront page in the fake browser as the session of the HTTP client
+     */
+    private static void browse(String path) {
+        client.exportCookies(driver);
+        driver.load(storefront.getBaseUrl() + path.substring(1), client.get(path).body());
+    }
+
+    private static void ran(String stage) {
+        stageRuns.merge(stage, 1, Integer::sum);
+    }
+
+    private static TestListenerAdapter run(Class<?> testClass) {
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setOutputDirectory("target/checkpointed-flow");
+        testng.setTestClasses(new Class<?>[]{testClass});
+        TestListenerAdapter results = new TestListenerAdapter();
+        testng.addListener(results);
+        testng.run();
+        return results;
+    }
+
+    @Test(description = "A failed stage is retried from the last checkpoint: completed stages are skipped, cart and URL are restored")
+    public void testResumeAtFailedStage() {
+        failuresLeft = 1;
+        TestListenerAdapter results = run(FlakyPurchase.class);
+
+        Assert.assertEquals(results.getPassedTests().size(), 1, String.valueOf(results.getFailedTests()));
+        Assert.assertEquals(results.getSkippedTests().size(), 1, "Failed attempt must be retried once");
+        Assert.assertEquals(stageRuns, Map.of("Add to cart", 1, "Open cart", 1, "Checkout", 2));
+        Assert.assertEquals(new StorefrontFixtures(client).getCartContents(), Map.of("Smartphone", 1));
+    }
+
+    @Test(description = "A stage that keeps failing is retried flow.max.retries times and then fails the test")
+    public void testRetriesStopAtLimit() {
+        failuresLeft = Integer.MAX_VALUE;
+        TestListenerAdapter results = run(FlakyPurchase.class);
+
+        Assert.assertEquals(results.getFailedTests().size(), 1);
+        Assert.assertEquals(results.getSkippedTests().size(), 2);
+        Assert.assertEquals(stageRuns, Map.of("Add to cart", 1, "Open cart", 1, "Checkout", 3));
+    }
+
+    @Test(description = "Deterministic failures such as a missing element or a budget run out are not retried")
+    public void testDeterministicFailureNotRetried() {
+        failuresLeft = Integer.MAX_VALUE;
+        checkoutFailure = () -> new NoSuchElementException("Unable to locate #checkout-steps");
+        TestListenerAdapter results = run(FlakyPurchase.class);
+        Assert.assertEquals(results.getFailedTests().size(), 1);
+        Assert.assertEquals(results.getSkippedTests().size(), 0, "Missing element was retried");
+
+        stageRuns.clear();
+        checkoutFailure = () -> new BudgetExhaustedException("Time budget exhausted in step 'Checkout'", "Checkout",
+                new TimeoutException("Expected condition failed"));
+        results = run(FlakyPurchase.class);
+        Assert.assertEquals(results.getSkippedTests().size(), 0, "Exhausted budget was retried");
+        Assert.assertEquals(stageRuns.get("Checkout"), Integer.valueOf(1));
+    }
+
+    /**
+     * Purchase flow whose checkout stage changes the cart, leaves the cart page and fails while failuresLeft is positive
+     */
+    static class FlakyPurchase {
+        private int requestsAfterCart;
+
+        @Test(retryAnalyzer = StageRetryAnalyzer.class)
+        public void purchase() {
+            CheckpointedFlow.forCurrentTest()
+                    .stage("Add to cart", () -> {
+                        ran("Add to cart");
+                        new StorefrontFixtures(client).addProductToCart("Smartphone", 1);
+                        browse("/smartphone");
+                    })
+                    .stage("Open cart", () -> {
+                        ran("Open cart");
+                        browse("/cart");
+                        requestsAfterCart = storefront.getRequestCount();
+                    })
+                    .stage("Checkout", () -> {
+                        ran("Checkout");
+                        FlowCheckpoint checkpoint = CheckpointedFlow.find(Reporter.getCurrentTestResult()).getLastCheckpoint();
+                        Assert.assertEquals(checkpoint.getCart(), Map.of("Smartphone", 1), "Cart read from the cart page");
+                        if (stageRuns.get("Checkout") == 1) {
+                            Assert.assertEquals(storefront.getRequestCount(), requestsAfterCart, "Checkpoint made storefront requests");
+                        } else {
+                            Assert.assertEquals(driver.getCurrentUrl(), storefront.getBaseUrl() + "cart");
+                            Assert.assertEquals(new StorefrontFixtures(client).getCartContents(), Map.of("Smartphone", 1));
+                        }
+                        if (failuresLeft-- > 0) {
+                            new StorefrontFixtures(client).addProductToCart("Fiction", 2);
+                            browse("/");
+                            throw checkoutFailure.get();
+                        }
+                    })
+                    .run();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.OrderConfirmationPage;
+import com.kiboassessment.pages.SearchResultsPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInOrder;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page objects driven by the in-memory fake driver over stand-in storefront markup
+ */
+public class FakeWebDriverTest {
+    private static final Logger logger = LogManager.getLogger(FakeWebDriverTest.class);
+    private static final String BASE_URL = "http://fake.test";
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private FakeWebDriver driver;
+
+    @BeforeMethod
+    public void setUp() {
+        driver = new FakeWebDriver();
+        WebDriverManagerUtil.setDriver(driver);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Test(description = "Cart page reads rows and removes an item through a scripted transition")
+    public void testCartPage() {
+        List<StandInCatalog.Product> products = catalog.getProducts();
+        StandInCustomer customer = new StandInCustomer();
+        customer.addToCart(1, products.get(0), 1);
+        customer.addToCart(2, products.get(1), 3);
+        driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)))
+                .onClick(".cart-item-row .remove-from-cart", (fake, cell) -> cell.closest(".cart-item-row").remove())
+                .onClick("input[name=updatecart]", (fake, button) -> { });
+
+        CartPage cartPage = new CartPage();
+        Assert.assertEquals(cartPage.getNumberOfCartItems(), 2);
+        Assert.assertEquals(cartPage.findCartItemByName(products.get(1).getName()), 1);
+        Assert.assertTrue(cartPage.getCartTotal().contains(StandInPages.price(customer.getCartTotal())), cartPage.getCartTotal());
+
+        Assert.assertTrue(cartPage.removeItemFromCart(products.get(0).getName()));
+        Assert.assertEquals(cartPage.getCartItemNames(), List.of(products.get(1).getName()));
+        Assert.assertTrue(cartPage.updateItemQuantity(products.get(1).getName(), 5));
+        Assert.assertEquals(driver.getDocument().selectFirst(".qty-input").val(), "5");
+    }
+
+    @Test(description = "Search results are matched by name and a product link opens its fixture")
+    public void testSearchResults() {
+        StandInCatalog.Product product = catalog.getProducts().get(0);
+        StandInCustomer guest = new StandInCustomer();
+        driver.page(BASE_URL + "/" + product.getSeName(), pages.layout(product.getName(), guest, pages.product(product)))
+                .load(BASE_URL + "/search?q=a", pages.layout("Search", guest, pages.searchResults("a", catalog.search("a"))));
+
+        SearchResultsPage searchResultsPage = new SearchResultsPage();
+        Assert.assertTrue(searchResultsPage.getNumberOfResults() > 0);
+        Assert.assertTrue(searchResultsPage.findProductByName(product.getName()) >= 0);
+        Assert.assertEquals(searchResultsPage.findProductByName("No such product"), -1);
+
+        WebElement resultTitle = driver.findElement(By.cssSelector(".product-item .product-title a"));
+        Assert.assertTrue(searchResultsPage.clickProductByName(product.getName()));
+        Assert.assertEquals(driver.getCurrentUrl(), BASE_URL + "/" + product.getSeName());
+        Assert.assertThrows(StaleElementReferenceException.class, resultTitle::getText);
+
+        driver.navigate().back();
+        Assert.assertTrue(driver.getCurrentUrl().endsWith("/search?q=a"));
+    }
+
+    @Test(description = "Order confirmation is read and followed to the order details")
+    public void testOrderConfirmation() {
+        StandInCustomer customer = new StandInCustomer("fake@example.com", "secret");
+        customer.addToCart(1, catalog.getProducts().get(0), 2);
+        Map<String, String> address = Map.of("FirstName", "Jane", "LastName", "Doe", "Email", "fake@example.com",
+                "City", "Austin", "Address1", "1 Main St", "ZipPostalCode", "73301", "PhoneNumber", "5550100");
+        StandInOrder order = new StandInOrder(42, customer, customer.getCart(), address, address, "Ground", 0, "Check / Money Order");
+        driver.page(BASE_URL + "/orderdetails/42", pages.layout("Order information", customer, pages.orderDetails(order)))
+                .load(BASE_URL + "/checkout/completed/", pages.layout("Checkout", customer, pages.orderCompleted(order)));
+
+        OrderConfirmationPage confirmationPage = new OrderConfirmationPage();
+        Assert.assertTrue(confirmationPage.isSuccessMessageDisplayed());
+        Assert.assertTrue(confirmationPage.getSuccessMessage().contains("successfully processed"));
+        confirmationPage.clickHereForOrderDetailsLink();
+
+        Assert.assertTrue(driver.getCurrentUrl().endsWith("/orderdetails/42"));
+        Assert.assertTrue(new OrderConfirmationPage().getOrderNumber().contains("42"));
+    }
+
+    @Test(description = "Repeated locator lookups against the fake driver find the same cart item; average time is logged")
+    public void testLookupSpeed() {
+        StandInCustomer customer = new StandInCustomer();
+        customer.addToCart(1, catalog.getProducts().get(0), 1);
+        driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+        String name = catalog.getProducts().get(0).getName();
+
+        int iterations = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WebElement cartItemName = driver.findElement(By.cssSelector(".cart-item-row .product-name"));
+            Assert.assertTrue(cartItemName.isDisplayed() && cartItemName.getText().equals(name));
+        }
+        long micros = (System.nanoTime() - start) / 1000 / iterations;
+        // Wall-clock time depends on the machine, so it is reported rather than asserted
+        logger.info("Cart item lookup took " + micros + " us on average over " + iterations + " lookups");
+    }
+}
@@ -0,0 +1,163 @@
+package com.kiboassessment.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.har.HarRecorder;
+import com.kiboassessment.har.HarSummary;
+import com.kiboassessment.har.HarWriter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HAR recorder tests fed with DevTools Network events (no browser required)
+ */
+public class HarRecorderTest {
+
+    @Test(description = "Network events become streamed HAR entries grouped by step, with the slowest requests summarized")
+    public void testStreamingHar() throws Exception {
+        File file = Files.createTempFile("capture", ".har").toFile();
+        try {
+            HarWriter writer = new HarWriter(file);
+            HarRecorder recorder = new HarRecorder(writer, new HarSummary(1), 0);
+
+            recorder.step("Open cart");
+            recorder.onRequestWillBeSent(request("1", "GET", "http://shop/cart?x=1", 100.0));
+            recorder.onResponseReceived(response("1", 200, 100.0, 5, 10, 310));
+            recorder.onLoadingFinished(Map.of("requestId", "1", "timestamp", 100.4, "encodedDataLength", 2048));
+            Assert.assertEquals(writer.getEntryCount(), 1, "Entry not written when it completed");
+            Assert.assertTrue(file.length() > 0, "Entry not flushed to disk");
+
+            recorder.onRequestWillBeSent(request("2", "GET", "http://shop/logo.png", 100.5));
+            recorder.onLoadingFailed(Map.of("requestId", "2", "timestamp", 100.55, "errorText", "net::ERR_BLOCKED_BY_CLIENT"));
+
+            recorder.step("Checkout");
+            Map<String, Object> submit = request("3", "POST", "http://shop/checkout", 101.0);
+            recorder.onRequestWillBeSent(submit);
+            Map<String, Object> redirectHop = new HashMap<>(request("3", "GET", "http://shop/checkout/completed", 101.2));
+            redirectHop.put("redirectResponse", response("3", 302, 101.0, 1, 2, 150).get("response"));
+            recorder.onRequestWillBeSent(redirectHop);
+            recorder.onRequestWillBeSent(request("4", "GET", "http://shop/never-finished", 101.3));
+            HarSummary summary = recorder.close();
+
+            JsonNode log = new ObjectMapper().readTree(file).path("log");
+            Assert.assertEquals(log.path("version").asText(), "1.2");
+            Assert.assertEquals(log.path("pages").size(), 2);
+            JsonNode entries = log.path("entries");
+            Assert.assertEquals(entries.size(), 5, "Cart, blocked image, redirect hop, redirect target and unfinished request");
+
+            JsonNode cart = entries.get(0);
+            Assert.assertEquals(cart.path("pageref").asText(), "Open cart");
+            Assert.assertEquals(cart.path("timings").path("wait").asDouble(), 300.0, 0.001);
+            Assert.assertEquals(cart.path("timings").path("receive").asDouble(), 90.0, 0.001);
+            Assert.assertEquals(cart.path("request").path("queryString").get(0).path("name").asText(), "x");
+            Assert.assertEquals(entries.get(1).path("_error").asText(), "net::ERR_BLOCKED_BY_CLIENT");
+            Assert.assertEquals(entries.get(2).path("response").path("status").asInt(), 302);
+            Assert.assertEquals(entries.get(2).path("pageref").asText(), "Checkout");
+
+            List<HarSummary.SlowRequest> slowest = summary.getSlowestRequests().get("Open cart");
+            Assert.assertEquals(slowest.size(), 1, "Only the top request is kept");
+            Assert.assertEquals(slowest.get(0).getUrl(), "http://shop/cart?x=1");
+            Assert.assertEquals(summary.getRequestCount("Open cart"), 2);
+            Assert.assertTrue(summary.toHtml().contains("GET http://shop/cart?x=1"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(description = "Response bodies are cut by bytes, not fetched when over the cap and dropped when too many wait")
+    public void testBodyLimits() throws Exception {
+        File file = Files.createTempFile("bodies", ".har").toFile();
+        try {
+            HarWriter writer = new HarWriter(file);
+            HarRecorder recorder = new HarRecorder(writer, new HarSummary(1), 8);
+            Set<String> fetched = ConcurrentHashMap.newKeySet();
+            CountDownLatch slowStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            recorder.setBodyFetcher(requestId -> {
+                fetched.add(requestId);
+                if (requestId.equals("slow")) {
+                    slowStarted.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                // 9 bytes: the 8 byte cap falls inside the last two-byte character
+                String body = Base64.getEncoder().encodeToString("a\u00e9\u00e9\u00e9\u00e9".getBytes(StandardCharsets.UTF_8));
+                return Map.of("body", body, "base64Encoded", true);
+            });
+
+            recorder.step("Bodies");
+            finish(recorder, "small", 8);
+            finish(recorder, "large", 4096);
+            finish(recorder, "slow", 8);
+            Assert.assertTrue(slowStarted.await(10, TimeUnit.SECONDS));
+            // One fetch runs, 100 wait and the next body is dropped
+            for (int i = 0; i <= 100; i++) {
+                finish(recorder, "queued" + i, 8);
+            }
+            release.countDown();
+            recorder.close();
+
+            Assert.assertFalse(fetched.contains("large"), "Body over the cap was fetched");
+            Assert.assertEquals(recorder.getDroppedBodies(), 1);
+            Map<String, JsonNode> contents = new HashMap<>();
+            for (JsonNode entry : new ObjectMapper().readTree(file).path("log").path("entries")) {
+                contents.put(entry.path("request").path("url").asText(), entry.path("response").path("content"));
+            }
+            Assert.assertEquals(contents.size(), 104, "Entries are written with or without a body");
+            Assert.assertEquals(contents.get("http://shop/small").path("text").asText(), "a\u00e9\u00e9\u00e9");
+            Assert.assertEquals(contents.get("http://shop/small").path("comment").asText(), "Truncated to 8 of 9 bytes");
+            Assert.assertFalse(contents.get("http://shop/large").has("text"));
+            Assert.assertTrue(contents.get("http://shop/large").path("comment").asText().contains("not stored"));
+            Assert.assertFalse(contents.get("http://shop/queued100").has("text"));
+            Assert.assertTrue(contents.get("http://shop/queued100").path("comment").asText().startsWith("Body dropped"));
+            Assert.assertTrue(contents.get("http://shop/queued99").has("text"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void finish(HarRecorder recorder, String id, int encodedDataLength) {
+        recorder.onRequestWillBeSent(request(id, "GET", "http://shop/" + id, 100.0));
+        recorder.onResponseReceived(response(id, 200, 100.0, 1, 2, 10));
+        recorder.onLoadingFinished(Map.of("requestId", id, "timestamp", 100.1, "encodedDataLength", encodedDataLength));
+    }
+
+    private static Map<String, Object> request(String id, String method, String url, double timestamp) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("requestId", id);
+        event.put("timestamp", timestamp);
+        event.put("wallTime", 1700000000.0 + timestamp);
+        event.put("request", Map.of("method", method, "url", url, "headers", Map.of("Accept", "text/html")));
+        return event;
+    }
+
+    private static Map<String, Object> response(String id, int status, double requestTime, double sendStart,
+                                                double sendEnd, double headersEnd) {
+        Map<String, Object> timing = new HashMap<>();
+        timing.put("requestTime", requestTime);
+        timing.put("dnsStart", -1);
+        timing.put("connectStart", -1);
+        timing.put("sslStart", -1);
+        timing.put("sendStart", sendStart);
+        timing.put("sendEnd", sendEnd);
+        timing.put("receiveHeadersEnd", headersEnd);
+        Map<String, Object> response = Map.of("status", status, "statusText", "", "mimeType", "text/html",
+                "protocol", "http/1.1", "headers", Map.of("Content-Type", "text/html"), "timing", timing);
+        return Map.of("requestId", id, "response", response);
+    }
+}
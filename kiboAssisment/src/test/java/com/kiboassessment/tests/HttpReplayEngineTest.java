@@ -0,0 +1,130 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.load.LoadProfile;
+import com.kiboassessment.load.http.HttpReplayEngine;
+import com.kiboassessment.load.http.RecordedExchange;
+import com.kiboassessment.load.http.ReplayResult;
+import com.kiboassessment.load.http.RequestScript;
+import com.kiboassessment.load.http.ScriptCorrelator;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.LatencyHistogram;
+import com.kiboassessment.utils.StorefrontClient;
+import org.jsoup.Jsoup;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.http.HttpResponse;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Correlation and HTTP replay tests against the stand-in storefront (no browser required).
+ * The purchase flow is captured with the plain HTTP client in place of a DevTools recording.
+ */
+public class HttpReplayEngineTest {
+    private static final String EMAIL = "replay.recorder@example.com";
+    private static final String PASSWORD = "Recorder#2024";
+
+    private StandInStorefront storefront;
+    private StorefrontClient client;
+    private final List<RecordedExchange> exchanges = new ArrayList<>();
+
+    @BeforeClass
+    public void recordFlow() {
+        storefront = new StandInStorefront().start();
+        storefront.registerAccount(EMAIL, PASSWORD);
+        client = new StorefrontClient(storefront.getBaseUrl());
+
+        Map<String, String> html = Map.of("Accept", "text/html");
+        Map<String, String> xhr = Map.of("Accept", "application/json", "X-Requested-With", "XMLHttpRequest");
+        record("GET", "/login", html, null);
+        record("POST", "/login", html, form("Email", EMAIL, "Password", PASSWORD, "RememberMe", "false"));
+        String search = record("GET", "/search?q=Smartphone", html, null);
+        String productPath = Jsoup.parse(search).selectFirst(".product-item .product-title a").attr("href");
+        record("GET", productPath, html, null);
+        record("POST", "/addproducttocart/details/43/1", xhr, form("addtocart_43.EnteredQuantity", "1"));
+        String cart = record("GET", "/cart", html, null);
+        String lineId = Jsoup.parse(cart).selectFirst("input[name=removefromcart]").val();
+        record("POST", "/cart", html, form("removefromcart", lineId, "itemquantity" + lineId, "1", "updatecart", "Update shopping cart"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @Test(description = "Cart line ids are correlated to the cart page and user data becomes parameters")
+    public void testCorrelation() {
+        RequestScript script = new ScriptCorrelator(Map.of("email", EMAIL, "password", PASSWORD)).correlate(exchanges);
+
+        Assert.assertEquals(script.requests.size(), 7);
+        RequestScript.ScriptedRequest login = script.requests.get(1);
+        Assert.assertTrue(login.bodyTemplate.contains("Email=${email}"), "Email not parameterized: " + login.bodyTemplate);
+        Assert.assertTrue(login.bodyTemplate.contains("Password=${password}"), "Password not parameterized: " + login.bodyTemplate);
+
+        RequestScript.ScriptedRequest cartPage = script.requests.get(5);
+        Assert.assertEquals(cartPage.extractions.size(), 1, "Cart line id not extracted from the cart page");
+        String variable = cartPage.extractions.get(0).variable;
+        RequestScript.ScriptedRequest update = script.requests.get(6);
+        Assert.assertEquals(update.bodyTemplate,
+                "removefromcart=${" + variable + "}&itemquantity${" + variable + "}=1&updatecart=Update+shopping+cart");
+        Assert.assertEquals(update.headers.keySet().toString(), "[Accept]");
+    }
+
+    @Test(description = "Concurrent virtual users replay the correlated script without errors")
+    public void testReplay() {
+        int users = 50;
+        for (int i = 0; i < users; i++) {
+            storefront.registerAccount("replay.user" + i + "@example.com", PASSWORD);
+        }
+        RequestScript script = new ScriptCorrelator(Map.of("email", EMAIL, "password", PASSWORD)).correlate(exchanges);
+
+        LoadProfile profile = new LoadProfile(users, 200, 5, 1500);
+        ReplayResult result = new HttpReplayEngine(script, storefront.getBaseUrl())
+                .run(profile, user -> Map.of("email", "replay.user" + user + "@example.com", "password", PASSWORD));
+
+        Assert.assertEquals(result.getErrors(), 0, "Replay errors:\n" + result.toText());
+        Assert.assertTrue(result.getCompletedIterations() >= users, "Too few iterations: " + result.getCompletedIterations());
+        for (Map.Entry<String, LatencyHistogram> request : result.getLatencies().entrySet()) {
+            LatencyHistogram histogram = request.getValue();
+            Assert.assertTrue(histogram.getCount() >= users, "Too few samples for " + request.getKey());
+            Assert.assertTrue(histogram.getPercentile(50) <= histogram.getPercentile(99), "Percentiles out of order");
+        }
+        Assert.assertTrue(result.toText().contains("POST /cart"));
+    }
+
+    @Test(description = "Histogram percentiles stay within the bucket precision")
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(histogram.getCount(), 10000);
+        Assert.assertEquals(histogram.getPercentile(50), 5000, 5000 * 0.04);
+        Assert.assertEquals(histogram.getPercentile(99), 9900, 9900 * 0.04);
+        Assert.assertEquals(histogram.getPercentile(0.5), 50);
+    }
+
+    private String record(String method, String path, Map<String, String> headers, List<Map.Entry<String, String>> form) {
+        String body = form == null ? null : StorefrontClient.encodeForm(form);
+        HttpResponse<String> response = form == null ? client.get(path) : client.postForm(path, form);
+        RecordedExchange exchange = new RecordedExchange(method, client.resolve(path).toString(), headers, body);
+        exchange.setStatus(response.statusCode());
+        exchange.setResponseBody(response.body());
+        exchanges.add(exchange);
+        return response.body();
+    }
+
+    private static List<Map.Entry<String, String>> form(String... fields) {
+        List<Map.Entry<String, String>> form = new ArrayList<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            form.add(new AbstractMap.SimpleEntry<>(fields[i], fields[i + 1]));
+        }
+        return form;
+    }
+}
@@ -0,0 +1,135 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.bench.LatencyBenchmark;
+import com.kiboassessment.bench.LatencyBenchmarkResult;
+import com.kiboassessment.bench.LatencyComparison;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.load.SyntheticUserFlow;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.LatencyStats;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Latency benchmark harness driving page objects over the fake driver (no browser required)
+ */
+public class LatencyBenchmarkTest {
+    private static final String BASE_URL = "http://fake.test";
+
+    @Test(description = "Measured iterations yield per-step percentiles and command counts, warm-up iterations are discarded")
+    public void testStepPercentilesAndCommands() {
+        CartFlow flow = new CartFlow();
+        LatencyBenchmarkResult result = new LatencyBenchmark(flow, 2, 5, Set.of()).run("test");
+
+        Assert.assertEquals(flow.iterations, 7);
+        Assert.assertEquals(result.getIterations(), 5);
+        Assert.assertEquals(result.getStepLatencies().keySet().toString(), "[Cart, Checkout, Think]");
+        LatencyStats think = result.getStepLatencies().get("Think");
+        Assert.assertTrue(think.getPercentile(50) >= 5 && think.getPercentile(50) <= think.getPercentile(99), "Think p50: " + think.getPercentile(50));
+
+        long cartCommands = result.getStepCommands().get("Cart").getMax();
+        Assert.assertTrue(cartCommands > 0, "Cart commands not counted");
+        Assert.assertEquals(result.getStepCommands().get("Cart").getPercentile(50), cartCommands, "Command count varies between iterations");
+        Assert.assertEquals(result.getStepCommands().get("Think").getMax(), 0);
+        Assert.assertEquals(result.getFlowCommands().getMax(),
+                cartCommands + result.getStepCommands().get("Checkout").getMax());
+        Assert.assertTrue(result.toText().contains("Flow"), result.toText());
+    }
+
+    @Test(description = "Only the chosen steps are reported while the whole flow runs")
+    public void testStepSubset() {
+        CartFlow flow = new CartFlow();
+        LatencyBenchmarkResult result = new LatencyBenchmark(flow, 0, 3, List.of("Checkout")).run("subset");
+
+        Assert.assertEquals(flow.iterations, 3);
+        Assert.assertEquals(result.getStepLatencies().keySet(), Set.of("Checkout"));
+        Assert.assertEquals(result.getFlowCommands().getMax(), result.getStepCommands().get("Checkout").getMax());
+    }
+
+    @Test(description = "Comparison flags steps whose p50 or p90 grew beyond the tolerance and the minimum delta")
+    public void testComparison() throws IOException {
+        Map<String, Object> baseline = result("main", Map.of(
+                "Search", step(1000, 1200, 1500, 12),
+                "Cart", step(40, 60, 80, 6),
+                LatencyBenchmarkResult.FLOW, step(3000, 3400, 3900, 40)));
+        Map<String, Object> current = result("change", Map.of(
+                "Search", step(1020, 1600, 1700, 12),
+                "Cart", step(60, 90, 95, 9),
+                LatencyBenchmarkResult.FLOW, step(3050, 3500, 4200, 43)));
+
+        LatencyComparison comparison = new LatencyComparison(baseline, current, 10, 50);
+        // Cart grew by 50% but only by 20-30 ms, within jitter of a short step
+        Assert.assertEquals(comparison.getRegressions(), List.of("Search p90 1200 -> 1600 ms (+33.3%)"));
+        Assert.assertTrue(comparison.toText().contains("main -> change"), comparison.toText());
+
+        LatencyBenchmarkResult result = new LatencyBenchmark(new CartFlow(), 0, 2, Set.of()).run("roundtrip");
+        File file = File.createTempFile("latency-benchmark", ".json");
+        try {
+            result.writeJson(file.getPath());
+            Assert.assertTrue(new LatencyComparison(LatencyComparison.read(file), result.toMap(), 10, 0).getRegressions().isEmpty());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Map<String, Object> result(String label, Map<String, Object> steps) {
+        return Map.of("label", label, "steps", steps);
+    }
+
+    private static Map<String, Object> step(long p50, long p90, long p99, double commands) {
+        return Map.of("p50Ms", p50, "p90Ms", p90, "p99Ms", p99, "commandsMean", commands);
+    }
+
+    /**
+     * Cart and checkout steps through the page objects on stand-in markup, and a step without commands
+     */
+    private static class CartFlow implements SyntheticUserFlow {
+        private final StandInCatalog catalog = new StandInCatalog();
+        private final StandInPages pages = new StandInPages(catalog);
+        private final StandInCustomer customer = new StandInCustomer("bench@example.com", "secret");
+        private FakeWebDriver driver;
+        private int iterations;
+
+        @Override
+        public void startUser() {
+            customer.addToCart(1, catalog.getProducts().get(0), 2);
+            driver = new FakeWebDriver().onClick("input[onclick='Billing.save()']", (fake, button) -> { });
+            WebDriverManagerUtil.setDriver(CommandCounter.attach(driver));
+        }
+
+        @Override
+        public void runIteration(StepRecorder steps) {
+            iterations++;
+            steps.step("Cart", () -> {
+                driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+                Assert.assertEquals(new CartPage().getCartItemNames().size(), 1);
+            });
+            steps.step("Checkout", () -> {
+                driver.load(BASE_URL + "/onepagecheckout", pages.layout("Checkout", customer, pages.onePageCheckout(customer)));
+                new CheckoutPage().clickBillingContinue();
+            });
+            steps.step("Think", () -> {
+                Thread.sleep(5);
+                return null;
+            });
+        }
+
+        @Override
+        public void stopUser() {
+            WebDriverManagerUtil.setDriver(null);
+        }
+    }
+}
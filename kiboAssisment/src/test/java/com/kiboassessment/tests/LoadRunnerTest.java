@@ -0,0 +1,92 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.load.LoadProfile;
+import com.kiboassessment.load.LoadRunner;
+import com.kiboassessment.load.LoadSummary;
+import com.kiboassessment.load.SyntheticUserFlow;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.LatencyStats;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load runner tests with HTTP synthetic users against the stand-in storefront (no browser required)
+ */
+public class LoadRunnerTest {
+    private StandInStorefront storefront;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @Test(description = "Concurrent users produce per-step percentiles and throughput")
+    public void testLoadSummary() {
+        LoadProfile profile = new LoadProfile(4, 200, 5, 1000);
+        LoadSummary summary = new LoadRunner(profile, () -> new SyntheticUserFlow() {
+            private StorefrontFixtures fixtures;
+
+            @Override
+            public void startUser() {
+                fixtures = new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()));
+            }
+
+            @Override
+            public void runIteration(com.kiboassessment.load.StepRecorder steps) {
+                steps.step("Home", () -> fixtures.getClient().get("/"));
+                steps.step("Add to cart", () -> fixtures.addProductToCart("Smartphone", 1));
+                steps.step("Clear cart", () -> fixtures.clearCart());
+            }
+        }).run();
+
+        Assert.assertEquals(summary.getPeakUsers(), 4, "Not all users were running concurrently");
+        Assert.assertTrue(summary.getCompletedIterations() > 4, "Too few iterations: " + summary.getCompletedIterations());
+        Assert.assertEquals(summary.getErrorRate(), 0.0, "Unexpected errors");
+        Assert.assertTrue(summary.getThroughput() > 0, "No throughput");
+        Assert.assertEquals(summary.getStepLatencies().keySet().toString(), "[Home, Add to cart, Clear cart]");
+
+        LatencyStats addToCart = summary.getStepLatencies().get("Add to cart");
+        Assert.assertTrue(addToCart.getPercentile(50) <= addToCart.getPercentile(90), "Percentiles out of order");
+        Assert.assertTrue(addToCart.getPercentile(90) <= addToCart.getPercentile(99), "Percentiles out of order");
+        Assert.assertTrue(summary.toText().contains("Add to cart"));
+    }
+
+    @Test(description = "Failed iterations count towards the error rate")
+    public void testErrorRate() {
+        AtomicInteger counter = new AtomicInteger();
+        LoadSummary summary = new LoadRunner(new LoadProfile(2, 0, 0, 300), () -> steps ->
+                steps.step("Flaky", () -> {
+                    if (counter.incrementAndGet() % 2 == 0) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                    Thread.sleep(2);
+                    return null;
+                })).run();
+
+        Assert.assertTrue(summary.getIterations() > 10, "Too few iterations: " + summary.getIterations());
+        Assert.assertEquals(summary.getErrorRate(), 0.5, 0.1, "Unexpected error rate");
+    }
+
+    @Test(description = "Percentiles use nearest rank")
+    public void testPercentiles() {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 100; i >= 1; i--) {
+            stats.record(i);
+        }
+        Assert.assertEquals(stats.getPercentile(50), 50);
+        Assert.assertEquals(stats.getPercentile(90), 90);
+        Assert.assertEquals(stats.getPercentile(99), 99);
+        Assert.assertEquals(stats.getMax(), 100);
+    }
+}
@@ -0,0 +1,140 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.locators.DomSnapshots;
+import com.kiboassessment.locators.LocatorAudit;
+import com.kiboassessment.locators.LocatorCheck;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.pages.OrderConfirmationPage;
+import com.kiboassessment.pages.SearchResultsPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInOrder;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Offline validation of the page object locators against DOM snapshots
+ */
+public class LocatorAuditTest {
+    private static final Logger logger = LogManager.getLogger(LocatorAuditTest.class);
+    private static final String BASE_URL = "http://fake.test";
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private final StandInCustomer customer = new StandInCustomer("audit@example.com", "secret");
+    private StandInOrder order;
+
+    @BeforeClass
+    public void setUpCustomer() {
+        Map<String, String> address = Map.of("FirstName", "Jane", "LastName", "Doe", "Email", "audit@example.com",
+                "City", "Austin", "Address1", "1 Main St", "ZipPostalCode", "73301", "PhoneNumber", "5550100");
+        customer.addAddress(address);
+        customer.addToCart(1, catalog.getProducts().get(0), 1);
+        order = new StandInOrder(7, customer, customer.getCart(), address, address, "Ground", 0, "Check / Money Order");
+    }
+
+    @BeforeMethod
+    public void resetSnapshots() {
+        // Snapshot numbering must not depend on what other tests recorded earlier in the JVM
+        DomSnapshots.reset();
+    }
+
+    @Test(description = "Page objects record snapshots of the documents they use, which the audit validates")
+    public void testRecordAndAudit() throws IOException {
+        File directory = Files.createTempDirectory("dom-snapshots").toFile();
+        FakeWebDriver driver = new FakeWebDriver()
+                .onClick("input[onclick='Billing.save()']", (fake, button) -> { });
+        System.setProperty("snapshot.record", "true");
+        System.setProperty("snapshot.dir", directory.getPath());
+        WebDriverManagerUtil.setDriver(driver);
+        try {
+            driver.load(BASE_URL + "/search?q=computer", pages.layout("Search", customer,
+                    pages.searchResults("computer", catalog.search("computer"))));
+            new SearchResultsPage().getProductNames();
+
+            driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+            new CartPage().getCartItemNames();
+            new CheckoutPage().clickAgreeTermsOfService();
+
+            driver.load(BASE_URL + "/onepagecheckout", pages.layout("Checkout", customer, pages.onePageCheckout(customer)));
+            new CheckoutPage().clickBillingContinue();
+
+            driver.load(BASE_URL + "/checkout/completed/", pages.layout("Checkout", customer, pages.orderCompleted(order)));
+            new OrderConfirmationPage().waitForOrderConfirmation();
+        } finally {
+            WebDriverManagerUtil.setDriver(null);
+            System.clearProperty("snapshot.record");
+            System.clearProperty("snapshot.dir");
+        }
+
+        Assert.assertTrue(new File(directory, "CheckoutPage-2.html").isFile(), "Checkout snapshots not recorded per document");
+        LocatorAudit audit = LocatorAudit.load(directory);
+        Assert.assertEquals(audit.getSnapshotCount(), 5);
+
+        Map<String, LocatorCheck> checks = byKey(audit.audit());
+        LocatorAudit.writeReport(List.copyOf(checks.values()));
+        Assert.assertEquals(checks.get("CheckoutPage.paymentInfoContinueButton").getStatus(), LocatorCheck.Status.OK);
+        Assert.assertEquals(checks.get("CheckoutPage.termsOfServiceCheckbox").getStatus(), LocatorCheck.Status.OK);
+        Assert.assertEquals(checks.get("CartPage.cartItems").getStatus(), LocatorCheck.Status.OK);
+        Assert.assertEquals(checks.get("CartPage.emptyCartMessage").getStatus(), LocatorCheck.Status.ABSENT);
+        Assert.assertEquals(checks.get("HomePage.searchBox").getStatus(), LocatorCheck.Status.NOT_RECORDED);
+    }
+
+    @Test(description = "Broken and ambiguous locators are reported")
+    public void testBrokenAndAmbiguousLocators() {
+        String checkout = pages.layout("Checkout", customer, pages.onePageCheckout(customer))
+                .replace("PaymentInfo.save()", "PaymentInfo.submit()");
+        LocatorAudit audit = new LocatorAudit()
+                .add("CheckoutPage", "checkout.html", checkout)
+                .add("SearchResultsPage", "search.html", pages.layout("Search", customer,
+                        pages.searchResults("computer", catalog.search("computer"))));
+
+        long start = System.nanoTime();
+        Map<String, LocatorCheck> checks = byKey(audit.audit(List.of(CheckoutPage.class, SearchResultsPage.class)));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertEquals(checks.get("CheckoutPage.paymentInfoContinueButton").getStatus(), LocatorCheck.Status.NO_MATCH);
+        Assert.assertEquals(checks.get("CheckoutPage.billingContinueButton").getStatus(), LocatorCheck.Status.OK);
+        // A single-element field over a list of results silently resolves to the first match
+        Assert.assertEquals(checks.get("SearchResultsPage.firstProductLink").getStatus(), LocatorCheck.Status.AMBIGUOUS);
+        Assert.assertEquals(checks.get("SearchResultsPage.productTitles").getStatus(), LocatorCheck.Status.OK);
+        // Wall-clock time depends on the machine, so it is reported rather than asserted
+        logger.info("Audit of 2 page objects took " + millis + " ms");
+    }
+
+    @Test(description = "Locators match the snapshots recorded by the last browser run")
+    public void testRecordedSnapshots() {
+        LocatorAudit audit = LocatorAudit.load(DomSnapshots.getDirectory());
+        if (audit.getSnapshotCount() == 0) {
+            throw new SkipException("No DOM snapshots recorded in " + DomSnapshots.getDirectory() + ", run with -Dsnapshot.record=true");
+        }
+        List<LocatorCheck> checks = audit.audit();
+        LocatorAudit.writeReport(checks);
+        List<String> broken = checks.stream()
+                .filter(check -> check.getStatus() == LocatorCheck.Status.NO_MATCH)
+                .map(LocatorCheck::toString)
+                .collect(Collectors.toList());
+        Assert.assertTrue(broken.isEmpty(), "Locators without a match:\n" + String.join("\n", broken));
+    }
+
+    private static Map<String, LocatorCheck> byKey(List<LocatorCheck> checks) {
+        return checks.stream().collect(Collectors.toMap(LocatorCheck::getKey, Function.identity()));
+    }
+}
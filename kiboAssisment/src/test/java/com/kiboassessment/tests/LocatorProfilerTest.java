@@ -0,0 +1,100 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.locators.LocatorProfile;
+import com.kiboassessment.locators.LocatorProfiler;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.CheckoutPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Locator profiling through PageFactory and the suggested alternative locators
+ */
+public class LocatorProfilerTest {
+    private static final String BASE_URL = "http://fake.test";
+
+    @Test(description = "Page object locator resolutions are timed, inspected and ranked across runs")
+    public void testProfileAndRank() throws IOException {
+        StandInCatalog catalog = new StandInCatalog();
+        StandInPages pages = new StandInPages(catalog);
+        StandInCustomer customer = new StandInCustomer("profile@example.com", "secret");
+        customer.addToCart(1, catalog.getProducts().get(0), 1);
+        File history = File.createTempFile("locator-profile", ".jsonl");
+        Files.delete(history.toPath());
+
+        FakeWebDriver driver = new FakeWebDriver()
+                .onClick("input[onclick='Billing.save()']", (fake, button) -> { });
+        System.setProperty("locator.profile.enabled", "true");
+        System.setProperty("locator.profile.history.path", history.getPath());
+        WebDriverManagerUtil.setDriver(driver);
+        try {
+            String report = null;
+            for (int run = 0; run < 2; run++) {
+                driver.load(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+                new CartPage().getCartItemNames();
+                driver.load(BASE_URL + "/onepagecheckout", pages.layout("Checkout", customer, pages.onePageCheckout(customer)));
+                new CheckoutPage().clickBillingContinue();
+
+                Map<String, LocatorProfile> profiles = LocatorProfiler.getProfiles();
+                LocatorProfile billingContinue = profiles.get("CheckoutPage.billingContinueButton");
+                Assert.assertNotNull(billingContinue, "Locator not profiled: " + profiles.keySet());
+                Assert.assertTrue(billingContinue.getCalls() >= 1);
+                Assert.assertTrue(billingContinue.getDepth() > 3, "Depth: " + billingContinue.getDepth());
+                Assert.assertEquals(profiles.get("CartPage.cartItemNames").getMaxMatches(), 1);
+                for (LocatorProfile profile : profiles.values()) {
+                    if (profile.getSuggestion() != null) {
+                        assertSameElement(driver, profile);
+                    }
+                }
+                report = LocatorProfiler.publish("profiler-test");
+            }
+            Assert.assertEquals(Files.readAllLines(history.toPath()).size(), 2);
+            Assert.assertTrue(report.contains("CheckoutPage.billingContinueButton") && report.contains("(2 runs)"), report);
+        } finally {
+            WebDriverManagerUtil.setDriver(null);
+            System.clearProperty("locator.profile.enabled");
+            System.clearProperty("locator.profile.history.path");
+            LocatorProfiler.clear();
+            Files.deleteIfExists(history.toPath());
+        }
+    }
+
+    @Test(description = "Suggestions prefer the element's id, then data attributes, then an anchored ancestor")
+    public void testSuggestions() {
+        Document document = Jsoup.parse("<div id=\"cart\"><table><tr data-line=\"7\"><td><input class=\"qty-input\" name=\"q7\"/></td></tr>"
+                + "<tr><td><input class=\"qty-input\" name=\"q8\"/></td></tr></table></div><p><span class=\"note\">a</span><span class=\"note\">b</span></p>"
+                + "<input id=\"terms\" type=\"checkbox\"/>");
+
+        Assert.assertEquals(LocatorProfiler.suggest(document.getElementById("terms")), "By.id: terms");
+        Assert.assertEquals(LocatorProfiler.suggest(document.selectFirst("tr")), "By.cssSelector: tr[data-line='7']");
+        Assert.assertEquals(LocatorProfiler.suggest(document.select("input.qty-input").get(0)), "By.cssSelector: tr[data-line='7'] input.qty-input");
+        Assert.assertEquals(LocatorProfiler.suggest(document.select("input.qty-input").get(1)), "By.cssSelector: #cart input.qty-input[name='q8']");
+        Assert.assertNull(LocatorProfiler.suggest(document.select("span.note").get(1)));
+    }
+
+    private static void assertSameElement(FakeWebDriver driver, LocatorProfile profile) {
+        String suggestion = profile.getSuggestion();
+        String value = suggestion.substring(suggestion.indexOf(':') + 2);
+        By suggested = suggestion.startsWith("By.id:") ? By.id(value) : By.cssSelector(value);
+        String locator = profile.getLocator();
+        By original = By.cssSelector(locator.substring(locator.indexOf(':') + 2));
+        List<WebElement> matches = driver.findElements(suggested);
+        Assert.assertEquals(matches.size(), 1, suggestion);
+        Assert.assertEquals(matches.get(0), driver.findElements(original).get(0), profile.getKey() + " -> " + suggestion);
+    }
+}
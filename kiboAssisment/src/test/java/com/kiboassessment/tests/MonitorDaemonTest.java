@@ -0,0 +1,112 @@
+package com.kiboassessment.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.load.StepRecorder;
+import com.kiboassessment.load.SyntheticUserFlow;
+import com.kiboassessment.monitor.MetricsServer;
+import com.kiboassessment.monitor.MonitorDaemon;
+import com.kiboassessment.monitor.MonitorMetrics;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic monitor tests: SLO burn rates on a controlled clock, and the daemon against the stand-in storefront
+ */
+public class MonitorDaemonTest {
+
+    @Test(description = "Burn rate is the bad-iteration ratio over the error budget, per window")
+    public void testBurnRates() {
+        AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toMillis(1));
+        MonitorMetrics metrics = new MonitorMetrics(0.9, 1000, TimeUnit.MINUTES.toMillis(60),
+                List.of(TimeUnit.MINUTES.toMillis(5), TimeUnit.MINUTES.toMillis(60)), clock::get);
+
+        for (int i = 0; i < 18; i++) {
+            metrics.recordIteration(500, true);
+            clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        }
+        metrics.recordIteration(500, false);
+        metrics.recordIteration(5000, true);
+
+        Assert.assertEquals(metrics.getBurnRate(TimeUnit.MINUTES.toMillis(60)), 1.0, 0.0001, "2 of 20 bad with a 10% budget");
+        Assert.assertEquals(metrics.getBurnRate(TimeUnit.MINUTES.toMillis(5)), 2.0 / 6 / 0.1, 0.0001, "2 of 6 bad with a 10% budget");
+        String text = metrics.toPrometheus();
+        Assert.assertTrue(text.contains("storefront_monitor_slo_burn_rate{window=\"1h\"} 1.0000"), text);
+        Assert.assertTrue(text.contains("storefront_monitor_iterations_total{result=\"success\"} 19"), text);
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(61));
+        Assert.assertEquals(metrics.getBurnRate(TimeUnit.MINUTES.toMillis(60)), 0.0, "Old samples left the window");
+        Assert.assertEquals(metrics.getIterationSnapshot().getCount(), 0);
+    }
+
+    @Test(description = "Daemon reuses one session and serves Prometheus and JSON metrics")
+    public void testDaemonServesMetrics() throws Exception {
+        StandInStorefront storefront = new StandInStorefront().start();
+        AtomicInteger sessions = new AtomicInteger();
+        MonitorMetrics metrics = new MonitorMetrics(0.99, 10000, TimeUnit.MINUTES.toMillis(60),
+                List.of(TimeUnit.MINUTES.toMillis(5)), System::currentTimeMillis);
+        File json = Files.createTempFile("monitor-metrics", ".json").toFile();
+        MetricsServer server = new MetricsServer(metrics, 0).start();
+        MonitorDaemon daemon = new MonitorDaemon(() -> new SyntheticUserFlow() {
+            private StorefrontFixtures fixtures;
+
+            @Override
+            public void startUser() {
+                sessions.incrementAndGet();
+                fixtures = new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()));
+            }
+
+            @Override
+            public void runIteration(StepRecorder steps) {
+                steps.step("Home", () -> fixtures.getClient().get("/"));
+                steps.step("Add to cart", () -> fixtures.addProductToCart("Smartphone", 1));
+                steps.step("Clear cart", () -> fixtures.clearCart());
+            }
+        }, metrics, 20, json.getPath());
+
+        try {
+            daemon.start();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (metrics.getIterationSnapshot().getCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertTrue(metrics.getIterationSnapshot().getCount() >= 3, "Monitor did not run iterations");
+
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+            HttpResponse<String> text = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Assert.assertTrue(text.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+            Assert.assertTrue(text.body().contains("storefront_monitor_step_total{step=\"Add to cart\",result=\"success\"}"), text.body());
+            Assert.assertTrue(text.body().contains("storefront_monitor_step_latency_ms{step=\"Home\",quantile=\"0.99\"}"), text.body());
+            Assert.assertTrue(text.body().contains("storefront_monitor_slo_burn_rate{window=\"5m\"} 0.0000"), text.body());
+
+            HttpResponse<String> jsonResponse = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics.json")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode served = new ObjectMapper().readTree(jsonResponse.body());
+            Assert.assertEquals(served.path("failedIterations").asInt(), 0);
+            Assert.assertTrue(served.path("steps").has("Clear cart"));
+            Assert.assertTrue(new ObjectMapper().readTree(json).path("successfulIterations").asInt() > 0, "JSON file not written");
+        } finally {
+            daemon.stop();
+            server.stop();
+            storefront.stop();
+            json.delete();
+        }
+        Assert.assertEquals(sessions.get(), 1, "Session was not kept warm between iterations");
+    }
+}
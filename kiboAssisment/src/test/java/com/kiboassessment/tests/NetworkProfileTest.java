@@ -0,0 +1,64 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.network.NetworkProfile;
+import com.kiboassessment.perf.PagePerformance;
+import com.kiboassessment.perf.PageTimings;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network profile configuration and per-profile timing tests (no browser required)
+ */
+public class NetworkProfileTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void clearOverrides() {
+        System.clearProperty("network.profile");
+        System.clearProperty("perf.history.path");
+        PagePerformance.clear();
+    }
+
+    @Test(description = "Configured profiles translate to DevTools blocking and throttling parameters")
+    public void testConfiguredProfiles() {
+        Assert.assertTrue(NetworkProfile.active().isDefault(), "Default profile must not change the network");
+
+        NetworkProfile fast = NetworkProfile.fromConfig("fast-functional");
+        Assert.assertFalse(fast.isImagesEnabled());
+        Assert.assertFalse(fast.isThrottled());
+        Assert.assertTrue(fast.getBlockedUrls().containsAll(List.of("*google-analytics.com*", "*.png", "*.jpg")), fast.getBlockedUrls().toString());
+
+        System.setProperty("network.profile", "emulated-3g");
+        NetworkProfile slow = NetworkProfile.active();
+        Assert.assertEquals(slow.getName(), "emulated-3g");
+        Assert.assertTrue(slow.getBlockedUrls().isEmpty());
+        Map<String, Object> conditions = slow.getNetworkConditions();
+        Assert.assertEquals(conditions.get("latency"), 560L);
+        Assert.assertEquals(conditions.get("downloadThroughput"), 180000L, "1440 kbit/s in bytes per second");
+        Assert.assertEquals(NetworkProfile.fromConfig("unknown").getNetworkConditions().get("uploadThroughput"), -1L);
+    }
+
+    @Test(description = "Timings under different network profiles are trended as separate runs")
+    public void testPerProfileTimings() throws Exception {
+        File history = Files.createTempFile("perf-history", ".jsonl").toFile();
+        System.setProperty("perf.history.path", history.getPath());
+        try {
+            PagePerformance.record(new PageTimings("CartPage", "http://localhost/cart", 0, "fast-functional", Map.of("load", 400.0)));
+            PagePerformance.record(new PageTimings("CartPage", "http://localhost/cart", 0, "emulated-3g", Map.of("load", 6000.0)));
+            String report = PagePerformance.publish("Checkout");
+
+            Assert.assertTrue(report.contains("Network profile: fast-functional") && report.contains("Network profile: emulated-3g"), report);
+            List<String> lines = Files.readAllLines(history.toPath());
+            Assert.assertEquals(lines.size(), 2);
+            Assert.assertTrue(lines.get(0).contains("\"run\":\"Checkout @ fast-functional\""), lines.get(0));
+            Assert.assertTrue(lines.get(1).contains("\"run\":\"Checkout @ emulated-3g\""), lines.get(1));
+        } finally {
+            history.delete();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.perf.PagePerformance;
+import com.kiboassessment.perf.PageTimings;
+import com.kiboassessment.perf.PerformanceBudget;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page performance budget and trend tests (no browser required)
+ */
+public class PagePerformanceTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void clearOverrides() {
+        System.clearProperty("perf.budget.action");
+        System.clearProperty("perf.history.path");
+        PagePerformance.clear();
+    }
+
+    @Test(description = "Page budgets override the defaults and are only enforced in fail mode")
+    public void testBudgets() {
+        PerformanceBudget budget = new PerformanceBudget();
+        Assert.assertEquals(budget.getBudget("HomePage", "lcp"), 4000.0, "Default budget not used");
+        Assert.assertEquals(budget.getBudget("SearchResultsPage", "load"), 8000.0, "Page budget not used");
+        Assert.assertNull(budget.getBudget("HomePage", "load"), "Metric without budget");
+
+        PageTimings slow = new PageTimings("HomePage", "http://localhost/", System.currentTimeMillis(),
+                Map.of("lcp", 5200.0, "cls", 0.01, "load", 9000.0));
+        List<String> violations = budget.check(slow);
+        Assert.assertEquals(violations, List.of("lcp 5200 ms exceeds budget 4000 ms"));
+
+        PagePerformance.record(slow);
+        System.setProperty("perf.budget.action", "fail");
+        Assert.assertThrows(IllegalStateException.class, () -> PagePerformance.record(slow));
+    }
+
+    @Test(description = "LCP, CLS and INP are re-collected before leaving a document and update its timings")
+    public void testLateMetrics() {
+        Deque<Map<String, Object>> collected = new ArrayDeque<>(List.of(
+                Map.of("url", "http://localhost/cart", "timeOrigin", "1",
+                        "metrics", Map.of("load", 900, "lcp", 1000, "cls", 0.01, "inp", 0)),
+                Map.of("url", "http://localhost/cart", "timeOrigin", "1",
+                        "metrics", Map.of("load", 900, "lcp", 1800, "cls", 0.02, "inp", 650))));
+        FakeWebDriver driver = new FakeWebDriver() {
+            @Override
+            public Object executeScript(String script, Object... args) {
+                return script.contains("performance.timeOrigin") ? "http://localhost/cart@1" : super.executeScript(script, args);
+            }
+
+            @Override
+            public Object executeAsyncScript(String script, Object... args) {
+                return collected.poll();
+            }
+        };
+
+        PagePerformance.capture("CartPage", driver);
+        PageTimings timings = PagePerformance.getResults().get(0);
+        // A document that was already measured does not run the timing script again
+        PagePerformance.capture("CartPage", driver);
+        Assert.assertEquals(collected.size(), 1, "Timing script run again on the same document");
+        Assert.assertEquals(timings.getMetrics().get("lcp"), 1000.0);
+        Assert.assertFalse(timings.getMetrics().containsKey("inp"), "INP taken before any interaction");
+
+        System.setProperty("perf.budget.action", "fail");
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class,
+                () -> PagePerformance.captureBeforeLeaving(driver));
+        Assert.assertTrue(error.getMessage().contains("inp 650 ms exceeds budget 500 ms"), error.getMessage());
+        Assert.assertEquals(PagePerformance.getResults().size(), 1, "Late metrics must update the document's timings");
+        Assert.assertEquals(timings.getMetrics().get("lcp"), 1800.0);
+        Assert.assertEquals(timings.getMetrics().get("inp"), 650.0);
+        Assert.assertEquals(timings.getMetrics().get("load"), 900.0);
+
+        // Only the last captured document is re-collected, and only once
+        PagePerformance.captureBeforeLeaving(driver);
+        Assert.assertTrue(collected.isEmpty());
+    }
+
+    @Test(description = "Each run's per-page medians are trended against earlier runs")
+    public void testTrend() throws Exception {
+        File history = Files.createTempFile("perf-history", ".jsonl").toFile();
+        System.setProperty("perf.history.path", history.getPath());
+        try {
+            PagePerformance.clear();
+            for (double load : new double[]{900, 1000, 5000}) {
+                PagePerformance.record(new PageTimings("CartPage", "http://localhost/cart", 0, Map.of("load", load)));
+            }
+            Assert.assertEquals(PagePerformance.summarize(PagePerformance.getResults()).get("CartPage").get("load"), 1000.0);
+            Assert.assertNotNull(PagePerformance.publish("Trend"));
+
+            PagePerformance.record(new PageTimings("CartPage", "http://localhost/cart", 0, Map.of("load", 1500.0)));
+            String trend = PagePerformance.publish("Trend");
+            Assert.assertTrue(trend.contains("<td>CartPage</td><td>load</td><td></td><td>1500 ms</td><td>1000 ms</td><td>+50%</td>"), trend);
+            Assert.assertEquals(Files.readAllLines(history.toPath()).size(), 2);
+            Assert.assertNull(PagePerformance.publish("Trend"), "Nothing recorded since the last publish");
+        } finally {
+            history.delete();
+        }
+    }
+}
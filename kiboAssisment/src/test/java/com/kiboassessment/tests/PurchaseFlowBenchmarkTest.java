@@ -0,0 +1,37 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.bench.LatencyBenchmark;
+import com.kiboassessment.bench.LatencyBenchmarkResult;
+import com.kiboassessment.bench.LatencyComparison;
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.load.PurchaseUserFlow;
+import com.kiboassessment.utils.ConfigReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+
+/**
+ * Purchase flow latency percentiles over repeated iterations, run with: mvn test -Pbench
+ */
+public class PurchaseFlowBenchmarkTest {
+
+    @Test(description = "Purchase flow latency, command counts and browser resources, compared against a baseline build")
+    public void testPurchaseFlowLatency() {
+        LatencyBenchmark benchmark = LatencyBenchmark.fromConfig(new PurchaseUserFlow());
+        TestListener.logStep("Running latency benchmark against " + ConfigReader.getBaseUrl());
+
+        LatencyBenchmarkResult result = benchmark.run(ConfigReader.getProperty("latency.benchmark.label", "current"));
+        result.writeJson(ConfigReader.getProperty("latency.benchmark.report.path"));
+        TestListener.logInfo("<pre>" + result.toText() + "</pre>");
+        Assert.assertTrue(result.getIterations() > 0, "No iteration completed");
+
+        String baselinePath = ConfigReader.getProperty("latency.benchmark.baseline.path", "");
+        if (baselinePath.isEmpty()) {
+            return;
+        }
+        LatencyComparison comparison = LatencyComparison.fromConfig(new File(baselinePath), result);
+        TestListener.logInfo("<pre>" + comparison.toText() + "</pre>");
+        Assert.assertTrue(comparison.getRegressions().isEmpty(), "Latency regressions: " + comparison.getRegressions());
+    }
+}
@@ -0,0 +1,81 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.BasePage;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.pages.SearchResultsPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Page objects opened directly at their routes against the fake driver over stand-in markup
+ */
+public class RouteTest {
+    private static final String BASE_URL = "http://fake.test";
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private final StandInPages pages = new StandInPages(catalog);
+    private FakeWebDriver driver;
+
+    @BeforeMethod
+    public void setUp() {
+        driver = new FakeWebDriver();
+        WebDriverManagerUtil.setDriver(driver);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Test(description = "Pages are opened at their routes and returned once their readiness selector is present")
+    public void testDeepLinkNavigation() {
+        StandInCustomer customer = new StandInCustomer();
+        customer.addToCart(1, catalog.getProducts().get(0), 2);
+        driver.page(BASE_URL + "/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)))
+                .page(BASE_URL + "/search?q=cheap%20computer",
+                        pages.layout("Search", customer, pages.searchResults("cheap computer", catalog.search("computer"))));
+        System.setProperty("base.url", BASE_URL + "/");
+        try {
+            CartPage cartPage = BasePage.goTo(CartPage.class);
+            Assert.assertEquals(driver.getCurrentUrl(), BASE_URL + "/cart");
+            Assert.assertEquals(cartPage.getCartItemNames(), List.of(catalog.getProducts().get(0).getName()));
+
+            SearchResultsPage searchResultsPage = BasePage.goTo(SearchResultsPage.class, "cheap computer");
+            Assert.assertEquals(driver.getCurrentUrl(), BASE_URL + "/search?q=cheap%20computer");
+            Assert.assertTrue(searchResultsPage.getNumberOfResults() > 0);
+
+            Assert.assertThrows(IllegalStateException.class, () -> BasePage.goTo(UnroutedPage.class));
+        } finally {
+            System.clearProperty("base.url");
+        }
+    }
+
+    @Test(description = "Route parameters must match the placeholders of the route")
+    public void testRouteParameters() {
+        System.setProperty("base.url", BASE_URL + "/");
+        try {
+            IllegalArgumentException missing = Assert.expectThrows(IllegalArgumentException.class,
+                    () -> BasePage.goTo(SearchResultsPage.class));
+            Assert.assertTrue(missing.getMessage().contains("no parameter for {0}"), missing.getMessage());
+            IllegalArgumentException extra = Assert.expectThrows(IllegalArgumentException.class,
+                    () -> BasePage.goTo(CartPage.class, "unused"));
+            Assert.assertTrue(extra.getMessage().contains("takes 0 parameters, got 1"), extra.getMessage());
+            Assert.assertThrows(IllegalArgumentException.class, () -> BasePage.goTo(SearchResultsPage.class, "phone", "laptop"));
+            Assert.assertEquals(driver.getCurrentUrl(), "about:blank", "Navigated despite invalid parameters");
+        } finally {
+            System.clearProperty("base.url");
+        }
+    }
+
+    public static class UnroutedPage extends BasePage {
+    }
+}
@@ -0,0 +1,162 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.history.RegressionDetector;
+import com.kiboassessment.history.RunHistory;
+import com.kiboassessment.history.TestRecord;
+import com.kiboassessment.utils.TestUtils;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Run history store and step latency regression detection
+ */
+public class RunHistoryTest {
+    private static final String RUN = "History Test";
+
+    private File store;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        store = File.createTempFile("run-history", ".jsonl");
+        Files.delete(store.toPath());
+        System.setProperty("history.path", store.getPath());
+        System.setProperty("history.enabled", "true");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        System.clearProperty("history.path");
+        System.clearProperty("history.enabled");
+        Files.deleteIfExists(store.toPath());
+    }
+
+    @Test(description = "Tests, steps, waits and WebDriver commands are recorded and persisted per run")
+    public void testRecordRun() throws Exception {
+        onOwnThread(() -> {
+            FakeWebDriver fake = new FakeWebDriver();
+            fake.load("http://fake.test/", "<html><body><h1 class=\"page-title\">Home</h1></body></html>");
+            WebDriverManagerUtil.setDriver(CommandCounter.attach(fake));
+            try {
+                RunHistory.step("Initializing page objects");
+                RunHistory.testStarted(RUN, "RunHistoryTest", "recordedTest");
+                RunHistory.step("Open home page");
+                TestUtils.waitForElementPresent(By.cssSelector(".page-title"), 5);
+                WebDriverManagerUtil.getDriver().getTitle();
+                RunHistory.step("Finish");
+                RunHistory.testFinished("PASS");
+            } finally {
+                WebDriverManagerUtil.setDriver(null);
+            }
+            return null;
+        });
+
+        List<TestRecord> results = RunHistory.getResults(RUN);
+        Assert.assertEquals(results.size(), 1);
+        TestRecord record = results.get(0);
+        Assert.assertEquals(record.getTest(), "RunHistoryTest.recordedTest");
+        Assert.assertEquals(record.getOutcome(), "PASS");
+        Assert.assertEquals(record.getSteps().keySet().toString(), "[Initializing page objects, Open home page, Finish]");
+        TestRecord.StepRecord open = record.getSteps().get("Open home page");
+        Assert.assertTrue(open.getCommands() >= 2, "Commands: " + open.getCommands());
+        Assert.assertEquals(record.getSteps().get("Finish").getCommands(), 0);
+        Assert.assertTrue(open.getWaitMs() <= open.getDurationMs());
+
+        Assert.assertTrue(RunHistory.publish(RUN).contains("No earlier runs"));
+        Assert.assertTrue(RunHistory.getResults(RUN).isEmpty());
+        List<Map<String, Object>> runs = RunHistory.readRuns(store, RUN, 10);
+        Assert.assertEquals(runs.size(), 1);
+        Assert.assertTrue(runs.get(0).get("tests").toString().contains("waitMs"), runs.get(0).toString());
+    }
+
+    @Test(description = "A step far outside the spread of the rolling baseline is reported, noise is not")
+    public void testRegressionAgainstStoredRuns() throws Exception {
+        // Baseline with one outlier run, which the median and MAD ignore
+        StringBuilder lines = new StringBuilder();
+        for (long search : new long[]{100, 104, 98, 101, 190, 99}) {
+            lines.append(new ObjectMapper().writeValueAsString(run("PASS", search, 30))).append(System.lineSeparator());
+        }
+        Files.write(store.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+        System.setProperty("history.regression.min.ms", "50");
+        try {
+            String summary = timedRun(100, 30);
+            Assert.assertTrue(summary.contains("No latency regressions against the last 6 runs"), summary);
+
+            summary = timedRun(300, 30);
+            Assert.assertTrue(summary.contains("Latency regressions against the last 7 runs"), summary);
+            Assert.assertTrue(summary.contains("PurchaseTest.testPurchase > Search"), summary);
+            Assert.assertFalse(summary.contains("> Cart"), summary);
+        } finally {
+            System.clearProperty("history.regression.min.ms");
+        }
+        Assert.assertEquals(Files.readAllLines(store.toPath()).size(), 8);
+    }
+
+    @Test(description = "A short baseline, failed tests and small absolute slowdowns are not compared")
+    public void testRegressionThresholds() {
+        RegressionDetector detector = new RegressionDetector(3, 3.5, 20, 200);
+        Map<String, Object> slowCart = run("PASS", 1000, 450);
+        List<Map<String, Object>> baseline = List.of(run("PASS", 1000, 300), run("PASS", 1000, 310));
+
+        Assert.assertTrue(detector.detect(slowCart, baseline).isEmpty(), "Compared with fewer than 3 baseline runs");
+        baseline = List.of(run("PASS", 1000, 300), run("PASS", 1000, 310), run("PASS", 1000, 305));
+        // +145 ms is far outside the spread but below the 200 ms minimum
+        Assert.assertTrue(detector.detect(slowCart, baseline).isEmpty());
+        Assert.assertTrue(detector.detect(run("FAIL", 1000, 900), baseline).isEmpty(), "Failed test compared");
+
+        List<RegressionDetector.Regression> regressions = detector.detect(run("PASS", 1000, 900), baseline);
+        Assert.assertEquals(regressions.size(), 2, regressions.toString());
+        Assert.assertEquals(regressions.get(1).getKey(), "PurchaseTest.testPurchase > Cart");
+        Assert.assertEquals(regressions.get(1).getBaselineMedianMs(), 305);
+    }
+
+    private static String timedRun(long searchMs, long cartMs) throws Exception {
+        onOwnThread(() -> {
+            RunHistory.testStarted(RUN, "PurchaseTest", "testPurchase");
+            RunHistory.step("Search");
+            Thread.sleep(searchMs);
+            RunHistory.step("Cart");
+            Thread.sleep(cartMs);
+            RunHistory.testFinished("PASS");
+            return null;
+        });
+        return RunHistory.publish(RUN);
+    }
+
+    /**
+     * Run on a new thread, whose test record is separate from the one the listener keeps for this test
+     * @param action recorded actions
+     */
+    private static void onOwnThread(Callable<Void> action) throws Exception {
+        ExecutorService thread = Executors.newSingleThreadExecutor();
+        try {
+            thread.submit(action).get();
+        } finally {
+            thread.shutdown();
+        }
+    }
+
+    private static Map<String, Object> run(String outcome, long searchMs, long cartMs) {
+        return Map.of("run", RUN, "tests", List.of(Map.of(
+                "test", "PurchaseTest.testPurchase",
+                "outcome", outcome,
+                "durationMs", searchMs + cartMs,
+                "steps", Map.of("Search", Map.of("durationMs", searchMs), "Cart", Map.of("durationMs", cartMs)))));
+    }
+}
@@ -0,0 +1,105 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.bench.CommandCounter;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.SearchResultsPage;
+import com.kiboassessment.search.SearchResult;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.StorefrontClient;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Paginated search results streamed from a page in the fake driver, with later pages fetched from the stand-in storefront
+ */
+public class SearchResultStreamTest {
+    private static final String TERM = "o";
+    private static final int PAGE_SIZE = 3;
+
+    private final StandInCatalog catalog = new StandInCatalog();
+    private StandInStorefront storefront;
+    private FakeWebDriver driver;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @BeforeMethod
+    public void openFirstPage() {
+        String path = "/search?q=" + TERM + "&pagesize=" + PAGE_SIZE;
+        StorefrontClient client = new StorefrontClient(storefront.getBaseUrl());
+        driver = new FakeWebDriver().load(client.resolve(path).toString(), client.get(path).body());
+        WebDriverManagerUtil.setDriver(CommandCounter.attach(driver));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Test(description = "All result pages are streamed in order for a fixed number of browser commands")
+    public void testStreamAllPages() {
+        List<String> expected = catalog.search(TERM).stream().map(StandInCatalog.Product::getName).collect(Collectors.toList());
+        Assert.assertTrue(expected.size() > 2 * PAGE_SIZE, "Search term should span three pages: " + expected);
+
+        SearchResultsPage searchResultsPage = new SearchResultsPage();
+        Assert.assertEquals(searchResultsPage.getNumberOfResults(), PAGE_SIZE);
+        CommandCounter counter = CommandCounter.start();
+        List<SearchResult> results;
+        try (Stream<SearchResult> stream = searchResultsPage.streamResults()) {
+            results = stream.collect(Collectors.toList());
+        } finally {
+            CommandCounter.stop();
+        }
+
+        Assert.assertEquals(results.stream().map(SearchResult::getName).collect(Collectors.toList()), expected);
+        Assert.assertEquals(results.get(results.size() - 1).getPage(), 3);
+        Assert.assertEquals(results.get(PAGE_SIZE).getPosition(), 0);
+        Assert.assertTrue(counter.getCount() <= 5, "Browser commands: " + counter.getCount());
+
+        StandInCatalog.Product first = catalog.search(TERM).get(0);
+        Assert.assertEquals(results.get(0).getProductId(), String.valueOf(first.getId()));
+        Assert.assertEquals(results.get(0).getPriceValue(), first.getPrice(), 0.001);
+        Assert.assertEquals(results.get(0).getUrl(), new StorefrontClient(storefront.getBaseUrl()).resolve("/" + first.getSeName()).toString());
+    }
+
+    @Test(description = "Lookups by name, price and SKU stop at the first page holding a match")
+    public void testShortCircuitLookups() {
+        List<StandInCatalog.Product> products = catalog.search(TERM);
+        StandInCatalog.Product last = products.get(products.size() - 1);
+        StandInCatalog.Product secondPage = products.get(PAGE_SIZE + 1);
+        SearchResultsPage searchResultsPage = new SearchResultsPage();
+
+        Optional<SearchResult> byName = searchResultsPage.findResult(SearchResult.nameContains(last.getName()));
+        Assert.assertTrue(byName.isPresent());
+        Assert.assertEquals(byName.get().getPage(), 3);
+
+        Optional<SearchResult> bySku = searchResultsPage.findResult(SearchResult.skuEquals(secondPage.getSku()));
+        Assert.assertEquals(bySku.map(SearchResult::getName).orElse(null), secondPage.getName());
+        Assert.assertEquals(bySku.get().getPage(), 2);
+
+        Optional<SearchResult> byPrice = searchResultsPage.findResult(SearchResult.priceBetween(1000, 2000));
+        Assert.assertTrue(byPrice.isPresent() && byPrice.get().getPriceValue() >= 1000, String.valueOf(byPrice));
+        Assert.assertFalse(searchResultsPage.findResult(SearchResult.nameContains("No such product")).isPresent());
+
+        Assert.assertEquals(searchResultsPage.findProductByName(products.get(1).getName()), 1);
+        Assert.assertEquals(searchResultsPage.findProductByName(last.getName()), -1);
+    }
+}
@@ -0,0 +1,125 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInOrder;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.StorefrontClient;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-page checkout of the stand-in storefront, driven over HTTP the way the checkout page scripts post it
+ */
+public class StandInStorefrontTest {
+    private StandInStorefront storefront;
+    private long startMillis;
+
+    @BeforeClass
+    public void startStorefront() {
+        long start = System.nanoTime();
+        storefront = new StandInStorefront().start();
+        startMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @Test(description = "Stand-in starts in-process in well under a second")
+    public void testStartupTime() {
+        Assert.assertTrue(startMillis < 1000, "Stand-in took " + startMillis + " ms to start");
+    }
+
+    @Test(description = "Anonymous page views keep no state; a guest is stored once it changes its cart")
+    public void testGuestsCreatedOnlyOnStateChange() {
+        int guests = storefront.getGuestCount();
+        for (int i = 0; i < 20; i++) {
+            new StorefrontClient(storefront.getBaseUrl()).get("/");
+        }
+        Assert.assertEquals(storefront.getGuestCount(), guests);
+
+        StorefrontClient client = new StorefrontClient(storefront.getBaseUrl());
+        client.get("/search?q=computer");
+        StorefrontFixtures fixtures = new StorefrontFixtures(client).addProductToCart(ConfigReader.getProductName(), 1);
+        Assert.assertEquals(storefront.getGuestCount(), guests + 1);
+        Assert.assertEquals(fixtures.getCartItemNames(), List.of(ConfigReader.getProductName()));
+        Assert.assertEquals(storefront.getGuestCount(), guests + 1);
+    }
+
+    @Test(description = "Logged in customer places an order through the one-page checkout")
+    public void testOnePageCheckout() {
+        StorefrontClient client = new StorefrontClient(storefront.getBaseUrl());
+        StorefrontFixtures fixtures = new StorefrontFixtures(client).login();
+        fixtures.addProductToCart(ConfigReader.getProductName(), 1);
+
+        Map<String, String> cart = new LinkedHashMap<>();
+        cart.put("checkout", "checkout");
+        Document withoutTerms = Jsoup.parse(client.postForm("/cart", cart).body());
+        Assert.assertNotNull(withoutTerms.selectFirst("#terms-of-service-warning-box"), "Checkout allowed without accepting terms");
+
+        cart.put("termsofservice", "on");
+        HttpResponse<String> checkout = client.postForm("/cart", cart);
+        Assert.assertTrue(checkout.uri().getPath().endsWith("/onepagecheckout"), "Not redirected to checkout: " + checkout.uri());
+        Document page = Jsoup.parse(checkout.body());
+        for (String selector : new String[]{"#billing-address-select", "#BillingNewAddress_FirstName", "#BillingNewAddress_StateProvinceId",
+                "input[onclick='Billing.save()']", "input[onclick='Shipping.save()']", "#shippingoption_0", "#shippingoption_2",
+                "input[onclick='ShippingMethod.save()']", "#paymentmethod_0", "#paymentmethod_1", "input[onclick='PaymentMethod.save()']",
+                "input[onclick='PaymentInfo.save()']", "input[onclick='ConfirmOrder.save()']"}) {
+            Assert.assertNotNull(page.selectFirst(selector), "Checkout element missing: " + selector);
+        }
+
+        Map<String, String> billing = new LinkedHashMap<>();
+        billing.put("billing_address_id", "");
+        billing.put("BillingNewAddress.FirstName", ConfigReader.getProperty("billing.firstname"));
+        Assert.assertTrue(client.postForm("/checkout/OpcSaveBilling/", billing).body().contains("\"error\""), "Incomplete address accepted");
+        billing.put("BillingNewAddress.LastName", ConfigReader.getProperty("billing.lastname"));
+        billing.put("BillingNewAddress.Email", ConfigReader.getProperty("billing.email"));
+        billing.put("BillingNewAddress.CountryId", "1");
+        billing.put("BillingNewAddress.StateProvinceId", "12");
+        billing.put("BillingNewAddress.City", ConfigReader.getProperty("billing.city"));
+        billing.put("BillingNewAddress.Address1", ConfigReader.getProperty("billing.address1"));
+        billing.put("BillingNewAddress.ZipPostalCode", ConfigReader.getProperty("billing.zipcode"));
+        billing.put("BillingNewAddress.PhoneNumber", ConfigReader.getProperty("billing.phone"));
+        String shippingSection = client.postForm("/checkout/OpcSaveBilling/", billing).body();
+        Assert.assertTrue(shippingSection.contains("\"goto_section\":\"shipping\""), shippingSection);
+        Assert.assertTrue(shippingSection.contains("shipping-address-select"), "Shipping section not updated");
+
+        StandInCustomer account = storefront.getAccount(ConfigReader.getEmail());
+        String addressId = String.valueOf(account.getAddresses().size() - 1);
+        Assert.assertTrue(client.postForm("/checkout/OpcSaveShipping/", Map.of("shipping_address_id", addressId)).body()
+                .contains("shipping_method"));
+        Assert.assertTrue(client.postForm("/checkout/OpcSaveShippingMethod/", Map.of("shippingoption", "Next Day Air")).body()
+                .contains("payment_method"));
+        Assert.assertTrue(client.postForm("/checkout/OpcSavePaymentMethod/", Map.of("paymentmethod", "Check / Money Order")).body()
+                .contains("payment_info"));
+        Assert.assertTrue(client.postForm("/checkout/OpcSavePaymentInfo/", Map.of()).body().contains("confirm_order"));
+        Assert.assertTrue(client.postForm("/checkout/OpcConfirmOrder/", Map.of()).body().contains("/checkout/completed/"));
+
+        Document completed = Jsoup.parse(client.get("/checkout/completed/").body());
+        Assert.assertTrue(completed.select(".section.order-completed .title").text().contains("successfully"));
+        String detailsLink = completed.selectFirst(".section.order-completed .details a").attr("href");
+
+        StandInOrder order = account.getOrders().get(account.getOrders().size() - 1);
+        Assert.assertEquals(order.getTotal(), 820.00, 0.001, "Order total must include Next Day Air shipping");
+        Assert.assertTrue(account.getCart().isEmpty(), "Cart not emptied after the order");
+
+        Document details = Jsoup.parse(client.get(detailsLink).body());
+        Assert.assertEquals(details.select(".order-number").text(), "Order #" + order.getId());
+        Assert.assertEquals(details.select(".order-overview .order-total strong").text(), "820.00");
+        Assert.assertEquals(details.select(".billing-info .city-state-zip").text(), "Los Angeles , California 90210");
+        Assert.assertEquals(details.select(".shipping-info .country").text(), "United States");
+        Assert.assertEquals(details.select(".products .data-table .name em a").text(), ConfigReader.getProductName());
+    }
+}
@@ -0,0 +1,80 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.fixtures.StorefrontFixtures;
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInStorefront;
+import com.kiboassessment.utils.ConfigReader;
+import com.kiboassessment.utils.StorefrontClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP fixture tests against the embedded stand-in storefront (no browser required)
+ */
+public class StorefrontFixturesTest {
+    private StandInStorefront storefront;
+    private StorefrontFixtures fixtures;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new StandInStorefront().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        fixtures = new StorefrontFixtures(new StorefrontClient(storefront.getBaseUrl()));
+    }
+
+    @Test(description = "Add product with attributes to cart over HTTP")
+    public void testAddProductToCart() {
+        TestListener.logStep("Adding product to cart over HTTP");
+        fixtures.addProductToCart(ConfigReader.getProductName(), 2);
+
+        List<String> names = fixtures.getCartItemNames();
+        Assert.assertEquals(names.size(), 1, "Unexpected cart size");
+        Assert.assertTrue(names.get(0).contains(ConfigReader.getProductName()), "Product not found in cart");
+    }
+
+    @Test(description = "Clear cart over HTTP")
+    public void testClearCart() {
+        fixtures.addProductToCart("14.1-inch Laptop", 1);
+        fixtures.addProductToCart("Smartphone", 3);
+        Assert.assertEquals(fixtures.getCartItemNames().size(), 2, "Cart not prepared");
+
+        fixtures.clearCart();
+        Assert.assertTrue(fixtures.getCartItemNames().isEmpty(), "Cart not cleared");
+    }
+
+    @Test(description = "Guest cart is kept after login and address is saved to the account")
+    public void testLoginAndAddAddress() {
+        fixtures.addProductToCart("Fiction", 1);
+        fixtures.login().addAddress("billing");
+
+        StandInCustomer account = storefront.getAccount(ConfigReader.getEmail());
+        Assert.assertEquals(account.getCart().size(), 1, "Guest cart not merged on login");
+
+        List<Map<String, String>> addresses = account.getAddresses();
+        Map<String, String> address = addresses.get(addresses.size() - 1);
+        Assert.assertEquals(address.get("Address.FirstName"), ConfigReader.getProperty("billing.firstname"));
+        Assert.assertEquals(address.get("Address.CountryId"), "1", "Country not resolved to id");
+        Assert.assertEquals(address.get("Address.StateProvinceId"), "12", "State not resolved to id");
+        fixtures.clearCart();
+    }
+
+    @Test(description = "Invalid credentials are rejected")
+    public void testLoginFailure() {
+        Assert.assertThrows(IllegalStateException.class, () -> fixtures.login(ConfigReader.getEmail(), "wrong-password"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.deadline.BudgetExhaustedException;
+import com.kiboassessment.health.HealthReport;
+import com.kiboassessment.health.SessionCircuitBreaker;
+import com.kiboassessment.health.SessionGate;
+import com.kiboassessment.health.StorefrontHealthProbe;
+import com.kiboassessment.standin.StandInStorefront;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+/**
+ * Preflight probe and circuit breaker tests (no browser required)
+ */
+public class StorefrontHealthTest {
+
+    @Test(description = "Stand-in storefront passes the preflight probe")
+    public void testHealthyStorefront() {
+        StandInStorefront storefront = new StandInStorefront().start();
+        try {
+            HealthReport report = new StorefrontHealthProbe(storefront.getBaseUrl(), Duration.ofSeconds(5), 5000)
+                    .probe("computer");
+            Assert.assertTrue(report.isHealthy(), report.getSummary());
+            Assert.assertEquals(report.getResults().size(), 3, "Unexpected number of probed endpoints");
+        } finally {
+            storefront.stop();
+        }
+    }
+
+    @Test(description = "Unreachable storefront fails the preflight probe quickly")
+    public void testUnreachableStorefront() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        long start = System.currentTimeMillis();
+        HealthReport report = new StorefrontHealthProbe("http://localhost:" + port + "/", Duration.ofSeconds(2), 5000)
+                .probe("computer");
+        Assert.assertFalse(report.isHealthy(), report.getSummary());
+        Assert.assertTrue(System.currentTimeMillis() - start < 10000, "Probe did not fail fast");
+    }
+
+    @Test(description = "Circuit opens after consecutive failures and half-opens after cool-down")
+    public void testCircuitBreaker() throws Exception {
+        SessionCircuitBreaker breaker = new SessionCircuitBreaker(2, 200);
+        breaker.recordFailure();
+        Assert.assertTrue(breaker.allowSession(), "Circuit opened too early");
+        breaker.recordFailure();
+        Assert.assertEquals(breaker.getState(), SessionCircuitBreaker.State.OPEN);
+        Assert.assertFalse(breaker.allowSession(), "Open circuit allowed a session");
+
+        Thread.sleep(250);
+        Assert.assertTrue(breaker.allowSession(), "Circuit did not half-open after cool-down");
+        breaker.recordFailure();
+        Assert.assertEquals(breaker.getState(), SessionCircuitBreaker.State.OPEN, "Failed trial did not reopen circuit");
+
+        Thread.sleep(250);
+        Assert.assertTrue(breaker.allowSession());
+        breaker.recordSuccess();
+        Assert.assertEquals(breaker.getState(), SessionCircuitBreaker.State.CLOSED);
+    }
+
+    @Test(description = "Only infrastructure failures count towards the circuit breaker")
+    public void testFailureClassification() {
+        Assert.assertTrue(SessionGate.isInfrastructureFailure(new SessionNotCreatedException("Chrome failed to start")));
+        Assert.assertTrue(SessionGate.isInfrastructureFailure(new NoSuchSessionException("invalid session id")));
+        Assert.assertTrue(SessionGate.isInfrastructureFailure(new UnreachableBrowserException("grid down")));
+        Assert.assertTrue(SessionGate.isInfrastructureFailure(new RuntimeException(new java.net.ConnectException())));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(new TimeoutException("timed out")));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(new NoSuchElementException("no .cart-qty")));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(new StaleElementReferenceException("stale")));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(
+                new BudgetExhaustedException("Time budget exhausted", "Checkout", new TimeoutException("timed out"))));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(new java.io.IOException("Storefront returned 500")));
+        Assert.assertFalse(SessionGate.isInfrastructureFailure(new AssertionError("Login failed")));
+    }
+}
@@ -0,0 +1,34 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.accounts.AccountPool;
+import com.kiboassessment.listeners.TestListener;
+import com.kiboassessment.load.LoadProfile;
+import com.kiboassessment.load.LoadRunner;
+import com.kiboassessment.load.LoadSummary;
+import com.kiboassessment.load.PurchaseUserFlow;
+import com.kiboassessment.utils.ConfigReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Synthetic-user load on the purchase flow, run with: mvn test -Pload
+ */
+public class SyntheticLoadTest {
+
+    @Test(description = "Purchase flow under synthetic user load")
+    public void testPurchaseFlowUnderLoad() {
+        LoadProfile profile = LoadProfile.fromConfig();
+        TestListener.logStep("Running synthetic load: " + profile);
+
+        LoadSummary summary = new LoadRunner(profile, PurchaseUserFlow::new).run();
+        summary.writeJson(ConfigReader.getProperty("load.report.path"));
+        TestListener.logInfo("<pre>" + summary.toText() + "</pre>");
+        if (AccountPool.isEnabled()) {
+            TestListener.logInfo("<pre>" + AccountPool.forStorefront().toText() + "</pre>");
+        }
+
+        double maxErrorRate = Double.parseDouble(ConfigReader.getProperty("load.max.error.rate"));
+        Assert.assertTrue(summary.getErrorRate() <= maxErrorRate,
+                "Error rate " + summary.getErrorRate() + " exceeds " + maxErrorRate);
+    }
+}
@@ -0,0 +1,109 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.deadline.BudgetExhaustedException;
+import com.kiboassessment.deadline.Deadline;
+import com.kiboassessment.deadline.TimeBudget;
+import com.kiboassessment.fake.FakeWebDriver;
+import com.kiboassessment.pages.CartPage;
+import com.kiboassessment.standin.StandInCatalog;
+import com.kiboassessment.standin.StandInCustomer;
+import com.kiboassessment.standin.StandInPages;
+import com.kiboassessment.utils.TestUtils;
+import com.kiboassessment.utils.WebDriverManagerUtil;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Test and step time budgets capping waits against the fake driver
+ */
+public class TimeBudgetTest {
+    private FakeWebDriver driver;
+
+    @BeforeMethod
+    public void setUp() {
+        driver = new FakeWebDriver();
+        StandInCatalog catalog = new StandInCatalog();
+        StandInPages pages = new StandInPages(catalog);
+        StandInCustomer customer = new StandInCustomer();
+        customer.addToCart(1, catalog.getProducts().get(0), 1);
+        driver.load("http://fake.test/cart", pages.layout("Shopping Cart", customer, pages.cart(customer)));
+        WebDriverManagerUtil.setDriver(driver);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        Deadline.finish();
+        WebDriverManagerUtil.setDriver(null);
+    }
+
+    @Test(description = "A 40 s wait for a missing element fails once the step budget runs out, naming the step")
+    public void testStepBudgetCapsWaits() {
+        Deadline.start("TimeBudgetTest.steps", 60_000, 400);
+        Deadline.step("Wait for cart rows");
+        long start = System.currentTimeMillis();
+        BudgetExhaustedException error = Assert.expectThrows(BudgetExhaustedException.class,
+                () -> TestUtils.waitForElementPresent(By.cssSelector(".no-such-element"), 40));
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertTrue(elapsed < 5000, "Wait took " + elapsed + " ms");
+        Assert.assertEquals(error.getStep(), "Wait for cart rows");
+        Assert.assertTrue(error.getMessage().contains("Time budget exhausted in step 'Wait for cart rows'"), error.getMessage());
+        Assert.assertTrue(error.getMessage().contains("400 ms budget"), error.getMessage());
+
+        // The next step gets a fresh step budget; page waits that succeed are unaffected
+        Deadline.step("Read cart");
+        new CartPage().waitForCartToLoad();
+        Assert.assertTrue(Deadline.current().getRemainingMs() > 0);
+    }
+
+    @Test(description = "Once the test budget is used up every later step and wait fails at once")
+    public void testTestBudgetExhausted() throws InterruptedException {
+        Deadline.start("TimeBudgetTest.test", 200, 0);
+        Deadline.step("Open cart");
+        Thread.sleep(250);
+
+        BudgetExhaustedException error = Assert.expectThrows(BudgetExhaustedException.class, () -> Deadline.step("Checkout"));
+        Assert.assertTrue(error.getMessage().contains("in step 'Checkout' of TimeBudgetTest.test: test used"), error.getMessage());
+        long start = System.currentTimeMillis();
+        Assert.assertThrows(BudgetExhaustedException.class,
+                () -> WebDriverManagerUtil.getWait().until(page -> false));
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+
+        Assert.assertTrue(Deadline.finish() >= 200);
+        Assert.assertNull(Deadline.current());
+        Assert.assertEquals(Deadline.cap(Duration.ofSeconds(40)), Duration.ofSeconds(40));
+    }
+
+    @Test(description = "Page object element calls outside TestUtils waits also stop once the step budget runs out")
+    public void testPageFactoryLookupsBudgeted() throws InterruptedException {
+        Deadline.start("TimeBudgetTest.lookups", 60_000, 300);
+        Deadline.step("Count cart rows");
+        CartPage cartPage = new CartPage();
+        Assert.assertEquals(cartPage.getNumberOfCartItems(), 1);
+        Thread.sleep(350);
+
+        BudgetExhaustedException error = Assert.expectThrows(BudgetExhaustedException.class, cartPage::getNumberOfCartItems);
+        Assert.assertEquals(error.getStep(), "Count cart rows");
+
+        // Once the budget is finished, lookups run unrestricted again
+        Deadline.finish();
+        Assert.assertEquals(new CartPage().getNumberOfCartItems(), 1);
+    }
+
+    @TimeBudget(seconds = 30, stepSeconds = 5)
+    @Test(description = "The TimeBudget annotation of a test overrides the configured budgets")
+    public void testAnnotatedBudget() {
+        Deadline deadline = Deadline.start(Reporter.getCurrentTestResult());
+        Assert.assertNotNull(deadline);
+        Deadline.step("Annotated step");
+        Assert.assertTrue(deadline.getRemainingMs() <= 5000 && deadline.getRemainingMs() > 4000,
+                "Remaining: " + deadline.getRemainingMs());
+        Assert.assertEquals(Deadline.cap(Duration.ofSeconds(40)).toMillis(), deadline.getRemainingMs(), 100);
+    }
+}
@@ -0,0 +1,85 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.replay.ArchivedResponse;
+import com.kiboassessment.replay.TrafficArchive;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Traffic archive matching tests (no browser required)
+ */
+public class TrafficArchiveTest {
+    private static final String SHOP = "https://shop.example";
+
+    @Test(description = "Replayed requests match recorded responses in order, tolerating dynamic query parameters")
+    public void testMatching() throws Exception {
+        TrafficArchive recorded = new TrafficArchive(Set.of("_"));
+        recorded.add(response("GET", SHOP + "/cart", 200, "empty"));
+        recorded.add(response("POST", SHOP + "/addproducttocart/details/72/1", 200, "{\"success\":true}"));
+        recorded.add(response("GET", SHOP + "/cart", 200, "one item"));
+        recorded.add(response("GET", SHOP + "/search?q=computer&_=1712345678901", 200, "results"));
+        recorded.add(response("GET", SHOP + "/checkout/confirm?orderGuid=3f2a9c81d4e6b7a0c5f1e2d3a4b5c6d7", 200, "confirm"));
+        recorded.add(response("GET", SHOP + "/product?id=5", 200, "product"));
+
+        File file = Files.createTempFile("archive", ".json").toFile();
+        try {
+            recorded.save(file);
+            TrafficArchive archive = TrafficArchive.load(file, Set.of("_"));
+            Assert.assertEquals(archive.size(), 6);
+
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/cart")), "empty");
+            Assert.assertEquals(body(archive.match("POST", SHOP + "/addproducttocart/details/72/1")), "{\"success\":true}");
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/cart")), "one item");
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/cart")), "one item", "Last response not repeated");
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/search?_=1799999999999&q=computer")), "results");
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/checkout/confirm?orderGuid=9b8a7c6d5e4f3a2b1c0d9e8f7a6b5c4d")), "confirm");
+            Assert.assertEquals(archive.getExactMatches(), 6);
+
+            Assert.assertEquals(body(archive.match("GET", SHOP + "/product?id=6")), "product", "Path fallback not used");
+            Assert.assertEquals(archive.getLooseMatches(), 1);
+
+            Assert.assertNull(archive.match("GET", SHOP + "/wishlist"));
+            Assert.assertNull(archive.match("POST", SHOP + "/cart"));
+            Assert.assertEquals(archive.getUnmatched(), List.of("GET " + SHOP + "/wishlist", "POST " + SHOP + "/cart"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(description = "Session recordings are merged in order into one run archive")
+    public void testMergeSessions() {
+        TrafficArchive first = new TrafficArchive(Set.of());
+        first.add(response("GET", SHOP + "/", 200, "home"));
+        first.add(response("GET", SHOP + "/cart", 200, "empty"));
+        TrafficArchive resumed = new TrafficArchive(Set.of());
+        resumed.add(response("GET", SHOP + "/cart", 200, "one item"));
+
+        TrafficArchive run = new TrafficArchive(Set.of());
+        run.addAll(first);
+        run.addAll(resumed);
+
+        Assert.assertEquals(run.size(), 3);
+        Assert.assertEquals(body(run.match("GET", SHOP + "/")), "home");
+        Assert.assertEquals(body(run.match("GET", SHOP + "/cart")), "empty");
+        Assert.assertEquals(body(run.match("GET", SHOP + "/cart")), "one item");
+        Assert.assertEquals(first.size(), 2, "Merged archive changed");
+    }
+
+    private static ArchivedResponse response(String method, String url, int status, String body) {
+        return new ArchivedResponse(method, url, status, List.of(Map.of("name", "Content-Type", "value", "text/html")),
+                Base64.getEncoder().encodeToString(body.getBytes()));
+    }
+
+    private static String body(ArchivedResponse response) {
+        Assert.assertNotNull(response, "No response matched");
+        Assert.assertEquals(response.getHeaders().get(0).get("value"), "text/html");
+        return new String(Base64.getDecoder().decode(response.getBody()));
+    }
+}
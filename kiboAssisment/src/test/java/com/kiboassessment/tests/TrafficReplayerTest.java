@@ -0,0 +1,54 @@
+package com.kiboassessment.tests;
+
+import com.kiboassessment.replay.ArchivedResponse;
+import com.kiboassessment.replay.TrafficArchive;
+import com.kiboassessment.replay.TrafficReplayer;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Traffic replayer tests answering Fetch.requestPaused events through a stubbed DevTools send
+ */
+public class TrafficReplayerTest {
+    private static final String SHOP = "https://shop.example";
+
+    @Test(description = "Paused requests are fulfilled from the archive, failed when unmatched and failed when fulfilling throws")
+    public void testRequestPaused() {
+        TrafficArchive archive = new TrafficArchive(Set.of());
+        archive.add(new ArchivedResponse("GET", SHOP + "/cart", 200, List.of(Map.of("name", "Content-Type", "value", "text/html")),
+                Base64.getEncoder().encodeToString("cart".getBytes())));
+        archive.add(new ArchivedResponse("GET", SHOP + "/broken.css", 200, List.of(), ""));
+        List<String> commands = new ArrayList<>();
+        List<Map<String, Object>> sent = new ArrayList<>();
+        TrafficReplayer replayer = new TrafficReplayer(archive, (method, params) -> {
+            commands.add(method + " " + params.get("requestId"));
+            sent.add(params);
+            if (method.equals("Fetch.fulfillRequest") && params.get("requestId").equals("3")) {
+                throw new DevToolsException("Invalid InterceptionId");
+            }
+        });
+
+        replayer.onRequestPaused(paused("1", "GET", SHOP + "/cart"));
+        replayer.onRequestPaused(paused("2", "GET", SHOP + "/wishlist"));
+        replayer.onRequestPaused(paused("3", "GET", SHOP + "/broken.css"));
+
+        Assert.assertEquals(commands, List.of("Fetch.fulfillRequest 1", "Fetch.failRequest 2",
+                "Fetch.fulfillRequest 3", "Fetch.failRequest 3"));
+        Assert.assertEquals(sent.get(0).get("responseCode"), 200);
+        Assert.assertEquals(sent.get(0).get("body"), Base64.getEncoder().encodeToString("cart".getBytes()));
+        Assert.assertEquals(sent.get(1).get("errorReason"), "InternetDisconnected");
+        Assert.assertEquals(sent.get(3).get("errorReason"), "Failed");
+        Assert.assertEquals(archive.getUnmatched(), List.of("GET " + SHOP + "/wishlist", "GET " + SHOP + "/broken.css"));
+    }
+
+    private static Map<String, Object> paused(String requestId, String method, String url) {
+        return Map.of("requestId", requestId, "request", Map.of("method", method, "url", url));
+    }
+}